@@ -31,10 +31,13 @@ package schemacrawler.crawl;
 import static us.fatehi.utility.Utility.isBlank;
 import static us.fatehi.utility.Utility.trimToEmpty;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import schemacrawler.schema.AttributedObject;
@@ -47,7 +50,12 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
 
   private static final long serialVersionUID = -1486322887991472729L;
 
-  private final Map<String, Object> attributeMap;
+  // Serialized as a map of attributes, as in earlier versions
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("attributeMap", Map.class)
+  };
+
+  private transient AttributeStore attributeMap;
 
   /**
    * Effective Java - Item 17 - Minimize Mutability - Package-private constructors make a class
@@ -57,7 +65,7 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
    */
   AbstractNamedObjectWithAttributes(final String name) {
     super(name);
-    attributeMap = new ConcurrentHashMap<>();
+    attributeMap = new AttributeStore();
   }
 
   /** {@inheritDoc} */
@@ -70,13 +78,17 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
   @Override
   public final <T> T getAttribute(final String name, final T defaultValue)
       throws ClassCastException {
-    return (T) attributeMap.getOrDefault(name, defaultValue);
+    final Object value = attributeMap.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    return (T) value;
   }
 
   /** {@inheritDoc} */
   @Override
   public final Map<String, Object> getAttributes() {
-    return new TreeMap<>(attributeMap);
+    return attributeMap.toMap();
   }
 
   /** {@inheritDoc} */
@@ -139,7 +151,7 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
     if (values == null) {
       return;
     }
-    // Check for null entries, since concurrent hash map does not allow them
+    // Check for null entries, since the attribute store does not allow them
     for (final Entry<String, Object> entry : values.entrySet()) {
       final String key = entry.getKey();
       final Object value = entry.getValue();
@@ -148,4 +160,16 @@ abstract class AbstractNamedObjectWithAttributes extends AbstractNamedObject
       }
     }
   }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final Map<String, Object> attributes =
+        (Map<String, Object>) in.readFields().get("attributeMap", null);
+    attributeMap = new AttributeStore();
+    addAttributes(attributes);
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.putFields().put("attributeMap", new ConcurrentHashMap<>(attributeMap.toMap()));
+    out.writeFields();
+  }
 }
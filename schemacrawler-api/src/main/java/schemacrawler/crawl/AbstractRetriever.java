@@ -31,12 +31,23 @@ package schemacrawler.crawl;
 import static java.util.Objects.requireNonNull;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSchemaInclusion;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
+import static us.fatehi.utility.TemplatingUtility.expandTemplate;
+import static us.fatehi.utility.TemplatingUtility.extractTemplateVariables;
 import static us.fatehi.utility.Utility.isBlank;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,17 +57,43 @@ import schemacrawler.schema.DatabaseObject;
 import schemacrawler.schema.JavaSqlType;
 import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
+import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.Retriever;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaReference;
+import schemacrawler.schemacrawler.exceptions.ExecutionRuntimeException;
+import schemacrawler.schemacrawler.exceptions.SchemaCrawlerException;
 import schemacrawler.utility.TypeMap;
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskRunner;
+import us.fatehi.utility.scheduler.TaskRunners;
+import us.fatehi.utility.string.StringFormat;
 
 /** Base class for retriever that uses database metadata to get the details about the schema. */
 @Retriever
 abstract class AbstractRetriever {
 
+  /** Handles the results of a data dictionary query, or of one partition of the query. */
+  @FunctionalInterface
+  interface MetadataResultsHandler {
+    void handle(MetadataResultSet results) throws SQLException;
+  }
+
   private static final Logger LOGGER = Logger.getLogger(AbstractRetriever.class.getName());
 
+  private static final String PARTITION = "partition";
+  private static final String PARTITION_CATALOG = "partitioncatalog";
+  private static final String PARTITION_SCHEMA = "partitionschema";
+  private static final String PARTITIONS = "partitions";
+
+  /** Escapes a name for use in a SQL string literal, where a null name is left empty. */
+  private static String escapeSqlLiteral(final String name) {
+    if (name == null) {
+      return "";
+    }
+    return name.replace("'", "''");
+  }
+
   final MutableCatalog catalog;
   private final SchemaCrawlerOptions options;
   private final RetrieverConnection retrieverConnection;
@@ -102,10 +139,136 @@ abstract class AbstractRetriever {
     return belongsToCatalog && belongsToSchema;
   }
 
+  /**
+   * Creates a statement for a data dictionary query, that is subject to the query timeout for the
+   * retrieval, and that is cancelled if the crawl is cancelled.
+   *
+   * @param connection Connection to create the statement on
+   * @return New statement
+   * @throws SQLException On an exception, or if the crawl was cancelled
+   */
+  final Statement createStatement(final Connection connection) throws SQLException {
+    return retrieverConnection.createStatement(connection);
+  }
+
+  /**
+   * Runs a data dictionary query, with a fetch size that is adapted to the number of rows that the
+   * query is expected to return. The number of rows is recorded when the results are closed.
+   *
+   * @param query Data dictionary query
+   * @param statement Statement to run the query on
+   * @return Results of the query
+   * @throws SQLException On an exception
+   */
+  final MetadataResultSet executeAgainstSchema(final Query query, final Statement statement)
+      throws SQLException {
+    requireNonNull(query, "No query provided");
+    requireNonNull(statement, "No statement provided");
+
+    final FetchSizeController fetchSizeController = retrieverConnection.getFetchSizeController();
+    final int fetchSize = fetchSizeController.getFetchSize(query);
+    try {
+      statement.setFetchSize(fetchSize);
+    } catch (final SQLException e) {
+      LOGGER.log(Level.FINE, e, new StringFormat("Could not set fetch size to %d", fetchSize));
+    }
+
+    final MetadataResultSet results = new MetadataResultSet(query, statement, getLimitMap());
+    results.setFetchSize(
+        fetchSizeController.getFetchSize(query, fetchSize, results.getResultsColumns()));
+    results.setRowCountListener(rowCount -> fetchSizeController.recordRowCount(query, rowCount));
+    retrieverConnection.getStringPool().ifPresent(results::setStringPool);
+    return results;
+  }
+
+  /**
+   * Runs a data dictionary query, which may be split into partitions that run concurrently, each
+   * on its own connection. A query that uses the ${partitions} template variable is split into as
+   * many partitions as the maximum number of threads for the crawl, and ${partition} is the
+   * partition number, counting from zero - for example, to partition on a hash of the table name.
+   * A query that uses only the ${partition} template variable is split into a partition for each
+   * schema, and ${partition} is the schema name, or the catalog name for databases that do not
+   * support schemas. Such queries can also use ${partitioncatalog} and ${partitionschema}, to tell
+   * apart schemas with the same name in different catalogs. Other queries are not partitioned.
+   *
+   * @param query Data dictionary query
+   * @param handler Handler for the results of each partition, which may be called concurrently
+   * @throws SQLException On an exception
+   */
+  final void executeAgainstSchemaPartitioned(
+      final Query query, final MetadataResultsHandler handler) throws SQLException {
+    requireNonNull(query, "No query provided");
+    requireNonNull(handler, "No results handler provided");
+
+    final List<Query> partitionQueries = partitionQuery(query);
+    if (partitionQueries.isEmpty()) {
+      LOGGER.log(
+          Level.INFO, new StringFormat("No partitions to run for query <%s>", query.getName()));
+      return;
+    }
+    if (partitionQueries.size() == 1) {
+      executeAgainstSchema(partitionQueries.get(0), handler);
+      return;
+    }
+
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Running query <%s> in <%d> partitions", query.getName(), partitionQueries.size()));
+    final int maxThreads =
+        Math.min(partitionQueries.size(), options.getLoadOptions().getMaxThreads());
+    try (final TaskRunner taskRunner =
+        TaskRunners.getTaskRunner("partitioned-" + query.getName(), maxThreads); ) {
+      for (int i = 0; i < partitionQueries.size(); i++) {
+        final Query partitionQuery = partitionQueries.get(i);
+        taskRunner.add(
+            new TaskDefinition(
+                String.format("%s-partition-%d", query.getName(), i),
+                // Partitions are subject to the same query timeout as the retrieval that runs them
+                retrieverConnection.withCurrentQueryTimeout(
+                    () -> executeAgainstSchema(partitionQuery, handler))));
+      }
+      taskRunner.submit();
+    } catch (final SQLException | SchemaCrawlerException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new ExecutionRuntimeException(e.getMessage(), e);
+    }
+  }
+
   final NamedObjectList<SchemaReference> getAllSchemas() {
     return catalog.getAllSchemas();
   }
 
+  /**
+   * Gets unread metadata columns from the current row of the result set as attributes, restricted
+   * to those that are included by the load options.
+   *
+   * @param results Metadata result set, positioned at a row
+   * @return Map of additional attributes to the database object
+   */
+  final Map<String, Object> getAttributes(final MetadataResultSet results) {
+    return results.getAttributes(options.getLoadOptions().getAttributesInclusionRule());
+  }
+
+  /**
+   * Groups database objects by schema, so that metadata for all the database objects in a schema
+   * can be retrieved with a single call.
+   *
+   * @param dbObjects Database objects to group
+   * @return Database objects, grouped by schema, in the original order
+   */
+  final <D extends DatabaseObject> Map<Schema, List<D>> groupBySchema(
+      final Iterable<D> dbObjects) {
+    final Map<Schema, List<D>> dbObjectsBySchema = new LinkedHashMap<>();
+    for (final D dbObject : dbObjects) {
+      dbObjectsBySchema
+          .computeIfAbsent(dbObject.getSchema(), schema -> new ArrayList<>())
+          .add(dbObject);
+    }
+    return dbObjectsBySchema;
+  }
+
   final Map<String, InclusionRule> getLimitMap() {
     final Map<String, InclusionRule> limitMap = new HashMap<>();
     limitMap.put("schema-inclusion-rule", options.getLimitOptions().get(ruleForSchemaInclusion));
@@ -173,7 +336,8 @@ abstract class AbstractRetriever {
     MutableColumnDataType columnDataType =
         catalog
             .lookupColumnDataType(schema, databaseSpecificTypeName)
-            .orElse(catalog.lookupSystemColumnDataType(databaseSpecificTypeName).orElse(null));
+            .orElseGet(
+                () -> catalog.lookupSystemColumnDataType(databaseSpecificTypeName).orElse(null));
     // Create new data type, if needed
     if (columnDataType == null) {
       columnDataType = new MutableColumnDataType(schema, databaseSpecificTypeName, type);
@@ -212,6 +376,22 @@ abstract class AbstractRetriever {
     return catalog.lookupTable(new NamedObjectKey(catalogName, schemaName, tableName));
   }
 
+  /**
+   * Wraps the results of a database metadata call, sharing identifier-like values with the rest of
+   * the crawl.
+   *
+   * @param resultSet Results of a database metadata call
+   * @param description Description of the results, for logging
+   * @return Metadata result set
+   * @throws SQLException On an exception
+   */
+  final MetadataResultSet newMetadataResultSet(
+      final ResultSet resultSet, final String description) throws SQLException {
+    final MetadataResultSet results = new MetadataResultSet(resultSet, description);
+    retrieverConnection.getStringPool().ifPresent(results::setStringPool);
+    return results;
+  }
+
   final String normalizeCatalogName(final String name) {
     if (retrieverConnection.isSupportsCatalogs()) {
       return name;
@@ -227,4 +407,68 @@ abstract class AbstractRetriever {
       return null;
     }
   }
+
+  /**
+   * Splits a data dictionary query into partitions, by expanding the partition template variables.
+   * For partitions by schema, ${partitioncatalog} and ${partitionschema} are the catalog and schema
+   * names, and partitions that expand to the same query are only run once. Names are escaped for
+   * use in SQL string literals.
+   *
+   * @param query Data dictionary query
+   * @return Queries for each partition, or just the original query if it is not partitioned
+   */
+  final List<Query> partitionQuery(final Query query) {
+    final String sql = query.getQuery();
+    final Set<String> templateVariables = extractTemplateVariables(sql);
+
+    final List<Map<String, String>> partitions = new ArrayList<>();
+    if (templateVariables.contains(PARTITIONS)) {
+      final int partitionCount = options.getLoadOptions().getMaxThreads();
+      for (int partition = 0; partition < partitionCount; partition++) {
+        final Map<String, String> partitionMap = new HashMap<>();
+        partitionMap.put(PARTITION, String.valueOf(partition));
+        partitionMap.put(PARTITIONS, String.valueOf(partitionCount));
+        partitions.add(partitionMap);
+      }
+    } else if (templateVariables.contains(PARTITION)
+        || templateVariables.contains(PARTITION_CATALOG)
+        || templateVariables.contains(PARTITION_SCHEMA)) {
+      for (final SchemaReference schema : getAllSchemas()) {
+        final String catalogName = schema.getCatalogName();
+        final String schemaName = schema.getName();
+        final String partitionName = schemaName != null ? schemaName : catalogName;
+        if (partitionName == null) {
+          continue;
+        }
+        final Map<String, String> partitionMap = new HashMap<>();
+        partitionMap.put(PARTITION, escapeSqlLiteral(partitionName));
+        partitionMap.put(PARTITION_CATALOG, escapeSqlLiteral(catalogName));
+        partitionMap.put(PARTITION_SCHEMA, escapeSqlLiteral(schemaName));
+        partitions.add(partitionMap);
+      }
+    } else {
+      return Collections.singletonList(query);
+    }
+
+    // Partitions that expand to the same query, such as for schemas with the same name in
+    // different catalogs, are only run once
+    final Set<String> partitionSqls = new LinkedHashSet<>();
+    for (final Map<String, String> partition : partitions) {
+      partitionSqls.add(expandTemplate(sql, partition));
+    }
+    final List<Query> partitionQueries = new ArrayList<>();
+    for (final String partitionSql : partitionSqls) {
+      partitionQueries.add(new Query(query.getName(), partitionSql));
+    }
+    return partitionQueries;
+  }
+
+  private void executeAgainstSchema(final Query query, final MetadataResultsHandler handler)
+      throws SQLException {
+    try (final Connection connection = retrieverConnection.getConnection();
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(query, statement); ) {
+      handler.handle(results);
+    }
+  }
 }
@@ -0,0 +1,200 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact storage for the attributes of a named object. Most objects have only a few attributes,
+ * with the same names as those of other objects, so attribute names are shared through a global
+ * dictionary, and the attributes are kept in a small array of names and values. An object that has
+ * many attributes keeps them in a map instead. Attribute names and values cannot be null.
+ */
+final class AttributeStore {
+
+  // The entries start with room for this many attributes, and double until they are full
+  private static final int INITIAL_COMPACT_ATTRIBUTES = 2;
+  // Objects with more attributes than this keep them in a map
+  private static final int MAX_COMPACT_ATTRIBUTES = 8;
+  // Attribute names beyond this are not shared, so that the dictionary stays bounded
+  private static final int MAX_SHARED_NAMES = 10_000;
+
+  private static final Object[] NO_ENTRIES = new Object[0];
+
+  private static final Map<String, String> sharedNames = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the shared instance of an attribute name, from the global dictionary of names.
+   *
+   * @param name Attribute name
+   * @return Shared attribute name
+   */
+  static String sharedName(final String name) {
+    final String sharedName = sharedNames.get(name);
+    if (sharedName != null) {
+      return sharedName;
+    }
+    if (sharedNames.size() >= MAX_SHARED_NAMES) {
+      return name;
+    }
+    final String previousName = sharedNames.putIfAbsent(name, name);
+    if (previousName == null) {
+      return name;
+    }
+    return previousName;
+  }
+
+  // Attribute names and values, one after the other, for the first size attributes
+  private Object[] entries;
+  private int size;
+  // Attributes, once there are too many to keep in the entries
+  private Map<String, Object> attributes;
+
+  AttributeStore() {
+    entries = NO_ENTRIES;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return toMap().toString();
+  }
+
+  synchronized boolean containsKey(final String name) {
+    if (attributes != null) {
+      return attributes.containsKey(name);
+    }
+    return indexOf(name) >= 0;
+  }
+
+  synchronized Object get(final String name) {
+    if (attributes != null) {
+      return attributes.get(name);
+    }
+    final int index = indexOf(name);
+    if (index < 0) {
+      return null;
+    }
+    return entries[index + 1];
+  }
+
+  synchronized void put(final String name, final Object value) {
+    requireNonNull(name, "No attribute name provided");
+    requireNonNull(value, "No attribute value provided");
+
+    if (attributes != null) {
+      attributes.put(sharedName(name), value);
+      return;
+    }
+
+    final int index = indexOf(name);
+    if (index >= 0) {
+      entries[index + 1] = value;
+      return;
+    }
+
+    if (size == MAX_COMPACT_ATTRIBUTES) {
+      attributes = new HashMap<>();
+      for (int i = 0; i < size * 2; i = i + 2) {
+        attributes.put((String) entries[i], entries[i + 1]);
+      }
+      attributes.put(sharedName(name), value);
+      entries = NO_ENTRIES;
+      size = 0;
+      return;
+    }
+
+    // Grow the entries from a small array, so that objects with few attributes stay small, and
+    // objects with more attributes do not allocate a new array for every attribute
+    if (entries.length == size * 2) {
+      final int capacity =
+          size == 0 ? INITIAL_COMPACT_ATTRIBUTES : Math.min(size * 2, MAX_COMPACT_ATTRIBUTES);
+      entries = Arrays.copyOf(entries, capacity * 2);
+    }
+    entries[size * 2] = sharedName(name);
+    entries[size * 2 + 1] = value;
+    size = size + 1;
+  }
+
+  synchronized void remove(final String name) {
+    if (attributes != null) {
+      attributes.remove(name);
+      return;
+    }
+
+    final int index = indexOf(name);
+    if (index < 0) {
+      return;
+    }
+    size = size - 1;
+    System.arraycopy(entries, index + 2, entries, index, size * 2 - index);
+    entries[size * 2] = null;
+    entries[size * 2 + 1] = null;
+  }
+
+  /**
+   * Copies the attributes into a new map, sorted by attribute name.
+   *
+   * @return Attributes, sorted by name
+   */
+  synchronized Map<String, Object> toMap() {
+    if (attributes != null) {
+      return new TreeMap<>(attributes);
+    }
+    final Map<String, Object> map = new TreeMap<>();
+    for (int i = 0; i < size * 2; i = i + 2) {
+      map.put((String) entries[i], entries[i + 1]);
+    }
+    return map;
+  }
+
+  /**
+   * Finds the index of an attribute name in the entries. Shared names are mostly found by identity,
+   * without comparing characters.
+   *
+   * @param name Attribute name
+   * @return Index of the name in the entries, or -1 if the attribute is not present
+   */
+  private int indexOf(final String name) {
+    if (name == null) {
+      return -1;
+    }
+    for (int i = 0; i < size * 2; i = i + 2) {
+      if (name.equals(entries[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,286 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ColumnReference;
+import schemacrawler.schema.DatabaseObject;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.PartialDatabaseObject;
+import schemacrawler.schema.Synonym;
+import schemacrawler.schema.Table;
+import schemacrawler.schema.TableConstraint;
+import schemacrawler.schema.WeakAssociation;
+import schemacrawler.schemacrawler.Identifiers;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Merges database objects that did not change from a previous catalog into a catalog of the
+ * database objects that changed. References between the changed and unchanged database objects
+ * are linked again, so that the merged catalog is the same as a catalog from a full crawl.
+ */
+final class CatalogMerger {
+
+  private static final Logger LOGGER = Logger.getLogger(CatalogMerger.class.getName());
+
+  private final MutableCatalog catalog;
+  private final Identifiers identifiers;
+
+  /**
+   * Merges into a catalog of database objects that changed.
+   *
+   * @param catalog Catalog of database objects that changed
+   * @param identifiers Identifiers for quoting names of linked database objects
+   */
+  CatalogMerger(final MutableCatalog catalog, final Identifiers identifiers) {
+    this.catalog = requireNonNull(catalog, "No catalog provided");
+    this.identifiers = requireNonNull(identifiers, "No identifiers provided");
+  }
+
+  /**
+   * Adds the unchanged database objects from a previous catalog, and links references between
+   * database objects again.
+   *
+   * @param tables Unchanged tables
+   * @param routines Unchanged routines
+   * @param sequences Unchanged sequences
+   */
+  void merge(
+      final Collection<MutableTable> tables,
+      final Collection<MutableRoutine> routines,
+      final Collection<MutableSequence> sequences) {
+    requireNonNull(tables, "No tables provided");
+    requireNonNull(routines, "No routines provided");
+    requireNonNull(sequences, "No sequences provided");
+
+    final List<MutableTable> changedTables = new ArrayList<>(catalog.getAllTables().values());
+    for (final MutableTable table : tables) {
+      catalog.addTable(table);
+    }
+    for (final MutableRoutine routine : routines) {
+      catalog.addRoutine(routine);
+    }
+    for (final MutableSequence sequence : sequences) {
+      catalog.addSequence(sequence);
+    }
+
+    // Unchanged tables still reference the previous versions of tables that changed
+    final Set<MutableTable> unchangedTables = Collections.newSetFromMap(new IdentityHashMap<>());
+    unchangedTables.addAll(tables);
+    for (final MutableTable table : unchangedTables) {
+      removeStaleReferences(table);
+    }
+    // Changed tables reference unchanged tables as partial tables
+    for (final MutableTable table : changedTables) {
+      for (final ForeignKey foreignKey : table.getForeignKeys()) {
+        linkForeignKey((MutableForeignKey) foreignKey);
+      }
+    }
+    for (final MutableTable table : unchangedTables) {
+      removeStaleTableConstraints(table);
+    }
+
+    for (final MutableTable table : catalog.getAllTables()) {
+      if (table instanceof MutableView) {
+        linkTableUsage((MutableView) table);
+      }
+    }
+    for (final Synonym synonym : catalog.getSynonyms()) {
+      linkSynonym((MutableSynonym) synonym);
+    }
+
+    final TablesGraph tablesGraph = new TablesGraph(catalog.getAllTables());
+    tablesGraph.setTablesSortIndexes();
+  }
+
+  /**
+   * Checks whether a table is a different version of a table in the merged catalog, or is not in
+   * the merged catalog at all. Partial tables are not in the catalog, unless the table was
+   * included in the crawl since.
+   */
+  private boolean isStale(final Table table) {
+    final Optional<MutableTable> currentTable = catalog.lookupTable(table.key());
+    if (table instanceof PartialDatabaseObject) {
+      return currentTable.isPresent();
+    }
+    return !currentTable.isPresent() || currentTable.get() != table;
+  }
+
+  private void linkForeignKey(final MutableForeignKey foreignKey) {
+    MutableForeignKey linkedForeignKey = null;
+    boolean hasPartialColumn = false;
+    for (final ColumnReference columnReference : foreignKey) {
+      final Column fkColumn = columnReference.getForeignKeyColumn();
+      final Column pkColumn = columnReference.getPrimaryKeyColumn();
+      hasPartialColumn =
+          hasPartialColumn
+              || fkColumn instanceof PartialDatabaseObject
+              || pkColumn instanceof PartialDatabaseObject;
+
+      final Optional<MutableColumn> linkedFkColumn = lookupColumn(fkColumn);
+      final Optional<MutableColumn> linkedPkColumn = lookupColumn(pkColumn);
+      if (!linkedFkColumn.isPresent() || !linkedPkColumn.isPresent()) {
+        // Foreign key references a table that was not crawled
+        return;
+      }
+
+      final ColumnReference linkedColumnReference =
+          new ImmutableColumnReference(
+              columnReference.getKeySequence(), linkedFkColumn.get(), linkedPkColumn.get());
+      if (linkedForeignKey == null) {
+        linkedForeignKey = new MutableForeignKey(foreignKey.getName(), linkedColumnReference);
+      } else {
+        linkedForeignKey.addColumnReference(linkedColumnReference);
+      }
+    }
+    if (linkedForeignKey == null || !hasPartialColumn) {
+      return;
+    }
+
+    LOGGER.log(
+        Level.FINER, new StringFormat("Linking foreign key <%s> to unchanged tables", foreignKey));
+
+    linkedForeignKey.setUpdateRule(foreignKey.getUpdateRule());
+    linkedForeignKey.setDeleteRule(foreignKey.getDeleteRule());
+    linkedForeignKey.setDeferrability(foreignKey.getDeferrability());
+    linkedForeignKey.setRemarks(foreignKey.getRemarks());
+    linkedForeignKey.addAttributes(foreignKey.getAttributes());
+    linkedForeignKey.appendDefinition(foreignKey.getDefinition());
+    linkedForeignKey.withQuoting(identifiers);
+
+    for (final ColumnReference columnReference : linkedForeignKey) {
+      ((MutableColumn) columnReference.getForeignKeyColumn())
+          .setReferencedColumn(columnReference.getPrimaryKeyColumn());
+    }
+
+    final MutableTable fkTable = (MutableTable) linkedForeignKey.getForeignKeyTable();
+    final MutableTable pkTable = (MutableTable) linkedForeignKey.getPrimaryKeyTable();
+    fkTable.addForeignKey(linkedForeignKey);
+    pkTable.addForeignKey(linkedForeignKey);
+
+    // Replace foreign keys in table constraints, if foreign keys were added as table constraints
+    final Optional<TableConstraint> tableConstraint =
+        fkTable.lookupTableConstraint(linkedForeignKey.getName());
+    if (tableConstraint.isPresent()) {
+      fkTable.removeTableConstraint(tableConstraint.get());
+      fkTable.addTableConstraint(linkedForeignKey);
+    }
+  }
+
+  private void linkSynonym(final MutableSynonym synonym) {
+    final DatabaseObject referencedObject = synonym.getReferencedObject();
+    if (referencedObject == null
+        || referencedObject instanceof MutableTable
+        || referencedObject instanceof MutableRoutine) {
+      return;
+    }
+    // Synonyms for unchanged tables or routines reference unknown database objects
+    final Optional<MutableTable> table = catalog.lookupTable(referencedObject.key());
+    if (table.isPresent()) {
+      synonym.setReferencedObject(table.get());
+      return;
+    }
+    final Optional<MutableRoutine> routine =
+        catalog.lookupRoutine(referencedObject.key().with(referencedObject.getName()));
+    if (routine.isPresent()) {
+      synonym.setReferencedObject(routine.get());
+    }
+  }
+
+  private void linkTableUsage(final MutableView view) {
+    for (final Table table : view.getTableUsage()) {
+      final Optional<MutableTable> currentTable = catalog.lookupTable(table.key());
+      if (!currentTable.isPresent()) {
+        view.removeTableUsage((MutableTable) table);
+      } else if (currentTable.get() != table) {
+        // Replaces the previous version of the table
+        view.addTableUsage(currentTable.get());
+      }
+    }
+  }
+
+  private Optional<MutableColumn> lookupColumn(final Column column) {
+    if (column instanceof MutableColumn) {
+      return Optional.of((MutableColumn) column);
+    }
+    return catalog
+        .lookupTable(column.getParent().key())
+        .flatMap(table -> table.lookupColumn(column.getName()));
+  }
+
+  /**
+   * Removes foreign keys and weak associations with tables that changed, since they are linked
+   * again from the changed tables.
+   */
+  private void removeStaleReferences(final MutableTable table) {
+    for (final ForeignKey foreignKey : table.getForeignKeys()) {
+      if (isStale(foreignKey.getForeignKeyTable()) || isStale(foreignKey.getPrimaryKeyTable())) {
+        table.removeForeignKey((MutableForeignKey) foreignKey);
+      }
+    }
+    for (final WeakAssociation weakAssociation : table.getWeakAssociations()) {
+      if (isStale(weakAssociation.getForeignKeyTable())
+          || isStale(weakAssociation.getPrimaryKeyTable())) {
+        table.removeWeakAssociation((MutableWeakAssociation) weakAssociation);
+      }
+    }
+    for (final MutableColumn column : table.getAllColumns()) {
+      final Column referencedColumn = column.getReferencedColumn();
+      if (referencedColumn != null && isStale(referencedColumn.getParent())) {
+        column.setReferencedColumn(null);
+      }
+    }
+  }
+
+  /** Removes foreign keys that were removed from the table from the table constraints. */
+  private void removeStaleTableConstraints(final MutableTable table) {
+    for (final TableConstraint tableConstraint : table.getTableConstraints()) {
+      if (!(tableConstraint instanceof ForeignKey)) {
+        continue;
+      }
+      final Optional<MutableForeignKey> foreignKey =
+          table.lookupForeignKey(tableConstraint.getName());
+      if (!foreignKey.isPresent() || foreignKey.get() != tableConstraint) {
+        table.removeTableConstraint(tableConstraint);
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+
+import schemacrawler.inclusionrule.InclusionRule;
+
+/**
+ * Limits an inclusion rule to database objects that changed, by full name. The full names may be
+ * filled in after the rule is created, but before the rule is used.
+ */
+final class ChangedObjectsInclusionRule implements InclusionRule {
+
+  private static final long serialVersionUID = -2209346407934758117L;
+
+  private final InclusionRule inclusionRule;
+  private final Set<String> changedObjects;
+
+  ChangedObjectsInclusionRule(
+      final InclusionRule inclusionRule, final Set<String> changedObjects) {
+    this.inclusionRule = requireNonNull(inclusionRule, "No inclusion rule provided");
+    this.changedObjects = requireNonNull(changedObjects, "No changed objects provided");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean test(final String text) {
+    return changedObjects.contains(text) && inclusionRule.test(text);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{changed objects=%d, %s}",
+        getClass().getSimpleName(), changedObjects.size(), inclusionRule);
+  }
+}
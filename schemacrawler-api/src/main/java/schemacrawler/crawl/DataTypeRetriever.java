@@ -78,6 +78,7 @@ final class DataTypeRetriever extends AbstractRetriever {
         retrieveSystemColumnDataTypesFromDataDictionary(systemSchema);
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving system column data types");
         retrieveSystemColumnDataTypesFromMetadata(systemSchema);
@@ -146,7 +147,7 @@ final class DataTypeRetriever extends AbstractRetriever {
     columnDataType.setMaximumScale(maximumScale);
     columnDataType.setNumPrecisionRadix(numPrecisionRadix);
 
-    columnDataType.addAttributes(results.getAttributes());
+    columnDataType.addAttributes(getAttributes(results));
 
     catalog.addColumnDataType(columnDataType);
   }
@@ -160,9 +161,8 @@ final class DataTypeRetriever extends AbstractRetriever {
     }
     final Query typeInfoSql = informationSchemaViews.getQuery(TYPE_INFO);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(typeInfoSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(typeInfoSql, statement); ) {
       int numSystemColumnDataTypes = 0;
       while (results.next()) {
         numSystemColumnDataTypes = numSystemColumnDataTypes + 1;
@@ -178,7 +178,7 @@ final class DataTypeRetriever extends AbstractRetriever {
       throws SQLException {
     try (final Connection connection = getRetrieverConnection().getConnection();
         final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 connection.getMetaData().getTypeInfo(), "DatabaseMetaData::getTypeInfo"); ) {
       int numSystemColumnDataTypes = 0;
       while (results.next()) {
@@ -214,7 +214,7 @@ final class DataTypeRetriever extends AbstractRetriever {
 
     try (final Connection connection = getRetrieverConnection().getConnection();
         final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 connection.getMetaData().getUDTs(catalogName, schemaName, null, null),
                 "DatabaseMetaData::getUDTs"); ) {
       while (results.next()) {
@@ -239,7 +239,7 @@ final class DataTypeRetriever extends AbstractRetriever {
         columnDataType.setBaseType(baseType);
         columnDataType.setRemarks(remarks);
 
-        columnDataType.addAttributes(results.getAttributes());
+        columnDataType.addAttributes(getAttributes(results));
 
         catalog.addColumnDataType(columnDataType);
       }
@@ -233,7 +233,7 @@ final class DatabaseInfoRetriever extends AbstractRetriever {
     final Query databaseUsersSql = informationSchemaViews.getQuery(DATABASE_USERS);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
             new MetadataResultSet(databaseUsersSql, statement, new HashMap<>()); ) {
       while (results.next()) {
@@ -244,7 +244,7 @@ final class DatabaseInfoRetriever extends AbstractRetriever {
         LOGGER.log(Level.FINER, new StringFormat("Retrieving database user: %s", username));
 
         final ImmutableDatabaseUser databaseUser = new ImmutableDatabaseUser(username);
-        databaseUser.addAttributes(results.getAttributes());
+        databaseUser.addAttributes(getAttributes(results));
         catalog.addDatabaseUser(databaseUser);
       }
     } catch (final Exception e) {
@@ -268,7 +268,7 @@ final class DatabaseInfoRetriever extends AbstractRetriever {
     final Query serverInfoSql = informationSchemaViews.getQuery(SERVER_INFORMATION);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
             new MetadataResultSet(serverInfoSql, statement, new HashMap<>()); ) {
       while (results.next()) {
@@ -0,0 +1,78 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects definitions that are read in parts over many rows, and appends them to the database
+ * objects only once all the rows have been read. This way, a retrieval that fails part way through
+ * leaves no partial definitions behind, and can be run again without duplicating definitions.
+ *
+ * @param <D> Type of database object
+ */
+final class DefinitionsCollector<D> {
+
+  private final Map<D, StringBuilder> definitions;
+
+  DefinitionsCollector() {
+    definitions = new IdentityHashMap<>();
+  }
+
+  /**
+   * Collects a part of the definition for a database object.
+   *
+   * @param databaseObject Database object
+   * @param definition Part of the definition, which is ignored if it is null
+   */
+  void add(final D databaseObject, final String definition) {
+    requireNonNull(databaseObject, "No database object provided");
+    if (definition != null) {
+      definitions.computeIfAbsent(databaseObject, key -> new StringBuilder()).append(definition);
+    }
+  }
+
+  /**
+   * Appends the collected definitions to the database objects, and clears them.
+   *
+   * @param appendDefinition Function that appends a definition to a database object
+   */
+  void appendTo(final BiConsumer<D, String> appendDefinition) {
+    requireNonNull(appendDefinition, "No function to append definitions provided");
+    for (final Map.Entry<D, StringBuilder> entry : definitions.entrySet()) {
+      appendDefinition.accept(entry.getKey(), entry.getValue().toString());
+    }
+    definitions.clear();
+  }
+}
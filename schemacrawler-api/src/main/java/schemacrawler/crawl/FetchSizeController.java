@@ -0,0 +1,231 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.Utility.isBlank;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import schemacrawler.schema.ResultsColumn;
+import schemacrawler.schema.ResultsColumns;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategyProfiles;
+import schemacrawler.schemacrawler.Query;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Adapts the fetch size of data dictionary queries to the number of rows that they are expected to
+ * return, so that large queries need fewer round trips to the database. Row counts are observed
+ * during the crawl, and can be provided from a previous crawl. Adapted fetch sizes are bounded by
+ * the memory that is needed for the rows of a fetch.
+ */
+final class FetchSizeController {
+
+  private static final Logger LOGGER = Logger.getLogger(FetchSizeController.class.getName());
+
+  static final int DEFAULT_FETCH_SIZE = 20;
+  static final int MAX_FETCH_SIZE = 10_000;
+  // Number of round trips to aim for, for queries with a known row count
+  private static final int TARGET_FETCHES = 100;
+  // Size of a row, before the columns of a query are known
+  private static final int DEFAULT_ROW_SIZE = 1024;
+  // Size of a wide column, such as a large object or a long definition
+  private static final int MAX_COLUMN_SIZE = 4000;
+  private static final int COLUMN_OVERHEAD = 16;
+
+  private static final Map<String, InformationSchemaKey> queryKeys;
+
+  static {
+    queryKeys = new HashMap<>();
+    for (final InformationSchemaKey key : InformationSchemaKey.values()) {
+      queryKeys.put(key.description(), key);
+    }
+  }
+
+  /**
+   * Estimates the size in memory of a row of a result set, from the sizes of the columns.
+   *
+   * @param resultsColumns Columns of the result set
+   * @return Estimated row size in bytes
+   */
+  static int estimateRowSize(final ResultsColumns resultsColumns) {
+    requireNonNull(resultsColumns, "No results columns provided");
+    long rowSize = 0;
+    for (final ResultsColumn resultsColumn : resultsColumns) {
+      int columnSize = Math.max(resultsColumn.getDisplaySize(), resultsColumn.getSize());
+      if (columnSize <= 0 || columnSize > MAX_COLUMN_SIZE) {
+        columnSize = MAX_COLUMN_SIZE;
+      }
+      // Characters take two bytes in Java strings
+      rowSize = rowSize + 2L * columnSize + COLUMN_OVERHEAD;
+    }
+    return (int) Math.max(Math.min(rowSize, Integer.MAX_VALUE), 1);
+  }
+
+  private final SchemaRetrievalOptions schemaRetrievalOptions;
+  // Largest row counts, and row sizes, of data dictionary queries that were run during the crawl
+  private final Map<InformationSchemaKey, Long> observedRowCounts;
+  private final Map<InformationSchemaKey, Integer> observedRowSizes;
+
+  FetchSizeController(final SchemaRetrievalOptions schemaRetrievalOptions) {
+    this.schemaRetrievalOptions =
+        requireNonNull(schemaRetrievalOptions, "No schema retrieval options provided");
+    observedRowCounts = new EnumMap<>(InformationSchemaKey.class);
+    observedRowSizes = new EnumMap<>(InformationSchemaKey.class);
+  }
+
+  /**
+   * Gets the fetch size to use for a query, before it is run.
+   *
+   * @param query Query to run
+   * @return Fetch size
+   */
+  int getFetchSize(final Query query) {
+    final InformationSchemaKey key = lookupKey(query);
+    if (key == null) {
+      return DEFAULT_FETCH_SIZE;
+    }
+
+    final int fixedFetchSize = schemaRetrievalOptions.getFetchSize(key);
+    if (fixedFetchSize > 0) {
+      return fixedFetchSize;
+    }
+
+    final long expectedRowCount;
+    final int rowSize;
+    synchronized (this) {
+      expectedRowCount =
+          Math.max(
+              observedRowCounts.getOrDefault(key, 0L),
+              schemaRetrievalOptions.getExpectedRowCount(key));
+      rowSize = observedRowSizes.getOrDefault(key, DEFAULT_ROW_SIZE);
+    }
+    final long fetchSize = (expectedRowCount + TARGET_FETCHES - 1) / TARGET_FETCHES;
+    return limitFetchSize(fetchSize, rowSize);
+  }
+
+  /**
+   * Gets the fetch size to use for the rest of a query, once the columns that it returns are
+   * known.
+   *
+   * @param query Query that is running
+   * @param fetchSize Fetch size that the query was run with
+   * @param resultsColumns Columns of the result set
+   * @return Fetch size
+   */
+  int getFetchSize(final Query query, final int fetchSize, final ResultsColumns resultsColumns) {
+    final InformationSchemaKey key = lookupKey(query);
+    if (key == null || schemaRetrievalOptions.getFetchSize(key) > 0) {
+      return fetchSize;
+    }
+
+    final int rowSize = estimateRowSize(resultsColumns);
+    synchronized (this) {
+      observedRowSizes.put(key, rowSize);
+    }
+    return limitFetchSize(fetchSize, rowSize);
+  }
+
+  /**
+   * Gets the largest row counts of data dictionary queries that were run during the crawl, so that
+   * they can be saved for later crawls.
+   *
+   * @return Row counts of data dictionary queries
+   */
+  synchronized Map<InformationSchemaKey, Long> getObservedRowCounts() {
+    return new EnumMap<>(observedRowCounts);
+  }
+
+  /**
+   * Records the number of rows that a query returned.
+   *
+   * @param query Query that was run
+   * @param rowCount Number of rows
+   */
+  void recordRowCount(final Query query, final long rowCount) {
+    final InformationSchemaKey key = lookupKey(query);
+    if (key == null) {
+      return;
+    }
+    synchronized (this) {
+      observedRowCounts.merge(key, rowCount, Math::max);
+    }
+  }
+
+  /**
+   * Saves the row counts of data dictionary queries that were run during the crawl, if there is a
+   * directory for metadata retrieval strategy profiles, so that later crawls can adapt fetch sizes
+   * from the start.
+   *
+   * @param connectionUrl Database connection URL
+   */
+  void saveObservedRowCounts(final String connectionUrl) {
+    final Optional<Path> optionalProfilesDirectory =
+        schemaRetrievalOptions.getMetadataRetrievalStrategyProfilesDirectory();
+    final Map<InformationSchemaKey, Long> rowCounts = getObservedRowCounts();
+    if (!optionalProfilesDirectory.isPresent() || isBlank(connectionUrl) || rowCounts.isEmpty()) {
+      return;
+    }
+    try {
+      MetadataRetrievalStrategyProfiles.saveRowCounts(
+          optionalProfilesDirectory.get(), connectionUrl, rowCounts);
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, "Could not save data dictionary query row counts", e);
+    }
+  }
+
+  private int limitFetchSize(final long fetchSize, final int rowSize) {
+    final long memoryLimitFetchSize =
+        Math.max(schemaRetrievalOptions.getFetchSizeMemoryLimit() / rowSize, 1);
+    final long limitedFetchSize =
+        Math.min(
+            Math.min(Math.max(fetchSize, DEFAULT_FETCH_SIZE), MAX_FETCH_SIZE),
+            memoryLimitFetchSize);
+    LOGGER.log(
+        Level.FINEST,
+        new StringFormat(
+            "Fetch size of %d, limited to %d for row size of %d bytes",
+            fetchSize, limitedFetchSize, rowSize));
+    return (int) limitedFetchSize;
+  }
+
+  private InformationSchemaKey lookupKey(final Query query) {
+    if (query == null) {
+      return null;
+    }
+    return queryKeys.get(query.getName());
+  }
+}
@@ -35,8 +35,8 @@ import static us.fatehi.utility.Utility.isBlank;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +47,7 @@ import schemacrawler.schema.ColumnReference;
 import schemacrawler.schema.ForeignKeyDeferrability;
 import schemacrawler.schema.ForeignKeyUpdateRule;
 import schemacrawler.schema.NamedObjectKey;
+import schemacrawler.schema.Schema;
 import schemacrawler.schema.Table;
 import schemacrawler.schema.View;
 import schemacrawler.schemacrawler.InformationSchemaViews;
@@ -76,9 +77,14 @@ final class ForeignKeyRetriever extends AbstractRetriever {
         retrieveForeignKeysFromDataDictionary();
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving foreign keys, for each schema");
+        retrieveForeignKeysFromMetadataForSchemas(allTables);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving foreign keys");
-        retrieveForeignKeysFromMetadata(allTables);
+        retrieveForeignKeysFromMetadata(allTables, new ConcurrentHashMap<>());
         break;
 
       default:
@@ -91,92 +97,95 @@ final class ForeignKeyRetriever extends AbstractRetriever {
       final MetadataResultSet results, final Map<NamedObjectKey, MutableForeignKey> foreignKeys)
       throws SQLException {
     while (results.next()) {
-      String foreignKeyName = results.getString("FK_NAME");
-      LOGGER.log(Level.FINE, new StringFormat("Retrieving foreign key: %s", foreignKeyName));
-
-      final String pkTableCatalogName = normalizeCatalogName(results.getString("PKTABLE_CAT"));
-      final String pkTableSchemaName = normalizeSchemaName(results.getString("PKTABLE_SCHEM"));
-      final String pkTableName = results.getString("PKTABLE_NAME");
-      final String pkColumnName = results.getString("PKCOLUMN_NAME");
-
-      final String fkTableCatalogName = normalizeCatalogName(results.getString("FKTABLE_CAT"));
-      final String fkTableSchemaName = normalizeSchemaName(results.getString("FKTABLE_SCHEM"));
-      final String fkTableName = results.getString("FKTABLE_NAME");
-      final String fkColumnName = results.getString("FKCOLUMN_NAME");
-
-      final Optional<MutableTable> pkTableOptional =
-          lookupTable(pkTableCatalogName, pkTableSchemaName, pkTableName);
-      final Optional<MutableTable> fkTableOptional =
-          lookupTable(fkTableCatalogName, fkTableSchemaName, fkTableName);
-      if (!pkTableOptional.isPresent() && !fkTableOptional.isPresent()) {
-        continue;
-      }
+      // Rows may be processed concurrently, from partitions of a data dictionary query
+      synchronized (foreignKeys) {
+        String foreignKeyName = results.getString("FK_NAME");
+        LOGGER.log(Level.FINE, new StringFormat("Retrieving foreign key: %s", foreignKeyName));
+
+        final String pkTableCatalogName = normalizeCatalogName(results.getString("PKTABLE_CAT"));
+        final String pkTableSchemaName = normalizeSchemaName(results.getString("PKTABLE_SCHEM"));
+        final String pkTableName = results.getString("PKTABLE_NAME");
+        final String pkColumnName = results.getString("PKCOLUMN_NAME");
+
+        final String fkTableCatalogName = normalizeCatalogName(results.getString("FKTABLE_CAT"));
+        final String fkTableSchemaName = normalizeSchemaName(results.getString("FKTABLE_SCHEM"));
+        final String fkTableName = results.getString("FKTABLE_NAME");
+        final String fkColumnName = results.getString("FKCOLUMN_NAME");
+
+        final Optional<MutableTable> pkTableOptional =
+            lookupTable(pkTableCatalogName, pkTableSchemaName, pkTableName);
+        final Optional<MutableTable> fkTableOptional =
+            lookupTable(fkTableCatalogName, fkTableSchemaName, fkTableName);
+        if (!pkTableOptional.isPresent() && !fkTableOptional.isPresent()) {
+          continue;
+        }
 
-      final int keySequence = results.getInt("KEY_SEQ", 0);
-      final ForeignKeyUpdateRule updateRule =
-          results.getEnumFromId("UPDATE_RULE", ForeignKeyUpdateRule.unknown);
-      final ForeignKeyUpdateRule deleteRule =
-          results.getEnumFromId("DELETE_RULE", ForeignKeyUpdateRule.unknown);
-      final ForeignKeyDeferrability deferrability =
-          results.getEnumFromId("DEFERRABILITY", ForeignKeyDeferrability.unknown);
-
-      final Column pkColumn =
-          lookupOrCreateColumn(pkTableCatalogName, pkTableSchemaName, pkTableName, pkColumnName);
-      final Column fkColumn =
-          lookupOrCreateColumn(fkTableCatalogName, fkTableSchemaName, fkTableName, fkColumnName);
-      final boolean isPkColumnPartial = pkColumn instanceof ColumnPartial;
-      final boolean isFkColumnPartial = fkColumn instanceof ColumnPartial;
-
-      if (pkColumn == null || fkColumn == null || isFkColumnPartial && isPkColumnPartial) {
-        continue;
-      }
+        final int keySequence = results.getInt("KEY_SEQ", 0);
+        final ForeignKeyUpdateRule updateRule =
+            results.getEnumFromId("UPDATE_RULE", ForeignKeyUpdateRule.unknown);
+        final ForeignKeyUpdateRule deleteRule =
+            results.getEnumFromId("DELETE_RULE", ForeignKeyUpdateRule.unknown);
+        final ForeignKeyDeferrability deferrability =
+            results.getEnumFromId("DEFERRABILITY", ForeignKeyDeferrability.unknown);
+
+        final Column pkColumn =
+            lookupOrCreateColumn(pkTableCatalogName, pkTableSchemaName, pkTableName, pkColumnName);
+        final Column fkColumn =
+            lookupOrCreateColumn(fkTableCatalogName, fkTableSchemaName, fkTableName, fkColumnName);
+        final boolean isPkColumnPartial = pkColumn instanceof ColumnPartial;
+        final boolean isFkColumnPartial = fkColumn instanceof ColumnPartial;
+
+        if (pkColumn == null || fkColumn == null || isFkColumnPartial && isPkColumnPartial) {
+          continue;
+        }
 
-      final Table fkTable = fkColumn.getParent();
-      final Table pkTable = pkColumn.getParent();
+        final Table fkTable = fkColumn.getParent();
+        final Table pkTable = pkColumn.getParent();
 
-      if (isBlank(foreignKeyName)) {
-        foreignKeyName = RetrieverUtility.constructForeignKeyName(fkTable, pkTable);
-        LOGGER.log(
-            Level.CONFIG,
-            new StringFormat(
-                "Identifying foreign key with blank name: %s from %s --> %s",
-                foreignKeyName, fkTable, pkTable));
-      }
+        if (isBlank(foreignKeyName)) {
+          foreignKeyName = RetrieverUtility.constructForeignKeyName(fkTable, pkTable);
+          LOGGER.log(
+              Level.CONFIG,
+              new StringFormat(
+                  "Identifying foreign key with blank name: %s from %s --> %s",
+                  foreignKeyName, fkTable, pkTable));
+        }
 
-      final NamedObjectKey fkLookupKey =
-          new NamedObjectKey(fkTableCatalogName, fkTableSchemaName, fkTableName, foreignKeyName);
-      final ColumnReference columnReference =
-          new ImmutableColumnReference(keySequence, fkColumn, pkColumn);
-
-      final Optional<MutableForeignKey> foreignKeyOptional =
-          Optional.ofNullable(foreignKeys.get(fkLookupKey));
-      final MutableForeignKey foreignKey;
-      if (foreignKeyOptional.isPresent()) {
-        foreignKey = foreignKeyOptional.get();
-        foreignKey.addColumnReference(columnReference);
-      } else {
-        foreignKey = new MutableForeignKey(foreignKeyName, columnReference);
-        foreignKeys.put(fkLookupKey, foreignKey);
-      }
-      foreignKey.withQuoting(getRetrieverConnection().getIdentifiers());
-
-      foreignKey.setUpdateRule(updateRule);
-      foreignKey.setDeleteRule(deleteRule);
-      foreignKey.setDeferrability(deferrability);
-      foreignKey.addAttributes(results.getAttributes());
-
-      if (fkColumn instanceof MutableColumn) {
-        ((MutableColumn) fkColumn).setReferencedColumn(pkColumn);
-        ((MutableTable) fkTable).addForeignKey(foreignKey);
-      } else if (isFkColumnPartial) {
-        ((ColumnPartial) fkColumn).setReferencedColumn(pkColumn);
-        ((TablePartial) fkTable).addForeignKey(foreignKey);
-      }
+        final NamedObjectKey fkLookupKey =
+            new NamedObjectKey(fkTableCatalogName, fkTableSchemaName, fkTableName, foreignKeyName);
+        final ColumnReference columnReference =
+            new ImmutableColumnReference(keySequence, fkColumn, pkColumn);
+
+        final Optional<MutableForeignKey> foreignKeyOptional =
+            Optional.ofNullable(foreignKeys.get(fkLookupKey));
+        final MutableForeignKey foreignKey;
+        if (foreignKeyOptional.isPresent()) {
+          foreignKey = foreignKeyOptional.get();
+          foreignKey.addColumnReference(columnReference);
+        } else {
+          foreignKey = new MutableForeignKey(foreignKeyName, columnReference);
+          foreignKeys.put(fkLookupKey, foreignKey);
+        }
+        foreignKey.withQuoting(getRetrieverConnection().getIdentifiers());
+
+        foreignKey.setUpdateRule(updateRule);
+        foreignKey.setDeleteRule(deleteRule);
+        foreignKey.setDeferrability(deferrability);
+        foreignKey.addAttributes(getAttributes(results));
+
+        if (fkColumn instanceof MutableColumn) {
+          ((MutableColumn) fkColumn).setReferencedColumn(pkColumn);
+          ((MutableTable) fkTable).addForeignKey(foreignKey);
+        } else if (isFkColumnPartial) {
+          ((ColumnPartial) fkColumn).setReferencedColumn(pkColumn);
+          ((TablePartial) fkTable).addForeignKey(foreignKey);
+        }
 
-      if (pkColumn instanceof MutableColumn) {
-        ((MutableTable) pkTable).addForeignKey(foreignKey);
-      } else if (isPkColumnPartial) {
-        ((TablePartial) pkTable).addForeignKey(foreignKey);
+        if (pkColumn instanceof MutableColumn) {
+          ((MutableTable) pkTable).addForeignKey(foreignKey);
+        } else if (isPkColumnPartial) {
+          ((TablePartial) pkTable).addForeignKey(foreignKey);
+        }
       }
     }
   }
@@ -205,30 +214,31 @@ final class ForeignKeyRetriever extends AbstractRetriever {
 
     final Map<NamedObjectKey, MutableForeignKey> foreignKeys = new HashMap<>();
     final Query fkSql = informationSchemaViews.getQuery(FOREIGN_KEYS);
-    try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(fkSql, statement, getLimitMap()); ) {
-      createForeignKeys(results, foreignKeys);
+    try {
+      // Foreign keys may reference tables whose rows are returned from other partitions
+      executeAgainstSchemaPartitioned(
+          fkSql,
+          results -> createForeignKeys(results, foreignKeys));
     } catch (final SQLException e) {
       throw new WrappedSQLException(
           String.format("Could not retrieve foreign keys from SQL:%n%s", fkSql), e);
     }
   }
 
-  private void retrieveForeignKeysFromMetadata(final NamedObjectList<MutableTable> allTables)
+  private void retrieveForeignKeysFromMetadata(
+      final Iterable<MutableTable> tables,
+      final Map<NamedObjectKey, MutableForeignKey> foreignKeys)
       throws SQLException {
     try (final Connection connection = getRetrieverConnection().getConnection(); ) {
       final DatabaseMetaData metaData = connection.getMetaData();
-      final Map<NamedObjectKey, MutableForeignKey> foreignKeys = new ConcurrentHashMap<>();
-      for (final MutableTable table : allTables) {
+      for (final MutableTable table : tables) {
         if (table instanceof View) {
           continue;
         }
 
         // Get imported foreign keys
         try (final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 metaData.getImportedKeys(
                     table.getSchema().getCatalogName(),
                     table.getSchema().getName(),
@@ -244,7 +254,7 @@ final class ForeignKeyRetriever extends AbstractRetriever {
         // table is selected, we have not retrieved it's keys that are
         // imported by other tables.
         try (final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 metaData.getExportedKeys(
                     table.getSchema().getCatalogName(),
                     table.getSchema().getName(),
@@ -259,4 +269,56 @@ final class ForeignKeyRetriever extends AbstractRetriever {
       }
     }
   }
+
+  private void retrieveForeignKeysFromMetadataForSchemas(
+      final NamedObjectList<MutableTable> allTables) throws SQLException {
+    try (final Connection connection = getRetrieverConnection().getConnection(); ) {
+      final DatabaseMetaData metaData = connection.getMetaData();
+      final Map<NamedObjectKey, MutableForeignKey> foreignKeys = new ConcurrentHashMap<>();
+      for (final Map.Entry<Schema, List<MutableTable>> schemaTables :
+          groupBySchema(allTables).entrySet()) {
+        final Schema schema = schemaTables.getKey();
+        // Some JDBC drivers return no rows for a null table name, so if there
+        // are no rows at all, retrieve foreign keys one table at a time
+        int rowCount = 0;
+        boolean retrieveEachTable;
+        try {
+          // Get imported foreign keys
+          try (final MetadataResultSet results =
+              newMetadataResultSet(
+                  metaData.getImportedKeys(schema.getCatalogName(), schema.getName(), null),
+                  "DatabaseMetaData::getImportedKeys")) {
+            createForeignKeys(results, foreignKeys);
+            rowCount = rowCount + results.getRowCount();
+          }
+          // Get exported keys as well, for foreign keys from tables in
+          // other schemas
+          try (final MetadataResultSet results =
+              newMetadataResultSet(
+                  metaData.getExportedKeys(schema.getCatalogName(), schema.getName(), null),
+                  "DatabaseMetaData::getExportedKeys")) {
+            createForeignKeys(results, foreignKeys);
+            rowCount = rowCount + results.getRowCount();
+          }
+          retrieveEachTable = rowCount == 0;
+          if (retrieveEachTable) {
+            LOGGER.log(
+                Level.FINE,
+                new StringFormat(
+                    "No foreign keys were returned for schema <%s>; trying each table", schema));
+          }
+        } catch (final SQLException e) {
+          logPossiblyUnsupportedSQLFeature(
+              new StringFormat(
+                  "Could not retrieve foreign keys for schema <%s>; trying each table",
+                  schema),
+              e);
+          retrieveEachTable = true;
+        }
+        if (retrieveEachTable) {
+          retrieveForeignKeysFromMetadata(schemaTables.getValue(), foreignKeys);
+        }
+      }
+    }
+  }
 }
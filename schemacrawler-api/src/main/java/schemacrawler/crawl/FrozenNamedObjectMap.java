@@ -0,0 +1,177 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Collections.unmodifiableList;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import schemacrawler.schema.NamedObject;
+import schemacrawler.schema.NamedObjectKey;
+
+/**
+ * Read-only map of named objects by their keys, for a frozen catalog. The named objects are held
+ * in sorted order in an array, with a small open addressing index of positions in the array, so
+ * that the map takes much less memory than a concurrent hash map, and lookups do not need locks.
+ * The map is serialized as a concurrent hash map, so that a deserialized catalog can be modified.
+ */
+final class FrozenNamedObjectMap<N extends NamedObject> extends AbstractMap<NamedObjectKey, N>
+    implements Serializable {
+
+  private static final long serialVersionUID = -6375420536385718224L;
+
+  private static final NamedObject[] NO_NAMED_OBJECTS = new NamedObject[0];
+  private static final int[] NO_INDEX = new int[0];
+
+  private static int indexOf(final Object key, final int mask) {
+    final int hash = key.hashCode();
+    return (hash ^ hash >>> 16) & mask;
+  }
+
+  private final N[] namedObjects;
+  private final List<N> values;
+  // Positions in the array of named objects, plus one, so that zero marks an empty slot
+  private final int[] index;
+
+  /**
+   * Freezes named objects.
+   *
+   * @param sortedNamedObjects Named objects, in sorted order, each with a distinct key
+   */
+  @SuppressWarnings("unchecked")
+  FrozenNamedObjectMap(final Collection<N> sortedNamedObjects) {
+    namedObjects = (N[]) sortedNamedObjects.toArray(NO_NAMED_OBJECTS);
+    values = unmodifiableList(Arrays.asList(namedObjects));
+    if (namedObjects.length == 0) {
+      index = NO_INDEX;
+      return;
+    }
+
+    // Keep the index at most half full, so that probe sequences stay short
+    int capacity = 1;
+    while (capacity < namedObjects.length * 2) {
+      capacity = capacity << 1;
+    }
+    index = new int[capacity];
+    final int mask = capacity - 1;
+    for (int i = 0; i < namedObjects.length; i++) {
+      int slot = indexOf(namedObjects[i].key(), mask);
+      while (index[slot] != 0) {
+        slot = slot + 1 & mask;
+      }
+      index[slot] = i + 1;
+    }
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public Set<Entry<NamedObjectKey, N>> entrySet() {
+    return new AbstractSet<Entry<NamedObjectKey, N>>() {
+
+      @Override
+      public Iterator<Entry<NamedObjectKey, N>> iterator() {
+        return new Iterator<Entry<NamedObjectKey, N>>() {
+
+          private int position;
+
+          @Override
+          public boolean hasNext() {
+            return position < namedObjects.length;
+          }
+
+          @Override
+          public Entry<NamedObjectKey, N> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final N namedObject = namedObjects[position++];
+            return new SimpleImmutableEntry<>(namedObject.key(), namedObject);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return namedObjects.length;
+      }
+    };
+  }
+
+  @Override
+  public N get(final Object key) {
+    if (!(key instanceof NamedObjectKey) || namedObjects.length == 0) {
+      return null;
+    }
+    final int mask = index.length - 1;
+    int slot = indexOf(key, mask);
+    while (index[slot] != 0) {
+      final N namedObject = namedObjects[index[slot] - 1];
+      if (key.equals(namedObject.key())) {
+        return namedObject;
+      }
+      slot = slot + 1 & mask;
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return namedObjects.length == 0;
+  }
+
+  @Override
+  public int size() {
+    return namedObjects.length;
+  }
+
+  /**
+   * Named objects, in sorted order.
+   *
+   * @return Unmodifiable list of named objects
+   */
+  @Override
+  public List<N> values() {
+    return values;
+  }
+
+  private Object writeReplace() {
+    return new ConcurrentHashMap<>(this);
+  }
+}
@@ -37,6 +37,9 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,6 +49,7 @@ import schemacrawler.schema.FunctionParameter;
 import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.ParameterModeType;
 import schemacrawler.schema.RoutineType;
+import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -83,9 +87,14 @@ final class FunctionParameterRetriever extends AbstractRetriever {
         retrieveFunctionParametersFromDataDictionary(allRoutines, parameterFilter);
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving function parameters, for each schema");
+        retrieveFunctionParametersFromMetadataForSchemas(allRoutines, parameterFilter);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving function parameters");
-        retrieveFunctionParametersFromMetadata(allRoutines, parameterFilter);
+        retrieveFunctionParametersFromMetadata(allRoutines, allRoutines, parameterFilter);
         break;
 
       default:
@@ -156,7 +165,7 @@ final class FunctionParameterRetriever extends AbstractRetriever {
       parameter.setNullable(isNullable);
       parameter.setRemarks(remarks);
 
-      parameter.addAttributes(results.getAttributes());
+      parameter.addAttributes(getAttributes(results));
 
       LOGGER.log(Level.FINER, new StringFormat("Adding parameter to function <%s>", parameter));
       function.addParameter(parameter);
@@ -197,9 +206,8 @@ final class FunctionParameterRetriever extends AbstractRetriever {
     }
     final Query functionColumnsSql = informationSchemaViews.getQuery(FUNCTION_COLUMNS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(functionColumnsSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(functionColumnsSql, statement); ) {
       while (results.next()) {
         createFunctionParameter(results, allRoutines, parameterFilter);
       }
@@ -208,8 +216,9 @@ final class FunctionParameterRetriever extends AbstractRetriever {
 
   private void retrieveFunctionParametersFromMetadata(
       final NamedObjectList<MutableRoutine> allRoutines,
+      final Iterable<MutableRoutine> routines,
       final InclusionRuleFilter<FunctionParameter> parameterFilter) {
-    for (final MutableRoutine routine : allRoutines) {
+    for (final MutableRoutine routine : routines) {
       if (routine.getRoutineType() != RoutineType.function) {
         continue;
       }
@@ -218,7 +227,7 @@ final class FunctionParameterRetriever extends AbstractRetriever {
       LOGGER.log(Level.FINE, "Retrieving function parameters for " + function);
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection
                       .getMetaData()
                       .getFunctionColumns(
@@ -239,4 +248,44 @@ final class FunctionParameterRetriever extends AbstractRetriever {
       }
     }
   }
+
+  private void retrieveFunctionParametersFromMetadataForSchemas(
+      final NamedObjectList<MutableRoutine> allRoutines,
+      final InclusionRuleFilter<FunctionParameter> parameterFilter) {
+    final List<MutableRoutine> functions = new ArrayList<>();
+    for (final MutableRoutine routine : allRoutines) {
+      if (routine.getRoutineType() == RoutineType.function) {
+        functions.add(routine);
+      }
+    }
+
+    for (final Map.Entry<Schema, List<MutableRoutine>> schemaRoutines :
+        groupBySchema(functions).entrySet()) {
+      final Schema schema = schemaRoutines.getKey();
+      LOGGER.log(
+          Level.FINE, new StringFormat("Retrieving function parameters for schema <%s>", schema));
+      try (final Connection connection = getRetrieverConnection().getConnection();
+          final MetadataResultSet results =
+              newMetadataResultSet(
+                  connection
+                      .getMetaData()
+                      .getFunctionColumns(schema.getCatalogName(), schema.getName(), null, null),
+                  "DatabaseMetaData::getFunctionColumns"); ) {
+        while (results.next()) {
+          createFunctionParameter(results, allRoutines, parameterFilter);
+        }
+      } catch (final AbstractMethodError e) {
+        logSQLFeatureNotSupported(
+            new StringFormat("Could not retrieve function parameters for schema <%s>", schema), e);
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve function parameters for schema <%s>; trying each function",
+                schema),
+            e);
+        retrieveFunctionParametersFromMetadata(
+            allRoutines, schemaRoutines.getValue(), parameterFilter);
+      }
+    }
+  }
 }
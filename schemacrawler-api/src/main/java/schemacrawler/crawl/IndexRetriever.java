@@ -37,6 +37,8 @@ import static us.fatehi.utility.Utility.isBlank;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -44,6 +46,7 @@ import java.util.logging.Logger;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.IndexColumnSortSequence;
 import schemacrawler.schema.IndexType;
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
@@ -72,6 +75,11 @@ final class IndexRetriever extends AbstractRetriever {
         retrieveIndexesFromDataDictionary();
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving indexes, for each schema");
+        retrieveIndexesFromMetadataForSchemas(allTables);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving indexes");
         retrieveIndexesFromMetadata(allTables);
@@ -158,7 +166,7 @@ final class IndexRetriever extends AbstractRetriever {
     index.setIndexType(type);
     index.setCardinality(cardinality);
     index.setPages(pages);
-    index.addAttributes(results.getAttributes());
+    index.addAttributes(getAttributes(results));
   }
 
   private void retrieveIndexesFromDataDictionary() throws WrappedSQLException {
@@ -171,36 +179,41 @@ final class IndexRetriever extends AbstractRetriever {
     }
 
     final Query indexesSql = informationSchemaViews.getQuery(INDEXES);
-    try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(indexesSql, statement, getLimitMap()); ) {
-      while (results.next()) {
-        final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
-        final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
-        final String tableName = results.getString("TABLE_NAME");
-
-        final Optional<MutableTable> optionalTable =
-            lookupTable(catalogName, schemaName, tableName);
-        if (!optionalTable.isPresent()) {
-          continue;
-        }
-        final MutableTable table = optionalTable.get();
-        createIndexForTable(table, results);
-      }
+    // Index columns for a table may be returned from different partitions
+    final Object lock = new Object();
+    try {
+      executeAgainstSchemaPartitioned(
+          indexesSql,
+          results -> {
+            while (results.next()) {
+              final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
+              final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
+              final String tableName = results.getString("TABLE_NAME");
+
+              final Optional<MutableTable> optionalTable =
+                  lookupTable(catalogName, schemaName, tableName);
+              if (!optionalTable.isPresent()) {
+                continue;
+              }
+              final MutableTable table = optionalTable.get();
+              synchronized (lock) {
+                createIndexForTable(table, results);
+              }
+            }
+          });
     } catch (final SQLException e) {
       throw new WrappedSQLException(
           String.format("Could not retrieve indexes from SQL:%n%s", indexesSql), e);
     }
   }
 
-  private void retrieveIndexesFromMetadata(final NamedObjectList<MutableTable> allTables)
+  private void retrieveIndexesFromMetadata(final Iterable<MutableTable> tables)
       throws SQLException {
-    for (final MutableTable table : allTables) {
+    for (final MutableTable table : tables) {
       final Schema tableSchema = table.getSchema();
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection
                       .getMetaData()
                       .getIndexInfo(
@@ -218,6 +231,59 @@ final class IndexRetriever extends AbstractRetriever {
     }
   }
 
+  private void retrieveIndexesFromMetadataForSchemas(final NamedObjectList<MutableTable> allTables)
+      throws SQLException {
+    for (final Map.Entry<Schema, List<MutableTable>> schemaTables :
+        groupBySchema(allTables).entrySet()) {
+      final Schema schema = schemaTables.getKey();
+      // Some JDBC drivers return no rows for a null table name, so if there
+      // are no rows at all, retrieve indexes one table at a time
+      boolean retrieveEachTable;
+      try (final Connection connection = getRetrieverConnection().getConnection();
+          final MetadataResultSet results =
+              newMetadataResultSet(
+                  connection
+                      .getMetaData()
+                      .getIndexInfo(
+                          schema.getCatalogName(),
+                          schema.getName(),
+                          null,
+                          false /* return indices regardless of whether unique or not */,
+                          true /* approximate - reflect approximate or out of data values */),
+                  "DatabaseMetaData::getIndexInfo"); ) {
+        while (results.next()) {
+          final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
+          final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
+          final String tableName = results.getString("TABLE_NAME");
+
+          final Optional<MutableTable> optionalTable =
+              allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
+          if (!optionalTable.isPresent()) {
+            continue;
+          }
+          createIndexForTable(optionalTable.get(), results);
+        }
+        retrieveEachTable = results.getRowCount() == 0;
+        if (retrieveEachTable) {
+          LOGGER.log(
+              Level.FINE,
+              new StringFormat(
+                  "No indexes were returned for schema <%s>; trying each table", schema));
+        }
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve indexes for schema <%s>; trying each table",
+                schema),
+            e);
+        retrieveEachTable = true;
+      }
+      if (retrieveEachTable) {
+        retrieveIndexesFromMetadata(schemaTables.getValue());
+      }
+    }
+  }
+
   /**
    * Retrieves index information from the database, in the INFORMATION_SCHEMA format.
    *
@@ -237,10 +303,11 @@ final class IndexRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving additional index information");
 
     final Query extIndexesInformationSql = informationSchemaViews.getQuery(EXT_INDEXES);
+    final DefinitionsCollector<MutableIndex> definitions = new DefinitionsCollector<>();
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(extIndexesInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(extIndexesInformationSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("INDEX_CATALOG"));
@@ -274,11 +341,12 @@ final class IndexRetriever extends AbstractRetriever {
         final String definition = results.getString("INDEX_DEFINITION");
         final String remarks = results.getString("REMARKS");
 
-        index.appendDefinition(definition);
+        definitions.add(index, definition);
         index.setRemarks(remarks);
 
-        index.addAttributes(results.getAttributes());
+        index.addAttributes(getAttributes(results));
       }
+      definitions.appendTo(MutableIndex::appendDefinition);
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve index information", e);
     }
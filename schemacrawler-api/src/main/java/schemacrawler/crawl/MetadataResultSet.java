@@ -36,20 +36,23 @@ import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static java.util.Objects.requireNonNull;
 import static us.fatehi.utility.Utility.isBlank;
 import static us.fatehi.utility.Utility.isIntegral;
 import static us.fatehi.utility.Utility.requireNotBlank;
+import schemacrawler.inclusionrule.ExcludeAll;
+import schemacrawler.inclusionrule.IncludeAll;
 import schemacrawler.inclusionrule.InclusionRule;
 import schemacrawler.schema.IdentifiedEnum;
 import schemacrawler.schema.ResultsColumn;
@@ -70,12 +73,30 @@ public final class MetadataResultSet implements AutoCloseable {
 
   private static final int FETCHSIZE = 20;
 
+  // Suffixes of the names of metadata columns with values that repeat across rows, such as
+  // catalog, schema, object and type names, and codes such as IS_NULLABLE
+  private static final String[] IDENTIFIER_COLUMN_SUFFIXES = {
+    "_CAT", "_CATALOG", "_SCHEM", "_SCHEMA", "_NAME", "_TYPE", "_DEF", "_GENERATION"
+  };
+  private static final String[] IDENTIFIER_COLUMN_PREFIXES = {"IS_"};
+
+  /** Ordinal returned for a column that is not in the result set. */
+  public static final int NO_COLUMN = 0;
+
   private final ResultsColumns resultsColumns;
   private final ResultSet results;
   private final String description;
-  private Set<ResultsColumn> readColumns;
+  // Results columns, and whether they were read in the current row, indexed by ordinal
+  private final ResultsColumn[] columns;
+  private final boolean[] readColumns;
+  private final String[] attributeNames;
+  private final boolean[] identifierColumns;
+  // Column ordinals, by upper case column name, full name and label
+  private final Map<String, Integer> columnOrdinals;
   private int rowCount;
+  private IntConsumer rowCountListener;
   private boolean showLobs;
+  private StringPool stringPool;
 
   public MetadataResultSet(
       final Query query, final Statement statement, final Map<String, InclusionRule> limitMap)
@@ -94,7 +115,35 @@ public final class MetadataResultSet implements AutoCloseable {
     this.description = requireNotBlank(description, "No result-set description provided");
 
     resultsColumns = new ResultsCrawler(results).crawl();
-    readColumns = new HashSet<>();
+
+    int columnCount = 0;
+    for (final ResultsColumn resultsColumn : resultsColumns) {
+      columnCount = Math.max(columnCount, resultsColumn.getOrdinalPosition());
+    }
+    columns = new ResultsColumn[columnCount + 1];
+    readColumns = new boolean[columnCount + 1];
+    attributeNames = new String[columnCount + 1];
+    identifierColumns = new boolean[columnCount + 1];
+    columnOrdinals = new HashMap<>();
+    for (final ResultsColumn resultsColumn : resultsColumns) {
+      final int ordinal = resultsColumn.getOrdinalPosition();
+      if (ordinal <= NO_COLUMN) {
+        continue;
+      }
+      columns[ordinal] = resultsColumn;
+      attributeNames[ordinal] = resultsColumn.getLabel().toUpperCase();
+      identifierColumns[ordinal] = isIdentifierColumn(attributeNames[ordinal]);
+      // Match the lookup order of results columns, where the label is checked first
+      for (final String name :
+          new String[] {
+            resultsColumn.getLabel(), resultsColumn.getFullName(), resultsColumn.getName()
+          }) {
+        if (name != null) {
+          columnOrdinals.putIfAbsent(name.toUpperCase(Locale.ENGLISH), ordinal);
+        }
+      }
+    }
+
     showLobs = true;
   }
 
@@ -108,6 +157,9 @@ public final class MetadataResultSet implements AutoCloseable {
   public void close() throws SQLException {
     results.close();
     LOGGER.log(Level.FINE, new StringFormat("Processed %d rows for <%s>", rowCount, description));
+    if (rowCountListener != null) {
+      rowCountListener.accept(rowCount);
+    }
   }
 
   /**
@@ -117,26 +169,55 @@ public final class MetadataResultSet implements AutoCloseable {
    * @return Map of additional attributes to the database object
    */
   public Map<String, Object> getAttributes() {
-    final Map<String, Object> attributes = new HashMap<>();
-    for (final ResultsColumn resultsColumn : resultsColumns) {
-      if (!readColumns.contains(resultsColumn)) {
-        try {
-          final String key = resultsColumn.getLabel().toUpperCase();
-          final Object value = getColumnData(resultsColumn);
-          attributes.put(key, value);
-        } catch (final SQLException | ArrayIndexOutOfBoundsException e) {
-          /*
-           * MySQL connector is broken and can cause ArrayIndexOutOfBoundsExceptions for no good
-           * reason (tested with connector 5.1.26 and server version 5.0.95). Ignoring the
-           * exception, we can still get some useful data out of the database.
-           */
-          LOGGER.log(
-              Level.WARNING,
-              e,
-              new StringFormat("Could not read value for column <%s>", resultsColumn));
+    return getAttributes(new IncludeAll());
+  }
+
+  /**
+   * Gets unread (and therefore unmapped) columns from the database metadata result-set, and makes
+   * them available as additional attributes. Only columns with names that are included by the
+   * inclusion rule are read.
+   *
+   * @param attributesInclusionRule Inclusion rule for upper case attribute names
+   * @return Map of additional attributes to the database object
+   */
+  public Map<String, Object> getAttributes(final InclusionRule attributesInclusionRule) {
+    requireNonNull(attributesInclusionRule, "No attributes inclusion rule provided");
+    if (attributesInclusionRule instanceof ExcludeAll) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, Object> attributes = null;
+    for (int ordinal = 1; ordinal < columns.length; ordinal++) {
+      final ResultsColumn resultsColumn = columns[ordinal];
+      if (resultsColumn == null
+          || readColumns[ordinal]
+          || !attributesInclusionRule.test(attributeNames[ordinal])) {
+        continue;
+      }
+      try {
+        Object value = getColumnData(resultsColumn);
+        if (value instanceof String) {
+          value = pool(ordinal, (String) value);
         }
+        if (attributes == null) {
+          attributes = new HashMap<>();
+        }
+        attributes.put(attributeNames[ordinal], value);
+      } catch (final SQLException | ArrayIndexOutOfBoundsException e) {
+        /*
+         * MySQL connector is broken and can cause ArrayIndexOutOfBoundsExceptions for no good
+         * reason (tested with connector 5.1.26 and server version 5.0.95). Ignoring the
+         * exception, we can still get some useful data out of the database.
+         */
+        LOGGER.log(
+            Level.WARNING,
+            e,
+            new StringFormat("Could not read value for column <%s>", resultsColumn));
       }
     }
+    if (attributes == null) {
+      return Collections.emptyMap();
+    }
     return attributes;
   }
 
@@ -159,18 +240,21 @@ public final class MetadataResultSet implements AutoCloseable {
   /**
    * Checks if the value of a column from the result set evaluates to true.
    *
-   * @param columnName Column name to check
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
    * @return Whether the string evaluates to true
    */
-  public boolean getBoolean(final String columnName) {
-    if (useColumn(columnName)) {
+  public boolean getBoolean(final int ordinal) {
+    if (useColumn(ordinal)) {
       try {
-        final Object booleanValue = results.getObject(columnName);
+        final Object booleanValue = results.getObject(ordinal);
         final String stringBooleanValue;
         if (results.wasNull() || booleanValue == null) {
-          LOGGER.log(
-              Level.FINER,
-              new StringFormat("NULL value for column <%s>, so evaluating to 'false'", columnName));
+          if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(
+                Level.FINER,
+                new StringFormat(
+                    "NULL value for column <%s>, so evaluating to 'false'", columns[ordinal]));
+          }
           return false;
         }
         stringBooleanValue = String.valueOf(booleanValue).trim();
@@ -184,12 +268,22 @@ public final class MetadataResultSet implements AutoCloseable {
         LOGGER.log(
             Level.WARNING,
             e,
-            new StringFormat("Could not read boolean value for column <%s>", columnName));
+            new StringFormat("Could not read boolean value for column <%s>", columns[ordinal]));
       }
     }
     return false;
   }
 
+  /**
+   * Checks if the value of a column from the result set evaluates to true.
+   *
+   * @param columnName Column name to check
+   * @return Whether the string evaluates to true
+   */
+  public boolean getBoolean(final String columnName) {
+    return getBoolean(lookupColumnOrdinal(columnName));
+  }
+
   public String[] getColumnNames() {
     final List<String> columnNames = new ArrayList<>();
     resultsColumns.forEach(resultsColumn -> columnNames.add(resultsColumn.getName()));
@@ -245,122 +339,244 @@ public final class MetadataResultSet implements AutoCloseable {
    * Reads the value of a column from the result set as an integer. If the value was null, returns
    * the default.
    *
-   * @param columnName Column name
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
    * @param defaultValue Default value
    * @return Integer value of the column, or the default if not available
    */
-  public int getInt(final String columnName, final int defaultValue) {
+  public int getInt(final int ordinal, final int defaultValue) {
     int value = defaultValue;
-    if (useColumn(columnName)) {
+    if (useColumn(ordinal)) {
       try {
-        value = results.getInt(columnName);
+        value = results.getInt(ordinal);
         if (results.wasNull()) {
-          LOGGER.log(
-              Level.FINER,
-              new StringFormat(
-                  "NULL int value for column <%s>, so using default %d", columnName, defaultValue));
+          if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(
+                Level.FINER,
+                new StringFormat(
+                    "NULL int value for column <%s>, so using default %d",
+                    columns[ordinal], defaultValue));
+          }
           value = defaultValue;
         }
       } catch (final SQLException e) {
         LOGGER.log(
             Level.WARNING,
             e,
-            new StringFormat("Could not read integer value for column <%s>", columnName));
+            new StringFormat("Could not read integer value for column <%s>", columns[ordinal]));
       }
     }
     return value;
   }
 
+  /**
+   * Reads the value of a column from the result set as an integer. If the value was null, returns
+   * the default.
+   *
+   * @param columnName Column name
+   * @param defaultValue Default value
+   * @return Integer value of the column, or the default if not available
+   */
+  public int getInt(final String columnName, final int defaultValue) {
+    return getInt(lookupColumnOrdinal(columnName), defaultValue);
+  }
+
   /**
    * Reads the value of a column from the result set as a long. If the value was null, returns the
    * default.
    *
-   * @param columnName Column name
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
    * @param defaultValue Default value
    * @return Long value of the column, or the default if not available
    */
-  public long getLong(final String columnName, final long defaultValue) {
+  public long getLong(final int ordinal, final long defaultValue) {
     long value = defaultValue;
-    if (useColumn(columnName)) {
+    if (useColumn(ordinal)) {
       try {
-        value = results.getLong(columnName);
+        value = results.getLong(ordinal);
         if (results.wasNull()) {
-          LOGGER.log(
-              Level.FINER,
-              new StringFormat(
-                  "NULL long value for column <%s>, so using default %d",
-                  columnName, defaultValue));
+          if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(
+                Level.FINER,
+                new StringFormat(
+                    "NULL long value for column <%s>, so using default %d",
+                    columns[ordinal], defaultValue));
+          }
           value = defaultValue;
         }
       } catch (final SQLException e) {
         LOGGER.log(
             Level.WARNING,
             e,
-            new StringFormat("Could not read long value for column <%s>", columnName));
+            new StringFormat("Could not read long value for column <%s>", columns[ordinal]));
       }
     }
     return value;
   }
 
   /**
-   * Reads the value of a column from the result set as a short. If the value was null, returns the
+   * Reads the value of a column from the result set as a long. If the value was null, returns the
    * default.
    *
    * @param columnName Column name
    * @param defaultValue Default value
+   * @return Long value of the column, or the default if not available
+   */
+  public long getLong(final String columnName, final long defaultValue) {
+    return getLong(lookupColumnOrdinal(columnName), defaultValue);
+  }
+
+  /**
+   * Reads the value of a column from the result set as a short. If the value was null, returns the
+   * default.
+   *
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
+   * @param defaultValue Default value
    * @return Short value of the column, or the default if not available
    */
-  public short getShort(final String columnName, final short defaultValue) {
+  public short getShort(final int ordinal, final short defaultValue) {
     short value = defaultValue;
-    if (useColumn(columnName)) {
+    if (useColumn(ordinal)) {
       try {
-        value = results.getShort(columnName);
+        value = results.getShort(ordinal);
         if (results.wasNull()) {
-          LOGGER.log(
-              Level.FINER,
-              new StringFormat(
-                  "NULL short value for column <%s>, so using default %d",
-                  columnName, defaultValue));
+          if (LOGGER.isLoggable(Level.FINER)) {
+            LOGGER.log(
+                Level.FINER,
+                new StringFormat(
+                    "NULL short value for column <%s>, so using default %d",
+                    columns[ordinal], defaultValue));
+          }
           value = defaultValue;
         }
       } catch (final SQLException e) {
         LOGGER.log(
             Level.WARNING,
             e,
-            new StringFormat("Could not read short value for column <%s>", columnName));
+            new StringFormat("Could not read short value for column <%s>", columns[ordinal]));
       }
     }
     return value;
   }
 
   /**
-   * Reads the value of a column from the result set as a string.
+   * Reads the value of a column from the result set as a short. If the value was null, returns the
+   * default.
    *
    * @param columnName Column name
+   * @param defaultValue Default value
+   * @return Short value of the column, or the default if not available
+   */
+  public short getShort(final String columnName, final short defaultValue) {
+    return getShort(lookupColumnOrdinal(columnName), defaultValue);
+  }
+
+  /**
+   * Reads the value of a column from the result set as a string.
+   *
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
    * @return String value of the column, or null if not available
    */
-  public String getString(final String columnName) {
+  public String getString(final int ordinal) {
     String value = null;
-    if (useColumn(columnName)) {
+    if (useColumn(ordinal)) {
       try {
-        value = results.getString(columnName);
+        value = results.getString(ordinal);
         if (results.wasNull()) {
           value = null;
         }
 
         if (value != null) {
-          value = value.trim();
+          value = pool(ordinal, value.trim());
         }
       } catch (final SQLException e) {
         LOGGER.log(
             Level.WARNING,
             e,
-            new StringFormat("Could not read string value for column <%s>", columnName));
+            new StringFormat("Could not read string value for column <%s>", columns[ordinal]));
       }
     }
     return value;
   }
 
+  /**
+   * Reads the value of a column from the result set as a string.
+   *
+   * @param columnName Column name
+   * @return String value of the column, or null if not available
+   */
+  public String getString(final String columnName) {
+    return getString(lookupColumnOrdinal(columnName));
+  }
+
+  /**
+   * Reads the value of a column from the result set as a timestamp.
+   *
+   * @param ordinal Column ordinal, from {@link #lookupColumnOrdinal(String)}
+   * @return Timestamp value of the column, or null if not available
+   */
+  public Timestamp getTimestamp(final int ordinal) {
+    Timestamp value = null;
+    if (useColumn(ordinal)) {
+      try {
+        value = results.getTimestamp(ordinal);
+        if (results.wasNull()) {
+          value = null;
+        }
+      } catch (final SQLException e) {
+        LOGGER.log(
+            Level.WARNING,
+            e,
+            new StringFormat("Could not read timestamp value for column <%s>", columns[ordinal]));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Reads the value of a column from the result set as a timestamp.
+   *
+   * @param columnName Column name
+   * @return Timestamp value of the column, or null if not available
+   */
+  public Timestamp getTimestamp(final String columnName) {
+    return getTimestamp(lookupColumnOrdinal(columnName));
+  }
+
+  /**
+   * Looks up the ordinal of a column by name, full name or label, so that the column can be read
+   * by ordinal for every row, without looking it up by name again.
+   *
+   * @param columnName Column name
+   * @return Column ordinal, or {@link #NO_COLUMN} if the column is not in the result set
+   */
+  public int lookupColumnOrdinal(final String columnName) {
+    if (columnName == null) {
+      return NO_COLUMN;
+    }
+    final Integer ordinal = columnOrdinals.get(columnName.toUpperCase(Locale.ENGLISH));
+    if (ordinal == null) {
+      return NO_COLUMN;
+    }
+    return ordinal;
+  }
+
+  /**
+   * Looks up the ordinals of columns by name, full name or label, so that the columns can be read
+   * by ordinal for every row.
+   *
+   * @param columnNames Column names
+   * @return Column ordinals, in the same order as the column names, with {@link #NO_COLUMN} for
+   *     columns that are not in the result set
+   */
+  public int[] lookupColumnOrdinals(final String... columnNames) {
+    requireNonNull(columnNames, "No column names provided");
+    final int[] ordinals = new int[columnNames.length];
+    for (int i = 0; i < columnNames.length; i++) {
+      ordinals[i] = lookupColumnOrdinal(columnNames[i]);
+    }
+    return ordinals;
+  }
+
   /**
    * Moves the cursor down one row from its current position. A <code>ResultSet</code> cursor is
    * initially positioned before the first row; the first call to the method <code>next</code> makes
@@ -371,7 +587,7 @@ public final class MetadataResultSet implements AutoCloseable {
    * @throws SQLException On a database access error
    */
   public boolean next() throws SQLException {
-    readColumns = new HashSet<>();
+    Arrays.fill(readColumns, false);
 
     final boolean next = results.next();
     new UtilityLogger(LOGGER).logSQLWarnings(results);
@@ -445,9 +661,83 @@ public final class MetadataResultSet implements AutoCloseable {
     return new BinaryData();
   }
 
-  private boolean useColumn(final String columnName) {
-    final Optional<ResultsColumn> optionalResultsColumn = resultsColumns.lookupColumn(columnName);
-    optionalResultsColumn.ifPresent(readColumns::add);
-    return optionalResultsColumn.isPresent();
+  ResultsColumns getResultsColumns() {
+    return resultsColumns;
+  }
+
+  /**
+   * Number of rows that have been read so far.
+   *
+   * @return Number of rows read
+   */
+  int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Changes the fetch size for the rest of the result set.
+   *
+   * @param fetchSize Fetch size
+   */
+  void setFetchSize(final int fetchSize) {
+    try {
+      results.setFetchSize(fetchSize);
+    } catch (final SQLException e) {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not set fetch size to %d", fetchSize));
+    }
+  }
+
+  /**
+   * Notifies the number of rows that were read, when the result set is closed.
+   *
+   * @param rowCountListener Listener for the number of rows
+   */
+  void setRowCountListener(final IntConsumer rowCountListener) {
+    this.rowCountListener = rowCountListener;
+  }
+
+  /**
+   * Shares the values of identifier-like columns, and the names of attributes, with other result
+   * sets that are read during a crawl.
+   *
+   * @param stringPool Pool of strings for the crawl
+   */
+  void setStringPool(final StringPool stringPool) {
+    this.stringPool = requireNonNull(stringPool, "No string pool provided");
+    for (int ordinal = 1; ordinal < attributeNames.length; ordinal++) {
+      attributeNames[ordinal] = stringPool.pool(attributeNames[ordinal]);
+    }
+  }
+
+  private static boolean isIdentifierColumn(final String columnName) {
+    if (columnName == null) {
+      return false;
+    }
+    for (final String suffix : IDENTIFIER_COLUMN_SUFFIXES) {
+      if (columnName.endsWith(suffix)) {
+        return true;
+      }
+    }
+    for (final String prefix : IDENTIFIER_COLUMN_PREFIXES) {
+      if (columnName.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String pool(final int ordinal, final String value) {
+    if (stringPool == null || !identifierColumns[ordinal]) {
+      return value;
+    }
+    return stringPool.pool(value);
+  }
+
+  private boolean useColumn(final int ordinal) {
+    if (ordinal <= NO_COLUMN || ordinal >= columns.length || columns[ordinal] == null) {
+      return false;
+    }
+    readColumns[ordinal] = true;
+    return true;
   }
 }
@@ -0,0 +1,328 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForColumnInclusion;
+import static us.fatehi.utility.Utility.isBlank;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.View;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategyProfiles;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
+import schemacrawler.schemacrawler.SchemaReference;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Selects the fastest metadata retrieval strategies for table metadata, at the start of the first
+ * crawl of a database. Each strategy is timed by retrieving metadata for a sample of tables into a
+ * separate catalog, which is thrown away. Metadata calls are made for each table, or for each
+ * schema, so their times are scaled up to all the tables, or all the schemas. Data dictionary
+ * queries return metadata for all tables in one go, so their times are not scaled. The fastest
+ * strategies are used for the rest of the crawl, and are saved right away as a profile, so that
+ * later crawls of the same database do not need to time retrievals again.
+ */
+final class MetadataRetrievalStrategyTuner extends AbstractRetriever {
+
+  private static final Logger LOGGER =
+      Logger.getLogger(MetadataRetrievalStrategyTuner.class.getName());
+
+  private static final int SAMPLE_SIZE = 10;
+
+  private static final Map<SchemaInfoMetadataRetrievalStrategy, SchemaInfoRetrieval> retrievals;
+  private static final Map<SchemaInfoMetadataRetrievalStrategy, InformationSchemaKey>
+      dataDictionaryQueries;
+
+  static {
+    retrievals = new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    retrievals.put(
+        SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy,
+        SchemaInfoRetrieval.retrieveTableColumns);
+    retrievals.put(
+        SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy,
+        SchemaInfoRetrieval.retrievePrimaryKeys);
+    retrievals.put(
+        SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy,
+        SchemaInfoRetrieval.retrieveIndexes);
+    retrievals.put(
+        SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy,
+        SchemaInfoRetrieval.retrieveForeignKeys);
+
+    dataDictionaryQueries = new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    dataDictionaryQueries.put(
+        SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy,
+        InformationSchemaKey.TABLE_COLUMNS);
+    dataDictionaryQueries.put(
+        SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy,
+        InformationSchemaKey.PRIMARY_KEYS);
+    dataDictionaryQueries.put(
+        SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy,
+        InformationSchemaKey.INDEXES);
+    dataDictionaryQueries.put(
+        SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy,
+        InformationSchemaKey.FOREIGN_KEYS);
+  }
+
+  private static int countSchemas(final NamedObjectList<MutableTable> tables) {
+    final Set<Schema> schemas = new HashSet<>();
+    for (final MutableTable table : tables) {
+      schemas.add(table.getSchema());
+    }
+    return schemas.size();
+  }
+
+  private final SchemaInfoLevel infoLevel;
+  private final SchemaCrawlerOptions options;
+
+  MetadataRetrievalStrategyTuner(
+      final RetrieverConnection retrieverConnection,
+      final MutableCatalog catalog,
+      final SchemaCrawlerOptions options)
+      throws SQLException {
+    super(retrieverConnection, catalog, options);
+    this.options = options;
+    infoLevel = options.getLoadOptions().getSchemaInfoLevel();
+  }
+
+  /**
+   * Selects metadata retrieval strategies for table metadata, if a profiles directory was
+   * provided, and no profile was previously saved for the database. For each type of metadata that
+   * is retrieved for the crawl, each strategy is timed on a sample of tables, and the fastest
+   * strategy is selected. The selected strategies are saved as a profile right away.
+   *
+   * @param allTables Tables that were retrieved
+   */
+  void tune(final NamedObjectList<MutableTable> allTables) {
+    requireNonNull(allTables, "No tables provided");
+
+    final Optional<Path> optionalProfilesDirectory =
+        getRetrieverConnection().getMetadataRetrievalStrategyProfilesDirectory();
+    if (!optionalProfilesDirectory.isPresent() || allTables.isEmpty()) {
+      return;
+    }
+
+    final NamedObjectList<MutableTable> sampleTables = new NamedObjectList<>();
+    for (final MutableTable table : allTables) {
+      if (sampleTables.size() == SAMPLE_SIZE) {
+        break;
+      }
+      sampleTables.add(table);
+    }
+    final double tablesScale = (double) allTables.size() / sampleTables.size();
+    final double schemasScale = (double) countSchemas(allTables) / countSchemas(sampleTables);
+
+    final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> strategies =
+        new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    for (final SchemaInfoMetadataRetrievalStrategy key : retrievals.keySet()) {
+      final List<MetadataRetrievalStrategy> candidates = candidateStrategies(key);
+      if (candidates.isEmpty()) {
+        continue;
+      }
+
+      final Map<MetadataRetrievalStrategy, Long> times =
+          new EnumMap<>(MetadataRetrievalStrategy.class);
+      MetadataRetrievalStrategy fastestStrategy = null;
+      for (final MetadataRetrievalStrategy candidate : candidates) {
+        final Optional<Long> sampleTime = timeRetrieval(key, candidate, sampleTables);
+        if (!sampleTime.isPresent()) {
+          continue;
+        }
+        final double scale;
+        switch (candidate) {
+          case metadata:
+            scale = tablesScale;
+            break;
+          case metadata_per_schema:
+            scale = schemasScale;
+            break;
+          default:
+            scale = 1;
+            break;
+        }
+        final long time = (long) (sampleTime.get() * scale);
+        times.put(candidate, time);
+        if (fastestStrategy == null || time < times.get(fastestStrategy)) {
+          fastestStrategy = candidate;
+        }
+      }
+
+      if (fastestStrategy == null) {
+        // Keep the configured strategy, which is the first candidate
+        getRetrieverConnection().select(key, candidates.get(0));
+        continue;
+      }
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat(
+              "Selected <%s> for <%s> (estimated nanoseconds %s)", fastestStrategy, key, times));
+      getRetrieverConnection().select(key, fastestStrategy);
+      strategies.put(key, fastestStrategy);
+    }
+
+    if (strategies.isEmpty()) {
+      return;
+    }
+    final String connectionUrl = lookupConnectionUrl();
+    if (isBlank(connectionUrl)) {
+      return;
+    }
+    try {
+      MetadataRetrievalStrategyProfiles.saveProfile(
+          optionalProfilesDirectory.get(), connectionUrl, strategies);
+    } catch (final IOException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Could not save metadata retrieval strategy profile", e);
+    }
+  }
+
+  /**
+   * Lists the strategies that can be used for a type of metadata, starting with the configured
+   * strategy. Metadata that is not retrieved for the crawl has no strategies.
+   */
+  private List<MetadataRetrievalStrategy> candidateStrategies(
+      final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy) {
+    final List<MetadataRetrievalStrategy> candidates = new ArrayList<>();
+    final MetadataRetrievalStrategy configuredStrategy =
+        getRetrieverConnection().get(schemaInfoMetadataRetrievalStrategy);
+    if (configuredStrategy == MetadataRetrievalStrategy.none
+        || !infoLevel.is(retrievals.get(schemaInfoMetadataRetrievalStrategy))) {
+      return candidates;
+    }
+
+    candidates.add(configuredStrategy);
+    for (final MetadataRetrievalStrategy strategy : MetadataRetrievalStrategy.values()) {
+      if (strategy != MetadataRetrievalStrategy.none && !candidates.contains(strategy)) {
+        candidates.add(strategy);
+      }
+    }
+    // Without a data dictionary query, nothing would be retrieved
+    if (!getRetrieverConnection()
+        .getInformationSchemaViews()
+        .hasQuery(dataDictionaryQueries.get(schemaInfoMetadataRetrievalStrategy))) {
+      candidates.remove(MetadataRetrievalStrategy.data_dictionary_all);
+    }
+    return candidates;
+  }
+
+  private String lookupConnectionUrl() {
+    try (final Connection connection = getRetrieverConnection().getConnection()) {
+      return connection.getMetaData().getURL();
+    } catch (final SQLException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Could not get connection URL for metadata retrieval profile", e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates a catalog with copies of the sample tables, without any of their metadata, so that
+   * metadata can be retrieved for timing without changing the catalog that is being crawled.
+   */
+  private MutableCatalog newSampleCatalog(final NamedObjectList<MutableTable> sampleTables) {
+    final MutableCatalog sampleCatalog =
+        new MutableCatalog(
+            catalog.getName(), catalog.getDatabaseInfo(), catalog.getJdbcDriverInfo());
+    for (final SchemaReference schema : getAllSchemas()) {
+      sampleCatalog.addSchema(schema);
+    }
+    for (final MutableTable table : sampleTables) {
+      final MutableTable sampleTable;
+      if (table instanceof View) {
+        sampleTable = new MutableView(table.getSchema(), table.getName());
+      } else {
+        sampleTable = new MutableTable(table.getSchema(), table.getName());
+      }
+      sampleTable.setTableType(table.getTableType());
+      sampleCatalog.addTable(sampleTable);
+    }
+    return sampleCatalog;
+  }
+
+  /**
+   * Times the retrieval of a type of metadata for the sample tables, using a strategy. Retrievals
+   * that fail are not timed.
+   */
+  private Optional<Long> timeRetrieval(
+      final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy,
+      final MetadataRetrievalStrategy strategy,
+      final NamedObjectList<MutableTable> sampleTables) {
+    final RetrieverConnection retrieverConnection = getRetrieverConnection();
+    retrieverConnection.select(schemaInfoMetadataRetrievalStrategy, strategy);
+    final MutableCatalog sampleCatalog = newSampleCatalog(sampleTables);
+    final NamedObjectList<MutableTable> tables = sampleCatalog.getAllTables();
+
+    final long start = System.nanoTime();
+    try {
+      switch (schemaInfoMetadataRetrievalStrategy) {
+        case tableColumnsRetrievalStrategy:
+          new TableColumnRetriever(retrieverConnection, sampleCatalog, options)
+              .retrieveTableColumns(tables, options.getLimitOptions().get(ruleForColumnInclusion));
+          break;
+        case primaryKeysRetrievalStrategy:
+          new PrimaryKeyRetriever(retrieverConnection, sampleCatalog, options)
+              .retrievePrimaryKeys(tables);
+          break;
+        case indexesRetrievalStrategy:
+          new IndexRetriever(retrieverConnection, sampleCatalog, options).retrieveIndexes(tables);
+          break;
+        case foreignKeysRetrievalStrategy:
+          new ForeignKeyRetriever(retrieverConnection, sampleCatalog, options)
+              .retrieveForeignKeys(tables);
+          break;
+        default:
+          return Optional.empty();
+      }
+    } catch (final SQLException | RuntimeException e) {
+      LOGGER.log(
+          Level.WARNING,
+          e,
+          new StringFormat(
+              "Could not time <%s> for <%s>", strategy, schemaInfoMetadataRetrievalStrategy));
+      return Optional.empty();
+    }
+    return Optional.of(System.nanoTime() - start);
+  }
+}
@@ -72,6 +72,9 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
 
   private static final long serialVersionUID = 4051323422934251828L;
 
+  // Key of the schema for system data types, shared by lookups
+  private static final NamedObjectKey SYSTEM_SCHEMA_KEY = new SchemaReference().key();
+
   private final NamedObjectList<MutableColumnDataType> columnDataTypes = new NamedObjectList<>();
   private final MutableDatabaseInfo databaseInfo;
   private final MutableJdbcDriverInfo jdbcDriverInfo;
@@ -284,7 +287,7 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
   /** {@inheritDoc} */
   @Override
   public Optional<MutableColumnDataType> lookupSystemColumnDataType(final String name) {
-    return lookupColumnDataType(new SchemaReference(), name);
+    return columnDataTypes.lookup(SYSTEM_SCHEMA_KEY.with(name));
   }
 
   /** {@inheritDoc} */
@@ -376,6 +379,28 @@ final class MutableCatalog extends AbstractNamedObjectWithAttributes implements
     tables.add(table);
   }
 
+  /**
+   * Freezes the catalog, so that database objects cannot be added or removed any more. Collections
+   * of database objects are moved to compact read-only maps, which take less memory, and which can
+   * be read without locks.
+   */
+  void freeze() {
+    for (final MutableTable table : tables) {
+      table.freeze();
+    }
+    for (final MutableRoutine routine : routines) {
+      routine.freeze();
+    }
+
+    columnDataTypes.freeze();
+    routines.freeze();
+    schemas.freeze();
+    sequences.freeze();
+    synonyms.freeze();
+    tables.freeze();
+    databaseUsers.freeze();
+  }
+
   NamedObjectList<MutableRoutine> getAllRoutines() {
     return routines;
   }
@@ -43,6 +43,12 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.SignStyle;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import schemacrawler.BaseProductVersion;
 import schemacrawler.JvmSystemInfo;
@@ -50,6 +56,8 @@ import schemacrawler.OperatingSystemInfo;
 import schemacrawler.ProductVersion;
 import schemacrawler.Version;
 import schemacrawler.schema.CrawlInfo;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
 
 /** SchemaCrawler crawl information. */
 final class MutableCrawlInfo implements CrawlInfo {
@@ -82,6 +90,8 @@ final class MutableCrawlInfo implements CrawlInfo {
   private final ProductVersion schemaCrawlerVersion;
   private final ProductVersion databaseVersion;
   private final ProductVersion jdbcDriverVersion;
+  private final Map<String, String> failedRetrievals;
+  private final Set<SchemaInfoRetrieval> schemaInfoRetrievals;
 
   MutableCrawlInfo(
       final MutableDatabaseInfo databaseInfo, final MutableJdbcDriverInfo jdbcDriverInfo) {
@@ -97,6 +107,8 @@ final class MutableCrawlInfo implements CrawlInfo {
 
     crawlTimestamp = Instant.now();
     runId = UUID.randomUUID();
+    failedRetrievals = new LinkedHashMap<>();
+    schemaInfoRetrievals = EnumSet.noneOf(SchemaInfoRetrieval.class);
   }
 
   @Override
@@ -116,6 +128,18 @@ final class MutableCrawlInfo implements CrawlInfo {
     return databaseVersion;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, String> getFailedRetrievals() {
+    // Crawl information serialized by older versions does not have failed retrievals
+    if (failedRetrievals == null) {
+      return Collections.emptyMap();
+    }
+    synchronized (failedRetrievals) {
+      return Collections.unmodifiableMap(new LinkedHashMap<>(failedRetrievals));
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public ProductVersion getJdbcDriverVersion() {
@@ -146,6 +170,18 @@ final class MutableCrawlInfo implements CrawlInfo {
     return schemaCrawlerVersion;
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public Collection<SchemaInfoRetrieval> getSchemaInfoRetrievals() {
+    // Crawl information serialized by older versions does not have retrievals
+    if (schemaInfoRetrievals == null) {
+      return Collections.emptySet();
+    }
+    synchronized (schemaInfoRetrievals) {
+      return Collections.unmodifiableSet(EnumSet.copyOf(schemaInfoRetrievals));
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
@@ -158,10 +194,69 @@ final class MutableCrawlInfo implements CrawlInfo {
     info.append("-- driver: ").append(jdbcDriverVersion).append(lineSeparator());
     info.append("-- operating system: ").append(operatingSystemVersion).append(lineSeparator());
     info.append("-- JVM system: ").append(jvmVersion).append(lineSeparator());
+    for (final Map.Entry<String, String> failedRetrieval : getFailedRetrievals().entrySet()) {
+      info.append("-- failed retrieval: ")
+          .append(failedRetrieval.getKey())
+          .append(" - ")
+          .append(failedRetrieval.getValue())
+          .append(lineSeparator());
+    }
 
     return info.toString();
   }
 
+  /**
+   * Records a retrieval that failed, so that the partial catalog can be returned.
+   *
+   * @param retrievalName Name of the retrieval that failed
+   * @param exception Reason for the failure
+   */
+  void addFailedRetrieval(final String retrievalName, final Throwable exception) {
+    requireNonNull(retrievalName, "No retrieval name provided");
+    requireNonNull(exception, "No exception provided");
+    synchronized (failedRetrievals) {
+      failedRetrievals.put(retrievalName, String.valueOf(exception.getMessage()));
+    }
+  }
+
+  /**
+   * Records the retrievals that are requested by a schema info level, when the catalog is crawled
+   * or enriched.
+   *
+   * @param schemaInfoLevel Schema info level of the crawl
+   */
+  void addSchemaInfoRetrievals(final SchemaInfoLevel schemaInfoLevel) {
+    requireNonNull(schemaInfoLevel, "No schema info level provided");
+    synchronized (schemaInfoRetrievals) {
+      for (final SchemaInfoRetrieval retrieval : SchemaInfoRetrieval.values()) {
+        if (schemaInfoLevel.is(retrieval)) {
+          schemaInfoRetrievals.add(retrieval);
+        }
+      }
+    }
+  }
+
+  /**
+   * Whether the retrievals requested for the catalog are known. They are not known for crawl
+   * information serialized by older versions.
+   *
+   * @return True if the requested retrievals were recorded
+   */
+  boolean isSchemaInfoRetrievalsRecorded() {
+    return schemaInfoRetrievals != null;
+  }
+
+  /**
+   * Removes a failed retrieval, before it is run again.
+   *
+   * @param retrievalName Name of the retrieval
+   */
+  void removeFailedRetrieval(final String retrievalName) {
+    synchronized (failedRetrievals) {
+      failedRetrievals.remove(retrievalName);
+    }
+  }
+
   private ZonedDateTime getCrawlTimestampUTC() {
     return ZonedDateTime.ofInstant(crawlTimestamp, UTC);
   }
@@ -171,6 +171,10 @@ class MutableIndex extends AbstractDependantObject<Table> implements Index {
     }
   }
 
+  final void freeze() {
+    columns.freeze();
+  }
+
   final void setCardinality(final long cardinality) {
     this.cardinality = cardinality;
   }
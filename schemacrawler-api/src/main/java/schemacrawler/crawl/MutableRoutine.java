@@ -142,6 +142,9 @@ abstract class MutableRoutine extends AbstractDatabaseObject implements Routine
     }
   }
 
+  /** Freezes the routine, along with its parameters. */
+  abstract void freeze();
+
   final void setRoutineBodyType(final RoutineBodyType routineBodyType) {
     this.routineBodyType = routineBodyType;
   }
@@ -342,14 +342,56 @@ class MutableTable extends AbstractDatabaseObject implements Table {
     }
   }
 
+  /** Freezes the table, along with its columns, keys, indexes and constraints. */
+  void freeze() {
+    for (final MutableColumn column : columns) {
+      column.freeze();
+    }
+    for (final MutableColumn column : hiddenColumns) {
+      column.freeze();
+    }
+    for (final TableConstraint constraint : constraints) {
+      if (constraint instanceof MutableTableConstraint) {
+        ((MutableTableConstraint) constraint).freeze();
+      }
+    }
+    for (final MutablePrimaryKey alternateKey : alternateKeys) {
+      alternateKey.freeze();
+    }
+    for (final MutableIndex index : indexes) {
+      index.freeze();
+    }
+    if (primaryKey != null) {
+      primaryKey.freeze();
+    }
+
+    columns.freeze();
+    constraints.freeze();
+    foreignKeys.freeze();
+    weakAssociations.freeze();
+    hiddenColumns.freeze();
+    alternateKeys.freeze();
+    indexes.freeze();
+    privileges.freeze();
+    triggers.freeze();
+  }
+
   NamedObjectList<MutableColumn> getAllColumns() {
     return columns;
   }
 
+  void removeForeignKey(final MutableForeignKey foreignKey) {
+    foreignKeys.remove(foreignKey);
+  }
+
   void removeTableConstraint(final TableConstraint tableConstraint) {
     constraints.remove(tableConstraint);
   }
 
+  void removeWeakAssociation(final MutableWeakAssociation weakAssociation) {
+    weakAssociations.remove(weakAssociation);
+  }
+
   final void setPrimaryKey(final MutablePrimaryKey primaryKey) {
     if (primaryKey != null) {
       this.primaryKey = primaryKey;
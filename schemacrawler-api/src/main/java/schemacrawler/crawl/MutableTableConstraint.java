@@ -101,6 +101,10 @@ class MutableTableConstraint extends AbstractDependantObject<Table> implements T
     }
   }
 
+  void freeze() {
+    columns.freeze();
+  }
+
   void setDeferrable(final boolean deferrable) {
     this.deferrable = deferrable;
   }
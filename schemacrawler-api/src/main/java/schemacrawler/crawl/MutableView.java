@@ -79,6 +79,16 @@ class MutableView extends MutableTable implements View {
     }
   }
 
+  @Override
+  void freeze() {
+    super.freeze();
+    tableUsage.freeze();
+  }
+
+  void removeTableUsage(final MutableTable table) {
+    tableUsage.remove(table);
+  }
+
   void setCheckOption(final CheckOptionType checkOption) {
     this.checkOption = checkOption;
   }
@@ -28,6 +28,7 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.crawl;
 
+import static java.util.Collections.unmodifiableList;
 import static java.util.Comparator.naturalOrder;
 import static java.util.Objects.requireNonNull;
 import java.io.Serializable;
@@ -39,6 +40,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Predicate;
 import schemacrawler.schema.AttributedObject;
 import schemacrawler.schema.NamedObject;
@@ -50,14 +52,32 @@ import us.fatehi.utility.ObjectToString;
  * Ordered list of named objects, that can be searched associatively. NamedObjectList has the
  * ability to look up by dependent object which is not created yet. That is, by NamedObject +
  * String. Returns values sorted in natural sort order, and is iterable. The iterator does not allow
- * modifications to the underlying data structure.
+ * modifications to the underlying data structure. The sorted values are kept until the list is
+ * modified, so that repeated iteration does not sort again. Once the list is frozen, the named
+ * objects are held in a compact read-only map, and the list cannot be modified.
  */
 final class NamedObjectList<N extends NamedObject> implements Serializable, ReducibleCollection<N> {
 
+  /** Sorted values, along with the modification count of the list when they were sorted. */
+  private static final class SortedValues<N> {
+
+    private final int modifications;
+    private final List<N> values;
+
+    SortedValues(final int modifications, final List<N> values) {
+      this.modifications = modifications;
+      this.values = values;
+    }
+  }
+
   private static final long serialVersionUID = 3257847666804142128L;
 
   private static final String SCHEMACRAWLER_FILTERED_OUT = "schemacrawler.filtered_out";
 
+  @SuppressWarnings("rawtypes")
+  private static final AtomicIntegerFieldUpdater<NamedObjectList> MODIFICATIONS =
+      AtomicIntegerFieldUpdater.newUpdater(NamedObjectList.class, "modifications");
+
   private static NamedObjectKey makeLookupKey(final NamedObject namedObject) {
     final NamedObjectKey key;
     if (namedObject == null) {
@@ -76,8 +96,13 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     return key;
   }
 
-  private final Map<NamedObjectKey, N> objects = new ConcurrentHashMap<>();
-  private final Map<NamedObjectKey, N> filteredObjects = new ConcurrentHashMap<>();
+  // Replaced by read-only maps when the list is frozen
+  private volatile Map<NamedObjectKey, N> objects = new ConcurrentHashMap<>();
+  private volatile Map<NamedObjectKey, N> filteredObjects = new ConcurrentHashMap<>();
+  // Counted after every modification of the list, so that sorted values taken before the
+  // modification are never reused
+  private transient volatile int modifications;
+  private transient volatile SortedValues<N> sortedValues;
 
   /** {@inheritDoc} */
   @Override
@@ -85,6 +110,7 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     if (predicate == null) {
       return;
     }
+    checkNotFrozen();
 
     final Set<Entry<NamedObjectKey, N>> entrySet = objects.entrySet();
     for (final Iterator<Entry<NamedObjectKey, N>> iterator = entrySet.iterator();
@@ -102,6 +128,8 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
         }
       }
     }
+    // Also sort again, since filtering happens once the named objects are fully built
+    invalidateSortedValues();
   }
 
   /** {@inheritDoc} */
@@ -137,6 +165,7 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
   /** {@inheritDoc} */
   @Override
   public synchronized void resetFilter() {
+    checkNotFrozen();
     final Set<Entry<NamedObjectKey, N>> entrySet = filteredObjects.entrySet();
     for (final Iterator<Entry<NamedObjectKey, N>> iterator = entrySet.iterator();
         iterator.hasNext(); ) {
@@ -150,6 +179,7 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
         attributedObject.removeAttribute(SCHEMACRAWLER_FILTERED_OUT);
       }
     }
+    invalidateSortedValues();
   }
 
   /** {@inheritDoc} */
@@ -165,8 +195,10 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
    */
   boolean add(final N namedObject) {
     requireNonNull(namedObject, "Cannot add a null object to the list");
+    checkNotFrozen();
     final NamedObjectKey key = makeLookupKey(namedObject);
     objects.put(key, namedObject);
+    invalidateSortedValues();
     return true;
   }
 
@@ -174,10 +206,37 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
     return objects.containsKey(makeLookupKey(namedObject));
   }
 
+  /**
+   * Freezes the list, so that it cannot be modified any more. The named objects are moved to
+   * compact read-only maps, and the sorted values are kept for good.
+   */
+  synchronized void freeze() {
+    if (isFrozen()) {
+      return;
+    }
+    final FrozenNamedObjectMap<N> frozenObjects = new FrozenNamedObjectMap<>(values());
+    filteredObjects = new FrozenNamedObjectMap<>(new ArrayList<>(filteredObjects.values()));
+    objects = frozenObjects;
+    sortedValues = new SortedValues<>(modifications, frozenObjects.values());
+  }
+
+  /**
+   * Discards the sorted values, so that the list is sorted again when it is next read. This is
+   * needed when the natural sort order of the named objects changes, without the list itself being
+   * modified.
+   */
+  void invalidateSortedValues() {
+    MODIFICATIONS.incrementAndGet(this);
+  }
+
   boolean isEmpty() {
     return objects.isEmpty();
   }
 
+  boolean isFrozen() {
+    return objects instanceof FrozenNamedObjectMap;
+  }
+
   Optional<N> lookup(final NamedObject namedObject, final String name) {
     final NamedObjectKey key = makeLookupKey(namedObject, name);
     return internalGet(key);
@@ -194,7 +253,10 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
   }
 
   N remove(final N namedObject) {
-    return objects.remove(makeLookupKey(namedObject));
+    checkNotFrozen();
+    final N removed = objects.remove(makeLookupKey(namedObject));
+    invalidateSortedValues();
+    return removed;
   }
 
   /**
@@ -207,14 +269,31 @@ final class NamedObjectList<N extends NamedObject> implements Serializable, Redu
   }
 
   /**
-   * Gets all named objects in the list, in sorted order.
+   * Gets all named objects in the list, in sorted order. The values are only sorted again if the
+   * list was modified since the last call.
    *
-   * @return All named objects
+   * @return All named objects, as an unmodifiable list
    */
   List<N> values() {
+    // Read the modification count before the values, so that a concurrent modification results in
+    // sorting again on the next call
+    final int currentModifications = modifications;
+    final SortedValues<N> currentSortedValues = sortedValues;
+    if (currentSortedValues != null && currentSortedValues.modifications == currentModifications) {
+      return currentSortedValues.values;
+    }
+
     final List<N> all = new ArrayList<>(objects.values());
     all.sort(naturalOrder());
-    return all;
+    final List<N> values = unmodifiableList(all);
+    sortedValues = new SortedValues<>(currentModifications, values);
+    return values;
+  }
+
+  private void checkNotFrozen() {
+    if (isFrozen()) {
+      throw new UnsupportedOperationException("Cannot modify a frozen catalog");
+    }
   }
 
   private Optional<N> internalGet(final NamedObjectKey key) {
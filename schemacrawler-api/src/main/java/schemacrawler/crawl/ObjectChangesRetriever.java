@@ -0,0 +1,336 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForRoutineInclusion;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSequenceInclusion;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_OBJECT_CHANGES;
+import static us.fatehi.utility.Utility.isBlank;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.inclusionrule.InclusionRule;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Sequence;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.Query;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaReference;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * A retriever that uses a data dictionary query to find the tables, routines and sequences that
+ * changed since a previous catalog was crawled. Database objects are identified by full names,
+ * quoted the same way as when they are retrieved, so that the names can be used to limit a crawl to
+ * the changed objects.
+ */
+final class ObjectChangesRetriever extends AbstractRetriever {
+
+  private static final Logger LOGGER = Logger.getLogger(ObjectChangesRetriever.class.getName());
+
+  private final Set<String> tablesToRetrieve;
+  private final Set<String> routinesToRetrieve;
+  private final Set<String> sequencesToRetrieve;
+  private final List<MutableTable> unchangedTables;
+  private final List<MutableRoutine> unchangedRoutines;
+  private final List<MutableSequence> unchangedSequences;
+  private final LimitOptions limitOptions;
+  private boolean changesRetrieved;
+
+  /**
+   * Retriever for changes to the database objects in a previous catalog.
+   *
+   * @param retrieverConnection Connection for the retrieval
+   * @param previousCatalog Catalog from a previous crawl
+   * @param options SchemaCrawler options for the crawl
+   */
+  ObjectChangesRetriever(
+      final RetrieverConnection retrieverConnection,
+      final MutableCatalog previousCatalog,
+      final SchemaCrawlerOptions options) {
+    super(
+        retrieverConnection,
+        requireNonNull(previousCatalog, "No previous catalog provided"),
+        options);
+
+    tablesToRetrieve = new HashSet<>();
+    routinesToRetrieve = new HashSet<>();
+    sequencesToRetrieve = new HashSet<>();
+    unchangedTables = new ArrayList<>();
+    unchangedRoutines = new ArrayList<>();
+    unchangedSequences = new ArrayList<>();
+    limitOptions = options.getLimitOptions();
+  }
+
+  /**
+   * Full names of the routines to retrieve, which are the routines that changed, are new, or are no
+   * longer found. The set is filled in when changes are retrieved.
+   *
+   * @return Full names of routines
+   */
+  Set<String> getRoutinesToRetrieve() {
+    return routinesToRetrieve;
+  }
+
+  Set<String> getSequencesToRetrieve() {
+    return sequencesToRetrieve;
+  }
+
+  Set<String> getTablesToRetrieve() {
+    return tablesToRetrieve;
+  }
+
+  List<MutableRoutine> getUnchangedRoutines() {
+    return unchangedRoutines;
+  }
+
+  List<MutableSequence> getUnchangedSequences() {
+    return unchangedSequences;
+  }
+
+  List<MutableTable> getUnchangedTables() {
+    return unchangedTables;
+  }
+
+  /**
+   * Whether changes were retrieved from the database. If not, no database objects from the
+   * previous catalog can be reused.
+   *
+   * @return True if changes were retrieved
+   */
+  boolean isChangesRetrieved() {
+    return changesRetrieved;
+  }
+
+  /**
+   * Retrieves the last change timestamps of database objects, and compares them to the database
+   * objects in the previous catalog. Database objects are unchanged if they were last changed
+   * before the provided instant, and they were in the previous catalog. Errors are logged, and do
+   * not stop the crawl.
+   *
+   * @param changedSince Instant from which changes are retrieved
+   */
+  void retrieveObjectChanges(final Instant changedSince) {
+    requireNonNull(changedSince, "No instant provided");
+
+    final InformationSchemaViews informationSchemaViews =
+        getRetrieverConnection().getInformationSchemaViews();
+    if (!informationSchemaViews.hasQuery(EXT_OBJECT_CHANGES)) {
+      LOGGER.log(Level.FINE, "Object changes SQL statement was not provided");
+      return;
+    }
+
+    LOGGER.log(
+        Level.INFO, new StringFormat("Retrieving objects that changed since <%s>", changedSince));
+
+    final Map<String, Instant> tableChanges = new HashMap<>();
+    final Map<String, Instant> routineChanges = new HashMap<>();
+    final Map<String, Instant> sequenceChanges = new HashMap<>();
+
+    final Query objectChangesSql = informationSchemaViews.getQuery(EXT_OBJECT_CHANGES);
+    try (final Connection connection = getRetrieverConnection().getConnection();
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(objectChangesSql, statement); ) {
+      while (results.next()) {
+        final String catalogName = normalizeCatalogName(results.getString("OBJECT_CATALOG"));
+        final String schemaName = normalizeSchemaName(results.getString("OBJECT_SCHEMA"));
+        final String objectName = results.getString("OBJECT_NAME");
+        final String objectType = results.getString("OBJECT_TYPE");
+        final Timestamp lastChangedTimestamp = results.getTimestamp("LAST_CHANGED");
+        if (isBlank(objectName) || isBlank(objectType)) {
+          continue;
+        }
+
+        // Timestamps are in UTC, and objects that do not have one are always retrieved
+        final Instant lastChanged;
+        if (lastChangedTimestamp == null) {
+          lastChanged = Instant.MAX;
+        } else {
+          lastChanged = lastChangedTimestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        }
+
+        final Schema schema = new SchemaReference(catalogName, schemaName);
+        switch (objectType.trim().toUpperCase()) {
+          case "TABLE":
+          case "VIEW":
+            tableChanges.merge(tableFullName(schema, objectName), lastChanged, this::latest);
+            break;
+          case "ROUTINE":
+          case "FUNCTION":
+          case "PROCEDURE":
+            routineChanges.merge(routineFullName(schema, objectName), lastChanged, this::latest);
+            break;
+          case "SEQUENCE":
+            sequenceChanges.merge(
+                sequenceFullName(schema, objectName), lastChanged, this::latest);
+            break;
+          default:
+            LOGGER.log(
+                Level.FINE,
+                new StringFormat(
+                    "Ignoring change to <%s.%s.%s> of type <%s>",
+                    catalogName, schemaName, objectName, objectType));
+            break;
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.log(
+          Level.WARNING,
+          e,
+          new StringFormat("Could not retrieve object changes from SQL:%n%s", objectChangesSql));
+      return;
+    }
+
+    final Map<String, MutableTable> previousTables = new HashMap<>();
+    for (final MutableTable table : catalog.getAllTables()) {
+      previousTables.put(tableFullName(table.getSchema(), table.getName()), table);
+    }
+    compareChanges(
+        previousTables,
+        tableChanges,
+        changedSince,
+        limitOptions.get(ruleForTableInclusion),
+        tablesToRetrieve,
+        unchangedTables);
+
+    // Overloaded routines share a name, so all of them are retrieved together
+    final Map<String, List<MutableRoutine>> previousRoutines = new HashMap<>();
+    for (final MutableRoutine routine : catalog.getAllRoutines()) {
+      previousRoutines
+          .computeIfAbsent(
+              routineFullName(routine.getSchema(), routine.getName()), name -> new ArrayList<>())
+          .add(routine);
+    }
+    final List<List<MutableRoutine>> unchangedRoutineLists = new ArrayList<>();
+    compareChanges(
+        previousRoutines,
+        routineChanges,
+        changedSince,
+        limitOptions.get(ruleForRoutineInclusion),
+        routinesToRetrieve,
+        unchangedRoutineLists);
+    for (final List<MutableRoutine> routines : unchangedRoutineLists) {
+      unchangedRoutines.addAll(routines);
+    }
+
+    final Map<String, MutableSequence> previousSequences = new HashMap<>();
+    for (final Sequence sequence : catalog.getSequences()) {
+      previousSequences.put(
+          sequenceFullName(sequence.getSchema(), sequence.getName()), (MutableSequence) sequence);
+    }
+    compareChanges(
+        previousSequences,
+        sequenceChanges,
+        changedSince,
+        limitOptions.get(ruleForSequenceInclusion),
+        sequencesToRetrieve,
+        unchangedSequences);
+
+    changesRetrieved = true;
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Reusing %d tables, %d routines and %d sequences that did not change",
+            unchangedTables.size(), unchangedRoutines.size(), unchangedSequences.size()));
+  }
+
+  /**
+   * Database objects that were not in the previous catalog, or that changed, are retrieved again.
+   * Database objects that are no longer found are also retrieved again, so that a database object
+   * that the query does not know about is not reused by mistake.
+   */
+  private <T> void compareChanges(
+      final Map<String, T> previousObjects,
+      final Map<String, Instant> objectChanges,
+      final Instant changedSince,
+      final InclusionRule inclusionRule,
+      final Set<String> objectsToRetrieve,
+      final Collection<T> unchangedObjects) {
+    for (final Map.Entry<String, Instant> objectChange : objectChanges.entrySet()) {
+      final String fullName = objectChange.getKey();
+      if (!previousObjects.containsKey(fullName)
+          || !objectChange.getValue().isBefore(changedSince)) {
+        objectsToRetrieve.add(fullName);
+      }
+    }
+    for (final Map.Entry<String, T> previousObject : previousObjects.entrySet()) {
+      final String fullName = previousObject.getKey();
+      if (!objectChanges.containsKey(fullName) || objectsToRetrieve.contains(fullName)) {
+        objectsToRetrieve.add(fullName);
+      } else if (inclusionRule.test(fullName)) {
+        unchangedObjects.add(previousObject.getValue());
+      } else {
+        LOGGER.log(
+            Level.FINE,
+            new StringFormat("Not reusing <%s>, since it is no longer included", fullName));
+      }
+    }
+  }
+
+  private Instant latest(final Instant instant1, final Instant instant2) {
+    if (instant1.isAfter(instant2)) {
+      return instant1;
+    }
+    return instant2;
+  }
+
+  /** Routine retrieval does not quote routine names for the database. */
+  private String routineFullName(final Schema schema, final String name) {
+    return new MutableFunction(schema, name, name).getFullName();
+  }
+
+  private String sequenceFullName(final Schema schema, final String name) {
+    final MutableSequence sequence = new MutableSequence(schema, name);
+    sequence.withQuoting(getRetrieverConnection().getIdentifiers());
+    return sequence.getFullName();
+  }
+
+  private String tableFullName(final Schema schema, final String name) {
+    final MutableTable table = new MutableTable(schema, name);
+    table.withQuoting(getRetrieverConnection().getIdentifiers());
+    return table.getFullName();
+  }
+}
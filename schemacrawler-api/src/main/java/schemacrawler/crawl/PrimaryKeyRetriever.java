@@ -35,10 +35,13 @@ import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.pr
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.Schema;
 import schemacrawler.schema.View;
 import schemacrawler.schemacrawler.InformationSchemaViews;
@@ -69,6 +72,11 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
         retrievePrimaryKeysFromDataDictionary();
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving primary keys, for each schema");
+        retrievePrimaryKeysFromMetadataForSchemas(allTables);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving primary keys");
         retrievePrimaryKeysFromMetadata(allTables);
@@ -109,7 +117,7 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
       primaryKey.addColumn(pkColumn);
     }
 
-    primaryKey.addAttributes(results.getAttributes());
+    primaryKey.addAttributes(getAttributes(results));
   }
 
   private void retrievePrimaryKeysFromDataDictionary() throws WrappedSQLException {
@@ -123,9 +131,8 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
 
     final Query pkSql = informationSchemaViews.getQuery(PRIMARY_KEYS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(pkSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(pkSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
         final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
@@ -145,16 +152,16 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
     }
   }
 
-  private void retrievePrimaryKeysFromMetadata(final NamedObjectList<MutableTable> allTables)
+  private void retrievePrimaryKeysFromMetadata(final Iterable<MutableTable> tables)
       throws SQLException {
-    for (final MutableTable table : allTables) {
+    for (final MutableTable table : tables) {
       if (table instanceof View) {
         continue;
       }
       final Schema tableSchema = table.getSchema();
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection
                       .getMetaData()
                       .getPrimaryKeys(
@@ -169,4 +176,52 @@ final class PrimaryKeyRetriever extends AbstractRetriever {
       }
     }
   }
+
+  private void retrievePrimaryKeysFromMetadataForSchemas(
+      final NamedObjectList<MutableTable> allTables) throws SQLException {
+    for (final Map.Entry<Schema, List<MutableTable>> schemaTables :
+        groupBySchema(allTables).entrySet()) {
+      final Schema schema = schemaTables.getKey();
+      // Some JDBC drivers return no rows for a null table name, so if there
+      // are no rows at all, retrieve primary keys one table at a time
+      boolean retrieveEachTable;
+      try (final Connection connection = getRetrieverConnection().getConnection();
+          final MetadataResultSet results =
+              newMetadataResultSet(
+                  connection
+                      .getMetaData()
+                      .getPrimaryKeys(schema.getCatalogName(), schema.getName(), null),
+                  "DatabaseMetaData::getPrimaryKeys"); ) {
+        while (results.next()) {
+          final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
+          final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
+          final String tableName = results.getString("TABLE_NAME");
+
+          final Optional<MutableTable> optionalTable =
+              allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
+          if (!optionalTable.isPresent() || optionalTable.get() instanceof View) {
+            continue;
+          }
+          createPrimaryKeyForTable(optionalTable.get(), results);
+        }
+        retrieveEachTable = results.getRowCount() == 0;
+        if (retrieveEachTable) {
+          LOGGER.log(
+              Level.FINE,
+              new StringFormat(
+                  "No primary keys were returned for schema <%s>; trying each table", schema));
+        }
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve primary keys for schema <%s>; trying each table",
+                schema),
+            e);
+        retrieveEachTable = true;
+      }
+      if (retrieveEachTable) {
+        retrievePrimaryKeysFromMetadata(schemaTables.getValue());
+      }
+    }
+  }
 }
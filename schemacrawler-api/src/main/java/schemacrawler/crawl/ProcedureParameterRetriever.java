@@ -37,6 +37,9 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,6 +49,7 @@ import schemacrawler.schema.NamedObjectKey;
 import schemacrawler.schema.ParameterModeType;
 import schemacrawler.schema.ProcedureParameter;
 import schemacrawler.schema.RoutineType;
+import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -87,9 +91,14 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
         retrieveProcedureParametersFromDataDictionary(allRoutines, parameterFilter);
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving procedure parameters, for each schema");
+        retrieveProcedureParametersFromMetadataForSchemas(allRoutines, parameterFilter);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving procedure parameters");
-        retrieveProcedureParametersFromMetadata(allRoutines, parameterFilter);
+        retrieveProcedureParametersFromMetadata(allRoutines, allRoutines, parameterFilter);
         break;
 
       default:
@@ -160,7 +169,7 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
       parameter.setNullable(isNullable);
       parameter.setRemarks(remarks);
 
-      parameter.addAttributes(results.getAttributes());
+      parameter.addAttributes(getAttributes(results));
 
       LOGGER.log(Level.FINER, new StringFormat("Adding parameter to procedure <%s>", parameter));
       procedure.addParameter(parameter);
@@ -202,9 +211,8 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
     }
     final Query procedureColumnsSql = informationSchemaViews.getQuery(PROCEDURE_COLUMNS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(procedureColumnsSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(procedureColumnsSql, statement); ) {
       while (results.next()) {
         createProcedureParameter(results, allRoutines, parameterFilter);
       }
@@ -213,9 +221,10 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
 
   private void retrieveProcedureParametersFromMetadata(
       final NamedObjectList<MutableRoutine> allRoutines,
+      final Iterable<MutableRoutine> routines,
       final InclusionRuleFilter<ProcedureParameter> parameterFilter)
       throws SQLException {
-    for (final MutableRoutine routine : allRoutines) {
+    for (final MutableRoutine routine : routines) {
       if (routine.getRoutineType() != RoutineType.procedure) {
         continue;
       }
@@ -224,7 +233,7 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
       LOGGER.log(Level.FINE, "Retrieving procedure parameters for " + procedure);
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection
                       .getMetaData()
                       .getProcedureColumns(
@@ -243,4 +252,42 @@ final class ProcedureParameterRetriever extends AbstractRetriever {
       }
     }
   }
+
+  private void retrieveProcedureParametersFromMetadataForSchemas(
+      final NamedObjectList<MutableRoutine> allRoutines,
+      final InclusionRuleFilter<ProcedureParameter> parameterFilter)
+      throws SQLException {
+    final List<MutableRoutine> procedures = new ArrayList<>();
+    for (final MutableRoutine routine : allRoutines) {
+      if (routine.getRoutineType() == RoutineType.procedure) {
+        procedures.add(routine);
+      }
+    }
+
+    for (final Map.Entry<Schema, List<MutableRoutine>> schemaRoutines :
+        groupBySchema(procedures).entrySet()) {
+      final Schema schema = schemaRoutines.getKey();
+      LOGGER.log(
+          Level.FINE, new StringFormat("Retrieving procedure parameters for schema <%s>", schema));
+      try (final Connection connection = getRetrieverConnection().getConnection();
+          final MetadataResultSet results =
+              newMetadataResultSet(
+                  connection
+                      .getMetaData()
+                      .getProcedureColumns(schema.getCatalogName(), schema.getName(), null, null),
+                  "DatabaseMetaData::getProcedureColumns"); ) {
+        while (results.next()) {
+          createProcedureParameter(results, allRoutines, parameterFilter);
+        }
+      } catch (final SQLException e) {
+        logPossiblyUnsupportedSQLFeature(
+            new StringFormat(
+                "Could not retrieve procedure parameters for schema <%s>; trying each procedure",
+                schema),
+            e);
+        retrieveProcedureParametersFromMetadata(
+            allRoutines, schemaRoutines.getValue(), parameterFilter);
+      }
+    }
+  }
 }
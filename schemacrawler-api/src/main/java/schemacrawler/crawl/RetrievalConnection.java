@@ -0,0 +1,409 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static java.util.Objects.requireNonNull;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Connection for a single retrieval, which delegates calls directly to the connection from the
+ * connection source. When it is closed, the network timeout that was set for the retrieval is
+ * restored, and the close hook is run, before the connection is returned to the connection source.
+ */
+final class RetrievalConnection implements Connection {
+
+  private static final Logger LOGGER = Logger.getLogger(RetrievalConnection.class.getName());
+
+  // Restores the network timeout on the calling thread
+  private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+  private final Consumer<Connection> closeHook;
+  private final Connection connection;
+  private final int networkTimeout;
+  private volatile boolean isClosed;
+
+  /**
+   * Wraps a connection for a retrieval.
+   *
+   * @param connection Connection from the connection source
+   * @param networkTimeout Network timeout to restore on close, in milliseconds, or -1 if it was
+   *     not changed
+   * @param closeHook Called with this connection once, when it is first closed
+   */
+  RetrievalConnection(
+      final Connection connection, final int networkTimeout, final Consumer<Connection> closeHook) {
+    this.connection = requireNonNull(connection, "No database connection provided");
+    this.networkTimeout = networkTimeout;
+    this.closeHook = requireNonNull(closeHook, "No close hook provided");
+  }
+
+  @Override
+  public void abort(final Executor executor) throws SQLException {
+    connection.abort(executor);
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    connection.clearWarnings();
+  }
+
+  /**
+   * Runs the close hook and restores the network timeout, the first time that it is called, and
+   * then closes the connection, which returns it to the connection source.
+   *
+   * @throws SQLException On an exception
+   */
+  @Override
+  public void close() throws SQLException {
+    if (!isClosed) {
+      isClosed = true;
+      closeHook.accept(this);
+      restoreNetworkTimeout();
+    }
+    connection.close();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    connection.commit();
+  }
+
+  @Override
+  public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+    return connection.createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    return connection.createBlob();
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    return connection.createClob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    return connection.createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    return connection.createSQLXML();
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return connection.createStatement();
+  }
+
+  @Override
+  public Statement createStatement(
+      final int resultSetType, final int resultSetConcurrency) throws SQLException {
+    return connection.createStatement(resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public Statement createStatement(
+      final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
+      throws SQLException {
+    return connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+    return connection.createStruct(typeName, attributes);
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    return connection.getAutoCommit();
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    return connection.getCatalog();
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    return connection.getClientInfo();
+  }
+
+  @Override
+  public String getClientInfo(final String name) throws SQLException {
+    return connection.getClientInfo(name);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return connection.getHoldability();
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    return connection.getMetaData();
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    return connection.getNetworkTimeout();
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    return connection.getSchema();
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    return connection.getTransactionIsolation();
+  }
+
+  @Override
+  public Map<String, Class<?>> getTypeMap() throws SQLException {
+    return connection.getTypeMap();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return connection.getWarnings();
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return connection.isClosed();
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    return connection.isReadOnly();
+  }
+
+  @Override
+  public boolean isValid(final int timeout) throws SQLException {
+    return connection.isValid(timeout);
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+    return connection.isWrapperFor(iface);
+  }
+
+  @Override
+  public String nativeSQL(final String sql) throws SQLException {
+    return connection.nativeSQL(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(final String sql) throws SQLException {
+    return connection.prepareCall(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      final String sql, final int resultSetType, final int resultSetConcurrency)
+      throws SQLException {
+    return connection.prepareCall(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      final String sql,
+      final int resultSetType,
+      final int resultSetConcurrency,
+      final int resultSetHoldability)
+      throws SQLException {
+    return connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql) throws SQLException {
+    return connection.prepareStatement(sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int autoGeneratedKeys) throws SQLException {
+    return connection.prepareStatement(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int[] columnIndexes) throws SQLException {
+    return connection.prepareStatement(sql, columnIndexes);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final String[] columnNames) throws SQLException {
+    return connection.prepareStatement(sql, columnNames);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int resultSetType, final int resultSetConcurrency)
+      throws SQLException {
+    return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql,
+      final int resultSetType,
+      final int resultSetConcurrency,
+      final int resultSetHoldability)
+      throws SQLException {
+    return connection.prepareStatement(
+        sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+    connection.releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    connection.rollback();
+  }
+
+  @Override
+  public void rollback(final Savepoint savepoint) throws SQLException {
+    connection.rollback(savepoint);
+  }
+
+  @Override
+  public void setAutoCommit(final boolean autoCommit) throws SQLException {
+    connection.setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public void setCatalog(final String catalog) throws SQLException {
+    connection.setCatalog(catalog);
+  }
+
+  @Override
+  public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+    connection.setClientInfo(properties);
+  }
+
+  @Override
+  public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+    connection.setClientInfo(name, value);
+  }
+
+  @Override
+  public void setHoldability(final int holdability) throws SQLException {
+    connection.setHoldability(holdability);
+  }
+
+  @Override
+  public void setNetworkTimeout(
+      final Executor executor, final int milliseconds) throws SQLException {
+    connection.setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public void setReadOnly(final boolean readOnly) throws SQLException {
+    connection.setReadOnly(readOnly);
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    return connection.setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(final String name) throws SQLException {
+    return connection.setSavepoint(name);
+  }
+
+  @Override
+  public void setSchema(final String schema) throws SQLException {
+    connection.setSchema(schema);
+  }
+
+  @Override
+  public void setTransactionIsolation(final int level) throws SQLException {
+    connection.setTransactionIsolation(level);
+  }
+
+  @Override
+  public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
+    connection.setTypeMap(map);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Retrieval connection <%s@%d> for <%s>",
+        getClass().getName(), System.identityHashCode(this), connection);
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> iface) throws SQLException {
+    return connection.unwrap(iface);
+  }
+
+  private void restoreNetworkTimeout() {
+    if (networkTimeout < 0) {
+      return;
+    }
+    try {
+      if (!connection.isClosed()) {
+        connection.setNetworkTimeout(DIRECT_EXECUTOR, networkTimeout);
+      }
+    } catch (final SQLException | RuntimeException | AbstractMethodError e) {
+      LOGGER.log(Level.FINE, e, new StringFormat("Could not restore network timeout"));
+    }
+  }
+}
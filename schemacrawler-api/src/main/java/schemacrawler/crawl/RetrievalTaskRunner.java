@@ -30,26 +30,144 @@ package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
 import static us.fatehi.utility.Utility.requireNotBlank;
+import static us.fatehi.utility.Utility.toSnakeCase;
 
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import schemacrawler.schemacrawler.DatabaseObjectInfoRetrieval;
+import schemacrawler.schemacrawler.InfoLevel;
+import schemacrawler.schemacrawler.LoadOptions;
 import schemacrawler.schemacrawler.SchemaInfoLevel;
 import schemacrawler.schemacrawler.SchemaInfoRetrieval;
+import schemacrawler.schemacrawler.exceptions.ExecutionRuntimeException;
 import us.fatehi.utility.scheduler.TaskDefinition;
 import us.fatehi.utility.scheduler.TaskRunner;
 import us.fatehi.utility.scheduler.TaskRunners;
+import us.fatehi.utility.string.StringFormat;
 
 /**
  * Builds a list of task definitions that can be run in parallel. These are then submitted to be run
- * (in parallel) in a blocked way until all are complete.
+ * (in parallel) in a blocked way until all are complete. Tasks can declare other tasks in the same
+ * submission that they depend on, and are started as soon as those tasks are complete.
  */
 public final class RetrievalTaskRunner {
 
   private static final Logger LOGGER = Logger.getLogger(RetrievalTaskRunner.class.getName());
 
+  // SQLStates for lock timeouts that do not fall in the transaction rollback (40) or connection
+  // exception (08) classes
+  // 55P03 = PostgreSQL lock not available
+  // 57033 = DB2 deadlock or timeout without automatic rollback
+  // 61000 = Oracle resource busy, or deadlock
+  private static final Collection<String> TRANSIENT_SQL_STATES =
+      new HashSet<>(Arrays.asList("55P03", "57033", "61000"));
+
+  /**
+   * Checks whether an exception, or any of its causes, is from a lost database connection.
+   *
+   * @param exception Exception to check
+   * @return True if the connection was lost
+   */
+  static boolean isConnectionError(final Throwable exception) {
+    Throwable cause = exception;
+    while (cause != null) {
+      if (cause instanceof SQLRecoverableException
+          || cause instanceof SQLNonTransientConnectionException
+          || cause instanceof SQLTransientConnectionException) {
+        return true;
+      }
+      if (cause instanceof SQLException) {
+        final String sqlState = ((SQLException) cause).getSQLState();
+        if (sqlState != null && sqlState.startsWith("08")) {
+          return true;
+        }
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a retrieval only enriches tables and columns that have already been retrieved,
+   * so that it can run in the background after the catalog is returned.
+   *
+   * @param retrieval Retrieval to check
+   * @return True if the retrieval enriches tables and columns
+   */
+  static boolean isEnrichment(final SchemaInfoRetrieval retrieval) {
+    return retrieval.getInfoLevel() == InfoLevel.maximum
+        && retrieval.getDatabaseObjectInfoRetrieval() == DatabaseObjectInfoRetrieval.table;
+  }
+
+  /**
+   * Checks whether an exception, or any of its causes, is from a database error that may go away
+   * if the operation is retried. Query timeouts are not considered to be transient, since they are
+   * set for the crawl.
+   *
+   * @param exception Exception to check
+   * @return True if the operation can be retried
+   */
+  static boolean isTransient(final Throwable exception) {
+    Throwable cause = exception;
+    while (cause != null) {
+      if (cause instanceof SQLException) {
+        final SQLException sqlException = (SQLException) cause;
+        if (sqlException instanceof SQLTimeoutException) {
+          return false;
+        }
+        if (sqlException instanceof SQLTransientException
+            || sqlException instanceof SQLRecoverableException) {
+          return true;
+        }
+        final String sqlState = sqlException.getSQLState();
+        if (sqlState != null
+            && (sqlState.startsWith("40")
+                || sqlState.startsWith("08")
+                || TRANSIENT_SQL_STATES.contains(sqlState))) {
+          return true;
+        }
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
   private final TaskRunner taskRunner;
   private final SchemaInfoLevel infoLevel;
+  private final List<TaskDefinition> taskDefinitions;
+  private final Set<String> deferredTaskNames;
+  private final List<TaskDefinition> deferredTaskDefinitions;
+  private final Set<SchemaInfoRetrieval> skippedRetrievals;
+  // Retrieval names by task name, and tasks that failed in a best effort crawl
+  private final Map<String, String> retrievalNames;
+  private final Set<String> failedTaskNames;
+  private final LoadOptions loadOptions;
+  private final RetrieverConnection retrieverConnection;
+  private final MutableCrawlInfo crawlInfo;
 
   public RetrievalTaskRunner(
       final String runId, final SchemaInfoLevel infoLevel, final int maxThreads) {
@@ -58,6 +176,54 @@ public final class RetrievalTaskRunner {
     this.infoLevel = requireNonNull(infoLevel, "No info-level provided");
 
     taskRunner = TaskRunners.getTaskRunner(runId, maxThreads);
+    taskDefinitions = new ArrayList<>();
+    deferredTaskNames = new HashSet<>();
+    deferredTaskDefinitions = new ArrayList<>();
+    skippedRetrievals = EnumSet.noneOf(SchemaInfoRetrieval.class);
+    retrievalNames = new ConcurrentHashMap<>();
+    failedTaskNames = ConcurrentHashMap.newKeySet();
+    loadOptions = null;
+    retrieverConnection = null;
+    crawlInfo = null;
+  }
+
+  /**
+   * Creates a task runner for a crawl, where all retrievals have to complete within the crawl
+   * timeout. Each retrieval runs its data dictionary queries with its own query timeout, and does
+   * not start if the crawl was cancelled. Retrievals are retried after transient database errors,
+   * so they need to be safe to run again, and connections are validated before a retry after a
+   * connection error. Retrievals that log their own errors and continue are not retried. For a best
+   * effort crawl, retrievals that fail are recorded in the crawl information, and retrievals that
+   * depend on them, directly or through other retrievals, are skipped and recorded as failed too.
+   * For background
+   * enrichment, retrievals that enrich tables and columns are held back from submissions, to be
+   * submitted separately.
+   *
+   * @param crawlInfo Crawl information for the crawl
+   * @param loadOptions Load options for the crawl
+   * @param retrieverConnection Connection for the retrievals
+   */
+  RetrievalTaskRunner(
+      final MutableCrawlInfo crawlInfo,
+      final LoadOptions loadOptions,
+      final RetrieverConnection retrieverConnection) {
+
+    this.crawlInfo = requireNonNull(crawlInfo, "No crawl information provided");
+    final String runId = requireNotBlank(crawlInfo.getRunId(), "No SchemaCrawler run id provided");
+    this.loadOptions = requireNonNull(loadOptions, "No load options provided");
+    this.retrieverConnection =
+        requireNonNull(retrieverConnection, "No retriever connection provided");
+    infoLevel = loadOptions.getSchemaInfoLevel();
+
+    taskRunner =
+        TaskRunners.getTaskRunner(
+            runId, loadOptions.getMaxThreads(), loadOptions.getCrawlTimeout());
+    taskDefinitions = new ArrayList<>();
+    deferredTaskNames = new HashSet<>();
+    deferredTaskDefinitions = new ArrayList<>();
+    skippedRetrievals = EnumSet.noneOf(SchemaInfoRetrieval.class);
+    retrievalNames = new ConcurrentHashMap<>();
+    failedTaskNames = ConcurrentHashMap.newKeySet();
   }
 
   public RetrievalTaskRunner add(
@@ -65,8 +231,18 @@ public final class RetrievalTaskRunner {
       final TaskDefinition.TaskRunnable function,
       final SchemaInfoRetrieval... additionalRetrievals)
       throws Exception {
-    final boolean shouldRun = shouldRun(retrieval) && shouldRun(additionalRetrievals);
-    add(retrieval.name(), shouldRun, function);
+    final boolean shouldRun =
+        !skippedRetrievals.contains(retrieval)
+            && shouldRun(retrieval)
+            && shouldRun(additionalRetrievals);
+    if (shouldRun
+        && loadOptions != null
+        && loadOptions.isBackgroundEnrichment()
+        && isEnrichment(retrieval)) {
+      // Task names are in snake case
+      deferredTaskNames.add(toSnakeCase(retrieval.name()));
+    }
+    add(retrieval.name(), shouldRun, wrap(retrieval.name(), retrieval, function));
     return this;
   }
 
@@ -76,10 +252,62 @@ public final class RetrievalTaskRunner {
       final SchemaInfoRetrieval... additionalRetrievals)
       throws Exception {
     final boolean shouldRun = shouldRun(additionalRetrievals);
-    add(retrievalName, shouldRun, function);
+    add(retrievalName, shouldRun, wrap(retrievalName, null, function));
+    return this;
+  }
+
+  /**
+   * Declares that the task that was added last can only start once the provided retrievals are
+   * complete.
+   *
+   * @param retrievals Retrievals that the last added task depends on
+   * @return This task runner
+   */
+  public RetrievalTaskRunner after(final SchemaInfoRetrieval... retrievals) {
+    requireNonNull(retrievals, "No retrievals provided");
+    final String[] taskNames = new String[retrievals.length];
+    for (int i = 0; i < retrievals.length; i++) {
+      taskNames[i] = retrievals[i].name();
+    }
+    return after(taskNames);
+  }
+
+  /**
+   * Declares that the task that was added last can only start once the named tasks are complete.
+   *
+   * @param taskNames Names of tasks that the last added task depends on
+   * @return This task runner
+   */
+  public RetrievalTaskRunner after(final String... taskNames) {
+    if (taskDefinitions.isEmpty()) {
+      throw new IllegalStateException("No task added");
+    }
+    final int lastIndex = taskDefinitions.size() - 1;
+    taskDefinitions.set(lastIndex, taskDefinitions.get(lastIndex).dependsOn(taskNames));
     return this;
   }
 
+  /**
+   * Checks whether any tasks were held back from submissions, to be submitted separately.
+   *
+   * @return True if there are deferred tasks
+   */
+  public boolean hasDeferredTasks() {
+    return !deferredTaskDefinitions.isEmpty();
+  }
+
+  /**
+   * Skips retrievals that have already been completed, such as when a catalog is enriched. Tasks
+   * for skipped retrievals are added, but do not run, while other tasks that require those
+   * retrievals to be requested still run.
+   *
+   * @param retrievals Completed retrievals
+   */
+  void skip(final Collection<SchemaInfoRetrieval> retrievals) {
+    requireNonNull(retrievals, "No retrievals provided");
+    skippedRetrievals.addAll(retrievals);
+  }
+
   /**
    * Allows for a deferred conversion to a string. Useful in logging.
    *
@@ -93,19 +321,55 @@ public final class RetrievalTaskRunner {
     }
   }
 
+  /**
+   * Runs the tasks that were added since the last submission, and blocks until they are complete.
+   * Tasks that enrich tables and columns, and tasks that depend on them, are held back for
+   * background enrichment.
+   *
+   * @throws Exception On an exception from a task
+   */
   public void submit() throws Exception {
+    try {
+      for (final TaskDefinition taskDefinition : taskDefinitions) {
+        if (isDeferred(taskDefinition)) {
+          deferredTaskNames.add(taskDefinition.getTaskName());
+          deferredTaskDefinitions.add(taskDefinition);
+        } else {
+          taskRunner.add(skipOnFailedDependency(taskDefinition));
+        }
+      }
+    } finally {
+      taskDefinitions.clear();
+    }
+    taskRunner.submit();
+  }
+
+  /**
+   * Runs the tasks that were held back from earlier submissions, and blocks until they are
+   * complete. The tasks that they depend on have already completed in the earlier submissions.
+   *
+   * @throws Exception On an exception from a task
+   */
+  public void submitDeferred() throws Exception {
+    try {
+      for (final TaskDefinition taskDefinition : deferredTaskDefinitions) {
+        taskRunner.add(skipOnFailedDependency(taskDefinition));
+      }
+    } finally {
+      deferredTaskDefinitions.clear();
+    }
     taskRunner.submit();
   }
 
   private void add(
       final String retrievalName,
       final boolean shouldRun,
-      final TaskDefinition.TaskRunnable function)
-      throws Exception {
+      final TaskDefinition.TaskRunnable function) {
+    retrievalNames.put(toSnakeCase(retrievalName), retrievalName);
     if (shouldRun) {
-      taskRunner.add(new TaskDefinition(retrievalName, function));
+      taskDefinitions.add(new TaskDefinition(retrievalName, function));
     } else {
-      taskRunner.add(new TaskDefinition(retrievalName));
+      taskDefinitions.add(new TaskDefinition(retrievalName));
     }
   }
 
@@ -118,4 +382,114 @@ public final class RetrievalTaskRunner {
     }
     return shouldRun;
   }
+
+  private boolean isDeferred(final TaskDefinition taskDefinition) {
+    if (deferredTaskNames.contains(taskDefinition.getTaskName())) {
+      return true;
+    }
+    for (final String dependency : taskDefinition.getDependencies()) {
+      if (deferredTaskNames.contains(dependency)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void run(final String retrievalName, final TaskDefinition.TaskRunnable function)
+      throws Exception {
+    final int maxRetries = loadOptions.getMaxRetries();
+    for (int attempt = 0; ; attempt++) {
+      retrieverConnection.checkCancelled();
+      try {
+        function.run();
+        return;
+      } catch (final Exception e) {
+        if (attempt >= maxRetries || !isTransient(e)) {
+          throw e;
+        }
+        if (isConnectionError(e)) {
+          // Do not retry on a pooled connection that was lost
+          retrieverConnection.invalidateConnections();
+        }
+        // Exponential backoff, doubling the wait for every retry
+        final long backoffMillis =
+            loadOptions.getRetryBackoff().toMillis() << Math.min(attempt, 16);
+        LOGGER.log(
+            Level.WARNING,
+            new StringFormat(
+                "Retrying <%s> in %d ms, after transient error: %s",
+                retrievalName, backoffMillis, e.getMessage()));
+        TimeUnit.MILLISECONDS.sleep(backoffMillis);
+      }
+    }
+  }
+
+  /**
+   * For a best effort crawl, where failed retrievals do not throw, wraps a task so that it is not
+   * run if a task that it depends on failed, or was itself skipped. The skipped task is recorded as
+   * failed, so that tasks that depend on it are skipped as well.
+   */
+  private TaskDefinition skipOnFailedDependency(final TaskDefinition taskDefinition) {
+    final Set<String> dependencies = taskDefinition.getDependencies();
+    if (crawlInfo == null || !loadOptions.isBestEffort() || dependencies.isEmpty()) {
+      return taskDefinition;
+    }
+    final String taskName = taskDefinition.getTaskName();
+    final TaskDefinition.TaskRunnable task = taskDefinition.getTask();
+    return new TaskDefinition(
+            taskName,
+            () -> {
+              for (final String dependency : dependencies) {
+                if (failedTaskNames.contains(dependency)) {
+                  final String retrievalName = retrievalNames.getOrDefault(taskName, taskName);
+                  LOGGER.log(
+                      Level.WARNING,
+                      new StringFormat(
+                          "Not running <%s>, since <%s> failed", retrievalName, dependency));
+                  crawlInfo.addFailedRetrieval(
+                      retrievalName,
+                      new ExecutionRuntimeException(
+                          String.format(
+                              "Not run, since <%s> failed",
+                              retrievalNames.getOrDefault(dependency, dependency))));
+                  failedTaskNames.add(taskName);
+                  return;
+                }
+              }
+              task.run();
+            })
+        .dependsOn(dependencies.toArray(new String[0]));
+  }
+
+  /**
+   * Wraps a retrieval function, to run with the query timeout for the retrieval, with retries
+   * after transient errors, and for a best effort crawl, to record a failure instead of throwing.
+   */
+  private TaskDefinition.TaskRunnable wrap(
+      final String retrievalName,
+      final SchemaInfoRetrieval retrieval,
+      final TaskDefinition.TaskRunnable function) {
+    if (retrieverConnection == null) {
+      return function;
+    }
+    final Duration queryTimeout = loadOptions.getQueryTimeout(retrieval);
+    return () -> {
+      retrieverConnection.setQueryTimeout(queryTimeout);
+      try {
+        run(retrievalName, function);
+      } catch (final Exception e) {
+        if (!loadOptions.isBestEffort() || e instanceof InterruptedException) {
+          throw e;
+        }
+        LOGGER.log(
+            Level.WARNING,
+            e,
+            new StringFormat("Could not complete <%s>, continuing with crawl", retrievalName));
+        crawlInfo.addFailedRetrieval(retrievalName, e);
+        failedTaskNames.add(toSnakeCase(retrievalName));
+      } finally {
+        retrieverConnection.setQueryTimeout(null);
+      }
+    };
+  }
 }
@@ -29,8 +29,21 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static java.util.Objects.requireNonNull;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import schemacrawler.plugin.EnumDataTypeHelper;
 import schemacrawler.schema.TableTypes;
 import schemacrawler.schemacrawler.Identifiers;
@@ -38,16 +51,49 @@ import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
 import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.exceptions.DatabaseAccessException;
 import schemacrawler.utility.JavaSqlTypes;
 import schemacrawler.utility.TypeMap;
 import us.fatehi.utility.datasource.DatabaseConnectionSource;
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.string.StringFormat;
 
 /** A connection for the retriever. Wraps a live database connection. */
 final class RetrieverConnection {
 
+  private static final Logger LOGGER = Logger.getLogger(RetrieverConnection.class.getName());
+
+  // Runs network timeout and abort tasks on the calling thread
+  private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+  /**
+   * Converts a timeout to whole seconds for JDBC, rounding up, since zero means no limit.
+   *
+   * @param timeout Timeout
+   * @return Timeout in seconds
+   */
+  private static int toSeconds(final Duration timeout) {
+    final long seconds = timeout.getSeconds() + (timeout.getNano() > 0 ? 1 : 0);
+    return (int) Math.min(seconds, Integer.MAX_VALUE);
+  }
+
   private final DatabaseConnectionSource dataSource;
   private final JavaSqlTypes javaSqlTypes;
   private final SchemaRetrievalOptions schemaRetrievalOptions;
+  private final FetchSizeController fetchSizeController;
+  // Strings that are shared by the database objects of the crawl, if turned on
+  private final Optional<StringPool> stringPool;
+  // Metadata retrieval strategies that were selected during the crawl
+  private final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
+      selectedMetadataRetrievalStrategies;
+  // Statements that may be running, so that they can be cancelled
+  private final Set<Statement> openStatements;
+  // Connections that are in use, so that metadata calls on them can be aborted
+  private final Set<Connection> openConnections;
+  // Query timeout for the retrieval that is running on the current thread
+  private final ThreadLocal<Duration> queryTimeout;
+  private volatile Duration defaultQueryTimeout;
+  private volatile boolean isCancelled;
 
   RetrieverConnection(
       final DatabaseConnectionSource dataSource,
@@ -60,21 +106,160 @@ final class RetrieverConnection {
         requireNonNull(schemaRetrievalOptions, "No database specific overrides provided");
 
     javaSqlTypes = new JavaSqlTypes();
+    fetchSizeController = new FetchSizeController(schemaRetrievalOptions);
+    if (schemaRetrievalOptions.isSharedMetadataStrings()) {
+      stringPool = Optional.of(new StringPool());
+    } else {
+      stringPool = Optional.empty();
+    }
+    selectedMetadataRetrievalStrategies =
+        new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    openStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    openConnections = Collections.newSetFromMap(new IdentityHashMap<>());
+    queryTimeout = new ThreadLocal<>();
+    defaultQueryTimeout = Duration.ZERO;
   }
 
   public MetadataRetrievalStrategy get(
       final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy) {
+    synchronized (selectedMetadataRetrievalStrategies) {
+      final MetadataRetrievalStrategy selectedStrategy =
+          selectedMetadataRetrievalStrategies.get(schemaInfoMetadataRetrievalStrategy);
+      if (selectedStrategy != null) {
+        return selectedStrategy;
+      }
+    }
     return schemaRetrievalOptions.get(schemaInfoMetadataRetrievalStrategy);
   }
 
+  /**
+   * Cancels statements that are running, and prevents new statements from being created, so that
+   * retrievals fail fast. Metadata calls do not run on statements that can be cancelled, so
+   * connections that are in use are aborted, and are not returned to the pool.
+   */
+  void cancel() {
+    isCancelled = true;
+    synchronized (openStatements) {
+      for (final Statement statement : openStatements) {
+        try {
+          statement.cancel();
+        } catch (final SQLException | RuntimeException e) {
+          LOGGER.log(Level.FINE, e, new StringFormat("Could not cancel statement"));
+        }
+      }
+      openStatements.clear();
+    }
+    synchronized (openConnections) {
+      for (final Connection connection : openConnections) {
+        abort(connection);
+      }
+      openConnections.clear();
+    }
+  }
+
+  /**
+   * Checks whether the crawl was cancelled.
+   *
+   * @throws SQLException If the crawl was cancelled
+   */
+  void checkCancelled() throws SQLException {
+    if (isCancelled) {
+      // HY008 = Operation canceled
+      throw new SQLException("Crawl was cancelled", "HY008");
+    }
+  }
+
+  /**
+   * Creates a statement for a data dictionary query, with the query timeout for the retrieval
+   * that is running on the current thread. The statement can be cancelled if the crawl is
+   * cancelled.
+   *
+   * @param connection Connection to create the statement on
+   * @return New statement
+   * @throws SQLException On an exception, or if the crawl was cancelled
+   */
+  Statement createStatement(final Connection connection) throws SQLException {
+    requireNonNull(connection, "No connection provided");
+    checkCancelled();
+
+    final Statement statement = connection.createStatement();
+    final Duration timeout = currentQueryTimeout();
+    if (!timeout.isZero()) {
+      try {
+        statement.setQueryTimeout(toSeconds(timeout));
+      } catch (final SQLException e) {
+        LOGGER.log(Level.FINE, e, new StringFormat("Could not set query timeout to %s", timeout));
+      }
+    }
+
+    synchronized (openStatements) {
+      // Forget statements that have been closed since
+      for (final Iterator<Statement> iterator = openStatements.iterator(); iterator.hasNext(); ) {
+        if (iterator.next().isClosed()) {
+          iterator.remove();
+        }
+      }
+      openStatements.add(statement);
+    }
+    // Do not leave a statement that was created during cancellation running
+    if (isCancelled) {
+      statement.close();
+      checkCancelled();
+    }
+    return statement;
+  }
+
+  /**
+   * Gets a connection for the retrieval that is running on the current thread. Metadata calls do
+   * not run on statements that a query timeout can be set on, so they are limited by a network
+   * timeout that is a second longer than the query timeout for the retrieval, so that statements
+   * time out first. The network timeout is restored when the connection is closed. The connection
+   * is aborted if the crawl is cancelled while it is in use.
+   *
+   * @return Connection, which needs to be closed after use
+   * @throws DatabaseAccessException If the crawl was cancelled
+   */
   Connection getConnection() {
-    return dataSource.get();
+    try {
+      checkCancelled();
+    } catch (final SQLException e) {
+      throw new DatabaseAccessException(e);
+    }
+    final Connection connection = dataSource.get();
+
+    final Duration timeout = currentQueryTimeout();
+    int networkTimeout = -1;
+    if (!timeout.isZero()) {
+      try {
+        networkTimeout = connection.getNetworkTimeout();
+        connection.setNetworkTimeout(
+            DIRECT_EXECUTOR, (int) Math.min((toSeconds(timeout) + 1) * 1_000L, Integer.MAX_VALUE));
+      } catch (final SQLException | RuntimeException | AbstractMethodError e) {
+        networkTimeout = -1;
+        LOGGER.log(Level.FINE, e, new StringFormat("Could not set network timeout to %s", timeout));
+      }
+    }
+
+    final Connection retrievalConnection =
+        new RetrievalConnection(connection, networkTimeout, this::untrack);
+    synchronized (openConnections) {
+      openConnections.add(retrievalConnection);
+    }
+    // Do not leave a connection that was obtained during cancellation usable
+    if (isCancelled) {
+      abort(retrievalConnection);
+    }
+    return retrievalConnection;
   }
 
   EnumDataTypeHelper getEnumDataTypeHelper() {
     return schemaRetrievalOptions.getEnumDataTypeHelper();
   }
 
+  FetchSizeController getFetchSizeController() {
+    return fetchSizeController;
+  }
+
   Identifiers getIdentifiers() {
     return schemaRetrievalOptions.getIdentifiers();
   }
@@ -92,6 +277,17 @@ final class RetrieverConnection {
     return javaSqlTypes;
   }
 
+  Optional<Path> getMetadataRetrievalStrategyProfilesDirectory() {
+    if (schemaRetrievalOptions.isMetadataRetrievalStrategyProfileLoaded()) {
+      return Optional.empty();
+    }
+    return schemaRetrievalOptions.getMetadataRetrievalStrategyProfilesDirectory();
+  }
+
+  Optional<StringPool> getStringPool() {
+    return stringPool;
+  }
+
   TableTypes getTableTypes() {
     return schemaRetrievalOptions.getTableTypes();
   }
@@ -100,6 +296,14 @@ final class RetrieverConnection {
     return schemaRetrievalOptions.getTypeMap();
   }
 
+  /**
+   * Has connections validated before they are borrowed again, after a connection error, so that
+   * retries do not run on a connection that was lost.
+   */
+  void invalidateConnections() {
+    dataSource.invalidateConnections();
+  }
+
   boolean isSupportsCatalogs() {
     return schemaRetrievalOptions.isSupportsCatalogs();
   }
@@ -107,4 +311,90 @@ final class RetrieverConnection {
   boolean isSupportsSchemas() {
     return schemaRetrievalOptions.isSupportsSchemas();
   }
+
+  /**
+   * Overrides the metadata retrieval strategy for the rest of the crawl.
+   *
+   * @param schemaInfoMetadataRetrievalStrategy Type of metadata
+   * @param metadataRetrievalStrategy Selected metadata retrieval strategy
+   */
+  void select(
+      final SchemaInfoMetadataRetrievalStrategy schemaInfoMetadataRetrievalStrategy,
+      final MetadataRetrievalStrategy metadataRetrievalStrategy) {
+    requireNonNull(
+        schemaInfoMetadataRetrievalStrategy, "No schema info metadata retrieval strategy provided");
+    requireNonNull(metadataRetrievalStrategy, "No metadata retrieval strategy provided");
+    synchronized (selectedMetadataRetrievalStrategies) {
+      selectedMetadataRetrievalStrategies.put(
+          schemaInfoMetadataRetrievalStrategy, metadataRetrievalStrategy);
+    }
+  }
+
+  /**
+   * Sets the query timeout for data dictionary queries from retrievals that do not have a query
+   * timeout of their own.
+   *
+   * @param defaultQueryTimeout Query timeout, where zero means no limit
+   */
+  void setDefaultQueryTimeout(final Duration defaultQueryTimeout) {
+    this.defaultQueryTimeout =
+        requireNonNull(defaultQueryTimeout, "No default query timeout provided");
+  }
+
+  /**
+   * Sets the query timeout for data dictionary queries from the retrieval that is running on the
+   * current thread.
+   *
+   * @param queryTimeout Query timeout, or null to use the default query timeout
+   */
+  void setQueryTimeout(final Duration queryTimeout) {
+    if (queryTimeout == null) {
+      this.queryTimeout.remove();
+    } else {
+      this.queryTimeout.set(queryTimeout);
+    }
+  }
+
+  /**
+   * Wraps a task that runs on another thread for the retrieval that is running on the current
+   * thread, so that its data dictionary queries and metadata calls have the same query timeout.
+   *
+   * @param task Task to wrap
+   * @return Task that runs with the query timeout of the current thread
+   */
+  TaskDefinition.TaskRunnable withCurrentQueryTimeout(final TaskDefinition.TaskRunnable task) {
+    requireNonNull(task, "No task provided");
+    final Duration timeout = queryTimeout.get();
+    return () -> {
+      final Duration taskThreadQueryTimeout = queryTimeout.get();
+      setQueryTimeout(timeout);
+      try {
+        task.run();
+      } finally {
+        setQueryTimeout(taskThreadQueryTimeout);
+      }
+    };
+  }
+
+  private void abort(final Connection connection) {
+    try {
+      connection.abort(DIRECT_EXECUTOR);
+    } catch (final SQLException | RuntimeException | AbstractMethodError e) {
+      LOGGER.log(Level.FINE, e, new StringFormat("Could not abort connection"));
+    }
+  }
+
+  private Duration currentQueryTimeout() {
+    final Duration timeout = queryTimeout.get();
+    if (timeout == null) {
+      return defaultQueryTimeout;
+    }
+    return timeout;
+  }
+
+  private void untrack(final Connection connection) {
+    synchronized (openConnections) {
+      openConnections.remove(connection);
+    }
+  }
 }
@@ -73,10 +73,11 @@ final class RoutineExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving routine definitions");
 
     final Query routineDefinitionsSql = informationSchemaViews.getQuery(ROUTINES);
+    final DefinitionsCollector<MutableRoutine> definitions = new DefinitionsCollector<>();
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(routineDefinitionsSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(routineDefinitionsSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("ROUTINE_CATALOG"));
         final String schemaName = normalizeSchemaName(results.getString("ROUTINE_SCHEMA"));
@@ -95,11 +96,12 @@ final class RoutineExtRetriever extends AbstractRetriever {
           final String definition = results.getString("ROUTINE_DEFINITION");
 
           routine.setRoutineBodyType(routineBodyType);
-          routine.appendDefinition(definition);
+          definitions.add(routine, definition);
 
-          routine.addAttributes(results.getAttributes());
+          routine.addAttributes(getAttributes(results));
         }
       }
+      definitions.appendTo(MutableRoutine::appendDefinition);
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve routines", e);
     }
@@ -117,7 +117,7 @@ final class RoutineRetriever extends AbstractRetriever {
     if (functionFilter.test(function)) {
       function.setReturnType(functionType);
       function.setRemarks(remarks);
-      function.addAttributes(results.getAttributes());
+      function.addAttributes(getAttributes(results));
 
       catalog.addRoutine(function);
     }
@@ -153,7 +153,7 @@ final class RoutineRetriever extends AbstractRetriever {
     if (procedureFilter.test(procedure)) {
       procedure.setReturnType(procedureType);
       procedure.setRemarks(remarks);
-      procedure.addAttributes(results.getAttributes());
+      procedure.addAttributes(getAttributes(results));
 
       catalog.addRoutine(procedure);
     }
@@ -176,6 +176,7 @@ final class RoutineRetriever extends AbstractRetriever {
         retrieveFunctionsFromDataDictionary(schemas, functionFilter);
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving functions");
         retrieveFunctionsFromMetadata(schemas, functionFilter);
@@ -198,9 +199,8 @@ final class RoutineRetriever extends AbstractRetriever {
     }
     final Query functionsSql = informationSchemaViews.getQuery(FUNCTIONS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(functionsSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(functionsSql, statement); ) {
       int numFunctions = 0;
       while (results.next()) {
         numFunctions = numFunctions + 1;
@@ -221,7 +221,7 @@ final class RoutineRetriever extends AbstractRetriever {
 
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection.getMetaData().getFunctions(catalogName, schemaName, null),
                   "DatabaseMetaData::getFunctions"); ) {
         int numFunctions = 0;
@@ -255,6 +255,7 @@ final class RoutineRetriever extends AbstractRetriever {
         retrieveProceduresFromDataDictionary(schemas, procedureFilter);
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving procedures");
         retrieveProceduresFromMetadata(schemas, procedureFilter);
@@ -276,9 +277,8 @@ final class RoutineRetriever extends AbstractRetriever {
     }
     final Query proceduresSql = informationSchemaViews.getQuery(PROCEDURES);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(proceduresSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(proceduresSql, statement); ) {
       int numProcedures = 0;
       while (results.next()) {
         numProcedures = numProcedures + 1;
@@ -300,7 +300,7 @@ final class RoutineRetriever extends AbstractRetriever {
 
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection.getMetaData().getProcedures(catalogName, schemaName, null),
                   "DatabaseMetaData::getProcedures"); ) {
         int numProcedures = 0;
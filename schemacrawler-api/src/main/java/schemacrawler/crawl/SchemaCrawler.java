@@ -41,6 +41,7 @@ import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleFor
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSequenceInclusion;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSynonymInclusion;
 import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_OBJECT_CHANGES;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnAttributes;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalColumnMetadata;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveAdditionalDatabaseInfo;
@@ -72,9 +73,24 @@ import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveUserDefine
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveViewInformation;
 import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveViewTableUsage;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -87,15 +103,23 @@ import schemacrawler.schema.Schema;
 import schemacrawler.schema.Sequence;
 import schemacrawler.schema.Synonym;
 import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.CrawlListener;
+import schemacrawler.schemacrawler.FilterOptions;
+import schemacrawler.schemacrawler.GrepOptions;
 import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
 import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
 import schemacrawler.schemacrawler.SchemaReference;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
 import schemacrawler.schemacrawler.exceptions.DatabaseAccessException;
 import schemacrawler.schemacrawler.exceptions.ExecutionRuntimeException;
 import us.fatehi.utility.datasource.DatabaseConnectionSource;
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskRunners;
 import us.fatehi.utility.string.StringFormat;
 
 /** SchemaCrawler uses database meta-data to get the details about the schema. */
@@ -103,10 +127,46 @@ public final class SchemaCrawler {
 
   private static final Logger LOGGER = Logger.getLogger(SchemaCrawler.class.getName());
 
+  private static final Duration CLOCK_DIFFERENCE_ALLOWANCE = Duration.ofMinutes(5);
+
+  /**
+   * Freezes a catalog once it is fully loaded, so that it is read-only. Collections of database
+   * objects are compacted into sorted arrays with a small index for lookups, so that a large
+   * catalog takes much less memory, and can be read from many threads without locks. Database
+   * objects cannot be added to or removed from a frozen catalog, and it cannot be reduced, but
+   * attributes can still be set. A catalog that is deserialized after it was frozen can be modified
+   * again. Catalogs with background enrichment should only be frozen once the crawl is complete.
+   *
+   * @param catalog Fully loaded catalog
+   * @return Same catalog, frozen
+   */
+  public static Catalog freeze(final Catalog catalog) {
+    requireNonNull(catalog, "No catalog provided");
+    if (!(catalog instanceof MutableCatalog)) {
+      throw new ExecutionRuntimeException(
+          "Cannot freeze the catalog, since it was not crawled by SchemaCrawler");
+    }
+    ((MutableCatalog) catalog).freeze();
+    return catalog;
+  }
+
+  private static RetrieverConnection newRetrieverConnection(
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions) {
+    try {
+      return new RetrieverConnection(dataSource, schemaRetrievalOptions);
+    } catch (final SQLException e) {
+      throw new DatabaseAccessException(e);
+    }
+  }
+
   private final SchemaCrawlerOptions options;
   private final RetrieverConnection retrieverConnection;
+  private final LoadOptions loadOptions;
   private final SchemaInfoLevel infoLevel;
-  private final int maxThreads;
+  private final CrawlListener crawlListener;
+  private final Object crawlListenerLock;
+  private final CompletableFuture<Catalog> crawlCompletion;
   private RetrievalTaskRunner taskRunner;
   private MutableCatalog catalog;
 
@@ -121,25 +181,213 @@ public final class SchemaCrawler {
       final DatabaseConnectionSource dataSource,
       final SchemaRetrievalOptions schemaRetrievalOptions,
       final SchemaCrawlerOptions options) {
+    this(newRetrieverConnection(dataSource, schemaRetrievalOptions), options);
+  }
+
+  /**
+   * Constructs a SchemaCrawler object that shares a connection with another crawl, so that both
+   * crawls are cancelled together.
+   *
+   * @param retrieverConnection Connection for the retrievals
+   * @param options SchemaCrawler options
+   */
+  private SchemaCrawler(
+      final RetrieverConnection retrieverConnection, final SchemaCrawlerOptions options) {
+    this.retrieverConnection =
+        requireNonNull(retrieverConnection, "No retriever connection provided");
+    this.options = requireNonNull(options, "No SchemaCrawler options provided");
+
+    loadOptions = options.getLoadOptions();
+    infoLevel = loadOptions.getSchemaInfoLevel();
+    crawlListener = loadOptions.getCrawlListener();
+    crawlListenerLock = new Object();
+    crawlCompletion = new CompletableFuture<>();
+    retrieverConnection.setDefaultQueryTimeout(loadOptions.getQueryTimeout());
+  }
+
+  /**
+   * Cancels a crawl that is in progress, from another thread. Data dictionary queries that are
+   * running are cancelled, and retrievals that have not started will not run, so the crawl fails
+   * soon after.
+   */
+  public void cancel() {
+    LOGGER.log(Level.INFO, "Cancelling crawl");
+    retrieverConnection.cancel();
+  }
+
+  /**
+   * Crawls the database, to obtain database metadata. The catalog is complete when it is returned,
+   * unless background enrichment is turned on in the load options, which it is not by default.
+   *
+   * <p>For background enrichment, the catalog is returned before tables and columns are enriched,
+   * and retrievals on a background thread continue to change them, for example by adding table
+   * privileges and definitions, and by replacing column data types with enumerated data types. The
+   * caller must wait for the crawl completion future before reading tables and columns, or before
+   * modifying or serializing the catalog. Only schemas, routines, synonyms and sequences can be read
+   * before then.
+   *
+   * @return Database metadata
+   * @see #getCrawlCompletion()
+   */
+  public Catalog crawl() {
+    return crawl(() -> {});
+  }
+
+  /**
+   * Crawls the database incrementally, to obtain database metadata. Only the tables, routines and
+   * sequences that changed since the previous catalog was crawled are retrieved again, and the
+   * rest are reused from the previous catalog, which is not modified. Changes are found with the
+   * object changes query from the information schema views, which returns the timestamp of the
+   * last DDL change for each database object. A full crawl is made if there is no object changes
+   * query, if the query fails, or if grep or table filter depth options are used, since those
+   * depend on the whole catalog.
+   *
+   * <p>The crawl listener is notified when each database object is completed, and when the crawl
+   * is completed, but not as database objects are retrieved.
+   *
+   * @param previousCatalog Catalog from a previous crawl with the same options
+   * @return Database metadata
+   */
+  public Catalog crawl(final Catalog previousCatalog) {
+    requireNonNull(previousCatalog, "No previous catalog provided");
+
+    final ObjectChangesRetriever changesRetriever;
     try {
-      retrieverConnection = new RetrieverConnection(dataSource, schemaRetrievalOptions);
-      this.options = requireNonNull(options, "No SchemaCrawler options provided");
+      final Optional<String> fullCrawlReason = lookupFullCrawlReason(previousCatalog);
+      if (fullCrawlReason.isPresent()) {
+        LOGGER.log(
+            Level.INFO,
+            new StringFormat("Crawling the full catalog, since %s", fullCrawlReason.get()));
+        return crawl();
+      }
+      changesRetriever =
+          new ObjectChangesRetriever(
+              retrieverConnection, copyCatalog((MutableCatalog) previousCatalog), options);
+    } catch (final IOException | ClassNotFoundException e) {
+      LOGGER.log(
+          Level.WARNING, "Crawling the full catalog, since the catalog could not be copied", e);
+      return crawl();
+    }
+
+    // Allow for differences between the clocks of the database server and of this crawl
+    final Instant changedSince =
+        previousCatalog
+            .getCrawlInfo()
+            .getCrawlTimestampInstant()
+            .minus(CLOCK_DIFFERENCE_ALLOWANCE);
+    final SchemaCrawler changesCrawler =
+        new SchemaCrawler(retrieverConnection, changedObjectsOptions(changesRetriever));
+    // Changes are retrieved after the new catalog is created, so that the crawl timestamp of the
+    // new catalog is before any changes that are not retrieved
+    final MutableCatalog changedCatalog =
+        (MutableCatalog)
+            changesCrawler.crawl(() -> changesRetriever.retrieveObjectChanges(changedSince));
+    if (!changesRetriever.isChangesRetrieved()) {
+      LOGGER.log(Level.INFO, "Crawling the full catalog, since object changes were not retrieved");
+      return crawl();
+    }
 
-      final LoadOptions loadOptions = options.getLoadOptions();
-      infoLevel = loadOptions.getSchemaInfoLevel();
-      maxThreads = loadOptions.getMaxThreads();
+    try {
+      catalog = changedCatalog;
+      new CatalogMerger(catalog, retrieverConnection.getIdentifiers())
+          .merge(
+              changesRetriever.getUnchangedTables(),
+              changesRetriever.getUnchangedRoutines(),
+              changesRetriever.getUnchangedSequences());
+      if (infoLevel.is(retrieveViewTableUsage)) {
+        // Views that changed may use tables that did not change
+        new ViewExtRetriever(retrieverConnection, catalog, options).retrieveViewTableUsage();
+      }
 
+      notifyCrawlListener(catalog.getTables(), CrawlListener::tableCompleted);
+      notifyCrawlListener(catalog.getRoutines(), CrawlListener::routineCompleted);
+      notifyCrawlListener(catalog.getSynonyms(), CrawlListener::synonymCompleted);
+      notifyCrawlListener(catalog.getSequences(), CrawlListener::sequenceCompleted);
+      notifyCrawlListener(Collections.singleton(catalog), CrawlListener::crawlCompleted);
+      crawlCompletion.complete(catalog);
+      return catalog;
     } catch (final SQLException e) {
-      throw new DatabaseAccessException(e);
+      final DatabaseAccessException crawlException = new DatabaseAccessException(e);
+      crawlCompletion.completeExceptionally(crawlException);
+      throw crawlException;
     }
   }
 
   /**
-   * Crawls the database, to obtain database metadata.
+   * Enriches a catalog that was crawled at a lower info level, by running only the retrievals for
+   * the provided info level that are missing from the catalog, and retrievals that failed during a
+   * best effort crawl. The catalog is modified in place, and should have been crawled with the same
+   * options, other than the info level. The crawl listener is not notified of enriched database
+   * objects.
    *
-   * @return Database metadata
+   * @param catalog Catalog from a previous crawl
+   * @param schemaInfoLevel Info level to enrich the catalog to
+   * @return Enriched catalog
    */
-  public Catalog crawl() {
+  public Catalog enrich(final Catalog catalog, final SchemaInfoLevel schemaInfoLevel) {
+    requireNonNull(catalog, "No catalog provided");
+    requireNonNull(schemaInfoLevel, "No schema info level provided");
+    if (!(catalog instanceof MutableCatalog)) {
+      throw new ExecutionRuntimeException(
+          "Cannot enrich the catalog, since it was not crawled by SchemaCrawler");
+    }
+    final MutableCrawlInfo crawlInfo = (MutableCrawlInfo) catalog.getCrawlInfo();
+    if (!crawlInfo.isSchemaInfoRetrievalsRecorded()) {
+      throw new ExecutionRuntimeException(
+          "Cannot enrich the catalog, since it was crawled by an older version of SchemaCrawler");
+    }
+
+    // Retrievals that failed are run again
+    final Collection<SchemaInfoRetrieval> completedRetrievals =
+        EnumSet.noneOf(SchemaInfoRetrieval.class);
+    completedRetrievals.addAll(crawlInfo.getSchemaInfoRetrievals());
+    final Map<String, String> failedRetrievals = crawlInfo.getFailedRetrievals();
+    for (final SchemaInfoRetrieval retrieval : SchemaInfoRetrieval.values()) {
+      if (schemaInfoLevel.is(retrieval) && failedRetrievals.containsKey(retrieval.name())) {
+        completedRetrievals.remove(retrieval);
+        crawlInfo.removeFailedRetrieval(retrieval.name());
+      }
+    }
+    // Table constraint definitions and information need the table constraints from the same crawl
+    for (final SchemaInfoRetrieval retrieval :
+        Arrays.asList(retrieveTableConstraintDefinitions, retrieveTableConstraintInformation)) {
+      if (schemaInfoLevel.is(retrieval) && !completedRetrievals.contains(retrieval)) {
+        completedRetrievals.remove(retrieveTableConstraints);
+      }
+    }
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Enriching catalog to <%s>, skipping completed retrievals %s",
+            schemaInfoLevel.getTag(), completedRetrievals));
+
+    final LoadOptions enrichmentLoadOptions =
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptions)
+            .withSchemaInfoLevel(schemaInfoLevel)
+            .withCrawlListener(null)
+            .withBackgroundEnrichment(false)
+            .toOptions();
+    final SchemaCrawler enrichmentCrawler =
+        new SchemaCrawler(retrieverConnection, options.withLoadOptions(enrichmentLoadOptions));
+    return enrichmentCrawler.enrich((MutableCatalog) catalog, completedRetrievals);
+  }
+
+  /**
+   * Future that completes with the catalog once the crawl is complete, including retrievals that
+   * run in the background for background enrichment. It completes exceptionally if the crawl fails.
+   * Without background enrichment, it is already complete when the crawl returns. With background
+   * enrichment, callers must wait for it before reading the tables and columns of the catalog,
+   * since they are not safe to read while they are being enriched.
+   *
+   * @return Crawl completion future
+   */
+  public CompletableFuture<Catalog> getCrawlCompletion() {
+    return crawlCompletion;
+  }
+
+  private Catalog crawl(final TaskDefinition.TaskRunnable beforeCrawl) {
+    boolean isEnrichingInBackground = false;
     try {
       try (final Connection connection = retrieverConnection.getConnection(); ) {
         final ConnectionInfoBuilder connectionInfoBuilder =
@@ -157,8 +405,11 @@ public final class SchemaCrawler {
                 (MutableJdbcDriverInfo) jdbcDriverInfo);
       }
 
-      final String runId = catalog.getCrawlInfo().getRunId();
-      taskRunner = new RetrievalTaskRunner(runId, infoLevel, maxThreads);
+      final MutableCrawlInfo crawlInfo = (MutableCrawlInfo) catalog.getCrawlInfo();
+      crawlInfo.addSchemaInfoRetrievals(infoLevel);
+      taskRunner = new RetrievalTaskRunner(crawlInfo, loadOptions, retrieverConnection);
+
+      beforeCrawl.run();
 
       crawlDatabaseInfo();
       LOGGER.log(Level.INFO, String.format("%n%s", catalog.getCrawlInfo()));
@@ -166,24 +417,105 @@ public final class SchemaCrawler {
       crawlSchemas();
       crawlColumnDataTypes();
       crawlTables();
+      // Tables are complete only once the retrievals held back for background enrichment are done
+      final boolean hasDeferredTasks = taskRunner.hasDeferredTasks();
+      if (!hasDeferredTasks) {
+        notifyCrawlListener(catalog.getTables(), CrawlListener::tableCompleted);
+      }
       crawlRoutines();
+      notifyCrawlListener(catalog.getRoutines(), CrawlListener::routineCompleted);
       crawlSynonyms();
+      notifyCrawlListener(catalog.getSynonyms(), CrawlListener::synonymCompleted);
       crawlSequences();
+      notifyCrawlListener(catalog.getSequences(), CrawlListener::sequenceCompleted);
+
+      if (hasDeferredTasks) {
+        LOGGER.log(
+            Level.INFO,
+            new StringFormat(
+                "Enriching tables and columns in the background for crawl <%s>",
+                catalog.getCrawlInfo().getRunId()));
+        CompletableFuture.runAsync(this::runBackgroundEnrichment, TaskRunners.getSharedExecutor());
+        isEnrichingInBackground = true;
+        return catalog;
+      }
 
+      completeCrawl();
       return catalog;
-    } catch (final RuntimeException e) {
-      throw e;
-    } catch (final SQLException e) {
-      throw new DatabaseAccessException(e);
     } catch (final Exception e) {
-      throw new ExecutionRuntimeException(e);
+      final RuntimeException crawlException = toCrawlException(e);
+      crawlCompletion.completeExceptionally(crawlException);
+      throw crawlException;
     } finally {
-      if (taskRunner != null) {
+      if (taskRunner != null && !isEnrichingInBackground) {
         taskRunner.stopAndLogTime();
       }
     }
   }
 
+  /**
+   * Limits the crawl to the tables, routines and sequences that changed, and turns off the crawl
+   * listener, since it is notified for the merged catalog. Background enrichment is turned off,
+   * since the changed objects need to be complete before they are merged.
+   */
+  private SchemaCrawlerOptions changedObjectsOptions(
+      final ObjectChangesRetriever changesRetriever) {
+    final LimitOptions limitOptions = options.getLimitOptions();
+    final LimitOptions changedObjectsLimitOptions =
+        LimitOptionsBuilder.builder()
+            .fromOptions(limitOptions)
+            .includeTables(
+                new ChangedObjectsInclusionRule(
+                    limitOptions.get(ruleForTableInclusion),
+                    changesRetriever.getTablesToRetrieve()))
+            .includeRoutines(
+                new ChangedObjectsInclusionRule(
+                    limitOptions.get(ruleForRoutineInclusion),
+                    changesRetriever.getRoutinesToRetrieve()))
+            .includeSequences(
+                new ChangedObjectsInclusionRule(
+                    limitOptions.get(ruleForSequenceInclusion),
+                    changesRetriever.getSequencesToRetrieve()))
+            .toOptions();
+    final LoadOptions changedObjectsLoadOptions =
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptions)
+            .withCrawlListener(null)
+            .withBackgroundEnrichment(false)
+            .toOptions();
+    return options
+        .withLimitOptions(changedObjectsLimitOptions)
+        .withLoadOptions(changedObjectsLoadOptions);
+  }
+
+  /**
+   * Finishes a crawl once all retrievals are complete, and completes the crawl completion future.
+   */
+  private void completeCrawl() throws SQLException {
+    // Retrievals may have ignored errors from cancelled queries
+    retrieverConnection.checkCancelled();
+
+    retrieverConnection
+        .getFetchSizeController()
+        .saveObservedRowCounts(catalog.getJdbcDriverInfo().getConnectionUrl());
+
+    notifyCrawlListener(Collections.singleton(catalog), CrawlListener::crawlCompleted);
+    crawlCompletion.complete(catalog);
+  }
+
+  /** Copies the previous catalog, so that database objects can be reused without changing it. */
+  private MutableCatalog copyCatalog(final MutableCatalog previousCatalog)
+      throws IOException, ClassNotFoundException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(previousCatalog);
+    }
+    try (final ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (MutableCatalog) in.readObject();
+    }
+  }
+
   private void crawlColumnDataTypes() throws Exception {
 
     final DataTypeRetriever retriever =
@@ -262,18 +594,16 @@ public final class SchemaCrawler {
                 }
               }
             })
-        .submit();
-
-    taskRunner
         .add(
             "filterAndSortRoutines",
             () -> {
               // Filter the list of routines based on grep criteria
               catalog.reduce(Routine.class, getRoutineReducer(options));
             })
+        .after(retrieveRoutineParameters)
+        .add(retrieveRoutineInformation, retrieverExtra::retrieveRoutineInformation)
+        .after("filterAndSortRoutines")
         .submit();
-
-    taskRunner.add(retrieveRoutineInformation, retrieverExtra::retrieveRoutineInformation).submit();
   }
 
   private void crawlSchemas() throws Exception {
@@ -295,6 +625,7 @@ public final class SchemaCrawler {
       throw new ExecutionRuntimeException("No matching schemas found");
     }
     LOGGER.log(Level.INFO, new StringFormat("Retrieved %d schemas", schemas.size()));
+    notifyCrawlListener(catalog.getSchemas(), CrawlListener::schemaRetrieved);
   }
 
   private void crawlSequences() throws Exception {
@@ -394,6 +725,10 @@ public final class SchemaCrawler {
     if (allTables.isEmpty()) {
       return;
     }
+    notifyCrawlListener(allTables, CrawlListener::tableRetrieved);
+
+    // Select the fastest metadata retrieval strategies, if requested
+    new MetadataRetrievalStrategyTuner(retrieverConnection, catalog, options).tune(allTables);
 
     taskRunner
         .add(
@@ -404,27 +739,36 @@ public final class SchemaCrawler {
                     allTables, limitOptions.get(ruleForColumnInclusion));
               }
             })
-        .submit();
-
-    taskRunner
         .add(
             retrievePrimaryKeys,
             () -> pkRetriever.retrievePrimaryKeys(allTables),
             retrieveTableColumns)
+        .after(retrieveTableColumns)
         .add(
             retrieveForeignKeys,
             () -> fkRetriever.retrieveForeignKeys(allTables),
             retrieveTableColumns)
+        .after(retrieveTableColumns)
         .add(retrieveIndexes, () -> indexRetriever.retrieveIndexes(allTables), retrieveTableColumns)
+        .after(retrieveTableColumns)
         .add(
             retrieveTableConstraints,
             constraintRetriever::retrieveTableConstraints,
             retrieveTableColumns)
+        .after(retrieveTableColumns)
         .add(retrieveTriggerInformation, triggerRetriever::retrieveTriggerInformation)
-        .submit();
-
-    // Should be run independently, since filter and sort modifies the tables collection
-    taskRunner
+        .add(
+            "notifyTableColumnsRetrieved",
+            () -> notifyCrawlListener(allTables, CrawlListener::tableColumnsRetrieved),
+            retrieveTableColumns)
+        .after(retrieveTableColumns)
+        .add(
+            "notifyForeignKeysRetrieved",
+            () -> notifyCrawlListener(allTables, CrawlListener::foreignKeysRetrieved),
+            retrieveForeignKeys)
+        .after(retrieveForeignKeys)
+        // Should be run after all retrievals that iterate over the tables, since filter and sort
+        // modifies the tables collection
         .add(
             "filterAndSortTables",
             () -> {
@@ -436,58 +780,180 @@ public final class SchemaCrawler {
               final TablesGraph tablesGraph = new TablesGraph(allTables);
               tablesGraph.setTablesSortIndexes();
             })
-        .submit();
-
-    // Should be run independently, since table constraints are modified
-    taskRunner
+        .after(
+            retrieveTableColumns,
+            retrievePrimaryKeys,
+            retrieveForeignKeys,
+            retrieveIndexes,
+            retrieveTableConstraints,
+            retrieveTriggerInformation)
+        .after("notifyTableColumnsRetrieved", "notifyForeignKeysRetrieved")
+        // Should be run before other constraint retrievals, since table constraints are modified
         .add(
             "matchTableConstraints",
             () -> constraintRetriever.matchTableConstraints(allTables),
             retrieveTableColumns)
-        .submit();
-
-    taskRunner
+        .after("filterAndSortTables")
         .add(
             retrieveTableConstraintDefinitions,
             constraintRetriever::retrieveTableConstraintDefinitions,
             retrieveTableConstraints)
+        .after("matchTableConstraints")
         .add(
             retrieveTableConstraintInformation,
             constraintRetriever::retrieveTableConstraintInformation,
             retrieveTableConstraints)
+        .after("matchTableConstraints")
         .add(retrieveViewInformation, viewExtRetriever::retrieveViewInformation, retrieveTables)
+        .after("filterAndSortTables")
         .add(retrieveViewTableUsage, viewExtRetriever::retrieveViewTableUsage, retrieveTables)
+        .after("filterAndSortTables")
         .add(
             retrieveTableDefinitionsInformation,
             retrieverExtra::retrieveTableDefinitions,
             retrieveTables)
+        .after("filterAndSortTables")
         .add(
             retrieveIndexInformation,
             () -> indexRetriever.retrieveIndexInformation(),
             retrieveIndexes)
+        .after("filterAndSortTables")
         .add(
             retrieveAdditionalTableAttributes,
             () -> retrieverExtra.retrieveAdditionalTableAttributes(),
             retrieveTables)
+        .after("filterAndSortTables")
         .add(
             retrieveTablePrivileges,
             () -> retrieverPrivilege.retrieveTablePrivileges(),
             retrieveTables)
+        .after("filterAndSortTables")
         .add(
             retrieveTableColumnPrivileges,
             retrieverPrivilege::retrieveTableColumnPrivileges,
             retrieveTableColumns)
+        .after("filterAndSortTables")
         .add(
             retrieveAdditionalColumnAttributes,
             retrieverExtra::retrieveAdditionalColumnAttributes,
             retrieveTableColumns)
-        .submit();
-
-    taskRunner
+        .after("filterAndSortTables")
+        // Should be run after other column retrievals, since column data types are modified
         .add(
             retrieveAdditionalColumnMetadata,
             retrieverExtra::retrieveAdditionalColumnMetadata,
             retrieveTableColumns)
+        .after("filterAndSortTables")
+        .after(retrieveAdditionalColumnAttributes, retrieveTableColumnPrivileges)
         .submit();
   }
+
+  /**
+   * Runs the crawl steps against an existing catalog, where completed retrievals are skipped.
+   * Schemas are not retrieved again, and tables, routines, synonyms and sequences are only
+   * retrieved if they were not requested for the catalog before.
+   */
+  private Catalog enrich(
+      final MutableCatalog catalogToEnrich,
+      final Collection<SchemaInfoRetrieval> completedRetrievals) {
+    catalog = catalogToEnrich;
+    try {
+      final MutableCrawlInfo crawlInfo = (MutableCrawlInfo) catalog.getCrawlInfo();
+      taskRunner = new RetrievalTaskRunner(crawlInfo, loadOptions, retrieverConnection);
+      taskRunner.skip(completedRetrievals);
+
+      crawlDatabaseInfo();
+      crawlColumnDataTypes();
+      crawlTables();
+      crawlRoutines();
+      crawlSynonyms();
+      crawlSequences();
+
+      crawlInfo.addSchemaInfoRetrievals(infoLevel);
+      completeCrawl();
+      return catalog;
+    } catch (final Exception e) {
+      final RuntimeException crawlException = toCrawlException(e);
+      crawlCompletion.completeExceptionally(crawlException);
+      throw crawlException;
+    } finally {
+      if (taskRunner != null) {
+        taskRunner.stopAndLogTime();
+      }
+    }
+  }
+
+  private Optional<String> lookupFullCrawlReason(final Catalog previousCatalog) {
+    if (!(previousCatalog instanceof MutableCatalog)) {
+      return Optional.of("the previous catalog was not crawled by SchemaCrawler");
+    }
+    if (!retrieverConnection.getInformationSchemaViews().hasQuery(EXT_OBJECT_CHANGES)) {
+      return Optional.of("object changes cannot be retrieved for the database");
+    }
+    final GrepOptions grepOptions = options.getGrepOptions();
+    if (grepOptions.isGrepTables()
+        || grepOptions.isGrepColumns()
+        || grepOptions.isGrepDefinitions()
+        || grepOptions.isGrepRoutineParameters()) {
+      return Optional.of("grep options are used");
+    }
+    final FilterOptions filterOptions = options.getFilterOptions();
+    if (filterOptions.getParentTableFilterDepth() > 0
+        || filterOptions.getChildTableFilterDepth() > 0) {
+      return Optional.of("table filter depth options are used");
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Sends an event for each of the database objects to the crawl listener. Events are sent one at
+   * a time, even from concurrent retrievals, and exceptions from the listener are logged, so that
+   * they do not stop the crawl.
+   */
+  private <T> void notifyCrawlListener(
+      final Iterable<? extends T> objects, final BiConsumer<CrawlListener, T> event) {
+    synchronized (crawlListenerLock) {
+      for (final T object : objects) {
+        try {
+          event.accept(crawlListener, object);
+        } catch (final RuntimeException e) {
+          LOGGER.log(
+              Level.WARNING, e, new StringFormat("Crawl listener failed for <%s>", object));
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs the retrievals that were held back for background enrichment, on the shared pool of
+   * threads, notifies the crawl listener that tables are complete, and completes the crawl.
+   * Failures complete the crawl completion future exceptionally, since there is no caller to throw
+   * them to.
+   */
+  private void runBackgroundEnrichment() {
+    try {
+      taskRunner.submitDeferred();
+      notifyCrawlListener(catalog.getTables(), CrawlListener::tableCompleted);
+      completeCrawl();
+    } catch (final Exception e) {
+      LOGGER.log(Level.WARNING, "Could not enrich tables and columns", e);
+      crawlCompletion.completeExceptionally(toCrawlException(e));
+    } finally {
+      taskRunner.stopAndLogTime();
+    }
+  }
+
+  private RuntimeException toCrawlException(final Exception e) {
+    if (e instanceof RuntimeException) {
+      return (RuntimeException) e;
+    } else if (e instanceof TimeoutException) {
+      // Stop queries that are still running for retrievals past the deadline
+      retrieverConnection.cancel();
+      return new ExecutionRuntimeException(e.getMessage(), e);
+    } else if (e instanceof SQLException) {
+      return new DatabaseAccessException(e);
+    } else {
+      return new ExecutionRuntimeException(e);
+    }
+  }
 }
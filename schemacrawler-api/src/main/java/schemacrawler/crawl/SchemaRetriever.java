@@ -153,7 +153,7 @@ final class SchemaRetriever extends AbstractRetriever {
       int numSchemas = 0;
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection.getMetaData().getSchemas(), "DatabaseMetaData::getSchemas"); ) {
         while (results.next()) {
           numSchemas = numSchemas + 1;
@@ -198,9 +198,8 @@ final class SchemaRetriever extends AbstractRetriever {
     final Query schemataSql = informationSchemaViews.getQuery(SCHEMATA);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(schemataSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(schemataSql, statement); ) {
       int numSchemas = 0;
       while (results.next()) {
         numSchemas = numSchemas + 1;
@@ -88,9 +88,9 @@ final class SequenceRetriever extends AbstractRetriever {
 
     final Query sequencesDefinitionSql = informationSchemaViews.getQuery(SEQUENCES);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(sequencesDefinitionSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(sequencesDefinitionSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("SEQUENCE_CATALOG"));
         final String schemaName = normalizeSchemaName(results.getString("SEQUENCE_SCHEMA"));
@@ -122,7 +122,7 @@ final class SequenceRetriever extends AbstractRetriever {
         sequence.setIncrement(longIncrement);
         sequence.setCycle(cycle);
 
-        sequence.addAttributes(results.getAttributes());
+        sequence.addAttributes(getAttributes(results));
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve sequences", e);
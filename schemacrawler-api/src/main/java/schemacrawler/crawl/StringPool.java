@@ -0,0 +1,73 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of strings that are read during a crawl, such as schema names and data type names, so that
+ * database objects share one instance of each distinct string instead of holding a new copy for
+ * every row of metadata. Strings can be pooled concurrently, and the pool is discarded with the
+ * crawl, unlike strings that are interned in the JVM.
+ */
+final class StringPool {
+
+  private final Map<String, String> strings;
+
+  StringPool() {
+    strings = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Gets the pooled instance of a string, adding the string to the pool if needed.
+   *
+   * @param value String value, which may be null
+   * @return Pooled instance of the string, or null for a null value
+   */
+  String pool(final String value) {
+    if (value == null) {
+      return null;
+    }
+    final String pooledValue = strings.putIfAbsent(value, value);
+    if (pooledValue == null) {
+      return value;
+    }
+    return pooledValue;
+  }
+
+  /**
+   * Number of distinct strings in the pool.
+   *
+   * @return Number of pooled strings
+   */
+  int size() {
+    return strings.size();
+  }
+}
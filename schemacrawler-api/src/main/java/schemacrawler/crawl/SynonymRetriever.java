@@ -100,9 +100,9 @@ final class SynonymRetriever extends AbstractRetriever {
 
     final Query synonymsDefinitionSql = informationSchemaViews.getQuery(EXT_SYNONYMS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(synonymsDefinitionSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(synonymsDefinitionSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("SYNONYM_CATALOG"));
         final String schemaName = normalizeSchemaName(results.getString("SYNONYM_SCHEMA"));
@@ -153,7 +153,7 @@ final class SynonymRetriever extends AbstractRetriever {
 
         synonym.setReferencedObject(referencedObject);
 
-        synonym.addAttributes(results.getAttributes());
+        synonym.addAttributes(getAttributes(results));
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve synonyms", e);
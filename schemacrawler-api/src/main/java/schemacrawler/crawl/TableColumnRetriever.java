@@ -38,6 +38,11 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +52,7 @@ import schemacrawler.filter.InclusionRuleFilter;
 import schemacrawler.inclusionrule.InclusionRule;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.NamedObjectKey;
+import schemacrawler.schema.Schema;
 import schemacrawler.schemacrawler.Identifiers;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.Query;
@@ -64,6 +70,45 @@ final class TableColumnRetriever extends AbstractRetriever {
 
   private static final Logger LOGGER = Logger.getLogger(TableColumnRetriever.class.getName());
 
+  /**
+   * Ordinals of the table column metadata columns, looked up once for a result set, so that rows
+   * can be read without looking up columns by name.
+   */
+  private static final class TableColumnOrdinals {
+
+    private final int columnDef;
+    private final int columnName;
+    private final int columnSize;
+    private final int dataType;
+    private final int decimalDigits;
+    private final int isAutoIncrement;
+    private final int isGeneratedColumn;
+    private final int nullable;
+    private final int ordinalPosition;
+    private final int remarks;
+    private final int tableCat;
+    private final int tableName;
+    private final int tableSchem;
+    private final int typeName;
+
+    TableColumnOrdinals(final MetadataResultSet results) {
+      columnDef = results.lookupColumnOrdinal("COLUMN_DEF");
+      columnName = results.lookupColumnOrdinal("COLUMN_NAME");
+      columnSize = results.lookupColumnOrdinal("COLUMN_SIZE");
+      dataType = results.lookupColumnOrdinal("DATA_TYPE");
+      decimalDigits = results.lookupColumnOrdinal("DECIMAL_DIGITS");
+      isAutoIncrement = results.lookupColumnOrdinal("IS_AUTOINCREMENT");
+      isGeneratedColumn = results.lookupColumnOrdinal("IS_GENERATEDCOLUMN");
+      nullable = results.lookupColumnOrdinal("NULLABLE");
+      ordinalPosition = results.lookupColumnOrdinal("ORDINAL_POSITION");
+      remarks = results.lookupColumnOrdinal("REMARKS");
+      tableCat = results.lookupColumnOrdinal("TABLE_CAT");
+      tableName = results.lookupColumnOrdinal("TABLE_NAME");
+      tableSchem = results.lookupColumnOrdinal("TABLE_SCHEM");
+      typeName = results.lookupColumnOrdinal("TYPE_NAME");
+    }
+  }
+
   TableColumnRetriever(
       final RetrieverConnection retrieverConnection,
       final MutableCatalog catalog,
@@ -93,9 +138,16 @@ final class TableColumnRetriever extends AbstractRetriever {
             allTables, columnFilter, hiddenTableColumnsLookupKeys);
         break;
 
+      case metadata_per_schema:
+        LOGGER.log(Level.INFO, "Retrieving table columns, for each schema");
+        retrieveTableColumnsFromMetadataForSchemas(
+            allTables, columnFilter, hiddenTableColumnsLookupKeys);
+        break;
+
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving table columns");
-        retrieveTableColumnsFromMetadata(allTables, columnFilter, hiddenTableColumnsLookupKeys);
+        retrieveTableColumnsFromMetadata(
+            allTables, allTables, columnFilter, hiddenTableColumnsLookupKeys);
         break;
 
       default:
@@ -104,8 +156,15 @@ final class TableColumnRetriever extends AbstractRetriever {
     }
   }
 
-  private void createTableColumn(
+  /**
+   * Creates a table column from a row of metadata.
+   *
+   * @return Table that the row of metadata is for, if it is one of the tables that is being
+   *     retrieved
+   */
+  private Optional<MutableTable> createTableColumn(
       final MetadataResultSet results,
+      final TableColumnOrdinals ordinals,
       final NamedObjectList<MutableTable> allTables,
       final InclusionRuleFilter<Column> columnFilter,
       final Set<NamedObjectKey> hiddenTableColumnsLookupKeys) {
@@ -113,25 +172,27 @@ final class TableColumnRetriever extends AbstractRetriever {
     // Get the "COLUMN_DEF" value first as it the Oracle driver
     // don't handle it properly otherwise.
     // https://github.com/schemacrawler/SchemaCrawler/issues/835
-    final String defaultValue = results.getString("COLUMN_DEF");
-
-    final String catalogName = normalizeCatalogName(results.getString("TABLE_CAT"));
-    final String schemaName = normalizeSchemaName(results.getString("TABLE_SCHEM"));
-    final String tableName = results.getString("TABLE_NAME");
-    final String columnName = results.getString("COLUMN_NAME");
-    LOGGER.log(
-        Level.FINE,
-        new StringFormat(
-            "Retrieving table column <%s.%s.%s.%s>",
-            catalogName, schemaName, tableName, columnName));
+    final String defaultValue = results.getString(ordinals.columnDef);
+
+    final String catalogName = normalizeCatalogName(results.getString(ordinals.tableCat));
+    final String schemaName = normalizeSchemaName(results.getString(ordinals.tableSchem));
+    final String tableName = results.getString(ordinals.tableName);
+    final String columnName = results.getString(ordinals.columnName);
+    if (LOGGER.isLoggable(Level.FINE)) {
+      LOGGER.log(
+          Level.FINE,
+          new StringFormat(
+              "Retrieving table column <%s.%s.%s.%s>",
+              catalogName, schemaName, tableName, columnName));
+    }
     if (isBlank(columnName)) {
-      return;
+      return Optional.empty();
     }
 
     final Optional<MutableTable> optionalTable =
         allTables.lookup(new NamedObjectKey(catalogName, schemaName, tableName));
     if (!optionalTable.isPresent()) {
-      return;
+      return optionalTable;
     }
 
     final MutableTable table = optionalTable.get();
@@ -139,17 +200,17 @@ final class TableColumnRetriever extends AbstractRetriever {
     column.withQuoting(getRetrieverConnection().getIdentifiers());
 
     if (columnFilter.test(column) && belongsToSchema(table, catalogName, schemaName)) {
-      final int ordinalPosition = results.getInt("ORDINAL_POSITION", 0);
-      final int dataType = results.getInt("DATA_TYPE", 0);
-      final String typeName = results.getString("TYPE_NAME");
-      final int size = results.getInt("COLUMN_SIZE", 0);
-      final int decimalDigits = results.getInt("DECIMAL_DIGITS", 0);
+      final int ordinalPosition = results.getInt(ordinals.ordinalPosition, 0);
+      final int dataType = results.getInt(ordinals.dataType, 0);
+      final String typeName = results.getString(ordinals.typeName);
+      final int size = results.getInt(ordinals.columnSize, 0);
+      final int decimalDigits = results.getInt(ordinals.decimalDigits, 0);
       final boolean isNullable =
-          results.getInt("NULLABLE", DatabaseMetaData.columnNullableUnknown)
+          results.getInt(ordinals.nullable, DatabaseMetaData.columnNullableUnknown)
               == DatabaseMetaData.columnNullable;
-      final boolean isAutoIncremented = results.getBoolean("IS_AUTOINCREMENT");
-      final boolean isGenerated = results.getBoolean("IS_GENERATEDCOLUMN");
-      final String remarks = results.getString("REMARKS");
+      final boolean isAutoIncremented = results.getBoolean(ordinals.isAutoIncrement);
+      final boolean isGenerated = results.getBoolean(ordinals.isGeneratedColumn);
+      final String remarks = results.getString(ordinals.remarks);
 
       final boolean isHidden = hiddenTableColumnsLookupKeys.contains(column.key());
 
@@ -167,7 +228,7 @@ final class TableColumnRetriever extends AbstractRetriever {
         column.setDefaultValue(defaultValue);
       }
 
-      column.addAttributes(results.getAttributes());
+      column.addAttributes(getAttributes(results));
 
       LOGGER.log(
           Level.FINER,
@@ -179,6 +240,8 @@ final class TableColumnRetriever extends AbstractRetriever {
         table.addColumn(column);
       }
     }
+
+    return optionalTable;
   }
 
   private String getColumnTypeName(final String typeName) {
@@ -216,9 +279,8 @@ final class TableColumnRetriever extends AbstractRetriever {
     }
     final Query hiddenColumnsSql = informationSchemaViews.getQuery(EXT_HIDDEN_TABLE_COLUMNS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(hiddenColumnsSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(hiddenColumnsSql, statement); ) {
       while (results.next()) {
         // NOTE: The column names in the extension table are different
         // than the database metadata column names
@@ -253,53 +315,58 @@ final class TableColumnRetriever extends AbstractRetriever {
       throw new ExecutionRuntimeException("No table columns SQL provided");
     }
     final Query tableColumnsSql = informationSchemaViews.getQuery(TABLE_COLUMNS);
-    try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(tableColumnsSql, statement, getLimitMap()); ) {
-      while (results.next()) {
-        createTableColumn(results, allTables, columnFilter, hiddenTableColumnsLookupKeys);
-      }
-    }
+    // Table columns are safely created concurrently, so partitions are not serialized
+    executeAgainstSchemaPartitioned(
+        tableColumnsSql,
+        results -> {
+          final TableColumnOrdinals ordinals = new TableColumnOrdinals(results);
+          while (results.next()) {
+            createTableColumn(
+                results, ordinals, allTables, columnFilter, hiddenTableColumnsLookupKeys);
+          }
+        });
   }
 
   private void retrieveTableColumnsFromMetadata(
       final NamedObjectList<MutableTable> allTables,
+      final Iterable<MutableTable> tables,
       final InclusionRuleFilter<Column> columnFilter,
       final Set<NamedObjectKey> hiddenTableColumnsLookupKeys)
       throws SQLException {
     try (final TaskRunner taskRunner =
         TaskRunners.getTaskRunner("retrieve-table-columns-from-metadata", 5); ) {
-      for (final MutableTable table : allTables) {
+      for (final MutableTable table : tables) {
+        final TaskDefinition.TaskRunnable retrieveColumns =
+            () -> {
+              LOGGER.log(Level.FINE, new StringFormat("Retrieving table columns for <%s>", table));
+              try (final Connection connection = getRetrieverConnection().getConnection();
+                  final MetadataResultSet results =
+                      newMetadataResultSet(
+                          connection
+                              .getMetaData()
+                              .getColumns(
+                                  table.getSchema().getCatalogName(),
+                                  table.getSchema().getName(),
+                                  table.getName(),
+                                  null),
+                          "DatabaseMetaData::getColumns"); ) {
+                final TableColumnOrdinals ordinals = new TableColumnOrdinals(results);
+                while (results.next()) {
+                  createTableColumn(
+                      results, ordinals, allTables, columnFilter, hiddenTableColumnsLookupKeys);
+                }
+              } catch (final SQLException e) {
+                throw new WrappedSQLException(
+                    String.format(
+                        "Could not retrieve table columns for %s <%s>",
+                        table.getTableType(), table),
+                    e);
+              }
+            };
         taskRunner.add(
             new TaskDefinition(
                 table.getFullName(),
-                () -> {
-                  LOGGER.log(
-                      Level.FINE, new StringFormat("Retrieving table columns for <%s>", table));
-                  try (final Connection connection = getRetrieverConnection().getConnection();
-                      final MetadataResultSet results =
-                          new MetadataResultSet(
-                              connection
-                                  .getMetaData()
-                                  .getColumns(
-                                      table.getSchema().getCatalogName(),
-                                      table.getSchema().getName(),
-                                      table.getName(),
-                                      null),
-                              "DatabaseMetaData::getColumns"); ) {
-                    while (results.next()) {
-                      createTableColumn(
-                          results, allTables, columnFilter, hiddenTableColumnsLookupKeys);
-                    }
-                  } catch (final SQLException e) {
-                    throw new WrappedSQLException(
-                        String.format(
-                            "Could not retrieve table columns for %s <%s>",
-                            table.getTableType(), table),
-                        e);
-                  }
-                }));
+                getRetrieverConnection().withCurrentQueryTimeout(retrieveColumns)));
       }
       taskRunner.submit();
     } catch (final SQLException | SchemaCrawlerException e) {
@@ -308,4 +375,73 @@ final class TableColumnRetriever extends AbstractRetriever {
       throw new ExecutionRuntimeException(e.getMessage(), e);
     }
   }
+
+  private void retrieveTableColumnsFromMetadataForSchemas(
+      final NamedObjectList<MutableTable> allTables,
+      final InclusionRuleFilter<Column> columnFilter,
+      final Set<NamedObjectKey> hiddenTableColumnsLookupKeys)
+      throws SQLException {
+
+    final Map<Schema, List<MutableTable>> tablesBySchema = groupBySchema(allTables);
+    // Tables that were not returned for a schema, either because the
+    // JDBC driver does not support retrieving columns for all tables in a
+    // schema, or because of an error
+    final List<MutableTable> remainingTables = Collections.synchronizedList(new ArrayList<>());
+
+    try (final TaskRunner taskRunner =
+        TaskRunners.getTaskRunner("retrieve-table-columns-from-metadata-for-schemas", 5); ) {
+      for (final Map.Entry<Schema, List<MutableTable>> schemaTables : tablesBySchema.entrySet()) {
+        final Schema schema = schemaTables.getKey();
+        final List<MutableTable> tables = schemaTables.getValue();
+        final TaskDefinition.TaskRunnable retrieveColumns =
+            () -> {
+              LOGGER.log(
+                  Level.FINE, new StringFormat("Retrieving table columns for schema <%s>", schema));
+              final Set<MutableTable> retrievedTables = new HashSet<>();
+              try (final Connection connection = getRetrieverConnection().getConnection();
+                  final MetadataResultSet results =
+                      newMetadataResultSet(
+                          connection
+                              .getMetaData()
+                              .getColumns(schema.getCatalogName(), schema.getName(), null, null),
+                          "DatabaseMetaData::getColumns"); ) {
+                final TableColumnOrdinals ordinals = new TableColumnOrdinals(results);
+                while (results.next()) {
+                  createTableColumn(
+                          results, ordinals, allTables, columnFilter, hiddenTableColumnsLookupKeys)
+                      .ifPresent(retrievedTables::add);
+                }
+              } catch (final SQLException e) {
+                logPossiblyUnsupportedSQLFeature(
+                    new StringFormat("Could not retrieve table columns for schema <%s>", schema),
+                    e);
+              }
+              for (final MutableTable table : tables) {
+                if (!retrievedTables.contains(table)) {
+                  remainingTables.add(table);
+                }
+              }
+            };
+        taskRunner.add(
+            new TaskDefinition(
+                schema.getFullName(),
+                getRetrieverConnection().withCurrentQueryTimeout(retrieveColumns)));
+      }
+      taskRunner.submit();
+    } catch (final SQLException | SchemaCrawlerException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new ExecutionRuntimeException(e.getMessage(), e);
+    }
+
+    if (!remainingTables.isEmpty()) {
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat(
+              "Retrieving table columns for <%d> tables, one table at a time",
+              remainingTables.size()));
+      retrieveTableColumnsFromMetadata(
+          allTables, remainingTables, columnFilter, hiddenTableColumnsLookupKeys);
+    }
+  }
 }
@@ -100,10 +100,11 @@ final class TableConstraintRetriever extends AbstractRetriever {
         informationSchemaViews.getQuery(CHECK_CONSTRAINTS);
 
     // Get check constraint definitions
+    final DefinitionsCollector<MutableTableConstraint> definitions = new DefinitionsCollector<>();
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(extTableConstraintInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(extTableConstraintInformationSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("CONSTRAINT_CATALOG"));
         final String schemaName = normalizeSchemaName(results.getString("CONSTRAINT_SCHEMA"));
@@ -121,10 +122,11 @@ final class TableConstraintRetriever extends AbstractRetriever {
               new StringFormat("Could not add table constraint <%s>", constraintName));
           continue;
         }
-        tableConstraint.appendDefinition(definition);
+        definitions.add(tableConstraint, definition);
 
-        tableConstraint.addAttributes(results.getAttributes());
+        tableConstraint.addAttributes(getAttributes(results));
       }
+      definitions.appendTo(MutableTableConstraint::appendDefinition);
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve check constraints", e);
     }
@@ -154,9 +156,9 @@ final class TableConstraintRetriever extends AbstractRetriever {
     final Query extTableConstraintsInformationSql =
         informationSchemaViews.getQuery(EXT_TABLE_CONSTRAINTS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(extTableConstraintsInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(extTableConstraintsInformationSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("CONSTRAINT_CATALOG"));
@@ -196,7 +198,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
 
         tableConstraint.setRemarks(remarks);
 
-        final Map<String, Object> attributes = results.getAttributes();
+        final Map<String, Object> attributes = getAttributes(results);
         final Set<Entry<String, Object>> entrySet = attributes.entrySet();
         for (final Entry<String, Object> entry : entrySet) {
           tableConstraint.setAttribute(entry.getKey(), entry.getValue());
@@ -268,9 +270,9 @@ final class TableConstraintRetriever extends AbstractRetriever {
 
     final Query tableConstraintsInformationSql = informationSchemaViews.getQuery(TABLE_CONSTRAINTS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(tableConstraintsInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(tableConstraintsInformationSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("CONSTRAINT_CATALOG"));
@@ -301,7 +303,7 @@ final class TableConstraintRetriever extends AbstractRetriever {
         tableConstraint.setDeferrable(deferrable);
         tableConstraint.setInitiallyDeferred(initiallyDeferred);
 
-        tableConstraint.addAttributes(results.getAttributes());
+        tableConstraint.addAttributes(getAttributes(results));
 
         // Add constraint to table
         table.addTableConstraint(tableConstraint);
@@ -349,10 +351,9 @@ final class TableConstraintRetriever extends AbstractRetriever {
         informationSchemaViews.getQuery(CONSTRAINT_COLUMN_USAGE);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(
-                tableConstraintsColumnsInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(tableConstraintsColumnsInformationSql, statement); ) {
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("CONSTRAINT_CATALOG"));
         final String schemaName = normalizeSchemaName(results.getString("CONSTRAINT_SCHEMA"));
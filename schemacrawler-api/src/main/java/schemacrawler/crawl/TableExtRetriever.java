@@ -76,9 +76,8 @@ final class TableExtRetriever extends AbstractRetriever {
     final Query columnAttributesSql = informationSchemaViews.getQuery(ADDITIONAL_COLUMN_ATTRIBUTES);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(columnAttributesSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(columnAttributesSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("TABLE_CATALOG"));
@@ -106,7 +105,7 @@ final class TableExtRetriever extends AbstractRetriever {
                   catalogName, schemaName, tableName, columnName));
         } else {
           final MutableColumn column = columnOptional.get();
-          column.addAttributes(results.getAttributes());
+          column.addAttributes(getAttributes(results));
         }
       }
     } catch (final Exception e) {
@@ -171,9 +170,8 @@ final class TableExtRetriever extends AbstractRetriever {
     final Query tableAttributesSql = informationSchemaViews.getQuery(ADDITIONAL_TABLE_ATTRIBUTES);
 
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(tableAttributesSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(tableAttributesSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("TABLE_CATALOG"));
@@ -191,7 +189,7 @@ final class TableExtRetriever extends AbstractRetriever {
         }
 
         final MutableTable table = tableOptional.get();
-        table.addAttributes(results.getAttributes());
+        table.addAttributes(getAttributes(results));
       }
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve additional table attributes", e);
@@ -216,10 +214,11 @@ final class TableExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving table definitions");
 
     final Query tableDefinitionsInformationSql = informationSchemaViews.getQuery(EXT_TABLES);
+    final DefinitionsCollector<MutableTable> definitions = new DefinitionsCollector<>();
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(tableDefinitionsInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(tableDefinitionsInformationSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("TABLE_CATALOG"));
@@ -240,10 +239,11 @@ final class TableExtRetriever extends AbstractRetriever {
         LOGGER.log(Level.FINER, new StringFormat("Retrieving table information <%s>", tableName));
         final String definition = results.getString("TABLE_DEFINITION");
 
-        table.appendDefinition(definition);
+        definitions.add(table, definition);
 
-        table.addAttributes(results.getAttributes());
+        table.addAttributes(getAttributes(results));
       }
+      definitions.appendTo(MutableTable::appendDefinition);
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve table definitions", e);
     }
@@ -66,6 +66,7 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
         retrieveTableColumnPrivilegesFromDataDictionary();
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving column privileges from metadata");
         retrieveTableColumnPrivilegesFromMetadata();
@@ -84,6 +85,7 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
         retrieveTablePrivilegesFromDataDictionary();
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving table privileges from metadata");
         retrieveTablePrivilegesFromMetadata();
@@ -164,9 +166,8 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
     }
     final Query tablePrivelegesSql = informationSchemaViews.getQuery(TABLE_COLUMN_PRIVILEGES);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(tablePrivelegesSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(tablePrivelegesSql, statement); ) {
       createPrivileges(results, true);
     }
   }
@@ -174,7 +175,7 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
   private void retrieveTableColumnPrivilegesFromMetadata() {
     try (final Connection connection = getRetrieverConnection().getConnection();
         final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 connection.getMetaData().getColumnPrivileges(null, null, null, null),
                 "DatabaseMetaData::getColumnPrivileges"); ) {
       createPrivileges(results, true);
@@ -191,9 +192,8 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
     }
     final Query tablePrivelegesSql = informationSchemaViews.getQuery(TABLE_PRIVILEGES);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(tablePrivelegesSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(tablePrivelegesSql, statement); ) {
       createPrivileges(results, false);
     }
   }
@@ -201,7 +201,7 @@ final class TablePrivilegeRetriever extends AbstractRetriever {
   private void retrieveTablePrivilegesFromMetadata() {
     try (final Connection connection = getRetrieverConnection().getConnection();
         final MetadataResultSet results =
-            new MetadataResultSet(
+            newMetadataResultSet(
                 connection.getMetaData().getTablePrivileges(null, null, null),
                 "DatabaseMetaData::getTablePrivileges"); ) {
       createPrivileges(results, false);
@@ -86,6 +86,7 @@ final class TableRetriever extends AbstractRetriever {
         retrieveTablesFromDataDictionary(schemas, tableTypes, tableFilter);
         break;
 
+      case metadata_per_schema:
       case metadata:
         LOGGER.log(Level.INFO, "Retrieving tables");
         retrieveTablesFromMetadata(schemas, tableNamePattern, tableTypes, tableFilter);
@@ -140,7 +141,7 @@ final class TableRetriever extends AbstractRetriever {
     if (tableFilter.test(table)) {
       table.setTableType(tableType);
       table.setRemarks(remarks);
-      table.addAttributes(results.getAttributes());
+      table.addAttributes(getAttributes(results));
 
       catalog.addTable(table);
     }
@@ -165,9 +166,8 @@ final class TableRetriever extends AbstractRetriever {
       filteredTableTypes = tableTypes;
     }
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(tablesSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(tablesSql, statement); ) {
       int numTables = 0;
       while (results.next()) {
         numTables = numTables + 1;
@@ -195,7 +195,7 @@ final class TableRetriever extends AbstractRetriever {
 
       try (final Connection connection = getRetrieverConnection().getConnection();
           final MetadataResultSet results =
-              new MetadataResultSet(
+              newMetadataResultSet(
                   connection
                       .getMetaData()
                       .getTables(
@@ -45,9 +45,12 @@ final class TablesGraph extends DirectedGraph<Table> {
 
   private static final Logger LOGGER = Logger.getLogger(TablesGraph.class.getName());
 
+  private final NamedObjectList<MutableTable> tables;
+
   TablesGraph(final NamedObjectList<MutableTable> tables) {
     super("catalog");
 
+    this.tables = tables;
     if (tables == null) {
       return;
     }
@@ -84,6 +87,10 @@ final class TablesGraph extends DirectedGraph<Table> {
           sortIndex++;
         }
       }
+      // Sort indexes change the natural sort order of tables
+      if (tables != null) {
+        tables.invalidateSortedValues();
+      }
     } catch (final GraphException e) {
       LOGGER.log(Level.CONFIG, e.getMessage());
     }
@@ -80,9 +80,9 @@ final class TriggerRetriever extends AbstractRetriever {
 
     final Query triggerInformationSql = informationSchemaViews.getQuery(TRIGGERS);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
+        final Statement statement = createStatement(connection);
         final MetadataResultSet results =
-            new MetadataResultSet(triggerInformationSql, statement, getLimitMap()); ) {
+            executeAgainstSchema(triggerInformationSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("TRIGGER_CATALOG"));
@@ -133,7 +133,7 @@ final class TriggerRetriever extends AbstractRetriever {
         trigger.withQuoting(getRetrieverConnection().getIdentifiers());
 
         trigger.setEventManipulationTypes(eventManipulationTypes);
-        trigger.addAttributes(results.getAttributes());
+        trigger.addAttributes(getAttributes(results));
 
         // Add trigger to the table
         table.addTrigger(trigger);
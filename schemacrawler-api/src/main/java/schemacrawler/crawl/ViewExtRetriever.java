@@ -76,10 +76,10 @@ final class ViewExtRetriever extends AbstractRetriever {
     LOGGER.log(Level.INFO, "Retrieving additional view information");
 
     final Query viewInformationSql = informationSchemaViews.getQuery(VIEWS);
+    final DefinitionsCollector<MutableView> definitions = new DefinitionsCollector<>();
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(viewInformationSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(viewInformationSql, statement); ) {
 
       while (results.next()) {
 
@@ -107,12 +107,13 @@ final class ViewExtRetriever extends AbstractRetriever {
             results.getEnum("CHECK_OPTION", CheckOptionType.unknown);
         final boolean updatable = results.getBoolean("IS_UPDATABLE");
 
-        view.appendDefinition(definition);
+        definitions.add(view, definition);
         view.setCheckOption(checkOption);
         view.setUpdatable(updatable);
 
-        view.addAttributes(results.getAttributes());
+        view.addAttributes(getAttributes(results));
       }
+      definitions.appendTo(MutableView::appendDefinition);
     } catch (final Exception e) {
       LOGGER.log(Level.WARNING, "Could not retrieve views", e);
     }
@@ -138,9 +139,8 @@ final class ViewExtRetriever extends AbstractRetriever {
 
     final Query viewTableUsageSql = informationSchemaViews.getQuery(VIEW_TABLE_USAGE);
     try (final Connection connection = getRetrieverConnection().getConnection();
-        final Statement statement = connection.createStatement();
-        final MetadataResultSet results =
-            new MetadataResultSet(viewTableUsageSql, statement, getLimitMap()); ) {
+        final Statement statement = createStatement(connection);
+        final MetadataResultSet results = executeAgainstSchema(viewTableUsageSql, statement); ) {
 
       while (results.next()) {
         final String catalogName = normalizeCatalogName(results.getString("VIEW_CATALOG"));
@@ -30,8 +30,12 @@ package schemacrawler.schema;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 import schemacrawler.ProductVersion;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
 
 public interface CrawlInfo extends Serializable {
 
@@ -56,6 +60,16 @@ public interface CrawlInfo extends Serializable {
    */
   ProductVersion getDatabaseVersion();
 
+  /**
+   * Gets the retrievals that failed during a best effort crawl, with the reason for each failure.
+   * If any retrievals failed, the catalog is incomplete.
+   *
+   * @return Failure messages, by retrieval name
+   */
+  default Map<String, String> getFailedRetrievals() {
+    return Collections.emptyMap();
+  }
+
   /**
    * Gets the name and version of the JDBC driver.
    *
@@ -90,4 +104,24 @@ public interface CrawlInfo extends Serializable {
    * @return SchemaCrawler version
    */
   ProductVersion getSchemaCrawlerVersion();
+
+  /**
+   * Gets the retrievals that were requested by the schema info level of the crawl, or of a later
+   * enrichment of the catalog. Retrievals that failed during a best effort crawl are included, and
+   * are also listed in the failed retrievals.
+   *
+   * @return Requested retrievals, or an empty collection if they were not recorded
+   */
+  default Collection<SchemaInfoRetrieval> getSchemaInfoRetrievals() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Whether all retrievals completed, so that the catalog is complete.
+   *
+   * @return True if no retrievals failed
+   */
+  default boolean isComplete() {
+    return getFailedRetrievals().isEmpty();
+  }
 }
@@ -30,23 +30,65 @@ package schemacrawler.schema;
 
 import static us.fatehi.utility.Utility.convertForComparison;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
+import java.util.Objects;
 
+/**
+ * Lookup key for named objects, made up of the names of the object and its parents. A key is linked
+ * to the key of its parent, so that keys of dependent objects share the parent key instead of
+ * copying names. The hash code is computed once, when the key is created.
+ */
 public final class NamedObjectKey implements Serializable {
 
   private static final long serialVersionUID = -5008609072012459037L;
 
-  private final String[] key;
+  // Serialized as an array of names, as in earlier versions
+  private static final ObjectStreamField[] serialPersistentFields = {
+    new ObjectStreamField("key", String[].class)
+  };
+
+  private static int hash(final NamedObjectKey parent, final String name) {
+    final int parentHash = parent == null ? 1 : parent.hash;
+    return 31 * parentHash + (name == null ? 0 : name.hashCode());
+  }
+
+  // Key of the parent, or null if this key has only one name
+  private final NamedObjectKey parent;
+  private final String name;
+  private final int length;
+  private final int hash;
+  // Only used while deserializing
+  private transient NamedObjectKey deserializedKey;
 
   public NamedObjectKey(final String... key) {
     if (key == null || key.length == 0) {
-      this.key = new String[0];
+      parent = null;
+      name = null;
+      length = 0;
+      hash = 1;
     } else {
-      this.key = Arrays.copyOf(key, key.length);
+      NamedObjectKey parentKey = null;
+      for (int i = 0; i < key.length - 1; i++) {
+        parentKey = new NamedObjectKey(parentKey, key[i]);
+      }
+      parent = parentKey;
+      name = key[key.length - 1];
+      length = key.length;
+      hash = hash(parentKey, name);
     }
   }
 
+  private NamedObjectKey(final NamedObjectKey parent, final String name) {
+    this.parent = parent;
+    this.name = name;
+    length = parent == null ? 1 : parent.length + 1;
+    hash = hash(parent, name);
+  }
+
   @Override
   public boolean equals(final Object obj) {
     if (this == obj) {
@@ -56,31 +98,69 @@ public final class NamedObjectKey implements Serializable {
       return false;
     }
     final NamedObjectKey other = (NamedObjectKey) obj;
-    return Arrays.equals(key, other.key);
+    if (hash != other.hash || length != other.length) {
+      return false;
+    }
+    // Compare names from the end, until the keys share a parent
+    NamedObjectKey thisKey = this;
+    NamedObjectKey otherKey = other;
+    while (thisKey != otherKey) {
+      if (thisKey == null
+          || otherKey == null
+          || !Objects.equals(thisKey.name, otherKey.name)) {
+        return false;
+      }
+      thisKey = thisKey.parent;
+      otherKey = otherKey.parent;
+    }
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(key);
+    return hash;
   }
 
   public String slug() {
-    if (key.length == 0) {
+    if (length == 0) {
       return "";
     }
-    final String name = key[key.length - 1];
     return convertForComparison(name) + "_" + Integer.toHexString(hashCode());
   }
 
   @Override
   public String toString() {
-    return "{\"key\": \"" + String.join("/", key) + "\"}";
+    return "{\"key\": \"" + String.join("/", names()) + "\"}";
   }
 
   public NamedObjectKey with(final String name) {
-    final int currentLength = key.length;
-    final String[] newKey = Arrays.copyOf(key, currentLength + 1);
-    newKey[currentLength] = name;
-    return new NamedObjectKey(newKey);
+    if (length == 0) {
+      return new NamedObjectKey(null, name);
+    }
+    return new NamedObjectKey(this, name);
+  }
+
+  private String[] names() {
+    final String[] names = new String[length];
+    NamedObjectKey key = this;
+    for (int i = length - 1; i >= 0; i--) {
+      names[i] = key.name;
+      key = key.parent;
+    }
+    return names;
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    final String[] names = (String[]) in.readFields().get("key", null);
+    deserializedKey = new NamedObjectKey(names);
+  }
+
+  private Object readResolve() {
+    return deserializedKey;
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.putFields().put("key", names());
+    out.writeFields();
   }
 }
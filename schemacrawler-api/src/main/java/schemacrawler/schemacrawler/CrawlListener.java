@@ -0,0 +1,114 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.schemacrawler;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Routine;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Sequence;
+import schemacrawler.schema.Synonym;
+import schemacrawler.schema.Table;
+
+/**
+ * Receives events during a crawl, so that database objects can be processed while the rest of the
+ * catalog is still being retrieved. Events are delivered one at a time, on the threads that run the
+ * crawl, so listeners should return quickly, and hand off long running work. Exceptions thrown by
+ * a listener are logged, and do not stop the crawl.
+ *
+ * <p>Database objects that are retrieved may still be changed, or removed by filters, later in the
+ * crawl. Database objects that are completed will not be changed any further by the crawl, but
+ * catalog loaders that run after the crawl may still add to them.
+ */
+public interface CrawlListener {
+
+  /**
+   * Called once the crawl is complete, before the catalog is returned.
+   *
+   * @param catalog Crawled catalog
+   */
+  default void crawlCompleted(final Catalog catalog) {}
+
+  /**
+   * Called for each table once foreign keys have been retrieved for all tables.
+   *
+   * @param table Table, with foreign keys
+   */
+  default void foreignKeysRetrieved(final Table table) {}
+
+  /**
+   * Called for each routine once retrieval of routines is complete.
+   *
+   * @param routine Completed routine
+   */
+  default void routineCompleted(final Routine routine) {}
+
+  /**
+   * Called for each schema once the schemas have been retrieved and filtered.
+   *
+   * @param schema Retrieved schema
+   */
+  default void schemaRetrieved(final Schema schema) {}
+
+  /**
+   * Called for each sequence once retrieval of sequences is complete.
+   *
+   * @param sequence Completed sequence
+   */
+  default void sequenceCompleted(final Sequence sequence) {}
+
+  /**
+   * Called for each synonym once retrieval of synonyms is complete.
+   *
+   * @param synonym Completed synonym
+   */
+  default void synonymCompleted(final Synonym synonym) {}
+
+  /**
+   * Called for each table once columns have been retrieved for all tables.
+   *
+   * @param table Table, with columns
+   */
+  default void tableColumnsRetrieved(final Table table) {}
+
+  /**
+   * Called for each table that remains after filtering, once retrieval of tables is complete. This
+   * happens before routines, synonyms and sequences are retrieved, unless tables and columns are
+   * enriched in the background, in which case it happens once the enrichment is done.
+   *
+   * @param table Completed table
+   */
+  default void tableCompleted(final Table table) {}
+
+  /**
+   * Called for each table once table names have been retrieved, before any other details.
+   *
+   * @param table Retrieved table
+   */
+  default void tableRetrieved(final Table table) {}
+}
@@ -41,6 +41,8 @@ public enum InformationSchemaKey {
   DATABASE_USERS(ADDITIONAL_INFO),
   EXT_HIDDEN_TABLE_COLUMNS(METADATA_EXTENSION),
   EXT_INDEXES(METADATA_EXTENSION),
+  EXT_OBJECT_CHANGES(METADATA_EXTENSION),
+  EXT_SCHEMA_FINGERPRINT(METADATA_EXTENSION),
   EXT_TABLE_CONSTRAINTS(METADATA_EXTENSION),
   EXT_SYNONYMS(METADATA_EXTENSION),
   EXT_TABLES(METADATA_EXTENSION),
@@ -29,16 +29,108 @@ http://www.gnu.org/licenses/
 package schemacrawler.schemacrawler;
 
 import static java.util.Objects.requireNonNull;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import schemacrawler.inclusionrule.InclusionRule;
 import us.fatehi.utility.ObjectToString;
 
 public final class LoadOptions implements Options {
 
   private final SchemaInfoLevel schemaInfoLevel;
   private final int maxThreads;
+  private final Duration crawlTimeout;
+  private final Duration queryTimeout;
+  private final Map<SchemaInfoRetrieval, Duration> queryTimeouts;
+  private final int maxRetries;
+  private final Duration retryBackoff;
+  private final boolean bestEffort;
+  private final InclusionRule attributesInclusionRule;
+  private final CrawlListener crawlListener;
+  private final Path cacheDirectory;
+  private final boolean backgroundEnrichment;
 
-  LoadOptions(final SchemaInfoLevel schemaInfoLevel, final int maxThreads) {
+  LoadOptions(
+      final SchemaInfoLevel schemaInfoLevel,
+      final int maxThreads,
+      final Duration crawlTimeout,
+      final Duration queryTimeout,
+      final Map<SchemaInfoRetrieval, Duration> queryTimeouts,
+      final int maxRetries,
+      final Duration retryBackoff,
+      final boolean bestEffort,
+      final InclusionRule attributesInclusionRule,
+      final CrawlListener crawlListener,
+      final Path cacheDirectory,
+      final boolean backgroundEnrichment) {
     this.schemaInfoLevel = requireNonNull(schemaInfoLevel, "No schema info level provided");
     this.maxThreads = maxThreads;
+    this.crawlTimeout = requireNonNull(crawlTimeout, "No crawl timeout provided");
+    this.queryTimeout = requireNonNull(queryTimeout, "No query timeout provided");
+    requireNonNull(queryTimeouts, "No query timeouts provided");
+    this.queryTimeouts = new EnumMap<>(SchemaInfoRetrieval.class);
+    this.queryTimeouts.putAll(queryTimeouts);
+    this.maxRetries = maxRetries;
+    this.retryBackoff = requireNonNull(retryBackoff, "No retry backoff provided");
+    this.bestEffort = bestEffort;
+    this.attributesInclusionRule =
+        requireNonNull(attributesInclusionRule, "No attributes inclusion rule provided");
+    this.crawlListener = requireNonNull(crawlListener, "No crawl listener provided");
+    this.cacheDirectory = cacheDirectory;
+    this.backgroundEnrichment = backgroundEnrichment;
+  }
+
+  /**
+   * Inclusion rule for the upper case names of additional metadata columns, that are not otherwise
+   * mapped, and are captured as attributes of database objects. Columns that are not included are
+   * not read at all.
+   *
+   * @return Inclusion rule for attribute names
+   */
+  public InclusionRule getAttributesInclusionRule() {
+    return attributesInclusionRule;
+  }
+
+  /**
+   * Directory in which loaded catalogs are cached, so that they can be reused while the schemas in
+   * the database are unchanged.
+   *
+   * @return Cache directory, or empty if catalogs are not cached
+   */
+  public Optional<Path> getCacheDirectory() {
+    return Optional.ofNullable(cacheDirectory);
+  }
+
+  /**
+   * Listener that receives events as database objects are retrieved and completed during the
+   * crawl.
+   *
+   * @return Crawl listener
+   */
+  public CrawlListener getCrawlListener() {
+    return crawlListener;
+  }
+
+  /**
+   * Time allowed for the whole crawl, after which retrievals that are still running are cancelled,
+   * and the crawl fails.
+   *
+   * @return Time allowed for the crawl
+   */
+  public Duration getCrawlTimeout() {
+    return crawlTimeout;
+  }
+
+  /**
+   * Maximum number of times that a retrieval is retried after a transient database error, such as
+   * a deadlock, a lock timeout, or a lost connection.
+   *
+   * @return Maximum number of retries, where zero means no retries
+   */
+  public int getMaxRetries() {
+    return maxRetries;
   }
 
   /**
@@ -50,6 +142,39 @@ public final class LoadOptions implements Options {
     return maxThreads;
   }
 
+  /**
+   * Time allowed for each data dictionary query that is run when retrieving metadata, unless
+   * overridden for a retrieval. This is applied as the JDBC query timeout, and a zero duration
+   * means that there is no limit.
+   *
+   * @return Time allowed for each query
+   */
+  public Duration getQueryTimeout() {
+    return queryTimeout;
+  }
+
+  /**
+   * Time allowed for each data dictionary query that is run for a retrieval.
+   *
+   * @param retrieval Retrieval that runs the query
+   * @return Time allowed for each query for the retrieval
+   */
+  public Duration getQueryTimeout(final SchemaInfoRetrieval retrieval) {
+    if (retrieval == null) {
+      return queryTimeout;
+    }
+    return queryTimeouts.getOrDefault(retrieval, queryTimeout);
+  }
+
+  /**
+   * Time to wait before the first retry of a retrieval. The wait is doubled for every later retry.
+   *
+   * @return Time to wait before the first retry
+   */
+  public Duration getRetryBackoff() {
+    return retryBackoff;
+  }
+
   /**
    * Gets the schema information level, identifying to what level the schema should be crawled.
    *
@@ -59,6 +184,28 @@ public final class LoadOptions implements Options {
     return schemaInfoLevel;
   }
 
+  /**
+   * Whether the crawl returns the catalog as soon as tables, columns, keys and other objects are
+   * retrieved, while retrievals at the maximum info level that enrich tables and columns continue
+   * in the background. Tables and columns are only safe to read once the crawl completion future
+   * completes.
+   *
+   * @return True if tables and columns are enriched in the background
+   */
+  public boolean isBackgroundEnrichment() {
+    return backgroundEnrichment;
+  }
+
+  /**
+   * Whether retrievals that fail are recorded in the crawl information, and the crawl continues to
+   * return a partial catalog, instead of failing.
+   *
+   * @return True if the crawl is best effort
+   */
+  public boolean isBestEffort() {
+    return bestEffort;
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
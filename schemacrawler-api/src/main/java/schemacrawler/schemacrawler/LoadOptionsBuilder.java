@@ -28,11 +28,23 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.schemacrawler;
 
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.scheduler.TaskRunner.DEFAULT_TIMEOUT;
 import static us.fatehi.utility.scheduler.TaskRunner.MAX_THREADS;
 import static us.fatehi.utility.scheduler.TaskRunner.MIN_THREADS;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import schemacrawler.inclusionrule.IncludeAll;
+import schemacrawler.inclusionrule.InclusionRule;
+
 public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuilder, LoadOptions> {
 
+  private static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+  private static final CrawlListener NO_CRAWL_LISTENER = new CrawlListener() {};
+
   public static LoadOptionsBuilder builder() {
     return new LoadOptionsBuilder();
   }
@@ -43,11 +55,31 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
 
   private SchemaInfoLevel schemaInfoLevel;
   private int maxThreads;
+  private Duration crawlTimeout;
+  private Duration queryTimeout;
+  private final Map<SchemaInfoRetrieval, Duration> queryTimeouts;
+  private int maxRetries;
+  private Duration retryBackoff;
+  private boolean bestEffort;
+  private InclusionRule attributesInclusionRule;
+  private CrawlListener crawlListener;
+  private Path cacheDirectory;
+  private boolean backgroundEnrichment;
 
   /** Default options. */
   private LoadOptionsBuilder() {
     schemaInfoLevel = SchemaInfoLevelBuilder.standard();
     maxThreads = MAX_THREADS;
+    crawlTimeout = DEFAULT_TIMEOUT;
+    queryTimeout = Duration.ZERO;
+    queryTimeouts = new EnumMap<>(SchemaInfoRetrieval.class);
+    maxRetries = 0;
+    retryBackoff = DEFAULT_RETRY_BACKOFF;
+    bestEffort = false;
+    attributesInclusionRule = new IncludeAll();
+    crawlListener = NO_CRAWL_LISTENER;
+    cacheDirectory = null;
+    backgroundEnrichment = false;
   }
 
   @Override
@@ -58,13 +90,138 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
 
     schemaInfoLevel = options.getSchemaInfoLevel();
     maxThreads = options.getMaxThreads();
+    crawlTimeout = options.getCrawlTimeout();
+    queryTimeout = options.getQueryTimeout();
+    queryTimeouts.clear();
+    for (final SchemaInfoRetrieval retrieval : SchemaInfoRetrieval.values()) {
+      final Duration retrievalQueryTimeout = options.getQueryTimeout(retrieval);
+      if (!retrievalQueryTimeout.equals(queryTimeout)) {
+        queryTimeouts.put(retrieval, retrievalQueryTimeout);
+      }
+    }
+    maxRetries = options.getMaxRetries();
+    retryBackoff = options.getRetryBackoff();
+    bestEffort = options.isBestEffort();
+    attributesInclusionRule = options.getAttributesInclusionRule();
+    crawlListener = options.getCrawlListener();
+    cacheDirectory = options.getCacheDirectory().orElse(null);
+    backgroundEnrichment = options.isBackgroundEnrichment();
 
     return this;
   }
 
   @Override
   public LoadOptions toOptions() {
-    return new LoadOptions(schemaInfoLevel, maxThreads);
+    return new LoadOptions(
+        schemaInfoLevel,
+        maxThreads,
+        crawlTimeout,
+        queryTimeout,
+        queryTimeouts,
+        maxRetries,
+        retryBackoff,
+        bestEffort,
+        attributesInclusionRule,
+        crawlListener,
+        cacheDirectory,
+        backgroundEnrichment);
+  }
+
+  /**
+   * Restricts the additional metadata columns that are captured as attributes of database objects.
+   * Use {@link schemacrawler.inclusionrule.ExcludeAll} to not capture attributes at all, or a
+   * regular expression inclusion rule to capture only some attributes, by upper case name.
+   *
+   * @param attributesInclusionRule Inclusion rule for attribute names, or null to capture all
+   *     attributes
+   * @return Builder
+   */
+  public LoadOptionsBuilder withAttributesInclusionRule(
+      final InclusionRule attributesInclusionRule) {
+    if (attributesInclusionRule == null) {
+      this.attributesInclusionRule = new IncludeAll();
+    } else {
+      this.attributesInclusionRule = attributesInclusionRule;
+    }
+    return this;
+  }
+
+  /**
+   * Returns the catalog from the crawl as soon as tables, columns, keys and other objects are
+   * retrieved. Retrievals at the maximum info level that enrich tables and columns, such as table
+   * privileges, table definitions and additional column metadata, continue in the background, and
+   * the crawl completion future completes once they are done. This is off by default.
+   *
+   * <p>Tables and columns, including column data types, change on a background thread until the
+   * crawl completion future of the SchemaCrawler completes, so callers that turn this on must wait
+   * for it before reading them.
+   *
+   * @param backgroundEnrichment Whether tables and columns are enriched in the background
+   * @return Builder
+   */
+  public LoadOptionsBuilder withBackgroundEnrichment(final boolean backgroundEnrichment) {
+    this.backgroundEnrichment = backgroundEnrichment;
+    return this;
+  }
+
+  /**
+   * Records retrievals that fail in the crawl information, and returns a partial catalog, instead
+   * of failing the crawl.
+   *
+   * @param bestEffort Whether the crawl is best effort
+   * @return Builder
+   */
+  public LoadOptionsBuilder withBestEffort(final boolean bestEffort) {
+    this.bestEffort = bestEffort;
+    return this;
+  }
+
+  /**
+   * Caches loaded catalogs in a directory, keyed by the connection, the options and the schema
+   * fingerprint of the database. A cached catalog is reused instead of crawling the database again,
+   * as long as the schemas in the database are unchanged. Catalogs are only cached for databases
+   * with a schema fingerprint query, which is provided by the database plugin.
+   *
+   * @param cacheDirectory Cache directory, or null to not cache catalogs
+   * @return Builder
+   */
+  public LoadOptionsBuilder withCacheDirectory(final Path cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+    return this;
+  }
+
+  /**
+   * Listener that receives events as database objects are retrieved and completed during the
+   * crawl, so that they can be processed before the crawl is complete.
+   *
+   * @param crawlListener Crawl listener, or null to not receive events
+   * @return Builder
+   */
+  public LoadOptionsBuilder withCrawlListener(final CrawlListener crawlListener) {
+    if (crawlListener == null) {
+      this.crawlListener = NO_CRAWL_LISTENER;
+    } else {
+      this.crawlListener = crawlListener;
+    }
+    return this;
+  }
+
+  /**
+   * Time allowed for the whole crawl. Retrievals that are still running at the deadline are
+   * cancelled, and the crawl fails.
+   *
+   * @param crawlTimeout Time allowed for the crawl, or null for the default of one hour
+   * @return Builder
+   */
+  public LoadOptionsBuilder withCrawlTimeout(final Duration crawlTimeout) {
+    if (crawlTimeout == null) {
+      this.crawlTimeout = DEFAULT_TIMEOUT;
+    } else if (crawlTimeout.isNegative() || crawlTimeout.isZero()) {
+      throw new IllegalArgumentException("Crawl timeout must be positive");
+    } else {
+      this.crawlTimeout = crawlTimeout;
+    }
+    return this;
   }
 
   public LoadOptionsBuilder withInfoLevel(final InfoLevel infoLevel) {
@@ -74,6 +231,18 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
     return this;
   }
 
+  /**
+   * Retries a retrieval after a transient database error, such as a deadlock, a lock timeout, or a
+   * lost connection.
+   *
+   * @param maxRetries Maximum number of retries for each retrieval, where zero means no retries
+   * @return Builder
+   */
+  public LoadOptionsBuilder withMaxRetries(final int maxRetries) {
+    this.maxRetries = Math.max(maxRetries, 0);
+    return this;
+  }
+
   /**
    * IMPORTANT: Multi-threading is not implemented. It is possibly future functionality.
    *
@@ -85,6 +254,52 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
     return this;
   }
 
+  /**
+   * Time allowed for each data dictionary query, unless overridden for a retrieval.
+   *
+   * @param queryTimeout Time allowed for each query, or null or zero for no limit
+   * @return Builder
+   */
+  public LoadOptionsBuilder withQueryTimeout(final Duration queryTimeout) {
+    this.queryTimeout = checkQueryTimeout(queryTimeout);
+    return this;
+  }
+
+  /**
+   * Time allowed for each data dictionary query that is run for a retrieval.
+   *
+   * @param retrieval Retrieval that runs the queries
+   * @param queryTimeout Time allowed for each query, or null to use the default query timeout
+   * @return Builder
+   */
+  public LoadOptionsBuilder withQueryTimeout(
+      final SchemaInfoRetrieval retrieval, final Duration queryTimeout) {
+    requireNonNull(retrieval, "No retrieval provided");
+    if (queryTimeout == null) {
+      queryTimeouts.remove(retrieval);
+    } else {
+      queryTimeouts.put(retrieval, checkQueryTimeout(queryTimeout));
+    }
+    return this;
+  }
+
+  /**
+   * Time to wait before the first retry of a retrieval. The wait is doubled for every later retry.
+   *
+   * @param retryBackoff Time to wait before the first retry, or null for the default of one second
+   * @return Builder
+   */
+  public LoadOptionsBuilder withRetryBackoff(final Duration retryBackoff) {
+    if (retryBackoff == null) {
+      this.retryBackoff = DEFAULT_RETRY_BACKOFF;
+    } else if (retryBackoff.isNegative()) {
+      throw new IllegalArgumentException("Retry backoff cannot be negative");
+    } else {
+      this.retryBackoff = retryBackoff;
+    }
+    return this;
+  }
+
   public LoadOptionsBuilder withSchemaInfoLevel(final SchemaInfoLevel schemaInfoLevel) {
     if (schemaInfoLevel != null) {
       this.schemaInfoLevel = schemaInfoLevel;
@@ -99,4 +314,14 @@ public final class LoadOptionsBuilder implements OptionsBuilder<LoadOptionsBuild
     }
     return this;
   }
+
+  private Duration checkQueryTimeout(final Duration queryTimeout) {
+    if (queryTimeout == null) {
+      return Duration.ZERO;
+    }
+    if (queryTimeout.isNegative()) {
+      throw new IllegalArgumentException("Query timeout cannot be negative");
+    }
+    return queryTimeout;
+  }
 }
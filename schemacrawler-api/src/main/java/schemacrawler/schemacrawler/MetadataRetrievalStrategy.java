@@ -34,6 +34,10 @@ public enum MetadataRetrievalStrategy {
   // use JDBC metadata calls to retrieve information one database object at a time;
   // each JDBC driver decides how to honor these requests
   metadata,
+  // use JDBC metadata calls to retrieve information for all database objects in
+  // a schema together, falling back to one database object at a time if the
+  // JDBC driver does not support this
+  metadata_per_schema,
   // use the INFORMATION_SCHEMA or database-specific data dictionary queries to
   // retrieve information for all database objects together
   data_dictionary_all
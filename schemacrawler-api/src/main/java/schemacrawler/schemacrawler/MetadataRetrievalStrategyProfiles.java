@@ -0,0 +1,272 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.schemacrawler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static us.fatehi.utility.IOUtility.isFileReadable;
+import static us.fatehi.utility.Utility.isBlank;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Stores the metadata retrieval strategies that were found to be the fastest for a database, as a
+ * profile for each database connection URL, so that they can be used for later crawls of the same
+ * database. The row counts of data dictionary queries are stored alongside, so that later crawls
+ * can adapt fetch sizes.
+ */
+public final class MetadataRetrievalStrategyProfiles {
+
+  private static final Logger LOGGER =
+      Logger.getLogger(MetadataRetrievalStrategyProfiles.class.getName());
+
+  private static final String CONNECTION_URL_KEY = "connection.url";
+  private static final String STRATEGY_KEY_PREFIX = "schemacrawler.schema.retrieval.strategy.";
+  private static final String ROW_COUNT_KEY_PREFIX = "schemacrawler.schema.retrieval.row_count.";
+
+  /**
+   * Loads a saved profile of metadata retrieval strategies for a database.
+   *
+   * @param profilesDirectory Directory where profiles are saved
+   * @param connectionUrl Database connection URL
+   * @return Metadata retrieval strategies, or empty if there is no saved profile
+   */
+  public static Optional<Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>>
+      loadProfile(final Path profilesDirectory, final String connectionUrl) {
+    requireNonNull(profilesDirectory, "No profiles directory provided");
+    if (isBlank(connectionUrl)) {
+      return Optional.empty();
+    }
+
+    final Optional<Properties> optionalProperties =
+        loadProperties(
+            profileFile(profilesDirectory, "retrieval-strategy", connectionUrl), connectionUrl);
+    if (!optionalProperties.isPresent()) {
+      return Optional.empty();
+    }
+    final Properties properties = optionalProperties.get();
+
+    final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> strategies =
+        new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    for (final SchemaInfoMetadataRetrievalStrategy key :
+        SchemaInfoMetadataRetrievalStrategy.values()) {
+      final String value = properties.getProperty(STRATEGY_KEY_PREFIX + key.getKey());
+      if (isBlank(value)) {
+        continue;
+      }
+      try {
+        strategies.put(key, MetadataRetrievalStrategy.valueOf(value.trim()));
+      } catch (final IllegalArgumentException e) {
+        LOGGER.log(
+            Level.CONFIG,
+            new StringFormat("Unknown metadata retrieval strategy <%s> for <%s>", value, key));
+      }
+    }
+
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Loaded metadata retrieval strategy profile for <%s>: %s", connectionUrl, strategies));
+    return Optional.of(strategies);
+  }
+
+  /**
+   * Loads the saved row counts of data dictionary queries for a database.
+   *
+   * @param profilesDirectory Directory where profiles are saved
+   * @param connectionUrl Database connection URL
+   * @return Row counts of data dictionary queries, which are empty if there are no saved row counts
+   */
+  public static Map<InformationSchemaKey, Long> loadRowCounts(
+      final Path profilesDirectory, final String connectionUrl) {
+    requireNonNull(profilesDirectory, "No profiles directory provided");
+    final Map<InformationSchemaKey, Long> rowCounts = new EnumMap<>(InformationSchemaKey.class);
+    if (isBlank(connectionUrl)) {
+      return rowCounts;
+    }
+
+    final Optional<Properties> optionalProperties =
+        loadProperties(profileFile(profilesDirectory, "row-counts", connectionUrl), connectionUrl);
+    if (!optionalProperties.isPresent()) {
+      return rowCounts;
+    }
+    final Properties properties = optionalProperties.get();
+
+    for (final InformationSchemaKey key : InformationSchemaKey.values()) {
+      final String value = properties.getProperty(ROW_COUNT_KEY_PREFIX + key.name());
+      if (isBlank(value)) {
+        continue;
+      }
+      try {
+        rowCounts.put(key, Long.parseLong(value.trim()));
+      } catch (final NumberFormatException e) {
+        LOGGER.log(Level.CONFIG, new StringFormat("Unknown row count <%s> for <%s>", value, key));
+      }
+    }
+
+    LOGGER.log(
+        Level.CONFIG,
+        new StringFormat(
+            "Loaded data dictionary query row counts for <%s>: %s", connectionUrl, rowCounts));
+    return rowCounts;
+  }
+
+  /**
+   * Saves a profile of metadata retrieval strategies for a database.
+   *
+   * @param profilesDirectory Directory where profiles are saved
+   * @param connectionUrl Database connection URL
+   * @param strategies Metadata retrieval strategies to save
+   * @throws IOException On an exception saving the profile
+   */
+  public static void saveProfile(
+      final Path profilesDirectory,
+      final String connectionUrl,
+      final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> strategies)
+      throws IOException {
+    requireNonNull(profilesDirectory, "No profiles directory provided");
+    requireNonNull(strategies, "No metadata retrieval strategies provided");
+    if (isBlank(connectionUrl)) {
+      throw new IllegalArgumentException("No connection URL provided");
+    }
+
+    final Properties properties = new Properties();
+    properties.setProperty(CONNECTION_URL_KEY, connectionUrl);
+    for (final Map.Entry<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> entry :
+        strategies.entrySet()) {
+      properties.setProperty(
+          STRATEGY_KEY_PREFIX + entry.getKey().getKey(), entry.getValue().name());
+    }
+
+    final Path profileFile =
+        storeProperties(
+            properties,
+            profileFile(profilesDirectory, "retrieval-strategy", connectionUrl),
+            "SchemaCrawler metadata retrieval strategy profile");
+
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Saved metadata retrieval strategy profile for <%s> to <%s>",
+            connectionUrl, profileFile));
+  }
+
+  /**
+   * Saves the row counts of data dictionary queries for a database.
+   *
+   * @param profilesDirectory Directory where profiles are saved
+   * @param connectionUrl Database connection URL
+   * @param rowCounts Row counts of data dictionary queries
+   * @throws IOException On an exception saving the row counts
+   */
+  public static void saveRowCounts(
+      final Path profilesDirectory,
+      final String connectionUrl,
+      final Map<InformationSchemaKey, Long> rowCounts)
+      throws IOException {
+    requireNonNull(profilesDirectory, "No profiles directory provided");
+    requireNonNull(rowCounts, "No row counts provided");
+    if (isBlank(connectionUrl)) {
+      throw new IllegalArgumentException("No connection URL provided");
+    }
+
+    final Properties properties = new Properties();
+    properties.setProperty(CONNECTION_URL_KEY, connectionUrl);
+    for (final Map.Entry<InformationSchemaKey, Long> entry : rowCounts.entrySet()) {
+      properties.setProperty(
+          ROW_COUNT_KEY_PREFIX + entry.getKey().name(), String.valueOf(entry.getValue()));
+    }
+
+    final Path profileFile =
+        storeProperties(
+            properties,
+            profileFile(profilesDirectory, "row-counts", connectionUrl),
+            "SchemaCrawler data dictionary query row counts");
+
+    LOGGER.log(
+        Level.CONFIG,
+        new StringFormat(
+            "Saved data dictionary query row counts for <%s> to <%s>",
+            connectionUrl, profileFile));
+  }
+
+  private static Optional<Properties> loadProperties(
+      final Path profileFile, final String connectionUrl) {
+    if (!isFileReadable(profileFile)) {
+      LOGGER.log(
+          Level.CONFIG, new StringFormat("No profile <%s> for <%s>", profileFile, connectionUrl));
+      return Optional.empty();
+    }
+
+    final Properties properties = new Properties();
+    try (final Reader reader = Files.newBufferedReader(profileFile, UTF_8)) {
+      properties.load(reader);
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not load profile <%s>", profileFile));
+      return Optional.empty();
+    }
+    // Guard against different connection URLs that map to the same file
+    if (!connectionUrl.equals(properties.getProperty(CONNECTION_URL_KEY))) {
+      return Optional.empty();
+    }
+    return Optional.of(properties);
+  }
+
+  private static Path profileFile(
+      final Path profilesDirectory, final String profileType, final String connectionUrl) {
+    // Connection URLs are not valid file names, so use a hash
+    final String fileName =
+        String.format("%s-%08x.properties", profileType, connectionUrl.hashCode());
+    return profilesDirectory.resolve(fileName).toAbsolutePath();
+  }
+
+  private static Path storeProperties(
+      final Properties properties, final Path profileFile, final String comments)
+      throws IOException {
+    Files.createDirectories(profileFile.getParent());
+    try (final Writer writer = Files.newBufferedWriter(profileFile, UTF_8)) {
+      properties.store(writer, comments);
+    }
+    return profileFile;
+  }
+
+  private MetadataRetrievalStrategyProfiles() {
+    // Prevent instantiation
+  }
+}
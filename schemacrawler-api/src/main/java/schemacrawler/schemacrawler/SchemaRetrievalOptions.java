@@ -29,9 +29,11 @@ http://www.gnu.org/licenses/
 package schemacrawler.schemacrawler;
 
 import static java.util.Objects.requireNonNull;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import schemacrawler.plugin.EnumDataTypeHelper;
 import schemacrawler.schema.TableTypes;
@@ -57,6 +59,12 @@ public final class SchemaRetrievalOptions implements Options {
   private final EnumMap<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
       metadataRetrievalStrategyMap;
   private final Consumer<Connection> connectionInitializer;
+  private final Optional<Path> metadataRetrievalStrategyProfilesDirectory;
+  private final boolean metadataRetrievalStrategyProfileLoaded;
+  private final Map<InformationSchemaKey, Integer> fetchSizes;
+  private final Map<InformationSchemaKey, Long> expectedRowCounts;
+  private final long fetchSizeMemoryLimit;
+  private final boolean sharedMetadataStrings;
 
   protected SchemaRetrievalOptions(final SchemaRetrievalOptionsBuilder builder) {
     final SchemaRetrievalOptionsBuilder bldr =
@@ -73,6 +81,14 @@ public final class SchemaRetrievalOptions implements Options {
     enumDataTypeHelper = bldr.enumDataTypeHelper;
     metadataRetrievalStrategyMap = new EnumMap<>(bldr.metadataRetrievalStrategyMap);
     connectionInitializer = bldr.connectionInitializer;
+    metadataRetrievalStrategyProfilesDirectory = bldr.metadataRetrievalStrategyProfilesDirectory;
+    metadataRetrievalStrategyProfileLoaded = bldr.metadataRetrievalStrategyProfileLoaded;
+    fetchSizes = new EnumMap<>(InformationSchemaKey.class);
+    fetchSizes.putAll(bldr.fetchSizes);
+    expectedRowCounts = new EnumMap<>(InformationSchemaKey.class);
+    expectedRowCounts.putAll(bldr.expectedRowCounts);
+    fetchSizeMemoryLimit = bldr.fetchSizeMemoryLimit;
+    sharedMetadataStrings = bldr.sharedMetadataStrings;
   }
 
   public MetadataRetrievalStrategy get(
@@ -94,6 +110,39 @@ public final class SchemaRetrievalOptions implements Options {
     return enumDataTypeHelper;
   }
 
+  /**
+   * Row count that a data dictionary query is expected to return, usually from a previous crawl of
+   * the database.
+   *
+   * @param informationSchemaKey Data dictionary query
+   * @return Expected row count, or zero if it is not known
+   */
+  public long getExpectedRowCount(final InformationSchemaKey informationSchemaKey) {
+    requireNonNull(informationSchemaKey, "No information schema key provided");
+    return expectedRowCounts.getOrDefault(informationSchemaKey, 0L);
+  }
+
+  /**
+   * Fixed fetch size for a data dictionary query.
+   *
+   * @param informationSchemaKey Data dictionary query
+   * @return Fetch size, or zero if the fetch size is adapted
+   */
+  public int getFetchSize(final InformationSchemaKey informationSchemaKey) {
+    requireNonNull(informationSchemaKey, "No information schema key provided");
+    return fetchSizes.getOrDefault(informationSchemaKey, 0);
+  }
+
+  /**
+   * Upper bound on the memory used by the rows of each fetch of a data dictionary query, when the
+   * fetch size is adapted.
+   *
+   * @return Memory limit in bytes
+   */
+  public long getFetchSizeMemoryLimit() {
+    return fetchSizeMemoryLimit;
+  }
+
   public String getIdentifierQuoteString() {
     return identifierQuoteString;
   }
@@ -106,6 +155,16 @@ public final class SchemaRetrievalOptions implements Options {
     return informationSchemaViews;
   }
 
+  /**
+   * Directory for metadata retrieval strategy profiles, if the fastest metadata retrieval
+   * strategies should be selected during a crawl.
+   *
+   * @return Directory for metadata retrieval strategy profiles, if adaptive selection is turned on
+   */
+  public Optional<Path> getMetadataRetrievalStrategyProfilesDirectory() {
+    return metadataRetrievalStrategyProfilesDirectory;
+  }
+
   public TableTypes getTableTypes() {
     return tableTypes;
   }
@@ -114,6 +173,25 @@ public final class SchemaRetrievalOptions implements Options {
     return typeMap;
   }
 
+  /**
+   * Whether metadata retrieval strategies were loaded from a saved profile, so that they do not
+   * need to be selected again.
+   *
+   * @return Whether a saved profile was loaded
+   */
+  public boolean isMetadataRetrievalStrategyProfileLoaded() {
+    return metadataRetrievalStrategyProfileLoaded;
+  }
+
+  /**
+   * Whether repeated strings that are read during a crawl are shared across database objects.
+   *
+   * @return Whether metadata strings are shared
+   */
+  public boolean isSharedMetadataStrings() {
+    return sharedMetadataStrings;
+  }
+
   public boolean isSupportsCatalogs() {
     return supportsCatalogs;
   }
@@ -128,6 +206,14 @@ public final class SchemaRetrievalOptions implements Options {
     return ObjectToString.toString(this);
   }
 
+  Map<InformationSchemaKey, Long> getExpectedRowCounts() {
+    return new EnumMap<>(expectedRowCounts);
+  }
+
+  Map<InformationSchemaKey, Integer> getFetchSizes() {
+    return new EnumMap<>(fetchSizes);
+  }
+
   Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>
       getMetadataRetrievalStrategyMap() {
     return new EnumMap<>(metadataRetrievalStrategyMap);
@@ -32,6 +32,7 @@ import static schemacrawler.plugin.EnumDataTypeHelper.NO_OP_ENUM_DATA_TYPE_HELPE
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
 import static us.fatehi.utility.Utility.isBlank;
 import static us.fatehi.utility.Utility.trimToEmpty;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
@@ -46,6 +47,9 @@ import schemacrawler.utility.TypeMap;
 public final class SchemaRetrievalOptionsBuilder
     implements OptionsBuilder<SchemaRetrievalOptionsBuilder, SchemaRetrievalOptions> {
 
+  /** Memory allowed for the rows of each fetch of a data dictionary query, by default. */
+  public static final long DEFAULT_FETCH_SIZE_MEMORY_LIMIT = 16L * 1024 * 1024;
+
   public static SchemaRetrievalOptionsBuilder builder() {
     return new SchemaRetrievalOptionsBuilder();
   }
@@ -71,6 +75,13 @@ public final class SchemaRetrievalOptionsBuilder
   EnumDataTypeHelper enumDataTypeHelper;
   Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> metadataRetrievalStrategyMap;
   Consumer<Connection> connectionInitializer;
+  Optional<Path> metadataRetrievalStrategyProfilesDirectory;
+  boolean metadataRetrievalStrategyProfileLoaded;
+  Map<InformationSchemaKey, Integer> fetchSizes;
+  Map<InformationSchemaKey, Long> expectedRowCounts;
+  long fetchSizeMemoryLimit;
+  boolean sharedMetadataStrings;
+  private String connectionUrl;
 
   private SchemaRetrievalOptionsBuilder() {
     dbServerType = DatabaseServerType.UNKNOWN;
@@ -86,6 +97,12 @@ public final class SchemaRetrievalOptionsBuilder
         TableTypes.from("TABLE", "VIEW", "SYSTEM TABLE", "GLOBAL TEMPORARY", "LOCAL TEMPORARY");
     enumDataTypeHelper = NO_OP_ENUM_DATA_TYPE_HELPER;
     connectionInitializer = connection -> {};
+    metadataRetrievalStrategyProfilesDirectory = Optional.empty();
+    metadataRetrievalStrategyProfileLoaded = false;
+    fetchSizes = new EnumMap<>(InformationSchemaKey.class);
+    expectedRowCounts = new EnumMap<>(InformationSchemaKey.class);
+    fetchSizeMemoryLimit = DEFAULT_FETCH_SIZE_MEMORY_LIMIT;
+    sharedMetadataStrings = false;
 
     metadataRetrievalStrategyMap = new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
     for (final SchemaInfoMetadataRetrievalStrategy key :
@@ -123,6 +140,9 @@ public final class SchemaRetrievalOptionsBuilder
 
     tableTypes = TableTypes.from(connection);
 
+    connectionUrl = lookupConnectionUrl(metaData);
+    loadMetadataRetrievalStrategyProfile();
+
     return this;
   }
 
@@ -143,6 +163,13 @@ public final class SchemaRetrievalOptionsBuilder
     overridesTypeMap = Optional.empty();
     metadataRetrievalStrategyMap = options.getMetadataRetrievalStrategyMap();
     connectionInitializer = options.getConnectionInitializer();
+    metadataRetrievalStrategyProfilesDirectory =
+        options.getMetadataRetrievalStrategyProfilesDirectory();
+    metadataRetrievalStrategyProfileLoaded = options.isMetadataRetrievalStrategyProfileLoaded();
+    fetchSizes = options.getFetchSizes();
+    expectedRowCounts = options.getExpectedRowCounts();
+    fetchSizeMemoryLimit = options.getFetchSizeMemoryLimit();
+    sharedMetadataStrings = options.isSharedMetadataStrings();
 
     return this;
   }
@@ -182,6 +209,22 @@ public final class SchemaRetrievalOptionsBuilder
     return this;
   }
 
+  /**
+   * Selects the fastest metadata retrieval strategy for each type of metadata, by timing
+   * alternatives during the first crawl of a database. The selected strategies are saved as a
+   * profile for the database connection URL, and are loaded for later crawls of the same database.
+   *
+   * @param profilesDirectory Directory for metadata retrieval strategy profiles, or null to turn
+   *     off adaptive selection
+   */
+  public SchemaRetrievalOptionsBuilder withAdaptiveMetadataRetrievalStrategy(
+      final Path profilesDirectory) {
+    metadataRetrievalStrategyProfilesDirectory = Optional.ofNullable(profilesDirectory);
+    metadataRetrievalStrategyProfileLoaded = false;
+    loadMetadataRetrievalStrategyProfile();
+    return this;
+  }
+
   public SchemaRetrievalOptionsBuilder withConnectionInitializer(
       final Consumer<Connection> connectionInitializer) {
     if (connectionInitializer == null) {
@@ -205,6 +248,60 @@ public final class SchemaRetrievalOptionsBuilder
   /**
    * Overrides the JDBC driver provided information about whether the database supports catalogs.
    */
+  /**
+   * Row count that a data dictionary query is expected to return, usually from a previous crawl of
+   * the database, so that a suitable fetch size can be used from the start.
+   *
+   * @param informationSchemaKey Data dictionary query
+   * @param expectedRowCount Expected row count, or zero if it is not known
+   */
+  public SchemaRetrievalOptionsBuilder withExpectedRowCount(
+      final InformationSchemaKey informationSchemaKey, final long expectedRowCount) {
+    if (informationSchemaKey == null) {
+      return this;
+    }
+    if (expectedRowCount <= 0) {
+      expectedRowCounts.remove(informationSchemaKey);
+    } else {
+      expectedRowCounts.put(informationSchemaKey, expectedRowCount);
+    }
+    return this;
+  }
+
+  /**
+   * Fixed fetch size for a data dictionary query. If a fetch size is not provided, it is adapted
+   * to the number of rows that the query is expected to return.
+   *
+   * @param informationSchemaKey Data dictionary query
+   * @param fetchSize Fetch size, or zero to adapt the fetch size
+   */
+  public SchemaRetrievalOptionsBuilder withFetchSize(
+      final InformationSchemaKey informationSchemaKey, final int fetchSize) {
+    if (informationSchemaKey == null) {
+      return this;
+    }
+    if (fetchSize <= 0) {
+      fetchSizes.remove(informationSchemaKey);
+    } else {
+      fetchSizes.put(informationSchemaKey, fetchSize);
+    }
+    return this;
+  }
+
+  /**
+   * Upper bound on the memory used by the rows of each fetch of a data dictionary query, when the
+   * fetch size is adapted. The size of a row is estimated from the columns of the query.
+   *
+   * @param fetchSizeMemoryLimit Memory limit in bytes
+   */
+  public SchemaRetrievalOptionsBuilder withFetchSizeMemoryLimit(final long fetchSizeMemoryLimit) {
+    if (fetchSizeMemoryLimit <= 0) {
+      throw new IllegalArgumentException("Fetch size memory limit must be positive");
+    }
+    this.fetchSizeMemoryLimit = fetchSizeMemoryLimit;
+    return this;
+  }
+
   public SchemaRetrievalOptionsBuilder withDoesNotSupportCatalogs() {
     overridesSupportsCatalogs = Optional.of(false);
     return this;
@@ -254,6 +351,12 @@ public final class SchemaRetrievalOptionsBuilder
     return this;
   }
 
+  /** Does not share strings that are read during a crawl, which is the default. */
+  public SchemaRetrievalOptionsBuilder withoutSharedMetadataStrings() {
+    sharedMetadataStrings = false;
+    return this;
+  }
+
   public SchemaRetrievalOptionsBuilder withoutSupportsCatalogs() {
     overridesSupportsCatalogs = Optional.empty();
     return this;
@@ -264,6 +367,17 @@ public final class SchemaRetrievalOptionsBuilder
     return this;
   }
 
+  /**
+   * Shares one instance of each repeated catalog name, schema name, type name and code that is read
+   * during a crawl, across database objects. Turn this on only for JDBC drivers that return a new
+   * string for every row of metadata, since pooling costs time and memory for drivers that already
+   * share strings.
+   */
+  public SchemaRetrievalOptionsBuilder withSharedMetadataStrings() {
+    sharedMetadataStrings = true;
+    return this;
+  }
+
   /**
    * Overrides the JDBC driver provided information about whether the database supports catalogs.
    */
@@ -287,6 +401,42 @@ public final class SchemaRetrievalOptionsBuilder
     return this;
   }
 
+  private void loadMetadataRetrievalStrategyProfile() {
+    if (!metadataRetrievalStrategyProfilesDirectory.isPresent() || isBlank(connectionUrl)) {
+      return;
+    }
+
+    // Row counts from the previous crawl are used to adapt fetch sizes, unless they were provided
+    final Map<InformationSchemaKey, Long> rowCounts =
+        MetadataRetrievalStrategyProfiles.loadRowCounts(
+            metadataRetrievalStrategyProfilesDirectory.get(), connectionUrl);
+    for (final Map.Entry<InformationSchemaKey, Long> rowCount : rowCounts.entrySet()) {
+      expectedRowCounts.putIfAbsent(rowCount.getKey(), rowCount.getValue());
+    }
+
+    if (metadataRetrievalStrategyProfileLoaded) {
+      return;
+    }
+    final Optional<Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>> profile =
+        MetadataRetrievalStrategyProfiles.loadProfile(
+            metadataRetrievalStrategyProfilesDirectory.get(), connectionUrl);
+    if (profile.isPresent()) {
+      metadataRetrievalStrategyMap.putAll(profile.get());
+      metadataRetrievalStrategyProfileLoaded = true;
+    }
+  }
+
+  private String lookupConnectionUrl(final DatabaseMetaData metaData) {
+    if (metaData != null) {
+      try {
+        return metaData.getURL();
+      } catch (final SQLException e) {
+        // Ignore
+      }
+    }
+    return null;
+  }
+
   private String lookupIdentifierQuoteString(final DatabaseMetaData metaData) {
     // Default to SQL standard default
     String identifierQuoteString = "\"";
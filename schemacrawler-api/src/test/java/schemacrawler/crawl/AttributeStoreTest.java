@@ -0,0 +1,158 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schemacrawler.SchemaReference;
+
+public class AttributeStoreTest {
+
+  @Test
+  public void attributes() {
+    final AttributeStore attributes = new AttributeStore();
+    assertThat(attributes.toMap().isEmpty(), is(true));
+    assertThat(attributes.get("IS_NULLABLE"), is(nullValue()));
+    assertThat(attributes.get(null), is(nullValue()));
+    assertThat(attributes.containsKey(null), is(false));
+
+    attributes.put("IS_NULLABLE", "YES");
+    attributes.put("REMARKS", "Remarks");
+    attributes.put("IS_NULLABLE", "NO");
+    assertThat(attributes.get(new String("IS_NULLABLE")), is("NO"));
+    assertThat(attributes.containsKey("REMARKS"), is(true));
+    assertThat(attributes.toMap().keySet(), contains("IS_NULLABLE", "REMARKS"));
+
+    attributes.remove("IS_NULLABLE");
+    attributes.remove("SCOPE_CATALOG");
+    assertThat(attributes.containsKey("IS_NULLABLE"), is(false));
+    assertThat(attributes.toMap().keySet(), contains("REMARKS"));
+    attributes.remove("REMARKS");
+    assertThat(attributes.toMap().isEmpty(), is(true));
+
+    assertThrows(NullPointerException.class, () -> attributes.put(null, "value"));
+    assertThrows(NullPointerException.class, () -> attributes.put("name", null));
+  }
+
+  @Test
+  public void manyAttributes() {
+    final AttributeStore attributes = new AttributeStore();
+    for (int i = 0; i < 20; i++) {
+      attributes.put(String.format("ATTRIBUTE_%02d", i), i);
+    }
+    attributes.remove("ATTRIBUTE_05");
+
+    final Map<String, Object> map = attributes.toMap();
+    assertThat(map.size(), is(19));
+    assertThat(map.containsKey("ATTRIBUTE_05"), is(false));
+    for (int i = 0; i < 20; i++) {
+      if (i != 5) {
+        assertThat(attributes.get(String.format("ATTRIBUTE_%02d", i)), is(i));
+      }
+    }
+  }
+
+  @Test
+  public void removeAttributes() {
+    final AttributeStore attributes = new AttributeStore();
+    for (int i = 0; i < 8; i++) {
+      attributes.put(String.format("ATTRIBUTE_%02d", i), i);
+    }
+    attributes.remove("ATTRIBUTE_00");
+    attributes.remove("ATTRIBUTE_04");
+    attributes.remove("ATTRIBUTE_07");
+    assertThat(
+        attributes.toMap().keySet(),
+        contains("ATTRIBUTE_01", "ATTRIBUTE_02", "ATTRIBUTE_03", "ATTRIBUTE_05", "ATTRIBUTE_06"));
+
+    attributes.put("ATTRIBUTE_08", 8);
+    attributes.put("ATTRIBUTE_01", 11);
+    assertThat(attributes.toMap().size(), is(6));
+    assertThat(attributes.get("ATTRIBUTE_01"), is(11));
+    assertThat(attributes.get("ATTRIBUTE_08"), is(8));
+    assertThat(attributes.get("ATTRIBUTE_07"), is(nullValue()));
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    final MutableTable table = new MutableTable(new SchemaReference("CATALOG", "SCHEMA"), "TABLE");
+    table.setAttribute("SCOPE_CATALOG", "CATALOG");
+    table.setRemarks("Remarks");
+
+    // Attributes are serialized as a map, as in earlier versions
+    final ObjectStreamField attributesField =
+        ObjectStreamClass.lookup(AbstractNamedObjectWithAttributes.class).getField("attributeMap");
+    assertThat(attributesField.getType(), is(sameInstance(Map.class)));
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(table);
+    }
+    final MutableTable deserializedTable;
+    try (final ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      deserializedTable = (MutableTable) in.readObject();
+    }
+
+    assertThat(deserializedTable.getAttributes(), is(table.getAttributes()));
+    assertThat(
+        deserializedTable.getAttributes().keySet().iterator().next(),
+        is(sameInstance(AttributeStore.sharedName("REMARKS"))));
+    deserializedTable.setAttribute("IS_NULLABLE", "YES");
+    assertThat(deserializedTable.getAttributes().size(), is(3));
+  }
+
+  @Test
+  public void sharedNames() {
+    final AttributeStore attributes1 = new AttributeStore();
+    final AttributeStore attributes2 = new AttributeStore();
+    attributes1.put(new String("SCOPE_CATALOG"), "CATALOG");
+    attributes2.put(new String("SCOPE_CATALOG"), "CATALOG");
+
+    final String name1 = attributes1.toMap().keySet().iterator().next();
+    final String name2 = attributes2.toMap().keySet().iterator().next();
+    assertThat(name1, is(sameInstance(name2)));
+    assertThat(AttributeStore.sharedName(new String("SCOPE_CATALOG")), is(sameInstance(name1)));
+  }
+}
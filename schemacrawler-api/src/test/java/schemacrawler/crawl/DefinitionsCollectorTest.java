@@ -0,0 +1,72 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Schema;
+import schemacrawler.schemacrawler.SchemaReference;
+
+public class DefinitionsCollectorTest {
+
+  @Test
+  public void appendDefinitions() {
+    final Schema schema = new SchemaReference("CATALOG", "SCHEMA");
+    final MutableTable table1 = new MutableTable(schema, "TABLE1");
+    final MutableTable table2 = new MutableTable(schema, "TABLE2");
+
+    final DefinitionsCollector<MutableTable> definitions = new DefinitionsCollector<>();
+    definitions.add(table1, "CREATE TABLE ");
+    definitions.add(table2, null);
+    definitions.add(table1, "TABLE1");
+
+    // Nothing is appended until all parts are collected
+    assertThat(table1.hasDefinition(), is(false));
+
+    definitions.appendTo(MutableTable::appendDefinition);
+    assertThat(table1.getDefinition(), is("CREATE TABLE TABLE1"));
+    assertThat(table2.hasDefinition(), is(false));
+
+    // Collected definitions are only appended once
+    definitions.appendTo(MutableTable::appendDefinition);
+    assertThat(table1.getDefinition(), is("CREATE TABLE TABLE1"));
+  }
+
+  @Test
+  public void nullArguments() {
+    final DefinitionsCollector<MutableTable> definitions = new DefinitionsCollector<>();
+    assertThrows(NullPointerException.class, () -> definitions.add(null, "DEFINITION"));
+    assertThrows(NullPointerException.class, () -> definitions.appendTo(null));
+  }
+}
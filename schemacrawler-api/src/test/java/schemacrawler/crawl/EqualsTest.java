@@ -74,6 +74,8 @@ public class EqualsTest {
     EqualsVerifier.forClass(TestDatabaseObject.class)
         .suppress(Warning.STRICT_INHERITANCE)
         .withIgnoredFields("key", "attributeMap")
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
         .verify();
   }
 
@@ -107,19 +109,27 @@ public class EqualsTest {
   public void namedObject() {
     EqualsVerifier.forClass(AbstractNamedObject.class)
         .withIgnoredFields("key")
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
         .suppress(Warning.STRICT_INHERITANCE)
         .verify();
   }
 
   @Test
   public void namedObjectKey() {
-    EqualsVerifier.forClass(NamedObjectKey.class).withNonnullFields("key").verify();
+    EqualsVerifier.forClass(NamedObjectKey.class)
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
+        .suppress(Warning.STRICT_HASHCODE)
+        .verify();
   }
 
   @Test
   public void namedObjectWithAttributes() {
     EqualsVerifier.forClass(AbstractNamedObjectWithAttributes.class)
         .withIgnoredFields("key", "attributeMap")
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
         .suppress(Warning.STRICT_INHERITANCE)
         .verify();
   }
@@ -133,6 +143,8 @@ public class EqualsTest {
         .withIgnoredFields("key", "grants", "parent", "attributeMap")
         .withPrefabValues(
             DatabaseObjectReference.class, new TablePointer(table1), new TablePointer(table2))
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
         .suppress(Warning.STRICT_INHERITANCE)
         .verify();
   }
@@ -151,6 +163,8 @@ public class EqualsTest {
   public void schemaReference() {
     EqualsVerifier.forClass(SchemaReference.class)
         .withIgnoredFields("key", "attributeMap")
+        .withPrefabValues(
+            NamedObjectKey.class, new NamedObjectKey("red"), new NamedObjectKey("blue"))
         .verify();
   }
 
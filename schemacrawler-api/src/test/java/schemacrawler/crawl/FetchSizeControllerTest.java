@@ -0,0 +1,147 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static schemacrawler.crawl.FetchSizeController.DEFAULT_FETCH_SIZE;
+import static schemacrawler.crawl.FetchSizeController.MAX_FETCH_SIZE;
+import static schemacrawler.schemacrawler.InformationSchemaKey.INDEXES;
+import static schemacrawler.schemacrawler.InformationSchemaKey.TABLE_COLUMNS;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.ResultsColumns;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.Query;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+
+@WithTestDatabase
+@ResolveTestContext
+public class FetchSizeControllerTest {
+
+  private static final InformationSchemaViews informationSchemaViews =
+      InformationSchemaViewsBuilder.builder()
+          .withSql(TABLE_COLUMNS, "SELECT * FROM INFORMATION_SCHEMA.COLUMNS")
+          .withSql(INDEXES, "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO")
+          .toOptions();
+
+  @Test
+  @DisplayName("Adapt fetch size to expected and observed row counts")
+  public void adaptiveFetchSize() {
+    final Query tableColumnsQuery = informationSchemaViews.getQuery(TABLE_COLUMNS);
+    final Query indexesQuery = informationSchemaViews.getQuery(INDEXES);
+
+    final FetchSizeController fetchSizeController =
+        new FetchSizeController(
+            SchemaRetrievalOptionsBuilder.builder()
+                .withExpectedRowCount(TABLE_COLUMNS, 2_000_000)
+                .toOptions());
+
+    // Queries that are not data dictionary queries use the default fetch size
+    assertThat(
+        fetchSizeController.getFetchSize(new Query("query", "SELECT 1")), is(DEFAULT_FETCH_SIZE));
+    assertThat(fetchSizeController.getFetchSize(null), is(DEFAULT_FETCH_SIZE));
+
+    // Large queries are fetched in large batches, up to a limit
+    assertThat(fetchSizeController.getFetchSize(tableColumnsQuery), is(MAX_FETCH_SIZE));
+
+    // Unknown row counts use the default fetch size, until rows are observed
+    assertThat(fetchSizeController.getFetchSize(indexesQuery), is(DEFAULT_FETCH_SIZE));
+    fetchSizeController.recordRowCount(indexesQuery, 500);
+    assertThat(fetchSizeController.getFetchSize(indexesQuery), is(DEFAULT_FETCH_SIZE));
+    fetchSizeController.recordRowCount(indexesQuery, 5_000);
+    fetchSizeController.recordRowCount(indexesQuery, 100);
+    assertThat(fetchSizeController.getFetchSize(indexesQuery), is(50));
+
+    assertThat(fetchSizeController.getObservedRowCounts().get(INDEXES), is(5_000L));
+    assertThat(fetchSizeController.getObservedRowCounts().containsKey(TABLE_COLUMNS), is(false));
+  }
+
+  @Test
+  @DisplayName("Use fixed fetch sizes")
+  public void fixedFetchSize(final Connection connection) throws Exception {
+    final Query tableColumnsQuery = informationSchemaViews.getQuery(TABLE_COLUMNS);
+
+    final FetchSizeController fetchSizeController =
+        new FetchSizeController(
+            SchemaRetrievalOptionsBuilder.builder()
+                .withExpectedRowCount(TABLE_COLUMNS, 2_000_000)
+                .withFetchSize(TABLE_COLUMNS, 7)
+                .withFetchSizeMemoryLimit(1)
+                .toOptions());
+
+    assertThat(fetchSizeController.getFetchSize(tableColumnsQuery), is(7));
+    try (final Statement statement = connection.createStatement();
+        final ResultSet results = statement.executeQuery(tableColumnsQuery.getQuery())) {
+      final ResultsColumns resultsColumns = new ResultsCrawler(results).crawl();
+      assertThat(fetchSizeController.getFetchSize(tableColumnsQuery, 7, resultsColumns), is(7));
+    }
+  }
+
+  @Test
+  @DisplayName("Limit fetch size by the memory needed for the rows of a fetch")
+  public void memoryLimitedFetchSize(final Connection connection) throws Exception {
+    final Query tableColumnsQuery = informationSchemaViews.getQuery(TABLE_COLUMNS);
+
+    final int rowSize;
+    final ResultsColumns resultsColumns;
+    try (final Statement statement = connection.createStatement();
+        final ResultSet results = statement.executeQuery(tableColumnsQuery.getQuery())) {
+      resultsColumns = new ResultsCrawler(results).crawl();
+      rowSize = FetchSizeController.estimateRowSize(resultsColumns);
+    }
+    assertThat(rowSize > 0, is(true));
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .withExpectedRowCount(TABLE_COLUMNS, 2_000_000)
+            .withFetchSizeMemoryLimit(100L * rowSize)
+            .toOptions();
+    final FetchSizeController fetchSizeController =
+        new FetchSizeController(schemaRetrievalOptions);
+
+    // Row size is not known before the query is run
+    final int fetchSize = fetchSizeController.getFetchSize(tableColumnsQuery);
+    assertThat(fetchSize, is((int) Math.min(100L * rowSize / 1024, MAX_FETCH_SIZE)));
+    // Row size is known once the query is run, and is used for later runs
+    assertThat(
+        fetchSizeController.getFetchSize(tableColumnsQuery, fetchSize, resultsColumns), is(100));
+    assertThat(fetchSizeController.getFetchSize(tableColumnsQuery), is(100));
+  }
+}
@@ -36,8 +36,10 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_per_schema;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.foreignKeysRetrievalStrategy;
 import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
+import static schemacrawler.test.utility.DatabaseTestUtility.newIgnoringNullTableNameConnectionSource;
 import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
 import static schemacrawler.test.utility.FileHasContent.classpathResource;
 import static schemacrawler.test.utility.FileHasContent.hasSameContentAs;
@@ -132,6 +134,50 @@ public class ForeignKeyRetrieverTest {
 
   private MutableCatalog catalog;
 
+  @Test
+  @DisplayName("Retrieve foreign keys from metadata, for each schema")
+  public void fkFromMetadataForSchemas(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(foreignKeysRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final ForeignKeyRetriever foreignKeyRetriever =
+        new ForeignKeyRetriever(retrieverConnection, catalog, options);
+    foreignKeyRetriever.retrieveForeignKeys(catalog.getAllTables());
+
+    verifyRetrieveForeignKeys(catalog);
+  }
+
+  @Test
+  @DisplayName("Retrieve foreign keys for each table, when none are returned for a schema")
+  public void fkFromMetadataForSchemasWithoutRows(final Connection connection) throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(foreignKeysRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            newIgnoringNullTableNameConnectionSource(connection), schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final ForeignKeyRetriever foreignKeyRetriever =
+        new ForeignKeyRetriever(retrieverConnection, catalog, options);
+    foreignKeyRetriever.retrieveForeignKeys(catalog.getAllTables());
+
+    verifyRetrieveForeignKeys(catalog);
+  }
+
   @Test
   @DisplayName("Retrieve foreign keys from data dictionary")
   public void fkFromDataDictionary(final DatabaseConnectionSource dataSource) throws Exception {
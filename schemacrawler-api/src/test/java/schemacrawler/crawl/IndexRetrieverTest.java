@@ -36,8 +36,10 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_INDEXES;
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_per_schema;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
 import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
+import static schemacrawler.test.utility.DatabaseTestUtility.newIgnoringNullTableNameConnectionSource;
 import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
 import static schemacrawler.test.utility.FileHasContent.classpathResource;
 import static schemacrawler.test.utility.FileHasContent.hasSameContentAs;
@@ -133,6 +135,49 @@ public class IndexRetrieverTest {
     verifyRetrieveIndexes(catalog);
   }
 
+  @Test
+  @DisplayName("Retrieve indexes from metadata, for each schema")
+  public void indexesFromMetadataForSchemas(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(indexesRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final IndexRetriever indexRetriever = new IndexRetriever(retrieverConnection, catalog, options);
+    indexRetriever.retrieveIndexes(catalog.getAllTables());
+
+    verifyRetrieveIndexes(catalog);
+  }
+
+  @Test
+  @DisplayName("Retrieve indexes for each table, when none are returned for a schema")
+  public void indexesFromMetadataForSchemasWithoutRows(final Connection connection)
+      throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(indexesRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            newIgnoringNullTableNameConnectionSource(connection), schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final IndexRetriever indexRetriever = new IndexRetriever(retrieverConnection, catalog, options);
+    indexRetriever.retrieveIndexes(catalog.getAllTables());
+
+    verifyRetrieveIndexes(catalog);
+  }
+
   @Test
   @DisplayName("Retrieve index definitions from INFORMATION_SCHEMA")
   public void indexInfo(final DatabaseConnectionSource dataSource) throws Exception {
@@ -31,9 +31,11 @@ package schemacrawler.crawl;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
@@ -46,12 +48,15 @@ import java.sql.Statement;
 import java.time.DayOfWeek;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import schemacrawler.inclusionrule.ExcludeAll;
+import schemacrawler.inclusionrule.RegularExpressionInclusionRule;
 import schemacrawler.schema.ColumnDataType;
 import schemacrawler.schema.ResultsColumns;
 import schemacrawler.test.utility.ResolveTestContext;
@@ -305,4 +310,103 @@ public class MetadataResultSetTest {
       }
     }
   }
+
+  @Test
+  @DisplayName("Retrieve values from results by column ordinal")
+  public void ordinalValues(final Connection connection) throws Exception {
+
+    try (final Statement statement = connection.createStatement(); ) {
+
+      statement.execute("DROP TABLE IF EXISTS TABLE1");
+      statement.execute(
+          "CREATE TABLE TABLE1(COLUMN1 VARCHAR(10), COLUMN2 INTEGER, COLUMN3 VARCHAR(10))");
+      statement.execute("INSERT INTO TABLE1 VALUES(' A ', 2, 'yes')");
+      statement.execute("INSERT INTO TABLE1 VALUES(NULL, NULL, 'C')");
+
+      try (final MetadataResultSet results =
+          new MetadataResultSet(
+              DatabaseUtility.executeSql(
+                  statement, "SELECT * FROM TABLE1 ORDER BY COLUMN2 NULLS LAST"),
+              "ordinalValues")) {
+
+        final int[] ordinals = results.lookupColumnOrdinals("column1", "COLUMN2", "COLUMN9");
+        assertThat(ordinals[0], is(1));
+        assertThat(ordinals[1], is(2));
+        assertThat(ordinals[2], is(MetadataResultSet.NO_COLUMN));
+        assertThat(results.lookupColumnOrdinal(null), is(MetadataResultSet.NO_COLUMN));
+
+        assertThat(results.next(), is(true));
+        assertThat(results.getString(ordinals[0]), is("A"));
+        assertThat(results.getInt(ordinals[1], 0), is(2));
+        assertThat(results.getLong(ordinals[1], 0L), is(2L));
+        assertThat(results.getShort(ordinals[1], (short) 0), is((short) 2));
+        assertThat(results.getString(ordinals[2]), is(nullValue()));
+        assertThat(results.getInt(ordinals[2], -1), is(-1));
+        assertThat(results.getBoolean(ordinals[2]), is(false));
+        // Columns that were read are not attributes
+        assertThat(results.getAttributes().keySet(), contains("COLUMN3"));
+        assertThat(results.getAttributes(new ExcludeAll()).isEmpty(), is(true));
+        assertThat(
+            results.getAttributes(new RegularExpressionInclusionRule("COLUMN[12]")).isEmpty(),
+            is(true));
+        assertThat(results.getBoolean(3), is(true));
+        assertThat(results.getAttributes().isEmpty(), is(true));
+
+        assertThat(results.next(), is(true));
+        assertThat(results.getString(ordinals[0]), is(nullValue()));
+        assertThat(results.getInt(ordinals[1], -1), is(-1));
+        // Columns read for the previous row are attributes again
+        assertThat(results.getAttributes().keySet(), contains("COLUMN3"));
+
+        assertThat(results.next(), is(false));
+      }
+
+    } finally {
+      DatabaseUtility.executeSql(connection.createStatement(), "DROP TABLE IF EXISTS TABLE1");
+    }
+  }
+
+  @Test
+  @DisplayName("Share values of identifier-like columns between results")
+  public void pooledValues(final Connection connection) throws Exception {
+
+    final StringPool stringPool = new StringPool();
+    final String sql =
+        "SELECT 'SCHEMA1' AS TABLE_SCHEM, ' Remarks ' AS REMARKS, 'YES' AS IS_NULLABLE "
+            + "FROM (VALUES(0))";
+
+    String schemaName = null;
+    Map<String, Object> attributes = null;
+    for (final String description : Arrays.asList("pooledValues1", "pooledValues2")) {
+      try (final Statement statement = connection.createStatement();
+          final MetadataResultSet results =
+              new MetadataResultSet(DatabaseUtility.executeSql(statement, sql), description)) {
+        results.setStringPool(stringPool);
+
+        assertThat(results.next(), is(true));
+        final String currentSchemaName = results.getString("TABLE_SCHEM");
+        assertThat(currentSchemaName, is("SCHEMA1"));
+        assertThat(results.getString("REMARKS"), is("Remarks"));
+        final Map<String, Object> currentAttributes = results.getAttributes();
+        assertThat(currentAttributes.get("IS_NULLABLE"), is("YES"));
+
+        if (schemaName == null) {
+          schemaName = currentSchemaName;
+          attributes = currentAttributes;
+        } else {
+          assertThat(currentSchemaName, is(sameInstance(schemaName)));
+          assertThat(
+              currentAttributes.get("IS_NULLABLE"),
+              is(sameInstance(attributes.get("IS_NULLABLE"))));
+          assertThat(
+              currentAttributes.keySet().iterator().next(),
+              is(sameInstance(attributes.keySet().iterator().next())));
+        }
+      }
+    }
+
+    // Attribute names for the three columns, and the schema name and nullable code, but not the
+    // remarks
+    assertThat(stringPool.size(), is(5));
+  }
 }
@@ -0,0 +1,139 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static com.github.npathai.hamcrestopt.OptionalMatchers.isEmpty;
+import static com.github.npathai.hamcrestopt.OptionalMatchers.isPresent;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.oneOf;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_per_schema;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
+import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.MetadataRetrievalStrategyProfiles;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class MetadataRetrievalStrategyTunerTest {
+
+  @Test
+  @DisplayName("Time each strategy on a sample of tables, then select and save the fastest")
+  public void tune(
+      final Connection connection,
+      final DatabaseConnectionSource dataSource,
+      @TempDir final Path profilesDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withSchemaInfoLevel(SchemaInfoLevelBuilder.minimum())
+                    .toOptions());
+    final MutableCatalog catalog =
+        (MutableCatalog)
+            getCatalog(connection, schemaRetrievalOptionsDefault, schemaCrawlerOptions);
+    assertThat(catalog.getTables(), hasSize(20));
+
+    final InformationSchemaViews informationSchemaViews =
+        InformationSchemaViewsBuilder.builder()
+            .withSql(
+                InformationSchemaKey.PRIMARY_KEYS,
+                "SELECT * FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS")
+            .toOptions();
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .withInformationSchemaViews(informationSchemaViews)
+            .withAdaptiveMetadataRetrievalStrategy(profilesDirectory)
+            .toOptions();
+    // Only primary keys are retrieved, so only they are timed
+    final SchemaCrawlerOptions options =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withSchemaInfoLevel(
+                        SchemaInfoLevelBuilder.builder().setRetrievePrimaryKeys(true).toOptions())
+                    .toOptions());
+    final String connectionUrl = connection.getMetaData().getURL();
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, connectionUrl),
+        isEmpty());
+
+    // All strategies are timed on a sample of tables in the first crawl
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptions);
+    final MetadataRetrievalStrategyTuner tuner =
+        new MetadataRetrievalStrategyTuner(retrieverConnection, catalog, options);
+    tuner.tune(catalog.getAllTables());
+
+    final MetadataRetrievalStrategy selectedStrategy =
+        retrieverConnection.get(primaryKeysRetrievalStrategy);
+    assertThat(selectedStrategy, is(oneOf(metadata, metadata_per_schema, data_dictionary_all)));
+    // Metadata that is retrieved for timing is not added to the catalog
+    for (final Table table : catalog.getTables()) {
+      assertThat(table.getPrimaryKey(), is(nullValue()));
+    }
+
+    final Optional<Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy>> profile =
+        MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, connectionUrl);
+    assertThat(profile, isPresent());
+    assertThat(profile.get(), is(aMapWithSize(1)));
+    assertThat(profile.get().get(primaryKeysRetrievalStrategy), is(selectedStrategy));
+  }
+}
@@ -29,7 +29,17 @@ http://www.gnu.org/licenses/
 package schemacrawler.crawl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -42,6 +52,82 @@ public class NamedObjectTest {
 
   public static final TableType TABLE = new TableType("TABLE");
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void frozen() throws Exception {
+    final Schema schema = new SchemaReference("CATALOG", "PUBLIC");
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+    for (final String tableName : new String[] {"SUPPLIER", "CUSTOMER", "ITEM", "INVOICE"}) {
+      tables.add(new MutableTable(schema, tableName));
+    }
+    final List<MutableTable> values = tables.values();
+
+    tables.freeze();
+    assertThat(tables.isFrozen(), is(true));
+    assertThat(tables.size(), is(4));
+    assertThat(tables.values(), is(values));
+    assertThat(tables.values(), is(sameInstance(tables.values())));
+    for (final MutableTable table : values) {
+      assertThat(tables.lookup(schema, table.getName()).get(), is(sameInstance(table)));
+      assertThat(tables.contains(table), is(true));
+    }
+    assertThat(tables.lookup(schema, "PRODUCT").isPresent(), is(false));
+
+    final MutableTable product = new MutableTable(schema, "PRODUCT");
+    assertThrows(UnsupportedOperationException.class, () -> tables.add(product));
+    assertThrows(UnsupportedOperationException.class, () -> tables.remove(values.get(0)));
+    assertThrows(UnsupportedOperationException.class, () -> tables.filter(table -> false));
+
+    // A deserialized list can be modified
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(tables);
+    }
+    final NamedObjectList<MutableTable> deserializedTables;
+    try (final ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      deserializedTables = (NamedObjectList<MutableTable>) in.readObject();
+    }
+    assertThat(deserializedTables.isFrozen(), is(false));
+    deserializedTables.add(product);
+    assertThat(deserializedTables.size(), is(5));
+  }
+
+  @Test
+  public void sortedValues() {
+    final Schema schema = new SchemaReference("CATALOG", "PUBLIC");
+    final MutableTable customer = new MutableTable(schema, "CUSTOMER");
+    final MutableTable invoice = new MutableTable(schema, "INVOICE");
+    final MutableTable item = new MutableTable(schema, "ITEM");
+
+    final NamedObjectList<MutableTable> tables = new NamedObjectList<>();
+    tables.add(item);
+    tables.add(customer);
+
+    final List<MutableTable> values = tables.values();
+    assertThat(values, contains(customer, item));
+    assertThat(tables.values(), is(sameInstance(values)));
+    assertThrows(UnsupportedOperationException.class, () -> values.add(invoice));
+
+    tables.add(invoice);
+    assertThat(tables.values(), contains(customer, invoice, item));
+
+    tables.filter(table -> !table.getName().equals("INVOICE"));
+    assertThat(tables.values(), contains(customer, item));
+    tables.resetFilter();
+    assertThat(tables.values(), contains(customer, invoice, item));
+
+    tables.remove(customer);
+    assertThat(tables.values(), contains(invoice, item));
+
+    // Natural sort order changes without a modification of the list
+    final List<MutableTable> sortedValues = tables.values();
+    item.setSortIndex(-1);
+    tables.invalidateSortedValues();
+    assertThat(tables.values(), is(not(sameInstance(sortedValues))));
+    assertThat(tables.values(), contains(item, invoice));
+  }
+
   @Test
   public void tableNames() {
     final String[] schemaNames = new String[] {"DBO", "PUBLIC"};
@@ -36,8 +36,10 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_per_schema;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.primaryKeysRetrievalStrategy;
 import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
+import static schemacrawler.test.utility.DatabaseTestUtility.newIgnoringNullTableNameConnectionSource;
 import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
 import static schemacrawler.test.utility.FileHasContent.classpathResource;
 import static schemacrawler.test.utility.FileHasContent.hasSameContentAs;
@@ -126,6 +128,51 @@ public class PrimaryKeyRetrieverTest {
     }
   }
 
+  @Test
+  @DisplayName("Retrieve primary keys from metadata, for each schema")
+  public void primaryKeysFromMetadataForSchemas(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(primaryKeysRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final PrimaryKeyRetriever primaryKeyRetriever =
+        new PrimaryKeyRetriever(retrieverConnection, catalog, options);
+    primaryKeyRetriever.retrievePrimaryKeys(catalog.getAllTables());
+
+    verifyPrimaryKeysForSchemas(catalog);
+  }
+
+  @Test
+  @DisplayName("Retrieve primary keys for each table, when none are returned for a schema")
+  public void primaryKeysFromMetadataForSchemasWithoutRows(final Connection connection)
+      throws Exception {
+    loadBaseCatalog(connection);
+
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(primaryKeysRetrievalStrategy, metadata_per_schema)
+            .toOptions();
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            newIgnoringNullTableNameConnectionSource(connection), schemaRetrievalOptions);
+
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final PrimaryKeyRetriever primaryKeyRetriever =
+        new PrimaryKeyRetriever(retrieverConnection, catalog, options);
+    primaryKeyRetriever.retrievePrimaryKeys(catalog.getAllTables());
+
+    verifyPrimaryKeysForSchemas(catalog);
+  }
+
   @Test
   @DisplayName("Retrieve primary keys from data dictionary")
   public void primaryKeysFromDataDictionary(final DatabaseConnectionSource dataSource)
@@ -169,4 +216,26 @@ public class PrimaryKeyRetrieverTest {
       }
     }
   }
+
+  private void verifyPrimaryKeysForSchemas(final Catalog catalog) {
+    final Collection<Table> tables = catalog.getTables();
+    assertThat(tables, hasSize(20));
+    for (final Table table : tables) {
+      if (!Arrays.asList(
+              "AUTHORSLIST",
+              "BOOKAUTHORS",
+              "Global Counts",
+              "PUBLICATIONWRITERS",
+              "SALES",
+              "SALESDATA")
+          .contains(table.getName())) {
+        assertThat(
+            "Did not find primary key for " + table.getFullName(),
+            table.getPrimaryKey(),
+            is(not(nullValue())));
+      } else {
+        assertThat(table.getPrimaryKey(), is(nullValue()));
+      }
+    }
+  }
 }
@@ -0,0 +1,300 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveIndexes;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTableColumns;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTablePrivileges;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTables;
+import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.exceptions.WrappedSQLException;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class RetrievalTaskRunnerTest {
+
+  @Test
+  public void bestEffort(final Connection connection, final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final MutableCrawlInfo crawlInfo = newCrawlInfo(connection);
+    final LoadOptions loadOptions = LoadOptionsBuilder.builder().withBestEffort(true).toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(crawlInfo, loadOptions, newRetrieverConnection(dataSource));
+    taskRunner
+        .add(
+            retrieveTables,
+            () -> {
+              throw new SQLException("Forced failure", "42000");
+            })
+        .submit();
+    taskRunner.stopAndLogTime();
+
+    assertThat(crawlInfo.isComplete(), is(false));
+    assertThat(crawlInfo.getFailedRetrievals(), hasKey("retrieveTables"));
+    assertThat(
+        crawlInfo.getFailedRetrievals().get("retrieveTables"), is("Forced failure"));
+  }
+
+  @Test
+  public void bestEffortSkipsDependentChain(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final List<String> runTasks = new ArrayList<>();
+    final MutableCrawlInfo crawlInfo = newCrawlInfo(connection);
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+            .withBestEffort(true)
+            .toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(crawlInfo, loadOptions, newRetrieverConnection(dataSource));
+    taskRunner
+        .add(
+            retrieveTables,
+            () -> {
+              throw new SQLException("Forced failure", "42000");
+            })
+        .add(retrieveTableColumns, () -> runTasks.add("retrieveTableColumns"))
+        .after(retrieveTables)
+        .add(retrieveIndexes, () -> runTasks.add("retrieveIndexes"))
+        .after(retrieveTableColumns)
+        .add(retrieveTablePrivileges, () -> runTasks.add("retrieveTablePrivileges"))
+        .submit();
+    taskRunner.stopAndLogTime();
+
+    assertThat(runTasks, contains("retrieveTablePrivileges"));
+    assertThat(crawlInfo.getFailedRetrievals().keySet(), hasSize(3));
+    assertThat(
+        crawlInfo.getFailedRetrievals().get("retrieveTableColumns"),
+        is("Not run, since <retrieveTables> failed"));
+    assertThat(
+        crawlInfo.getFailedRetrievals().get("retrieveIndexes"),
+        is("Not run, since <retrieveTableColumns> failed"));
+  }
+
+  @Test
+  public void connectionErrors() {
+    assertThat(RetrievalTaskRunner.isConnectionError(new SQLException("", "08S01")), is(true));
+    assertThat(
+        RetrievalTaskRunner.isConnectionError(new SQLNonTransientConnectionException()), is(true));
+    assertThat(
+        RetrievalTaskRunner.isConnectionError(
+            new RuntimeException(new SQLException("Connection reset", "08006"))),
+        is(true));
+
+    assertThat(RetrievalTaskRunner.isConnectionError(new SQLException("", "40001")), is(false));
+    assertThat(RetrievalTaskRunner.isConnectionError(new SQLException()), is(false));
+    assertThat(RetrievalTaskRunner.isConnectionError(new RuntimeException()), is(false));
+  }
+
+  @Test
+  public void deferredTasks(final Connection connection, final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final List<String> runTasks = new ArrayList<>();
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+            .withBackgroundEnrichment(true)
+            .toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(
+            newCrawlInfo(connection), loadOptions, newRetrieverConnection(dataSource));
+    taskRunner
+        .add(retrieveTables, () -> runTasks.add("retrieveTables"))
+        .add(retrieveTablePrivileges, () -> runTasks.add("retrieveTablePrivileges"))
+        .after(retrieveTables)
+        .add("afterTablePrivileges", () -> runTasks.add("afterTablePrivileges"))
+        .after(retrieveTablePrivileges)
+        .submit();
+
+    assertThat(runTasks, contains("retrieveTables"));
+    assertThat(taskRunner.hasDeferredTasks(), is(true));
+
+    taskRunner.submitDeferred();
+    taskRunner.stopAndLogTime();
+
+    assertThat(
+        runTasks, contains("retrieveTables", "retrieveTablePrivileges", "afterTablePrivileges"));
+    assertThat(taskRunner.hasDeferredTasks(), is(false));
+  }
+
+  @Test
+  public void invalidateConnectionsOnConnectionErrors(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final AtomicInteger attempts = new AtomicInteger();
+    final DatabaseConnectionSource spyDataSource = spy(dataSource);
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .withMaxRetries(2)
+            .withRetryBackoff(Duration.ofMillis(1))
+            .toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(
+            newCrawlInfo(connection), loadOptions, newRetrieverConnection(spyDataSource));
+    taskRunner
+        .add(
+            retrieveTables,
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                throw new SQLException("Deadlock", "40001");
+              }
+              if (attempts.get() == 2) {
+                throw new SQLException("Connection reset", "08006");
+              }
+            })
+        .submit();
+    taskRunner.stopAndLogTime();
+
+    assertThat(attempts.get(), is(3));
+    verify(spyDataSource, times(1)).invalidateConnections();
+  }
+
+  @Test
+  public void noRetryForOtherErrors(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final AtomicInteger attempts = new AtomicInteger();
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .withMaxRetries(3)
+            .withRetryBackoff(Duration.ofMillis(1))
+            .toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(
+            newCrawlInfo(connection), loadOptions, newRetrieverConnection(dataSource));
+    taskRunner.add(
+        retrieveTables,
+        () -> {
+          attempts.incrementAndGet();
+          throw new SQLException("Forced failure", "42000");
+        });
+    assertThrows(SQLException.class, () -> taskRunner.submit());
+    taskRunner.stopAndLogTime();
+
+    assertThat(attempts.get(), is(1));
+  }
+
+  @Test
+  public void retryTransientErrors(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final AtomicInteger attempts = new AtomicInteger();
+    final MutableCrawlInfo crawlInfo = newCrawlInfo(connection);
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .withMaxRetries(2)
+            .withRetryBackoff(Duration.ofMillis(1))
+            .toOptions();
+
+    final RetrievalTaskRunner taskRunner =
+        new RetrievalTaskRunner(crawlInfo, loadOptions, newRetrieverConnection(dataSource));
+    taskRunner
+        .add(
+            retrieveTables,
+            () -> {
+              if (attempts.incrementAndGet() < 3) {
+                throw new WrappedSQLException(
+                    "Lock timeout", new SQLException("Deadlock", "40001"));
+              }
+            })
+        .submit();
+    taskRunner.stopAndLogTime();
+
+    assertThat(attempts.get(), is(3));
+    assertThat(crawlInfo.isComplete(), is(true));
+  }
+
+  @Test
+  public void transientErrors() {
+    assertThat(RetrievalTaskRunner.isTransient(new SQLException("", "40001")), is(true));
+    assertThat(RetrievalTaskRunner.isTransient(new SQLException("", "08S01")), is(true));
+    assertThat(RetrievalTaskRunner.isTransient(new SQLException("", "55P03")), is(true));
+    assertThat(RetrievalTaskRunner.isTransient(new SQLTransactionRollbackException()), is(true));
+    assertThat(
+        RetrievalTaskRunner.isTransient(
+            new RuntimeException(new SQLException("Lock timeout", "40001"))),
+        is(true));
+
+    assertThat(RetrievalTaskRunner.isTransient(new SQLException("", "42000")), is(false));
+    assertThat(RetrievalTaskRunner.isTransient(new SQLException()), is(false));
+    assertThat(RetrievalTaskRunner.isTransient(new SQLTimeoutException()), is(false));
+    assertThat(RetrievalTaskRunner.isTransient(new RuntimeException()), is(false));
+  }
+
+  private MutableCrawlInfo newCrawlInfo(final Connection connection) {
+    final MutableCatalog catalog =
+        (MutableCatalog)
+            getCatalog(
+                connection,
+                schemaRetrievalOptionsDefault,
+                SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+                    .withLoadOptions(
+                        LoadOptionsBuilder.builder()
+                            .withSchemaInfoLevel(SchemaInfoLevelBuilder.minimum())
+                            .toOptions()));
+    return (MutableCrawlInfo) catalog.getCrawlInfo();
+  }
+
+  private RetrieverConnection newRetrieverConnection(final DatabaseConnectionSource dataSource)
+      throws SQLException {
+    return new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.newSchemaCrawler;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.summarizeTable;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.summarizeTables;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.CrawlListener;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class SchemaCrawlerBackgroundEnrichmentTest {
+
+  @Test
+  public void backgroundEnrichment(final DatabaseConnectionSource dataSource) throws Exception {
+    final SchemaCrawler schemaCrawler = newSchemaCrawler(dataSource, loadOptions(true, null));
+    final Catalog catalog = schemaCrawler.crawl();
+
+    final Catalog completedCatalog =
+        schemaCrawler.getCrawlCompletion().get(1, TimeUnit.MINUTES);
+    assertThat(completedCatalog, is(sameInstance(catalog)));
+    assertThat(catalog.getCrawlInfo().isComplete(), is(true));
+
+    final Catalog expectedCatalog =
+        newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.maximum()).crawl();
+    assertThat(summarizeTables(catalog), is(summarizeTables(expectedCatalog)));
+  }
+
+  @Test
+  public void backgroundEnrichmentOffByDefault(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final SchemaCrawler schemaCrawler =
+        newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.maximum());
+    final Catalog catalog = schemaCrawler.crawl();
+
+    assertThat(schemaCrawler.getCrawlCompletion().isDone(), is(true));
+    assertThat(schemaCrawler.getCrawlCompletion().get(), is(sameInstance(catalog)));
+    assertThat(catalog.getCrawlInfo().isComplete(), is(true));
+  }
+
+  @Test
+  public void noBackgroundEnrichment(final DatabaseConnectionSource dataSource) throws Exception {
+    final SchemaCrawler schemaCrawler = newSchemaCrawler(dataSource, loadOptions(false, null));
+    final Catalog catalog = schemaCrawler.crawl();
+
+    assertThat(schemaCrawler.getCrawlCompletion().isDone(), is(true));
+    assertThat(schemaCrawler.getCrawlCompletion().get(), is(sameInstance(catalog)));
+  }
+
+  @Test
+  public void tableCompletedAfterBackgroundEnrichment(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final Map<String, String> completedTables = new ConcurrentHashMap<>();
+    final CrawlListener crawlListener =
+        new CrawlListener() {
+          @Override
+          public void tableCompleted(final Table table) {
+            completedTables.put(table.getFullName(), summarizeTable(table));
+          }
+        };
+    final SchemaCrawler schemaCrawler =
+        newSchemaCrawler(dataSource, loadOptions(true, crawlListener));
+    final Catalog catalog = schemaCrawler.crawl();
+    schemaCrawler.getCrawlCompletion().get(1, TimeUnit.MINUTES);
+
+    assertThat(completedTables, is(summarizeTables(catalog)));
+  }
+
+  private LoadOptions loadOptions(
+      final boolean backgroundEnrichment, final CrawlListener crawlListener) {
+    return LoadOptionsBuilder.builder()
+        .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+        .withBackgroundEnrichment(backgroundEnrichment)
+        .withCrawlListener(crawlListener)
+        .toOptions();
+  }
+}
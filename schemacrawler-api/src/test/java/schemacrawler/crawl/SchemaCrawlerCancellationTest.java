@@ -0,0 +1,192 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.exceptions.DatabaseAccessException;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+import us.fatehi.utility.scheduler.TaskDefinition;
+
+@WithTestDatabase
+@ResolveTestContext
+public class SchemaCrawlerCancellationTest {
+
+  @Test
+  public void abortConnectionsOnCancel() throws Exception {
+    final Connection connection = mock(Connection.class);
+    final DatabaseConnectionSource dataSource = mock(DatabaseConnectionSource.class);
+    when(dataSource.get()).thenReturn(connection);
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+
+    // Connections that were closed are not aborted
+    retrieverConnection.getConnection().close();
+    verify(connection).close();
+
+    final Connection retrievalConnection = retrieverConnection.getConnection();
+    retrieverConnection.cancel();
+    verify(connection).abort(any(Executor.class));
+    retrievalConnection.close();
+  }
+
+  @Test
+  public void cancelCrawl(final DatabaseConnectionSource dataSource) throws Exception {
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(
+            dataSource,
+            schemaRetrievalOptionsDefault,
+            SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+    schemaCrawler.cancel();
+
+    final DatabaseAccessException exception =
+        assertThrows(DatabaseAccessException.class, () -> schemaCrawler.crawl());
+    assertThat(exception.getMessage(), containsString("Crawl was cancelled"));
+  }
+
+  @Test
+  public void cancelStatements(final DatabaseConnectionSource dataSource) throws Exception {
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+
+    try (final Connection connection = retrieverConnection.getConnection()) {
+      final Statement statement = retrieverConnection.createStatement(connection);
+      retrieverConnection.cancel();
+      statement.close();
+
+      final SQLException exception =
+          assertThrows(SQLException.class, () -> retrieverConnection.createStatement(connection));
+      assertThat(exception.getSQLState(), is("HY008"));
+      assertThrows(SQLException.class, () -> retrieverConnection.checkCancelled());
+    }
+  }
+
+  @Test
+  public void metadataCallTimeouts() throws Exception {
+    final Connection connection = mock(Connection.class);
+    when(connection.getNetworkTimeout()).thenReturn(0);
+    final DatabaseConnectionSource dataSource = mock(DatabaseConnectionSource.class);
+    when(dataSource.get()).thenReturn(connection);
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+
+    // No network timeout without a query timeout
+    retrieverConnection.getConnection().close();
+    verify(connection, never()).setNetworkTimeout(any(Executor.class), anyInt());
+
+    // Network timeouts are a second longer than query timeouts, and are restored on close
+    retrieverConnection.setQueryTimeout(Duration.ofMillis(1_500));
+    try (final Connection retrievalConnection = retrieverConnection.getConnection()) {
+      verify(connection).setNetworkTimeout(any(Executor.class), eq(3_000));
+    }
+    verify(connection).setNetworkTimeout(any(Executor.class), eq(0));
+  }
+
+  @Test
+  public void queryTimeouts(final DatabaseConnectionSource dataSource) throws Exception {
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+
+    try (final Connection connection = retrieverConnection.getConnection()) {
+      try (final Statement statement = retrieverConnection.createStatement(connection)) {
+        assertThat(statement.getQueryTimeout(), is(0));
+      }
+
+      // JDBC query timeouts are in seconds, so round up
+      retrieverConnection.setDefaultQueryTimeout(Duration.ofMillis(1_500));
+      try (final Statement statement = retrieverConnection.createStatement(connection)) {
+        assertThat(statement.getQueryTimeout(), is(2));
+      }
+
+      retrieverConnection.setQueryTimeout(Duration.ofSeconds(5));
+      try (final Statement statement = retrieverConnection.createStatement(connection)) {
+        assertThat(statement.getQueryTimeout(), is(5));
+      }
+
+      retrieverConnection.setQueryTimeout(null);
+      try (final Statement statement = retrieverConnection.createStatement(connection)) {
+        assertThat(statement.getQueryTimeout(), is(2));
+      }
+    }
+  }
+
+  @Test
+  public void queryTimeoutsForTasks(final DatabaseConnectionSource dataSource) throws Exception {
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault);
+    retrieverConnection.setQueryTimeout(Duration.ofSeconds(5));
+
+    final AtomicInteger taskQueryTimeout = new AtomicInteger(-1);
+    final TaskDefinition.TaskRunnable task =
+        retrieverConnection.withCurrentQueryTimeout(
+            () -> {
+              try (final Connection connection = retrieverConnection.getConnection();
+                  final Statement statement = retrieverConnection.createStatement(connection)) {
+                taskQueryTimeout.set(statement.getQueryTimeout());
+              }
+            });
+    // Tasks run on other threads, which do not have a query timeout of their own
+    final Thread thread =
+        new Thread(
+            () -> {
+              try {
+                task.run();
+              } catch (final Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    thread.start();
+    thread.join();
+
+    assertThat(taskQueryTimeout.get(), is(5));
+  }
+}
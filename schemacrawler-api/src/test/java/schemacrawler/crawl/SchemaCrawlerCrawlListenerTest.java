@@ -0,0 +1,157 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Schema;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.CrawlListener;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class SchemaCrawlerCrawlListenerTest {
+
+  private static final class RecordingCrawlListener implements CrawlListener {
+
+    private final List<String> events = new ArrayList<>();
+    private final List<Schema> schemas = new ArrayList<>();
+    private final List<Table> completedTables = new ArrayList<>();
+    private final List<Table> tablesWithColumns = new ArrayList<>();
+    private final List<Table> tablesWithForeignKeys = new ArrayList<>();
+
+    @Override
+    public void crawlCompleted(final Catalog catalog) {
+      events.add("crawlCompleted");
+    }
+
+    @Override
+    public void foreignKeysRetrieved(final Table table) {
+      events.add("foreignKeysRetrieved");
+      tablesWithForeignKeys.add(table);
+    }
+
+    @Override
+    public void schemaRetrieved(final Schema schema) {
+      events.add("schemaRetrieved");
+      schemas.add(schema);
+    }
+
+    @Override
+    public void tableColumnsRetrieved(final Table table) {
+      events.add("tableColumnsRetrieved");
+      tablesWithColumns.add(table);
+    }
+
+    @Override
+    public void tableCompleted(final Table table) {
+      events.add("tableCompleted");
+      completedTables.add(table);
+    }
+
+    @Override
+    public void tableRetrieved(final Table table) {
+      events.add("tableRetrieved");
+    }
+  }
+
+  @Test
+  public void crawlEvents(final DatabaseConnectionSource dataSource) throws Exception {
+    final RecordingCrawlListener crawlListener = new RecordingCrawlListener();
+
+    final Catalog catalog = crawl(dataSource, crawlListener);
+
+    assertThat(crawlListener.schemas, containsInAnyOrder(catalog.getSchemas().toArray()));
+    assertThat(crawlListener.completedTables, containsInAnyOrder(catalog.getTables().toArray()));
+    // Events for columns and foreign keys are sent for all tables, before any are filtered out
+    assertThat(crawlListener.tablesWithColumns.size(), is(catalog.getTables().size()));
+    assertThat(crawlListener.tablesWithForeignKeys.size(), is(catalog.getTables().size()));
+
+    final List<String> events = crawlListener.events;
+    assertThat(
+        events.lastIndexOf("schemaRetrieved"), is(lessThan(events.indexOf("tableRetrieved"))));
+    assertThat(
+        events.lastIndexOf("tableRetrieved"),
+        is(lessThan(events.indexOf("tableColumnsRetrieved"))));
+    assertThat(
+        events.lastIndexOf("tableColumnsRetrieved"),
+        is(lessThan(events.indexOf("tableCompleted"))));
+    assertThat(
+        events.lastIndexOf("foreignKeysRetrieved"),
+        is(lessThan(events.indexOf("tableCompleted"))));
+    assertThat(events.indexOf("crawlCompleted"), is(events.size() - 1));
+  }
+
+  @Test
+  public void failingCrawlListener(final DatabaseConnectionSource dataSource) throws Exception {
+    final CrawlListener crawlListener =
+        new CrawlListener() {
+          @Override
+          public void tableCompleted(final Table table) {
+            throw new IllegalStateException("Listener failed");
+          }
+        };
+
+    final Catalog catalog = crawl(dataSource, crawlListener);
+
+    assertThat(catalog.getTables().isEmpty(), is(false));
+    assertThat(catalog.getCrawlInfo().isComplete(), is(true));
+  }
+
+  private Catalog crawl(
+      final DatabaseConnectionSource dataSource, final CrawlListener crawlListener) {
+    final SchemaCrawlerOptions options =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withSchemaInfoLevel(SchemaInfoLevelBuilder.standard())
+                    .withCrawlListener(crawlListener)
+                    .toOptions());
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(dataSource, schemaRetrievalOptionsDefault, options);
+    return schemaCrawler.crawl();
+  }
+}
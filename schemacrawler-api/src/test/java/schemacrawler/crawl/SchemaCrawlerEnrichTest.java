@@ -0,0 +1,95 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.newSchemaCrawler;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.summarizeTables;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
+import schemacrawler.schemacrawler.exceptions.ExecutionRuntimeException;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class SchemaCrawlerEnrichTest {
+
+  @Test
+  public void enrich(final DatabaseConnectionSource dataSource) throws Exception {
+    final Catalog catalog = newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.standard()).crawl();
+    assertThat(
+        catalog.getCrawlInfo().getSchemaInfoRetrievals(),
+        not(hasItem(SchemaInfoRetrieval.retrieveTablePrivileges)));
+
+    final Catalog enrichedCatalog =
+        newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.standard())
+            .enrich(catalog, SchemaInfoLevelBuilder.maximum());
+    assertThat(enrichedCatalog, is(sameInstance(catalog)));
+    assertThat(
+        catalog.getCrawlInfo().getSchemaInfoRetrievals(),
+        hasItem(SchemaInfoRetrieval.retrieveTablePrivileges));
+
+    final Catalog expectedCatalog =
+        newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.maximum()).crawl();
+    assertThat(summarizeTables(catalog), is(summarizeTables(expectedCatalog)));
+    assertThat(
+        catalog.getCrawlInfo().getSchemaInfoRetrievals(),
+        is(expectedCatalog.getCrawlInfo().getSchemaInfoRetrievals()));
+  }
+
+  @Test
+  public void enrichUnknownCatalog(final DatabaseConnectionSource dataSource) {
+    final SchemaCrawler schemaCrawler =
+        newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.standard());
+    assertThrows(
+        NullPointerException.class,
+        () -> schemaCrawler.enrich(null, SchemaInfoLevelBuilder.maximum()));
+
+    final Catalog unknownCatalog = mock(Catalog.class);
+    final ExecutionRuntimeException exception =
+        assertThrows(
+            ExecutionRuntimeException.class,
+            () -> schemaCrawler.enrich(unknownCatalog, SchemaInfoLevelBuilder.maximum()));
+    assertThat(
+        exception.getMessage(),
+        is("Cannot enrich the catalog, since it was not crawled by SchemaCrawler"));
+  }
+}
@@ -0,0 +1,74 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.newSchemaCrawler;
+import static schemacrawler.crawl.SchemaCrawlerTestUtility.summarizeCatalog;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+public class SchemaCrawlerFreezeTest {
+
+  @Test
+  public void freeze(final DatabaseConnectionSource dataSource) throws Exception {
+    final Catalog catalog = newSchemaCrawler(dataSource, SchemaInfoLevelBuilder.maximum()).crawl();
+    final List<String> expectedSummary = summarizeCatalog(catalog);
+
+    assertThat(SchemaCrawler.freeze(catalog), is(sameInstance(catalog)));
+    assertThat(summarizeCatalog(catalog), is(expectedSummary));
+
+    for (final Table table : catalog.getTables()) {
+      assertThat(
+          catalog.lookupTable(table.getSchema(), table.getName()).get(), is(sameInstance(table)));
+      for (final Column column : table.getColumns()) {
+        assertThat(table.lookupColumn(column.getName()).get(), is(sameInstance(column)));
+      }
+    }
+
+    final MutableTable table = (MutableTable) catalog.getTables().iterator().next();
+    final MutableColumn column = new MutableColumn(table, "NEW_COLUMN");
+    assertThrows(UnsupportedOperationException.class, () -> table.addColumn(column));
+  }
+}
@@ -0,0 +1,407 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_OBJECT_CHANGES;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaCrawlerOptionsWithMaximumSchemaInfoLevel;
+import static schemacrawler.test.utility.TestUtility.newSchemaRetrievalOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Column;
+import schemacrawler.schema.ForeignKey;
+import schemacrawler.schema.PartialDatabaseObject;
+import schemacrawler.schema.Routine;
+import schemacrawler.schema.Sequence;
+import schemacrawler.schema.Table;
+import schemacrawler.schema.TableConstraint;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaReference;
+import schemacrawler.test.utility.ResolveTestContext;
+import schemacrawler.test.utility.WithTestDatabase;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@WithTestDatabase
+@ResolveTestContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SchemaCrawlerIncrementalCrawlTest {
+
+  private static final String REUSED = "reused";
+
+  // Objects without a logged change were last changed before the previous crawl
+  private static final String LOGGED_OBJECT_CHANGES_SQL =
+      "SELECT TABLES.TABLE_CATALOG AS OBJECT_CATALOG, TABLES.TABLE_SCHEMA AS OBJECT_SCHEMA, "
+          + "TABLES.TABLE_NAME AS OBJECT_NAME, 'TABLE' AS OBJECT_TYPE, "
+          + "COALESCE(CHANGES.LAST_CHANGED, TIMESTAMP '2000-01-01 00:00:00') AS LAST_CHANGED "
+          + "FROM INFORMATION_SCHEMA.TABLES AS TABLES "
+          + "LEFT OUTER JOIN DDL_LOG.OBJECT_CHANGES AS CHANGES "
+          + "ON TABLES.TABLE_SCHEMA = CHANGES.OBJECT_SCHEMA "
+          + "AND TABLES.TABLE_NAME = CHANGES.OBJECT_NAME";
+
+  private Catalog fullCatalog;
+
+  @Test
+  public void fullCrawlWithoutObjectChanges(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final Catalog previousCatalog = markedPreviousCatalog(dataSource);
+
+    final Catalog catalog =
+        new SchemaCrawler(
+                dataSource,
+                newSchemaRetrievalOptions(),
+                schemaCrawlerOptionsWithMaximumSchemaInfoLevel)
+            .crawl(previousCatalog);
+
+    assertThat(reusedTableNames(catalog), is(empty()));
+    assertSameAsFullCrawl(catalog);
+  }
+
+  @Test
+  public void incrementalCrawl(final DatabaseConnectionSource dataSource) throws Exception {
+    final Catalog previousCatalog = markedPreviousCatalog(dataSource);
+
+    final Catalog catalog =
+        incrementalCrawl(
+            dataSource,
+            previousCatalog,
+            "CASE WHEN TABLE_NAME = 'BOOKS' THEN TIMESTAMP '2999-12-31 00:00:00' "
+                + "ELSE TIMESTAMP '2000-01-01 00:00:00' END",
+            "");
+
+    assertSameAsFullCrawl(catalog);
+    for (final Table table : catalog.getTables()) {
+      assertThat(
+          table.getFullName(),
+          table.hasAttribute(REUSED),
+          is(!"BOOKS".equals(table.getName())));
+    }
+    for (final Routine routine : catalog.getRoutines()) {
+      assertThat(routine.getFullName(), routine.hasAttribute(REUSED), is(true));
+    }
+    for (final Sequence sequence : catalog.getSequences()) {
+      assertThat(sequence.getFullName(), sequence.hasAttribute(REUSED), is(true));
+    }
+    // The previous catalog is not changed
+    for (final Table table : previousCatalog.getTables()) {
+      for (final ForeignKey foreignKey : table.getForeignKeys()) {
+        assertThat(
+            previousCatalog
+                .lookupTable(
+                    foreignKey.getPrimaryKeyTable().getSchema(),
+                    foreignKey.getPrimaryKeyTable().getName())
+                .get(),
+            is(sameInstance(foreignKey.getPrimaryKeyTable())));
+      }
+    }
+  }
+
+  @Test
+  @WithTestDatabase(script = "incremental_crawl.sql")
+  public void incrementalCrawlAfterDdl(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final Catalog previousCatalog = markedPreviousCatalog(dataSource);
+
+    try (final Connection connection = dataSource.get()) {
+      executeDdl(
+          connection,
+          "BOOKS",
+          "ALTER TABLE LIBRARY.BOOKS ADD COLUMN PRICE DECIMAL(10, 2)",
+          "ALTER TABLE LIBRARY.BOOKS ADD CONSTRAINT CK_BOOKS_PRICE CHECK (PRICE >= 0)");
+      executeDdl(
+          connection,
+          "REVIEWS",
+          "CREATE TABLE LIBRARY.REVIEWS (ID INTEGER NOT NULL PRIMARY KEY, BOOK_ID INTEGER, "
+              + "CONSTRAINT FK_REVIEWS_BOOKS FOREIGN KEY (BOOK_ID) REFERENCES LIBRARY.BOOKS (ID))");
+      executeDdl(
+          connection,
+          "BOOK_AUTHORS",
+          "ALTER TABLE LIBRARY.BOOK_AUTHORS DROP CONSTRAINT FK_BOOK_AUTHORS_AUTHORS");
+      executeDdl(connection, "AUTHORS", "DROP TABLE LIBRARY.AUTHORS");
+    }
+
+    final Catalog catalog =
+        incrementalCrawl(dataSource, previousCatalog, LOGGED_OBJECT_CHANGES_SQL);
+    final Catalog ddlFullCatalog =
+        new SchemaCrawler(
+                dataSource,
+                newSchemaRetrievalOptions(),
+                schemaCrawlerOptionsWithMaximumSchemaInfoLevel)
+            .crawl();
+
+    assertSameAsFullCrawl(catalog, ddlFullCatalog);
+    assertThat(
+        reusedTableNames(catalog),
+        containsInAnyOrder("PUBLIC.DDL_LOG.OBJECT_CHANGES", "PUBLIC.LIBRARY.PUBLISHERS"));
+    final SchemaReference library = new SchemaReference("PUBLIC", "LIBRARY");
+    assertThat(catalog.lookupTable(library, "AUTHORS").isPresent(), is(false));
+    assertThat(columnNames(catalog.lookupTable(library, "BOOKS").get()), hasItem("PRICE"));
+    // The reused table is linked to the changed table that references it
+    for (final ForeignKey foreignKey :
+        catalog.lookupTable(library, "PUBLISHERS").get().getExportedForeignKeys()) {
+      assertInCatalog(catalog, foreignKey.getForeignKeyTable());
+    }
+  }
+
+  @Test
+  public void incrementalCrawlWithMissingObjects(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final Catalog previousCatalog = markedPreviousCatalog(dataSource);
+
+    final Catalog catalog =
+        incrementalCrawl(
+            dataSource,
+            previousCatalog,
+            "TIMESTAMP '2000-01-01 00:00:00'",
+            "WHERE TABLE_NAME <> 'AUTHORS'");
+
+    assertSameAsFullCrawl(catalog);
+    // Tables that the query does not know about are retrieved again
+    final List<String> retrievedTableNames = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      if (!table.hasAttribute(REUSED)) {
+        retrievedTableNames.add(table.getName());
+      }
+    }
+    assertThat(retrievedTableNames, is(not(empty())));
+    for (final String tableName : retrievedTableNames) {
+      assertThat(tableName, is("AUTHORS"));
+    }
+  }
+
+  @BeforeAll
+  public void loadFullCatalog(final DatabaseConnectionSource dataSource) throws Exception {
+    fullCatalog =
+        new SchemaCrawler(
+                dataSource,
+                newSchemaRetrievalOptions(),
+                schemaCrawlerOptionsWithMaximumSchemaInfoLevel)
+            .crawl();
+  }
+
+  private void assertSameAsFullCrawl(final Catalog catalog) {
+    assertSameAsFullCrawl(catalog, fullCatalog);
+  }
+
+  private void assertSameAsFullCrawl(final Catalog catalog, final Catalog fullCatalog) {
+    assertThat(tableNames(catalog), containsInAnyOrder(tableNames(fullCatalog).toArray()));
+    assertThat(catalog.getRoutines().size(), is(fullCatalog.getRoutines().size()));
+    assertThat(catalog.getSequences().size(), is(fullCatalog.getSequences().size()));
+
+    for (final Table table : catalog.getTables()) {
+      final Table fullTable = fullCatalog.lookupTable(table.getSchema(), table.getName()).get();
+      assertThat(table.getFullName(), columnNames(table), is(columnNames(fullTable)));
+      assertThat(
+          table.getFullName(),
+          foreignKeyNames(table),
+          containsInAnyOrder(foreignKeyNames(fullTable).toArray()));
+      assertThat(
+          table.getFullName(),
+          tableConstraintNames(table),
+          containsInAnyOrder(tableConstraintNames(fullTable).toArray()));
+
+      // Foreign keys and columns reference tables in the same catalog
+      for (final ForeignKey foreignKey : table.getForeignKeys()) {
+        assertInCatalog(catalog, foreignKey.getForeignKeyTable());
+        assertInCatalog(catalog, foreignKey.getPrimaryKeyTable());
+      }
+      for (final Column column : table.getColumns()) {
+        if (column.isPartOfForeignKey()) {
+          assertInCatalog(catalog, column.getReferencedColumn().getParent());
+        }
+        assertThat(
+            column.getFullName(),
+            column.isPartOfForeignKey(),
+            is(fullTable.lookupColumn(column.getName()).get().isPartOfForeignKey()));
+      }
+    }
+  }
+
+  private void assertInCatalog(final Catalog catalog, final Table table) {
+    if (table instanceof PartialDatabaseObject) {
+      assertThat(
+          table.getFullName(),
+          catalog.lookupTable(table.getSchema(), table.getName()).isPresent(),
+          is(false));
+    } else {
+      assertThat(
+          table.getFullName(),
+          catalog.lookupTable(table.getSchema(), table.getName()).get(),
+          is(sameInstance(table)));
+    }
+  }
+
+  private List<String> columnNames(final Table table) {
+    final List<String> columnNames = new ArrayList<>();
+    for (final Column column : table.getColumns()) {
+      columnNames.add(column.getName());
+    }
+    return columnNames;
+  }
+
+  /** Runs DDL statements for a table, and logs the change as a database catalog would. */
+  private void executeDdl(
+      final Connection connection, final String tableName, final String... ddlStatements)
+      throws Exception {
+    try (final Statement statement = connection.createStatement()) {
+      for (final String ddlStatement : ddlStatements) {
+        statement.execute(ddlStatement);
+      }
+    }
+    try (final PreparedStatement statement =
+        connection.prepareStatement(
+            "MERGE INTO DDL_LOG.OBJECT_CHANGES USING (VALUES (?, ?)) AS CHANGE (NAME, CHANGED) "
+                + "ON OBJECT_SCHEMA = 'LIBRARY' AND OBJECT_NAME = CHANGE.NAME "
+                + "WHEN MATCHED THEN UPDATE SET LAST_CHANGED = CHANGE.CHANGED "
+                + "WHEN NOT MATCHED THEN INSERT VALUES ('LIBRARY', CHANGE.NAME, CHANGE.CHANGED)")) {
+      statement.setString(1, tableName);
+      statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC)));
+      statement.executeUpdate();
+    }
+  }
+
+  private List<String> foreignKeyNames(final Table table) {
+    final List<String> foreignKeyNames = new ArrayList<>();
+    for (final ForeignKey foreignKey : table.getForeignKeys()) {
+      foreignKeyNames.add(foreignKey.getFullName());
+    }
+    return foreignKeyNames;
+  }
+
+  private Catalog incrementalCrawl(
+      final DatabaseConnectionSource dataSource,
+      final Catalog previousCatalog,
+      final String tableLastChanged,
+      final String tablesWhereClause)
+      throws Exception {
+    final String objectChangesSql =
+        "SELECT TABLE_CATALOG AS OBJECT_CATALOG, TABLE_SCHEMA AS OBJECT_SCHEMA, "
+            + "TABLE_NAME AS OBJECT_NAME, "
+            + "CASE WHEN TABLE_TYPE = 'VIEW' THEN 'VIEW' ELSE 'TABLE' END AS OBJECT_TYPE, "
+            + tableLastChanged
+            + " AS LAST_CHANGED FROM INFORMATION_SCHEMA.TABLES "
+            + tablesWhereClause
+            + " UNION ALL "
+            + "SELECT ROUTINE_CATALOG, ROUTINE_SCHEMA, ROUTINE_NAME, 'ROUTINE', "
+            + "TIMESTAMP '2000-01-01 00:00:00' FROM INFORMATION_SCHEMA.ROUTINES "
+            + "UNION ALL "
+            + "SELECT SEQUENCE_CATALOG, SEQUENCE_SCHEMA, SEQUENCE_NAME, 'SEQUENCE', "
+            + "TIMESTAMP '2000-01-01 00:00:00' FROM INFORMATION_SCHEMA.SEQUENCES";
+    return incrementalCrawl(dataSource, previousCatalog, objectChangesSql);
+  }
+
+  private Catalog incrementalCrawl(
+      final DatabaseConnectionSource dataSource,
+      final Catalog previousCatalog,
+      final String objectChangesSql)
+      throws Exception {
+    final SchemaRetrievalOptions schemaRetrievalOptions = newSchemaRetrievalOptions();
+    final SchemaRetrievalOptions incrementalSchemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder(schemaRetrievalOptions)
+            .withInformationSchemaViews(
+                InformationSchemaViewsBuilder.builder(
+                        schemaRetrievalOptions.getInformationSchemaViews())
+                    .withSql(EXT_OBJECT_CHANGES, objectChangesSql)
+                    .toOptions())
+            .toOptions();
+
+    return new SchemaCrawler(
+            dataSource,
+            incrementalSchemaRetrievalOptions,
+            schemaCrawlerOptionsWithMaximumSchemaInfoLevel)
+        .crawl(previousCatalog);
+  }
+
+  /** Marks database objects in the previous catalog, to find the ones that are reused. */
+  private Catalog markedPreviousCatalog(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final Catalog previousCatalog =
+        new SchemaCrawler(
+                dataSource,
+                newSchemaRetrievalOptions(),
+                schemaCrawlerOptionsWithMaximumSchemaInfoLevel)
+            .crawl();
+    for (final Table table : previousCatalog.getTables()) {
+      table.setAttribute(REUSED, true);
+    }
+    for (final Routine routine : previousCatalog.getRoutines()) {
+      routine.setAttribute(REUSED, true);
+    }
+    for (final Sequence sequence : previousCatalog.getSequences()) {
+      sequence.setAttribute(REUSED, true);
+    }
+    return previousCatalog;
+  }
+
+  private List<String> reusedTableNames(final Catalog catalog) {
+    final List<String> tableNames = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      if (table.hasAttribute(REUSED)) {
+        tableNames.add(table.getFullName());
+      }
+    }
+    return tableNames;
+  }
+
+  private List<String> tableConstraintNames(final Table table) {
+    final List<String> tableConstraintNames = new ArrayList<>();
+    for (final TableConstraint tableConstraint : table.getTableConstraints()) {
+      tableConstraintNames.add(tableConstraint.getFullName());
+    }
+    return tableConstraintNames;
+  }
+
+  private List<String> tableNames(final Catalog catalog) {
+    final List<String> tableNames = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      tableNames.add(table.getFullName());
+    }
+    return tableNames;
+  }
+}
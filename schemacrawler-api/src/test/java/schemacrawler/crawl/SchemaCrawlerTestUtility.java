@@ -0,0 +1,112 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.crawl;
+
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Routine;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+/** Creates crawlers, and summarizes crawled catalogs, for tests that compare catalogs. */
+final class SchemaCrawlerTestUtility {
+
+  static SchemaCrawler newSchemaCrawler(
+      final DatabaseConnectionSource dataSource, final LoadOptions loadOptions) {
+    final SchemaCrawlerOptions options =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions().withLoadOptions(loadOptions);
+    return new SchemaCrawler(dataSource, schemaRetrievalOptionsDefault, options);
+  }
+
+  static SchemaCrawler newSchemaCrawler(
+      final DatabaseConnectionSource dataSource, final SchemaInfoLevel schemaInfoLevel) {
+    return newSchemaCrawler(
+        dataSource, LoadOptionsBuilder.builder().withSchemaInfoLevel(schemaInfoLevel).toOptions());
+  }
+
+  /** Summarizes the database objects in the catalog, in the order in which they are read. */
+  static List<String> summarizeCatalog(final Catalog catalog) {
+    final List<String> summary = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      summary.add(
+          String.format(
+              "%s %s %s %s %s %s %s %s",
+              table.getFullName(),
+              table.getColumns(),
+              table.getHiddenColumns(),
+              table.getForeignKeys(),
+              table.getIndexes(),
+              table.getTableConstraints(),
+              table.getPrivileges(),
+              table.getTriggers()));
+    }
+    for (final Routine routine : catalog.getRoutines()) {
+      summary.add(routine.getFullName() + " " + routine.getParameters());
+    }
+    summary.add(String.valueOf(catalog.getColumnDataTypes()));
+    summary.add(String.valueOf(catalog.getSchemas()));
+    summary.add(String.valueOf(catalog.getSequences()));
+    summary.add(String.valueOf(catalog.getSynonyms()));
+    return summary;
+  }
+
+  /** Summarizes table details that are only retrieved at the maximum info level. */
+  static String summarizeTable(final Table table) {
+    return String.format(
+        "%d columns, %d privileges, %d constraints, definition: %s",
+        table.getColumns().size(),
+        table.getPrivileges().size(),
+        table.getTableConstraints().size(),
+        table.getDefinition());
+  }
+
+  /** Summarizes each table in the catalog, by full name. */
+  static Map<String, String> summarizeTables(final Catalog catalog) {
+    final Map<String, String> summary = new HashMap<>();
+    for (final Table table : catalog.getTables()) {
+      summary.put(table.getFullName(), summarizeTable(table));
+    }
+    return summary;
+  }
+
+  private SchemaCrawlerTestUtility() {
+    // Prevent instantiation
+  }
+}
@@ -30,11 +30,17 @@ package schemacrawler.crawl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.oneOf;
 import static org.hamcrest.Matchers.nullValue;
 import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata_per_schema;
 import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
 import static schemacrawler.test.utility.DatabaseTestUtility.getCatalog;
 import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
@@ -43,8 +49,11 @@ import static schemacrawler.test.utility.FileHasContent.hasSameContentAs;
 import static schemacrawler.test.utility.FileHasContent.outputOf;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -54,8 +63,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import schemacrawler.inclusionrule.ExcludeAll;
 import schemacrawler.inclusionrule.IncludeAll;
 import schemacrawler.inclusionrule.RegularExpressionExclusionRule;
+import schemacrawler.inclusionrule.RegularExpressionInclusionRule;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.Column;
 import schemacrawler.schema.Schema;
@@ -66,9 +77,11 @@ import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
 import schemacrawler.schemacrawler.LimitOptionsBuilder;
 import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.Query;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
 import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaReference;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
 import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
 import schemacrawler.test.utility.ResolveTestContext;
@@ -210,6 +223,89 @@ public class TableColumnRetrieverTest {
     }
   }
 
+  @Test
+  @DisplayName("Retrieve only included table column attributes")
+  public void tableColumnAttributes(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            dataSource,
+            SchemaRetrievalOptionsBuilder.builder()
+                .with(tableColumnsRetrievalStrategy, metadata)
+                .toOptions());
+
+    loadBaseCatalog(connection);
+    final SchemaCrawlerOptions noAttributesOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withAttributesInclusionRule(new ExcludeAll())
+                    .toOptions());
+    new TableColumnRetriever(retrieverConnection, catalog, noAttributesOptions)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    int columnCount = 0;
+    for (final Table table : catalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        columnCount = columnCount + 1;
+        // Remarks are always kept as an attribute
+        assertThat(column.getAttributes().keySet(), contains("REMARKS"));
+      }
+    }
+    assertThat(columnCount, is(55));
+
+    loadBaseCatalog(connection);
+    final SchemaCrawlerOptions someAttributesOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withAttributesInclusionRule(
+                        new RegularExpressionInclusionRule("IS_NULLABLE|SOURCE_DATA_TYPE"))
+                    .toOptions());
+    new TableColumnRetriever(retrieverConnection, catalog, someAttributesOptions)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    for (final Table table : catalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        assertThat(column.getAttributes().keySet(), hasItem("IS_NULLABLE"));
+        assertThat(
+            column.getAttributes().keySet(),
+            everyItem(oneOf("IS_NULLABLE", "REMARKS", "SOURCE_DATA_TYPE")));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Retrieve table columns from metadata, for each schema")
+  public void tableColumnsFromMetadataForSchemas(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    // Retrieve table columns one table at a time, for comparison
+    loadBaseCatalog(connection);
+    final RetrieverConnection metadataRetrieverConnection =
+        new RetrieverConnection(
+            dataSource,
+            SchemaRetrievalOptionsBuilder.builder()
+                .with(tableColumnsRetrievalStrategy, metadata)
+                .toOptions());
+    new TableColumnRetriever(metadataRetrieverConnection, catalog, options)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    final List<String> expectedColumns = describeColumns(catalog);
+
+    loadBaseCatalog(connection);
+    final RetrieverConnection retrieverConnection =
+        new RetrieverConnection(
+            dataSource,
+            SchemaRetrievalOptionsBuilder.builder()
+                .with(tableColumnsRetrievalStrategy, metadata_per_schema)
+                .toOptions());
+    new TableColumnRetriever(retrieverConnection, catalog, options)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    final List<String> columns = describeColumns(catalog);
+
+    assertThat(columns, hasSize(55));
+    assertThat(columns, is(expectedColumns));
+  }
+
   @Test
   @DisplayName("Retrieve table columns from data dictionary")
   public void tableColumnsFromDataDictionary(final DatabaseConnectionSource dataSource)
@@ -245,4 +341,126 @@ public class TableColumnRetrieverTest {
 
     verifyRetrieveTableColumns(catalog);
   }
+
+  @Test
+  @DisplayName("Partition data dictionary queries by catalog and schema, with escaped names")
+  public void partitionQueryBySchema(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    loadBaseCatalog(connection);
+    final int schemaCount = catalog.getAllSchemas().size();
+    catalog.addSchema(new SchemaReference("PUBLIC", "O'BRIEN"));
+    catalog.addSchema(new SchemaReference("OTHER_CATALOG", "BOOKS"));
+
+    final TableColumnRetriever retriever =
+        new TableColumnRetriever(
+            new RetrieverConnection(dataSource, schemaRetrievalOptionsDefault),
+            catalog,
+            SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+
+    // Schemas with the same name in different catalogs are only run once
+    final List<String> schemaQueries = partitionQueries(retriever, "SELECT '${partition}'");
+    assertThat(schemaQueries, hasSize(schemaCount + 1));
+    assertThat(schemaQueries, hasItem("SELECT 'O''BRIEN'"));
+
+    final List<String> catalogSchemaQueries =
+        partitionQueries(retriever, "SELECT '${partitioncatalog}', '${partitionschema}'");
+    assertThat(catalogSchemaQueries, hasSize(schemaCount + 2));
+    assertThat(catalogSchemaQueries, hasItem("SELECT 'PUBLIC', 'BOOKS'"));
+    assertThat(catalogSchemaQueries, hasItem("SELECT 'OTHER_CATALOG', 'BOOKS'"));
+  }
+
+  @Test
+  @DisplayName("Retrieve table columns from data dictionary, partitioned by a hash")
+  public void tableColumnsFromDataDictionaryPartitionedByHash(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    retrieveTableColumnsFromPartitionedDataDictionary(
+        connection,
+        dataSource,
+        "WHERE MOD(CHARACTER_LENGTH(COLUMNS.TABLE_NAME), ${partitions}) = ${partition}");
+  }
+
+  @Test
+  @DisplayName("Retrieve table columns from data dictionary, partitioned by schema")
+  public void tableColumnsFromDataDictionaryPartitionedBySchema(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    retrieveTableColumnsFromPartitionedDataDictionary(
+        connection, dataSource, "WHERE COLUMNS.TABLE_SCHEM = '${partition}'");
+  }
+
+  @Test
+  @DisplayName("Retrieve table columns from data dictionary, partitioned by catalog and schema")
+  public void tableColumnsFromDataDictionaryPartitionedByCatalogAndSchema(
+      final Connection connection, final DatabaseConnectionSource dataSource) throws Exception {
+    retrieveTableColumnsFromPartitionedDataDictionary(
+        connection,
+        dataSource,
+        "WHERE COLUMNS.TABLE_CAT = '${partitioncatalog}' "
+            + "AND COLUMNS.TABLE_SCHEM = '${partitionschema}'");
+  }
+
+  private RetrieverConnection dataDictionaryRetrieverConnection(
+      final DatabaseConnectionSource dataSource, final String tableColumnsSql) throws Exception {
+    final InformationSchemaViews informationSchemaViews =
+        InformationSchemaViewsBuilder.builder()
+            .withSql(InformationSchemaKey.TABLE_COLUMNS, tableColumnsSql)
+            .toOptions();
+    return new RetrieverConnection(
+        dataSource,
+        SchemaRetrievalOptionsBuilder.builder()
+            .with(tableColumnsRetrievalStrategy, data_dictionary_all)
+            .withInformationSchemaViews(informationSchemaViews)
+            .toOptions());
+  }
+
+  private List<String> describeColumns(final Catalog catalog) {
+    final List<String> columns = new ArrayList<>();
+    for (final Table table : catalog.getTables()) {
+      for (final Column column : table.getColumns()) {
+        columns.add(
+            String.format(
+                "%s %s %d %s",
+                column.getFullName(),
+                column.getColumnDataType(),
+                column.getOrdinalPosition(),
+                new TreeMap<>(column.getAttributes())));
+      }
+    }
+    Collections.sort(columns);
+    return columns;
+  }
+
+  private List<String> partitionQueries(final TableColumnRetriever retriever, final String sql) {
+    final List<String> partitionQueries = new ArrayList<>();
+    for (final Query query : retriever.partitionQuery(new Query("partitioned", sql))) {
+      partitionQueries.add(query.getQuery());
+    }
+    return partitionQueries;
+  }
+
+  private void retrieveTableColumnsFromPartitionedDataDictionary(
+      final Connection connection,
+      final DatabaseConnectionSource dataSource,
+      final String partitionClause)
+      throws Exception {
+    final SchemaCrawlerOptions options = SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+    final String tableColumnsSql = IOUtility.readResourceFully("/TABLE_COLUMNS.sql");
+
+    // Retrieve table columns with a single query, for comparison
+    loadBaseCatalog(connection);
+    new TableColumnRetriever(
+            dataDictionaryRetrieverConnection(dataSource, tableColumnsSql), catalog, options)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    final List<String> expectedColumns = describeColumns(catalog);
+
+    loadBaseCatalog(connection);
+    new TableColumnRetriever(
+            dataDictionaryRetrieverConnection(dataSource, tableColumnsSql + partitionClause),
+            catalog,
+            options)
+        .retrieveTableColumns(catalog.getAllTables(), new IncludeAll());
+    final List<String> columns = describeColumns(catalog);
+
+    assertThat(columns, hasSize(55));
+    assertThat(columns, is(expectedColumns));
+  }
 }
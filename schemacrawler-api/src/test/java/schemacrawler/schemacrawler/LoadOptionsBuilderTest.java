@@ -28,15 +28,117 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.schemacrawler;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveIndexes;
+import static schemacrawler.schemacrawler.SchemaInfoRetrieval.retrieveTables;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 
+import schemacrawler.inclusionrule.IncludeAll;
+import schemacrawler.inclusionrule.InclusionRule;
+import schemacrawler.inclusionrule.RegularExpressionInclusionRule;
 import us.fatehi.utility.scheduler.TaskRunner;
 
 public class LoadOptionsBuilderTest {
 
+  @Test
+  public void attributes() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Default
+    assertThat(
+        loadOptionsBuilder.toOptions().getAttributesInclusionRule(), instanceOf(IncludeAll.class));
+
+    final InclusionRule attributesInclusionRule = new RegularExpressionInclusionRule("IS_.*");
+    loadOptionsBuilder.withAttributesInclusionRule(attributesInclusionRule);
+    assertThat(
+        loadOptionsBuilder.toOptions().getAttributesInclusionRule(), is(attributesInclusionRule));
+    assertThat(
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptionsBuilder.toOptions())
+            .toOptions()
+            .getAttributesInclusionRule(),
+        is(attributesInclusionRule));
+
+    loadOptionsBuilder.withAttributesInclusionRule(null);
+    assertThat(
+        loadOptionsBuilder.toOptions().getAttributesInclusionRule(), instanceOf(IncludeAll.class));
+  }
+
+  @Test
+  public void backgroundEnrichment() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Default
+    assertThat(loadOptionsBuilder.toOptions().isBackgroundEnrichment(), is(false));
+
+    loadOptionsBuilder.withBackgroundEnrichment(true);
+    assertThat(loadOptionsBuilder.toOptions().isBackgroundEnrichment(), is(true));
+    assertThat(
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptionsBuilder.toOptions())
+            .toOptions()
+            .isBackgroundEnrichment(),
+        is(true));
+
+    loadOptionsBuilder.withBackgroundEnrichment(false);
+    assertThat(loadOptionsBuilder.toOptions().isBackgroundEnrichment(), is(false));
+  }
+
+  @Test
+  public void cacheDirectory() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Default
+    assertThat(loadOptionsBuilder.toOptions().getCacheDirectory(), is(Optional.empty()));
+
+    final Path cacheDirectory = Paths.get("catalog-cache");
+    loadOptionsBuilder.withCacheDirectory(cacheDirectory);
+    assertThat(loadOptionsBuilder.toOptions().getCacheDirectory(), is(Optional.of(cacheDirectory)));
+    assertThat(
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptionsBuilder.toOptions())
+            .toOptions()
+            .getCacheDirectory(),
+        is(Optional.of(cacheDirectory)));
+
+    loadOptionsBuilder.withCacheDirectory(null);
+    assertThat(loadOptionsBuilder.toOptions().getCacheDirectory(), is(Optional.empty()));
+  }
+
+  @Test
+  public void crawlListener() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Default
+    final CrawlListener defaultCrawlListener = loadOptionsBuilder.toOptions().getCrawlListener();
+    assertThat(defaultCrawlListener, is(notNullValue()));
+
+    final CrawlListener crawlListener = new CrawlListener() {};
+    loadOptionsBuilder.withCrawlListener(crawlListener);
+    assertThat(loadOptionsBuilder.toOptions().getCrawlListener(), is(crawlListener));
+    assertThat(
+        LoadOptionsBuilder.builder()
+            .fromOptions(loadOptionsBuilder.toOptions())
+            .toOptions()
+            .getCrawlListener(),
+        is(crawlListener));
+
+    loadOptionsBuilder.withCrawlListener(null);
+    assertThat(loadOptionsBuilder.toOptions().getCrawlListener(), is(defaultCrawlListener));
+    assertThat(loadOptionsBuilder.toOptions().getCrawlListener(), is(not(crawlListener)));
+  }
+
   @Test
   public void maxThreads() {
     final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
@@ -65,4 +167,76 @@ public class LoadOptionsBuilderTest {
     loadOptionsBuilder.withMaxThreads(Integer.MAX_VALUE);
     assertThat(loadOptionsBuilder.toOptions().getMaxThreads(), is(TaskRunner.MAX_THREADS));
   }
+
+  @Test
+  public void timeouts() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Defaults
+    LoadOptions loadOptions = loadOptionsBuilder.toOptions();
+    assertThat(loadOptions.getCrawlTimeout(), is(TaskRunner.DEFAULT_TIMEOUT));
+    assertThat(loadOptions.getQueryTimeout(), is(Duration.ZERO));
+    assertThat(loadOptions.getQueryTimeout(retrieveIndexes), is(Duration.ZERO));
+
+    loadOptionsBuilder
+        .withCrawlTimeout(Duration.ofMinutes(5))
+        .withQueryTimeout(Duration.ofSeconds(30))
+        .withQueryTimeout(retrieveIndexes, Duration.ofSeconds(10));
+    loadOptions = loadOptionsBuilder.toOptions();
+    assertThat(loadOptions.getCrawlTimeout(), is(Duration.ofMinutes(5)));
+    assertThat(loadOptions.getQueryTimeout(), is(Duration.ofSeconds(30)));
+    assertThat(loadOptions.getQueryTimeout(retrieveIndexes), is(Duration.ofSeconds(10)));
+    assertThat(loadOptions.getQueryTimeout(retrieveTables), is(Duration.ofSeconds(30)));
+
+    // Copy
+    loadOptions = LoadOptionsBuilder.builder().fromOptions(loadOptions).toOptions();
+    assertThat(loadOptions.getCrawlTimeout(), is(Duration.ofMinutes(5)));
+    assertThat(loadOptions.getQueryTimeout(retrieveIndexes), is(Duration.ofSeconds(10)));
+    assertThat(loadOptions.getQueryTimeout(retrieveTables), is(Duration.ofSeconds(30)));
+
+    // Reset
+    loadOptionsBuilder
+        .withCrawlTimeout(null)
+        .withQueryTimeout(null)
+        .withQueryTimeout(retrieveIndexes, null);
+    loadOptions = loadOptionsBuilder.toOptions();
+    assertThat(loadOptions.getCrawlTimeout(), is(TaskRunner.DEFAULT_TIMEOUT));
+    assertThat(loadOptions.getQueryTimeout(retrieveIndexes), is(Duration.ZERO));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> loadOptionsBuilder.withCrawlTimeout(Duration.ZERO));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> loadOptionsBuilder.withQueryTimeout(Duration.ofSeconds(-1)));
+  }
+
+  @Test
+  public void resilience() {
+    final LoadOptionsBuilder loadOptionsBuilder = LoadOptionsBuilder.builder();
+
+    // Defaults
+    LoadOptions loadOptions = loadOptionsBuilder.toOptions();
+    assertThat(loadOptions.getMaxRetries(), is(0));
+    assertThat(loadOptions.getRetryBackoff(), is(Duration.ofSeconds(1)));
+    assertThat(loadOptions.isBestEffort(), is(false));
+
+    loadOptionsBuilder
+        .withMaxRetries(3)
+        .withRetryBackoff(Duration.ofMillis(250))
+        .withBestEffort(true);
+    loadOptions =
+        LoadOptionsBuilder.builder().fromOptions(loadOptionsBuilder.toOptions()).toOptions();
+    assertThat(loadOptions.getMaxRetries(), is(3));
+    assertThat(loadOptions.getRetryBackoff(), is(Duration.ofMillis(250)));
+    assertThat(loadOptions.isBestEffort(), is(true));
+
+    loadOptionsBuilder.withMaxRetries(-1).withRetryBackoff(null);
+    loadOptions = loadOptionsBuilder.toOptions();
+    assertThat(loadOptions.getMaxRetries(), is(0));
+    assertThat(loadOptions.getRetryBackoff(), is(Duration.ofSeconds(1)));
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> loadOptionsBuilder.withRetryBackoff(Duration.ofSeconds(-1)));
+  }
 }
@@ -0,0 +1,136 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.schemacrawler;
+
+import static com.github.npathai.hamcrestopt.OptionalMatchers.isEmpty;
+import static com.github.npathai.hamcrestopt.OptionalMatchers.isPresentAndIs;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.data_dictionary_all;
+import static schemacrawler.schemacrawler.MetadataRetrievalStrategy.metadata;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.indexesRetrievalStrategy;
+import static schemacrawler.schemacrawler.SchemaInfoMetadataRetrievalStrategy.tableColumnsRetrievalStrategy;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MetadataRetrievalStrategyProfilesTest {
+
+  private static final String URL = "jdbc:test://localhost/database";
+
+  @Test
+  public void adaptiveMetadataRetrievalStrategy(@TempDir final Path profilesDirectory)
+      throws Exception {
+    final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> strategies =
+        new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    strategies.put(tableColumnsRetrievalStrategy, data_dictionary_all);
+    MetadataRetrievalStrategyProfiles.saveProfile(profilesDirectory, URL, strategies);
+    final Map<InformationSchemaKey, Long> rowCounts = new EnumMap<>(InformationSchemaKey.class);
+    rowCounts.put(InformationSchemaKey.TABLE_COLUMNS, 2_000_000L);
+    MetadataRetrievalStrategyProfiles.saveRowCounts(profilesDirectory, URL, rowCounts);
+
+    final DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+    when(databaseMetaData.getURL()).thenReturn(URL);
+    final Connection connection = mock(Connection.class);
+    when(connection.getMetaData()).thenReturn(databaseMetaData);
+
+    final SchemaRetrievalOptions options =
+        SchemaRetrievalOptionsBuilder.builder()
+            .withAdaptiveMetadataRetrievalStrategy(profilesDirectory)
+            .fromConnnection(connection)
+            .toOptions();
+
+    assertThat(options.isMetadataRetrievalStrategyProfileLoaded(), is(true));
+    assertThat(options.get(tableColumnsRetrievalStrategy), is(data_dictionary_all));
+    assertThat(options.get(indexesRetrievalStrategy), is(metadata));
+    assertThat(options.getMetadataRetrievalStrategyProfilesDirectory().isPresent(), is(true));
+    assertThat(options.getExpectedRowCount(InformationSchemaKey.TABLE_COLUMNS), is(2_000_000L));
+    assertThat(options.getExpectedRowCount(InformationSchemaKey.INDEXES), is(0L));
+  }
+
+  @Test
+  public void saveAndLoadProfile(@TempDir final Path profilesDirectory) throws Exception {
+    assertThat(MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, URL), isEmpty());
+    assertThat(MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, null), isEmpty());
+
+    final Map<SchemaInfoMetadataRetrievalStrategy, MetadataRetrievalStrategy> strategies =
+        new EnumMap<>(SchemaInfoMetadataRetrievalStrategy.class);
+    strategies.put(tableColumnsRetrievalStrategy, data_dictionary_all);
+    strategies.put(indexesRetrievalStrategy, metadata);
+    MetadataRetrievalStrategyProfiles.saveProfile(profilesDirectory, URL, strategies);
+
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, URL),
+        isPresentAndIs(strategies));
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, URL + "_other"),
+        isEmpty());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MetadataRetrievalStrategyProfiles.saveProfile(profilesDirectory, "", strategies));
+  }
+
+  @Test
+  public void saveAndLoadRowCounts(@TempDir final Path profilesDirectory) throws Exception {
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadRowCounts(profilesDirectory, URL).isEmpty(),
+        is(true));
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadRowCounts(profilesDirectory, null).isEmpty(),
+        is(true));
+
+    final Map<InformationSchemaKey, Long> rowCounts = new EnumMap<>(InformationSchemaKey.class);
+    rowCounts.put(InformationSchemaKey.TABLE_COLUMNS, 2_000_000L);
+    rowCounts.put(InformationSchemaKey.INDEXES, 500L);
+    MetadataRetrievalStrategyProfiles.saveRowCounts(profilesDirectory, URL, rowCounts);
+
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadRowCounts(profilesDirectory, URL), is(rowCounts));
+    assertThat(
+        MetadataRetrievalStrategyProfiles.loadRowCounts(profilesDirectory, URL + "_other")
+            .isEmpty(),
+        is(true));
+    // Row counts are saved separately from metadata retrieval strategies
+    assertThat(MetadataRetrievalStrategyProfiles.loadProfile(profilesDirectory, URL), isEmpty());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MetadataRetrievalStrategyProfiles.saveRowCounts(profilesDirectory, "", rowCounts));
+  }
+}
@@ -209,6 +209,42 @@ public class SchemaRetrievalOptionsBuilderTest {
         is(EnumDataTypeInfo.EnumDataTypeTypes.not_enumerated));
   }
 
+  @Test
+  public void fetchSizes() {
+    final SchemaRetrievalOptionsBuilder builder = SchemaRetrievalOptionsBuilder.builder();
+
+    // Defaults
+    SchemaRetrievalOptions options = builder.toOptions();
+    assertThat(options.getFetchSize(InformationSchemaKey.TABLE_COLUMNS), is(0));
+    assertThat(options.getExpectedRowCount(InformationSchemaKey.TABLE_COLUMNS), is(0L));
+    assertThat(
+        options.getFetchSizeMemoryLimit(),
+        is(SchemaRetrievalOptionsBuilder.DEFAULT_FETCH_SIZE_MEMORY_LIMIT));
+
+    builder
+        .withFetchSize(InformationSchemaKey.TABLE_COLUMNS, 1_000)
+        .withFetchSize(null, 1_000)
+        .withExpectedRowCount(InformationSchemaKey.INDEXES, 50_000)
+        .withExpectedRowCount(null, 50_000)
+        .withFetchSizeMemoryLimit(1024);
+    options = SchemaRetrievalOptionsBuilder.builder(builder.toOptions()).toOptions();
+    assertThat(options.getFetchSize(InformationSchemaKey.TABLE_COLUMNS), is(1_000));
+    assertThat(options.getFetchSize(InformationSchemaKey.INDEXES), is(0));
+    assertThat(options.getExpectedRowCount(InformationSchemaKey.INDEXES), is(50_000L));
+    assertThat(options.getFetchSizeMemoryLimit(), is(1024L));
+
+    // Reset
+    builder
+        .withFetchSize(InformationSchemaKey.TABLE_COLUMNS, 0)
+        .withExpectedRowCount(InformationSchemaKey.INDEXES, -1);
+    options = builder.toOptions();
+    assertThat(options.getFetchSize(InformationSchemaKey.TABLE_COLUMNS), is(0));
+    assertThat(options.getExpectedRowCount(InformationSchemaKey.INDEXES), is(0L));
+
+    assertThrows(IllegalArgumentException.class, () -> builder.withFetchSizeMemoryLimit(0));
+    assertThrows(NullPointerException.class, () -> builder.toOptions().getFetchSize(null));
+  }
+
   @Test
   public void fromOptions() {
     final SchemaRetrievalOptions options =
@@ -351,6 +387,20 @@ public class SchemaRetrievalOptionsBuilderTest {
     assertThat(builder.overridesSupportsSchemas, isPresentAndIs(false));
   }
 
+  @Test
+  public void sharedMetadataStrings() {
+    final SchemaRetrievalOptionsBuilder builder = SchemaRetrievalOptionsBuilder.builder();
+    assertThat(builder.toOptions().isSharedMetadataStrings(), is(false));
+
+    builder.withSharedMetadataStrings();
+    final SchemaRetrievalOptions options =
+        SchemaRetrievalOptionsBuilder.builder(builder.toOptions()).toOptions();
+    assertThat(options.isSharedMetadataStrings(), is(true));
+
+    builder.withoutSharedMetadataStrings();
+    assertThat(builder.toOptions().isSharedMetadataStrings(), is(false));
+  }
+
   @Test
   public void toOptions() {
     final SchemaRetrievalOptionsBuilder builder = SchemaRetrievalOptionsBuilder.builder();
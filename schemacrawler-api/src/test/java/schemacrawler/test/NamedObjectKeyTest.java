@@ -0,0 +1,104 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.NamedObjectKey;
+
+public class NamedObjectKeyTest {
+
+  @Test
+  public void emptyKey() {
+    final NamedObjectKey key = new NamedObjectKey();
+    assertThat(key, is(new NamedObjectKey((String[]) null)));
+    assertThat(key.hashCode(), is(Arrays.hashCode(new String[0])));
+    assertThat(key.slug(), is(""));
+    assertThat(key.toString(), is("{\"key\": \"\"}"));
+    assertThat(key.with("TABLE"), is(new NamedObjectKey("TABLE")));
+  }
+
+  @Test
+  public void keys() {
+    final NamedObjectKey schemaKey = new NamedObjectKey("CATALOG", "SCHEMA");
+    final NamedObjectKey tableKey = schemaKey.with("TABLE");
+    final NamedObjectKey columnKey = tableKey.with("COLUMN");
+
+    assertThat(tableKey, is(new NamedObjectKey("CATALOG", "SCHEMA", "TABLE")));
+    assertThat(columnKey, is(new NamedObjectKey("CATALOG", "SCHEMA", "TABLE", "COLUMN")));
+    assertThat(columnKey, is(tableKey.with("COLUMN")));
+    assertThat(columnKey, is(not(tableKey.with("OTHER_COLUMN"))));
+    assertThat(
+        columnKey, is(not(new NamedObjectKey("CATALOG", "OTHER_SCHEMA", "TABLE", "COLUMN"))));
+    assertThat(tableKey, is(not(columnKey)));
+    assertThat(tableKey, is(not(new NamedObjectKey("SCHEMA", "TABLE"))));
+
+    // Hash codes are the same as for an array of the names
+    assertThat(
+        columnKey.hashCode(),
+        is(Arrays.hashCode(new String[] {"CATALOG", "SCHEMA", "TABLE", "COLUMN"})));
+    assertThat(columnKey.toString(), is("{\"key\": \"CATALOG/SCHEMA/TABLE/COLUMN\"}"));
+  }
+
+  @Test
+  public void nullNames() {
+    final NamedObjectKey key = new NamedObjectKey(null, null, "TABLE");
+    assertThat(key, is(new NamedObjectKey(null, null).with("TABLE")));
+    assertThat(key, is(not(new NamedObjectKey(null, "TABLE"))));
+    assertThat(key.hashCode(), is(Arrays.hashCode(new String[] {null, null, "TABLE"})));
+    assertThat(key.toString(), is("{\"key\": \"null/null/TABLE\"}"));
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    final NamedObjectKey key = new NamedObjectKey("CATALOG", "SCHEMA").with("TABLE");
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(key);
+    }
+    try (final ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      final NamedObjectKey deserializedKey = (NamedObjectKey) in.readObject();
+      assertThat(deserializedKey, is(key));
+      assertThat(deserializedKey.hashCode(), is(key.hashCode()));
+      assertThat(deserializedKey.with("COLUMN"), is(key.with("COLUMN")));
+    }
+  }
+}
@@ -28,9 +28,18 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.test.utility;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.Map;
 import java.util.Properties;
 
@@ -80,6 +89,56 @@ public final class DatabaseTestUtility {
     return PropertiesUtility.propertiesMap(properties);
   }
 
+  /**
+   * Creates a connection source for a test database, with database metadata that returns no rows
+   * for primary keys, indexes and foreign keys when no table name is provided, as some JDBC drivers
+   * do.
+   *
+   * @param connection Test database connection
+   * @return Connection source for the test database
+   * @throws SQLException On an exception
+   */
+  public static DatabaseConnectionSource newIgnoringNullTableNameConnectionSource(
+      final Connection connection) throws SQLException {
+    final String noTableName = "NO_SUCH_TABLE";
+    final Connection physicalConnection = connection.unwrap(Connection.class);
+    final DatabaseMetaData metaData = physicalConnection.getMetaData();
+
+    final DatabaseMetaData spyMetaData = spy(metaData);
+    doAnswer(
+            invocation ->
+                metaData.getPrimaryKeys(
+                    invocation.getArgument(0), invocation.getArgument(1), noTableName))
+        .when(spyMetaData)
+        .getPrimaryKeys(any(), any(), isNull());
+    doAnswer(
+            invocation ->
+                metaData.getIndexInfo(
+                    invocation.getArgument(0),
+                    invocation.getArgument(1),
+                    noTableName,
+                    invocation.getArgument(3),
+                    invocation.getArgument(4)))
+        .when(spyMetaData)
+        .getIndexInfo(any(), any(), isNull(), anyBoolean(), anyBoolean());
+    doAnswer(
+            invocation ->
+                metaData.getImportedKeys(
+                    invocation.getArgument(0), invocation.getArgument(1), noTableName))
+        .when(spyMetaData)
+        .getImportedKeys(any(), any(), isNull());
+    doAnswer(
+            invocation ->
+                metaData.getExportedKeys(
+                    invocation.getArgument(0), invocation.getArgument(1), noTableName))
+        .when(spyMetaData)
+        .getExportedKeys(any(), any(), isNull());
+
+    final Connection spyConnection = spy(physicalConnection);
+    doReturn(spyMetaData).when(spyConnection).getMetaData();
+    return DatabaseConnectionSourceUtility.newTestDatabaseConnectionSource(spyConnection);
+  }
+
   public static Path tempHsqldbConfig() throws IOException {
     final Properties properties =
         TestUtility.loadProperties(
@@ -0,0 +1,50 @@
+CREATE SCHEMA "DDL_LOG" AUTHORIZATION DBA;
+SET SCHEMA "DDL_LOG";
+
+-- Last DDL change of each object, in UTC, as a database catalog would record it
+CREATE TABLE OBJECT_CHANGES
+(
+  OBJECT_SCHEMA VARCHAR(128) NOT NULL,
+  OBJECT_NAME VARCHAR(128) NOT NULL,
+  LAST_CHANGED TIMESTAMP NOT NULL,
+  CONSTRAINT PK_OBJECT_CHANGES PRIMARY KEY (OBJECT_SCHEMA, OBJECT_NAME)
+)
+;
+
+CREATE SCHEMA "LIBRARY" AUTHORIZATION DBA;
+SET SCHEMA "LIBRARY";
+
+CREATE TABLE PUBLISHERS
+(
+  ID INTEGER NOT NULL,
+  NAME VARCHAR(100) NOT NULL,
+  CONSTRAINT PK_PUBLISHERS PRIMARY KEY (ID)
+)
+;
+
+CREATE TABLE AUTHORS
+(
+  ID INTEGER NOT NULL,
+  NAME VARCHAR(100) NOT NULL,
+  CONSTRAINT PK_AUTHORS PRIMARY KEY (ID)
+)
+;
+
+CREATE TABLE BOOKS
+(
+  ID INTEGER NOT NULL,
+  TITLE VARCHAR(255) NOT NULL,
+  PUBLISHER_ID INTEGER,
+  CONSTRAINT PK_BOOKS PRIMARY KEY (ID),
+  CONSTRAINT FK_BOOKS_PUBLISHERS FOREIGN KEY (PUBLISHER_ID) REFERENCES PUBLISHERS (ID)
+)
+;
+
+CREATE TABLE BOOK_AUTHORS
+(
+  BOOK_ID INTEGER NOT NULL,
+  AUTHOR_ID INTEGER NOT NULL,
+  CONSTRAINT FK_BOOK_AUTHORS_BOOKS FOREIGN KEY (BOOK_ID) REFERENCES BOOKS (ID),
+  CONSTRAINT FK_BOOK_AUTHORS_AUTHORS FOREIGN KEY (AUTHOR_ID) REFERENCES AUTHORS (ID)
+)
+;
@@ -30,7 +30,10 @@ package schemacrawler.tools.commandline.command;
 
 import static schemacrawler.tools.commandline.utility.CommandLineUtility.matchedOptionValues;
 
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,8 +45,11 @@ import picocli.CommandLine.ParseResult;
 import picocli.CommandLine.Spec;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schemacrawler.InfoLevel;
+import schemacrawler.schemacrawler.LoadOptions;
 import schemacrawler.schemacrawler.LoadOptionsBuilder;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
+import schemacrawler.schemacrawler.SchemaInfoRetrieval;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
 import schemacrawler.tools.commandline.state.BaseStateHolder;
 import schemacrawler.tools.commandline.state.ShellState;
@@ -70,6 +76,17 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
 
   private static final Logger LOGGER = Logger.getLogger(LoadCommand.class.getName());
 
+  @Option(
+      names = {"--cache-dir"},
+      description = {
+        "<cachedir> is the path to a directory for cached catalogs",
+        "A cached catalog is used instead of crawling the database again, "
+            + "as long as the connection, options and database schemas are unchanged",
+        "Only for databases with a schema fingerprint query",
+        "Optional, defaults to no caching"
+      })
+  private Path cachedir;
+
   @Option(
       names = {"-i", "--info-level"},
       required = true,
@@ -87,6 +104,10 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
     super(state);
   }
 
+  public Optional<Path> getCacheDirectory() {
+    return Optional.ofNullable(cachedir);
+  }
+
   public InfoLevel getInfoLevel() {
     return infolevel;
   }
@@ -95,6 +116,11 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
   public void run() {
 
     try {
+      // Keep the previous load, in case it can be enriched instead of loaded again
+      final Catalog previousCatalog = state.getCatalog();
+      final SchemaCrawlerOptions previousOptions = state.getSchemaCrawlerOptions();
+      final Map<String, Object> previousConfig = state.getConfig().getSubMap(null);
+
       // Parse and save command options
       saveCommandOptions();
 
@@ -107,7 +133,12 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
         throw new ExecutionException(spec.commandLine(), "Not connected to the database");
       }
 
-      final Catalog catalog = loadCatalog();
+      final Catalog catalog;
+      if (canEnrich(previousCatalog, previousOptions, previousConfig)) {
+        catalog = enrichCatalog(previousCatalog);
+      } else {
+        catalog = loadCatalog();
+      }
       state.setCatalog(catalog);
       LOGGER.log(Level.INFO, "Loaded catalog");
 
@@ -116,6 +147,70 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
     }
   }
 
+  /**
+   * A previously loaded catalog can be enriched if the info level is raised, and nothing else has
+   * changed since it was loaded.
+   */
+  private boolean canEnrich(
+      final Catalog previousCatalog,
+      final SchemaCrawlerOptions previousOptions,
+      final Map<String, Object> previousConfig) {
+    if (previousCatalog == null || previousOptions == null) {
+      return false;
+    }
+
+    final SchemaCrawlerOptions schemaCrawlerOptions = state.getSchemaCrawlerOptions();
+    final LoadOptions previousLoadOptions = previousOptions.getLoadOptions();
+    final LoadOptions loadOptions = schemaCrawlerOptions.getLoadOptions();
+    final boolean isUnchanged =
+        previousOptions.getLimitOptions() == schemaCrawlerOptions.getLimitOptions()
+            && previousOptions.getFilterOptions() == schemaCrawlerOptions.getFilterOptions()
+            && previousOptions.getGrepOptions() == schemaCrawlerOptions.getGrepOptions()
+            && previousLoadOptions.getCacheDirectory().equals(loadOptions.getCacheDirectory())
+            && previousConfig.equals(state.getConfig().getSubMap(null));
+    if (!isUnchanged) {
+      return false;
+    }
+
+    // The info level is raised if the previous retrievals are still requested, along with others
+    final Collection<SchemaInfoRetrieval> previousRetrievals =
+        previousCatalog.getCrawlInfo().getSchemaInfoRetrievals();
+    final SchemaInfoLevel schemaInfoLevel = loadOptions.getSchemaInfoLevel();
+    if (previousRetrievals.isEmpty()) {
+      return false;
+    }
+    for (final SchemaInfoRetrieval retrieval : previousRetrievals) {
+      if (!schemaInfoLevel.is(retrieval)) {
+        return false;
+      }
+    }
+    for (final SchemaInfoRetrieval retrieval : SchemaInfoRetrieval.values()) {
+      if (schemaInfoLevel.is(retrieval) && !previousRetrievals.contains(retrieval)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Catalog enrichCatalog(final Catalog previousCatalog) {
+    try {
+      LOGGER.log(Level.INFO, new StringFormat("Enriching catalog to infolevel=%s", infolevel));
+
+      final SchemaRetrievalOptions schemaRetrievalOptions = state.getSchemaRetrievalOptions();
+      final SchemaCrawlerOptions schemaCrawlerOptions = state.getSchemaCrawlerOptions();
+
+      return SchemaCrawlerUtility.enrichCatalog(
+          state.getDataSource(),
+          schemaRetrievalOptions,
+          schemaCrawlerOptions,
+          previousCatalog,
+          schemaCrawlerOptions.getLoadOptions().getSchemaInfoLevel());
+
+    } catch (final Exception e) {
+      throw new ExecutionException(spec.commandLine(), "Cannot enrich catalog", e);
+    }
+  }
+
   private Catalog loadCatalog() {
     try {
       LOGGER.log(Level.INFO, new StringFormat("infolevel=%s", infolevel));
@@ -141,6 +236,9 @@ public class LoadCommand extends BaseStateHolder implements Runnable {
     if (infolevel != null) {
       loadOptionsBuilder.withSchemaInfoLevel(infolevel.toSchemaInfoLevel());
     }
+    if (cachedir != null) {
+      loadOptionsBuilder.withCacheDirectory(cachedir);
+    }
 
     state.withLoadOptions(loadOptionsBuilder.toOptions());
 
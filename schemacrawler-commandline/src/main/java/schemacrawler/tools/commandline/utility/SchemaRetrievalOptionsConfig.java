@@ -28,6 +28,10 @@ http://www.gnu.org/licenses/
 
 package schemacrawler.tools.commandline.utility;
 
+import static us.fatehi.utility.Utility.isBlank;
+
+import java.nio.file.Paths;
+
 import schemacrawler.schemacrawler.InformationSchemaKey;
 import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
 import schemacrawler.schemacrawler.MetadataRetrievalStrategy;
@@ -93,6 +97,13 @@ public final class SchemaRetrievalOptionsConfig {
     SchemaRetrievalOptionsConfig.fromConfig(informationSchemaViewsBuilder, configProperties);
     builder.withInformationSchemaViews(informationSchemaViewsBuilder.toOptions());
 
+    final String profilesDirectory =
+        configProperties.getStringValue(
+            "schemacrawler.schema.retrieval.strategy.profiles_directory", "");
+    if (!isBlank(profilesDirectory)) {
+      builder.withAdaptiveMetadataRetrievalStrategy(Paths.get(profilesDirectory));
+    }
+
     for (final SchemaInfoMetadataRetrievalStrategy metadataRetrievalStrategy :
         SchemaInfoMetadataRetrievalStrategy.values()) {
       final MetadataRetrievalStrategy currentValue = builder.get(metadataRetrievalStrategy);
@@ -1,13 +1,16 @@
 package schemacrawler.test.commandline.command;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SCHEMA_FINGERPRINT;
 import static schemacrawler.test.utility.FileHasContent.classpathResource;
 import static schemacrawler.test.utility.FileHasContent.hasSameContentAs;
 import static schemacrawler.test.utility.FileHasContent.outputOf;
@@ -15,6 +18,7 @@ import static schemacrawler.test.utility.TestUtility.writeStringToTempFile;
 import static schemacrawler.tools.commandline.utility.CommandLineUtility.newCommandLine;
 import static us.fatehi.utility.datasource.DatabaseConnectionSourceUtility.newTestDatabaseConnectionSource;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
@@ -22,10 +26,14 @@ import java.util.logging.Level;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import picocli.CommandLine;
+import schemacrawler.schema.Catalog;
 import schemacrawler.schemacrawler.InfoLevel;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
 import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
 import schemacrawler.test.utility.CaptureLogs;
 import schemacrawler.test.utility.CapturedLogs;
 import schemacrawler.test.utility.CommandlineTestUtility;
@@ -62,6 +70,44 @@ public class LoadCommandTest {
     assertThat(state.getCatalog().getTables(), hasSize(20));
   }
 
+  @Test
+  public void executeCacheDirectory(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory) {
+    final String[] args = {"--info-level", "standard", "--cache-dir", cacheDirectory.toString()};
+
+    final ShellState state = new ShellState();
+    state.setSchemaCrawlerOptions(SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+    // Catalogs are only cached with a schema fingerprint query
+    state.setSchemaRetrievalOptions(
+        SchemaRetrievalOptionsBuilder.builder()
+            .withInformationSchemaViews(
+                InformationSchemaViewsBuilder.builder()
+                    .withSql(
+                        EXT_SCHEMA_FINGERPRINT,
+                        "SELECT COUNT(*), GROUP_CONCAT(TABLE_NAME || '.' || COLUMN_NAME "
+                            + "ORDER BY TABLE_NAME, ORDINAL_POSITION) "
+                            + "FROM INFORMATION_SCHEMA.COLUMNS")
+                    .toOptions())
+            .toOptions());
+    state.setDataSource(dataSource);
+
+    final LoadCommand optionsParser = new LoadCommand(state);
+    newCommandLine(optionsParser, null).execute(args);
+
+    assertThat(optionsParser.getCacheDirectory().get(), is(cacheDirectory));
+    assertThat(
+        state.getSchemaCrawlerOptions().getLoadOptions().getCacheDirectory().get(),
+        is(cacheDirectory));
+    final Catalog catalog = state.getCatalog();
+    assertThat(catalog.getTables(), hasSize(20));
+    assertThat(cacheDirectory.toFile().list().length, is(1));
+
+    newCommandLine(new LoadCommand(state), null).execute(args);
+    assertThat(state.getCatalog(), is(not(sameInstance(catalog))));
+    assertThat(state.getCatalog().getTables(), hasSize(20));
+    assertThat(cacheDirectory.toFile().list().length, is(1));
+  }
+
   @Test
   @CaptureLogs
   public void executeDeferCatalogLoad(final CapturedLogs logs) throws Throwable {
@@ -81,6 +127,28 @@ public class LoadCommandTest {
         is(true));
   }
 
+  @Test
+  public void executeEnrich(final DatabaseConnectionSource dataSource) {
+    final ShellState state = new ShellState();
+    state.setSchemaCrawlerOptions(SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions());
+    state.setDataSource(dataSource);
+
+    newCommandLine(new LoadCommand(state), null).execute("--info-level", "standard");
+    final Catalog catalog = state.getCatalog();
+    assertThat(catalog.getTables(), hasSize(20));
+    assertThat(catalog.getTables().iterator().next().getPrivileges(), is(empty()));
+
+    // Raising the info level enriches the loaded catalog
+    newCommandLine(new LoadCommand(state), null).execute("--info-level", "maximum");
+    assertThat(state.getCatalog(), is(sameInstance(catalog)));
+    assertThat(catalog.getTables(), hasSize(20));
+    assertThat(catalog.getTables().iterator().next().getPrivileges(), is(not(empty())));
+
+    // Lowering the info level loads the catalog again
+    newCommandLine(new LoadCommand(state), null).execute("--info-level", "minimum");
+    assertThat(state.getCatalog(), is(not(sameInstance(catalog))));
+  }
+
   @Test
   public void executeExceptionLoading() throws SQLException {
 
@@ -0,0 +1,30 @@
+SELECT
+  NULL AS OBJECT_CATALOG,
+  OBJECTS.OWNER AS OBJECT_SCHEMA,
+  OBJECTS.OBJECT_NAME AS OBJECT_NAME,
+  CASE
+    WHEN OBJECTS.OBJECT_TYPE IN ('FUNCTION', 'PROCEDURE') THEN 'ROUTINE'
+    WHEN OBJECTS.OBJECT_TYPE = 'SEQUENCE' THEN 'SEQUENCE'
+    ELSE 'TABLE'
+  END AS OBJECT_TYPE,
+  MAX(SYS_EXTRACT_UTC(FROM_TZ(CAST(OBJECTS.LAST_DDL_TIME AS TIMESTAMP),
+    TO_CHAR(SYSTIMESTAMP, 'TZH:TZM')))) AS LAST_CHANGED
+FROM
+  ${catalogscope}_OBJECTS OBJECTS
+  INNER JOIN ${catalogscope}_USERS USERS
+    ON OBJECTS.OWNER = USERS.USERNAME
+      AND USERS.ORACLE_MAINTAINED = 'N'
+      AND NOT REGEXP_LIKE(USERS.USERNAME, '^APEX_[0-9]{6}$')
+      AND NOT REGEXP_LIKE(USERS.USERNAME, '^FLOWS_[0-9]{5}$')
+WHERE
+  REGEXP_LIKE(OBJECTS.OWNER, '${schema-inclusion-rule}')
+  AND OBJECTS.OBJECT_TYPE IN
+    ('TABLE', 'VIEW', 'MATERIALIZED VIEW', 'FUNCTION', 'PROCEDURE', 'SEQUENCE')
+GROUP BY
+  OBJECTS.OWNER,
+  OBJECTS.OBJECT_NAME,
+  CASE
+    WHEN OBJECTS.OBJECT_TYPE IN ('FUNCTION', 'PROCEDURE') THEN 'ROUTINE'
+    WHEN OBJECTS.OBJECT_TYPE = 'SEQUENCE' THEN 'SEQUENCE'
+    ELSE 'TABLE'
+  END
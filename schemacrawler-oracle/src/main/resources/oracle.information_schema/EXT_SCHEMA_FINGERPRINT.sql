@@ -0,0 +1,39 @@
+SELECT
+  OBJECTS.OBJECT_COUNT,
+  OBJECTS.OBJECTS_CHECKSUM,
+  TO_CHAR(OBJECTS.LAST_DDL_TIME, 'YYYY-MM-DD HH24:MI:SS') AS LAST_DDL_TIME,
+  COLUMNS.COLUMN_COUNT,
+  COLUMNS.COLUMNS_CHECKSUM
+FROM
+  (
+    SELECT
+      COUNT(*) AS OBJECT_COUNT,
+      SUM(ORA_HASH(OBJECTS.OWNER || '.' || OBJECTS.OBJECT_NAME || '.' || OBJECTS.OBJECT_TYPE))
+        AS OBJECTS_CHECKSUM,
+      MAX(OBJECTS.LAST_DDL_TIME) AS LAST_DDL_TIME
+    FROM
+      ${catalogscope}_OBJECTS OBJECTS
+      INNER JOIN ${catalogscope}_USERS USERS
+        ON OBJECTS.OWNER = USERS.USERNAME
+          AND USERS.ORACLE_MAINTAINED = 'N'
+          AND NOT REGEXP_LIKE(USERS.USERNAME, '^APEX_[0-9]{6}$')
+          AND NOT REGEXP_LIKE(USERS.USERNAME, '^FLOWS_[0-9]{5}$')
+    WHERE
+      REGEXP_LIKE(OBJECTS.OWNER, '${schema-inclusion-rule}')
+  ) OBJECTS
+  CROSS JOIN
+  (
+    SELECT
+      COUNT(*) AS COLUMN_COUNT,
+      SUM(ORA_HASH(COLUMNS.OWNER || '.' || COLUMNS.TABLE_NAME || '.' || COLUMNS.COLUMN_NAME
+        || '.' || COLUMNS.DATA_TYPE || '.' || COLUMNS.COLUMN_ID)) AS COLUMNS_CHECKSUM
+    FROM
+      ${catalogscope}_TAB_COLUMNS COLUMNS
+      INNER JOIN ${catalogscope}_USERS USERS
+        ON COLUMNS.OWNER = USERS.USERNAME
+          AND USERS.ORACLE_MAINTAINED = 'N'
+          AND NOT REGEXP_LIKE(USERS.USERNAME, '^APEX_[0-9]{6}$')
+          AND NOT REGEXP_LIKE(USERS.USERNAME, '^FLOWS_[0-9]{5}$')
+    WHERE
+      REGEXP_LIKE(COLUMNS.OWNER, '${schema-inclusion-rule}')
+  ) COLUMNS
@@ -0,0 +1,89 @@
+-- Needs track_commit_timestamp = on; otherwise the query fails, and a full crawl is made
+-- An object was last changed when any of its catalog rows was last written, so columns,
+-- defaults, constraints, indexes, triggers, view rules, sequence options and comments are
+-- included. Catalog rows that are deleted leave nothing to date, so dropping an index, a
+-- trigger, a foreign key or a comment is not found, unless the same statement also changes
+-- another catalog row of the object. Rows that have been frozen by vacuum have no commit
+-- timestamp, and objects without any commit timestamp are always retrieved again.
+SELECT
+  NULL AS OBJECT_CATALOG,
+  NAMESPACES.NSPNAME AS OBJECT_SCHEMA,
+  CLASSES.RELNAME AS OBJECT_NAME,
+  CASE WHEN CLASSES.RELKIND = 'S' THEN 'SEQUENCE' ELSE 'TABLE' END AS OBJECT_TYPE,
+  GREATEST(
+    PG_XACT_COMMIT_TIMESTAMP(CLASSES.XMIN),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(ATTRIBUTES.XMIN))
+      FROM PG_CATALOG.PG_ATTRIBUTE ATTRIBUTES
+      WHERE ATTRIBUTES.ATTRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(DEFAULTS.XMIN))
+      FROM PG_CATALOG.PG_ATTRDEF DEFAULTS
+      WHERE DEFAULTS.ADRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(CONSTRAINTS.XMIN))
+      FROM PG_CATALOG.PG_CONSTRAINT CONSTRAINTS
+      WHERE CONSTRAINTS.CONRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(GREATEST(
+        PG_XACT_COMMIT_TIMESTAMP(INDEXES.XMIN),
+        PG_XACT_COMMIT_TIMESTAMP(INDEX_CLASSES.XMIN)))
+      FROM PG_CATALOG.PG_INDEX INDEXES
+        INNER JOIN PG_CATALOG.PG_CLASS INDEX_CLASSES
+          ON INDEXES.INDEXRELID = INDEX_CLASSES.OID
+      WHERE INDEXES.INDRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(TRIGGERS.XMIN))
+      FROM PG_CATALOG.PG_TRIGGER TRIGGERS
+      WHERE TRIGGERS.TGRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(RULES.XMIN))
+      FROM PG_CATALOG.PG_REWRITE RULES
+      WHERE RULES.EV_CLASS = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(SEQUENCES.XMIN))
+      FROM PG_CATALOG.PG_SEQUENCE SEQUENCES
+      WHERE SEQUENCES.SEQRELID = CLASSES.OID
+    ),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(DESCRIPTIONS.XMIN))
+      FROM PG_CATALOG.PG_DESCRIPTION DESCRIPTIONS
+      WHERE DESCRIPTIONS.OBJOID = CLASSES.OID
+        AND DESCRIPTIONS.CLASSOID = 'pg_catalog.pg_class'::REGCLASS
+    )
+  ) AT TIME ZONE 'UTC' AS LAST_CHANGED
+FROM
+  PG_CATALOG.PG_CLASS CLASSES
+  INNER JOIN PG_CATALOG.PG_NAMESPACE NAMESPACES
+    ON CLASSES.RELNAMESPACE = NAMESPACES.OID
+WHERE
+  CLASSES.RELKIND IN ('r', 'v', 'm', 'f', 'p', 'S')
+  AND NAMESPACES.NSPNAME NOT IN ('pg_catalog', 'information_schema')
+  AND NAMESPACES.NSPNAME NOT LIKE 'pg_toast%'
+UNION ALL
+SELECT
+  NULL AS OBJECT_CATALOG,
+  NAMESPACES.NSPNAME AS OBJECT_SCHEMA,
+  PROCS.PRONAME AS OBJECT_NAME,
+  'ROUTINE' AS OBJECT_TYPE,
+  GREATEST(
+    PG_XACT_COMMIT_TIMESTAMP(PROCS.XMIN),
+    (
+      SELECT MAX(PG_XACT_COMMIT_TIMESTAMP(DESCRIPTIONS.XMIN))
+      FROM PG_CATALOG.PG_DESCRIPTION DESCRIPTIONS
+      WHERE DESCRIPTIONS.OBJOID = PROCS.OID
+        AND DESCRIPTIONS.CLASSOID = 'pg_catalog.pg_proc'::REGCLASS
+    )
+  ) AT TIME ZONE 'UTC' AS LAST_CHANGED
+FROM
+  PG_CATALOG.PG_PROC PROCS
+  INNER JOIN PG_CATALOG.PG_NAMESPACE NAMESPACES
+    ON PROCS.PRONAMESPACE = NAMESPACES.OID
+WHERE
+  NAMESPACES.NSPNAME NOT IN ('pg_catalog', 'information_schema')
@@ -0,0 +1,141 @@
+-- Hashes the definitions of columns, defaults, constraints, triggers, views and comments, since
+-- many DDL statements do not write the pg_class row of the object that they change. The
+-- transaction id of pg_class and pg_proc rows is also hashed, to catch other changes to
+-- relations, indexes and routines. Only the schemas that are crawled are included.
+WITH
+  USER_CLASSES AS
+  (
+    SELECT
+      CLASSES.OID,
+      NAMESPACES.NSPNAME,
+      CLASSES.RELNAME,
+      CLASSES.RELKIND,
+      CLASSES.XMIN
+    FROM
+      PG_CATALOG.PG_CLASS CLASSES
+      INNER JOIN PG_CATALOG.PG_NAMESPACE NAMESPACES
+        ON CLASSES.RELNAMESPACE = NAMESPACES.OID
+    WHERE
+      NAMESPACES.NSPNAME NOT IN ('pg_catalog', 'information_schema')
+      AND NAMESPACES.NSPNAME NOT LIKE 'pg_toast%'
+      AND NAMESPACES.NSPNAME ~ '^(${schema-inclusion-rule})$'
+  ),
+  USER_PROCS AS
+  (
+    SELECT
+      PROCS.OID,
+      NAMESPACES.NSPNAME,
+      PROCS.PRONAME,
+      PROCS.XMIN
+    FROM
+      PG_CATALOG.PG_PROC PROCS
+      INNER JOIN PG_CATALOG.PG_NAMESPACE NAMESPACES
+        ON PROCS.PRONAMESPACE = NAMESPACES.OID
+    WHERE
+      NAMESPACES.NSPNAME NOT IN ('pg_catalog', 'information_schema')
+      AND NAMESPACES.NSPNAME ~ '^(${schema-inclusion-rule})$'
+  )
+SELECT
+  OBJECTS.OBJECT_COUNT,
+  OBJECTS.OBJECTS_CHECKSUM,
+  COLUMNS.COLUMN_COUNT,
+  COLUMNS.COLUMNS_CHECKSUM,
+  DEFAULTS.DEFAULTS_CHECKSUM,
+  CONSTRAINTS.CONSTRAINTS_CHECKSUM,
+  TRIGGERS.TRIGGERS_CHECKSUM,
+  DESCRIPTIONS.DESCRIPTIONS_CHECKSUM,
+  ROUTINES.ROUTINE_COUNT,
+  ROUTINES.ROUTINES_CHECKSUM
+FROM
+  (
+    SELECT
+      COUNT(*) AS OBJECT_COUNT,
+      MD5(STRING_AGG(
+        CONCAT_WS('.', USER_CLASSES.NSPNAME, USER_CLASSES.RELNAME, USER_CLASSES.RELKIND,
+          USER_CLASSES.XMIN::TEXT,
+          CASE WHEN USER_CLASSES.RELKIND IN ('v', 'm')
+            THEN PG_CATALOG.PG_GET_VIEWDEF(USER_CLASSES.OID) END),
+        ',' ORDER BY USER_CLASSES.OID)) AS OBJECTS_CHECKSUM
+    FROM
+      USER_CLASSES
+  ) OBJECTS
+  CROSS JOIN
+  (
+    SELECT
+      COUNT(*) AS COLUMN_COUNT,
+      MD5(STRING_AGG(
+        CONCAT_WS('.', ATTRIBUTES.ATTRELID::TEXT, ATTRIBUTES.ATTNUM::TEXT, ATTRIBUTES.ATTNAME,
+          PG_CATALOG.FORMAT_TYPE(ATTRIBUTES.ATTTYPID, ATTRIBUTES.ATTTYPMOD),
+          ATTRIBUTES.ATTNOTNULL::TEXT, ATTRIBUTES.ATTISDROPPED::TEXT),
+        ',' ORDER BY ATTRIBUTES.ATTRELID, ATTRIBUTES.ATTNUM)) AS COLUMNS_CHECKSUM
+    FROM
+      PG_CATALOG.PG_ATTRIBUTE ATTRIBUTES
+      INNER JOIN USER_CLASSES
+        ON ATTRIBUTES.ATTRELID = USER_CLASSES.OID
+    WHERE
+      ATTRIBUTES.ATTNUM > 0
+  ) COLUMNS
+  CROSS JOIN
+  (
+    SELECT
+      MD5(STRING_AGG(
+        CONCAT_WS('.', DEFAULTS.ADRELID::TEXT, DEFAULTS.ADNUM::TEXT,
+          PG_CATALOG.PG_GET_EXPR(DEFAULTS.ADBIN, DEFAULTS.ADRELID)),
+        ',' ORDER BY DEFAULTS.ADRELID, DEFAULTS.ADNUM)) AS DEFAULTS_CHECKSUM
+    FROM
+      PG_CATALOG.PG_ATTRDEF DEFAULTS
+      INNER JOIN USER_CLASSES
+        ON DEFAULTS.ADRELID = USER_CLASSES.OID
+  ) DEFAULTS
+  CROSS JOIN
+  (
+    SELECT
+      MD5(STRING_AGG(
+        CONCAT_WS('.', CONSTRAINTS.CONRELID::TEXT, CONSTRAINTS.CONNAME,
+          CONSTRAINTS.CONTYPE::TEXT, PG_CATALOG.PG_GET_CONSTRAINTDEF(CONSTRAINTS.OID)),
+        ',' ORDER BY CONSTRAINTS.CONRELID, CONSTRAINTS.CONNAME)) AS CONSTRAINTS_CHECKSUM
+    FROM
+      PG_CATALOG.PG_CONSTRAINT CONSTRAINTS
+      INNER JOIN USER_CLASSES
+        ON CONSTRAINTS.CONRELID = USER_CLASSES.OID
+  ) CONSTRAINTS
+  CROSS JOIN
+  (
+    SELECT
+      MD5(STRING_AGG(
+        CONCAT_WS('.', TRIGGERS.TGRELID::TEXT, TRIGGERS.TGNAME,
+          PG_CATALOG.PG_GET_TRIGGERDEF(TRIGGERS.OID)),
+        ',' ORDER BY TRIGGERS.TGRELID, TRIGGERS.TGNAME)) AS TRIGGERS_CHECKSUM
+    FROM
+      PG_CATALOG.PG_TRIGGER TRIGGERS
+      INNER JOIN USER_CLASSES
+        ON TRIGGERS.TGRELID = USER_CLASSES.OID
+    WHERE
+      NOT TRIGGERS.TGISINTERNAL
+  ) TRIGGERS
+  CROSS JOIN
+  (
+    SELECT
+      MD5(STRING_AGG(
+        CONCAT_WS('.', DESCRIPTIONS.CLASSOID::TEXT, DESCRIPTIONS.OBJOID::TEXT,
+          DESCRIPTIONS.OBJSUBID::TEXT, DESCRIPTIONS.DESCRIPTION),
+        ',' ORDER BY DESCRIPTIONS.CLASSOID, DESCRIPTIONS.OBJOID, DESCRIPTIONS.OBJSUBID))
+        AS DESCRIPTIONS_CHECKSUM
+    FROM
+      PG_CATALOG.PG_DESCRIPTION DESCRIPTIONS
+    WHERE
+      (DESCRIPTIONS.CLASSOID = 'pg_catalog.pg_class'::REGCLASS
+        AND DESCRIPTIONS.OBJOID IN (SELECT USER_CLASSES.OID FROM USER_CLASSES))
+      OR (DESCRIPTIONS.CLASSOID = 'pg_catalog.pg_proc'::REGCLASS
+        AND DESCRIPTIONS.OBJOID IN (SELECT USER_PROCS.OID FROM USER_PROCS))
+  ) DESCRIPTIONS
+  CROSS JOIN
+  (
+    SELECT
+      COUNT(*) AS ROUTINE_COUNT,
+      MD5(STRING_AGG(
+        CONCAT_WS('.', USER_PROCS.NSPNAME, USER_PROCS.PRONAME, USER_PROCS.XMIN::TEXT),
+        ',' ORDER BY USER_PROCS.OID)) AS ROUTINES_CHECKSUM
+    FROM
+      USER_PROCS
+  ) ROUTINES
@@ -30,6 +30,9 @@ package schemacrawler.tools.catalogloader;
 
 import schemacrawler.crawl.SchemaCrawler;
 import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.tools.executable.CommandDescription;
 
 public class SchemaCrawlerCatalogLoader extends BaseCatalogLoader {
@@ -46,8 +49,19 @@ public class SchemaCrawlerCatalogLoader extends BaseCatalogLoader {
       return;
     }
 
+    // Chained loaders and commands use the catalog, and the connection, as soon as it is loaded,
+    // so tables and columns cannot be enriched in the background
+    final SchemaCrawlerOptions schemaCrawlerOptions = getSchemaCrawlerOptions();
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .fromOptions(schemaCrawlerOptions.getLoadOptions())
+            .withBackgroundEnrichment(false)
+            .toOptions();
     final SchemaCrawler schemaCrawler =
-        new SchemaCrawler(getDataSource(), getSchemaRetrievalOptions(), getSchemaCrawlerOptions());
+        new SchemaCrawler(
+            getDataSource(),
+            getSchemaRetrievalOptions(),
+            schemaCrawlerOptions.withLoadOptions(loadOptions));
     final Catalog catalog = schemaCrawler.crawl();
     setCatalog(catalog);
   }
@@ -34,6 +34,7 @@ import static us.fatehi.utility.Utility.isBlank;
 
 import java.sql.Connection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -42,6 +43,7 @@ import java.util.function.Supplier;
 import schemacrawler.schemacrawler.DatabaseServerType;
 import schemacrawler.schemacrawler.InformationSchemaViews;
 import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LimitOptions;
 import schemacrawler.schemacrawler.LimitOptionsBuilder;
 import schemacrawler.schemacrawler.Options;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
@@ -108,6 +110,29 @@ public abstract class DatabaseConnector implements Options {
     return pluginCommand;
   }
 
+  /**
+   * Computes the fingerprint of the schemas in a database, using the bundled fingerprint query for
+   * the database. This is much cheaper than a crawl, and can be used to find out whether a
+   * previously loaded catalog is still current.
+   *
+   * @param connection Database connection
+   * @param schemaCrawlerOptions Options, to restrict the fingerprint to the crawled schemas
+   * @return Fingerprint, or empty if there is no bundled fingerprint query for the database, or it
+   *     could not be computed
+   */
+  public final Optional<SchemaFingerprint> getSchemaFingerprint(
+      final Connection connection, final SchemaCrawlerOptions schemaCrawlerOptions) {
+    requireNonNull(schemaCrawlerOptions, "No SchemaCrawler options provided");
+
+    final InformationSchemaViews informationSchemaViews =
+        InformationSchemaViewsBuilder.builder()
+            .withFunction(informationSchemaViewsBuildProcess, connection)
+            .toOptions();
+    final LimitOptions limitOptions =
+        setSchemaCrawlerOptionsDefaults(schemaCrawlerOptions).getLimitOptions();
+    return SchemaFingerprint.compute(connection, informationSchemaViews, limitOptions);
+  }
+
   /**
    * Gets the complete bundled database specific configuration set, including the SQL for
    * information schema views.
@@ -0,0 +1,198 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.tools.databaseconnector;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForSchemaInclusion;
+import static schemacrawler.schemacrawler.DatabaseObjectRuleForInclusion.ruleForTableInclusion;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SCHEMA_FINGERPRINT;
+import static schemacrawler.schemacrawler.QueryUtility.executeAgainstSchema;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import schemacrawler.inclusionrule.InclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.Query;
+import schemacrawler.schemacrawler.exceptions.InternalRuntimeException;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * A stable hash of the schemas in a database, which changes when objects are created, dropped or
+ * altered. The fingerprint is computed by a single aggregate query over the data dictionary, which
+ * is much cheaper than a crawl, so it can be used to check whether a cached or offline catalog is
+ * still current.
+ *
+ * <p>Database plugins provide the query as METADATA_EXTENSION.EXT_SCHEMA_FINGERPRINT. The query
+ * aggregates the definitions of all types of objects on the server, in the schemas that match the
+ * schema inclusion rule, and all the values that it returns are hashed. There is no fingerprint
+ * for databases without a plugin query, since a generic query cannot cover every type of object,
+ * and so cannot reliably tell whether a catalog is still current.
+ */
+public final class SchemaFingerprint {
+
+  /** Name of the catalog attribute that holds the fingerprint of the catalog when it was loaded. */
+  public static final String SCHEMA_FINGERPRINT = "schemacrawler.schema_fingerprint";
+
+  private static final Logger LOGGER = Logger.getLogger(SchemaFingerprint.class.getName());
+
+  /**
+   * Computes the fingerprint of the schemas in a database. Any failure to compute the fingerprint
+   * is logged, since the fingerprint is only an optimization.
+   *
+   * @param connection Live database connection
+   * @param informationSchemaViews Information schema views, which may have a fingerprint query
+   * @param limitOptions Limit options, to restrict the fingerprint to the schemas that are crawled
+   * @return Fingerprint, or empty if there is no fingerprint query, or it could not be computed
+   */
+  public static Optional<SchemaFingerprint> compute(
+      final Connection connection,
+      final InformationSchemaViews informationSchemaViews,
+      final LimitOptions limitOptions) {
+    requireNonNull(connection, "No connection provided");
+    requireNonNull(informationSchemaViews, "No information schema views provided");
+    requireNonNull(limitOptions, "No limit options provided");
+
+    if (!informationSchemaViews.hasQuery(EXT_SCHEMA_FINGERPRINT)) {
+      LOGGER.log(
+          Level.CONFIG,
+          new StringFormat("Not computing schema fingerprint, since there is no query for it"));
+      return Optional.empty();
+    }
+    final Query query = informationSchemaViews.getQuery(EXT_SCHEMA_FINGERPRINT);
+
+    final Map<String, InclusionRule> limitMap = new HashMap<>();
+    limitMap.put("schema-inclusion-rule", limitOptions.get(ruleForSchemaInclusion));
+    limitMap.put("table-inclusion-rule", limitOptions.get(ruleForTableInclusion));
+
+    final MessageDigest digest = newMessageDigest();
+    try (final Statement statement = connection.createStatement();
+        final ResultSet results = executeAgainstSchema(query, statement, limitMap)) {
+      final int columnCount = results.getMetaData().getColumnCount();
+      while (results.next()) {
+        for (int i = 1; i <= columnCount; i++) {
+          final String value = results.getString(i);
+          digest.update(String.valueOf(value).getBytes(UTF_8));
+          // Unit separator, so that adjacent values cannot run together
+          digest.update((byte) 0x1F);
+        }
+        // Record separator
+        digest.update((byte) 0x1E);
+      }
+    } catch (final SQLException e) {
+      LOGGER.log(
+          Level.WARNING,
+          e,
+          new StringFormat("Could not compute schema fingerprint using <%s>", query.getName()));
+      return Optional.empty();
+    }
+
+    final String value = String.format("%064x", new BigInteger(1, digest.digest()));
+    final SchemaFingerprint schemaFingerprint = new SchemaFingerprint(value);
+    LOGGER.log(Level.CONFIG, new StringFormat("Computed %s", schemaFingerprint));
+    return Optional.of(schemaFingerprint);
+  }
+
+  /**
+   * Looks up the fingerprint of the schemas at the time that a catalog was loaded.
+   *
+   * @param catalog Catalog, which may have been loaded offline
+   * @return Fingerprint, or empty if the catalog does not have one
+   */
+  public static Optional<SchemaFingerprint> lookup(final Catalog catalog) {
+    if (catalog == null) {
+      return Optional.empty();
+    }
+    final Optional<Object> value = catalog.lookupAttribute(SCHEMA_FINGERPRINT);
+    return value.map(String::valueOf).map(SchemaFingerprint::new);
+  }
+
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new InternalRuntimeException("Could not compute schema fingerprint", e);
+    }
+  }
+
+  private final String value;
+
+  private SchemaFingerprint(final String value) {
+    this.value = requireNonNull(value, "No fingerprint provided");
+  }
+
+  /**
+   * Records the fingerprint on a catalog, so that it is saved with the catalog.
+   *
+   * @param catalog Catalog that was loaded when the schemas had this fingerprint
+   */
+  public void attachTo(final Catalog catalog) {
+    requireNonNull(catalog, "No catalog provided");
+    catalog.setAttribute(SCHEMA_FINGERPRINT, value);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof SchemaFingerprint)) {
+      return false;
+    }
+    return value.equals(((SchemaFingerprint) obj).value);
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "schema fingerprint <" + value + ">";
+  }
+}
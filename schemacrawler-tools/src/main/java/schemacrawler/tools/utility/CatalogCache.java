@@ -0,0 +1,285 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.tools.utility;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.exceptions.InternalRuntimeException;
+import schemacrawler.tools.databaseconnector.SchemaFingerprint;
+import schemacrawler.tools.options.Config;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Caches loaded catalogs on disk, in the offline snapshot format of gzipped Java serialization.
+ * Cached catalogs are keyed by the connection URL and user, the options that the catalog was loaded
+ * with, and the schema fingerprint of the database, so a cached catalog is only found while the
+ * schemas in the database are unchanged. Catalogs are not cached for options that cannot be
+ * compared by value. Failures to read or write the cache are logged, and the
+ * catalog is loaded from the database instead.
+ */
+final class CatalogCache {
+
+  private static final class CatalogCacheInputStream extends ObjectInputStream {
+
+    private static final List<Pattern> ACCEPT_PATTERNS =
+        Arrays.asList(
+            Pattern.compile("schemacrawler\\.(schema(crawler)?|crawl)\\.[A-Z].*"),
+            Pattern.compile("schemacrawler\\.[A-Z].*"),
+            Pattern.compile("(\\[L)?java\\.(lang|util)\\..*"),
+            Pattern.compile("java\\.(sql|math|time|net)\\..*"),
+            Pattern.compile("\\[[BC]"));
+
+    CatalogCacheInputStream(final InputStream input) throws IOException {
+      super(input);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass objectStreamClass)
+        throws IOException, ClassNotFoundException {
+      final String className = objectStreamClass.getName();
+      for (final Pattern pattern : ACCEPT_PATTERNS) {
+        if (pattern.matcher(className).matches()) {
+          return super.resolveClass(objectStreamClass);
+        }
+      }
+      throw new InvalidClassException(String.format("Not deserializing class <%s>", className));
+    }
+  }
+
+  private static final Logger LOGGER = Logger.getLogger(CatalogCache.class.getName());
+
+  private static final String CACHE_FILE_EXTENSION = ".ser.gz";
+  // The string form of objects, such as custom inclusion rules, that cannot be compared by value
+  private static final Pattern IDENTITY_STRING = Pattern.compile("[\\w$]@\\p{XDigit}+\\b");
+
+  private static String hash(final String text) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      final byte[] hash = digest.digest(text.getBytes(UTF_8));
+      return String.format("%064x", new BigInteger(1, hash)).substring(0, 32);
+    } catch (final NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new InternalRuntimeException("Could not compute catalog cache key", e);
+    }
+  }
+
+  private final Path cacheDirectory;
+  private final String cacheKey;
+
+  /**
+   * Creates a cache for catalogs loaded from a database with the given options. Catalogs are not
+   * cached if any of the options cannot be compared by value, such as custom inclusion rules.
+   *
+   * @param cacheDirectory Directory for the cached catalogs, which is created if needed
+   * @param connection Live connection to the database that the catalogs are loaded from
+   * @param schemaRetrievalOptions Options for the database, which may be null
+   * @param schemaCrawlerOptions Options that the catalogs are loaded with
+   * @param additionalConfig Configuration for catalog loaders
+   * @throws SQLException On an exception getting the connection URL or user
+   */
+  CatalogCache(
+      final Path cacheDirectory,
+      final Connection connection,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final Config additionalConfig)
+      throws SQLException {
+    this.cacheDirectory = requireNonNull(cacheDirectory, "No cache directory provided");
+    requireNonNull(connection, "No connection provided");
+    requireNonNull(schemaCrawlerOptions, "No SchemaCrawler options provided");
+
+    final DatabaseMetaData dbMetaData = connection.getMetaData();
+    final LoadOptions loadOptions = schemaCrawlerOptions.getLoadOptions();
+    // Only options that change the contents of the catalog are part of the key
+    final List<String> options = new ArrayList<>();
+    options.add(schemaCrawlerOptions.getLimitOptions().toString());
+    options.add(schemaCrawlerOptions.getFilterOptions().toString());
+    options.add(schemaCrawlerOptions.getGrepOptions().toString());
+    options.add(loadOptions.getSchemaInfoLevel().toString());
+    options.add(loadOptions.getAttributesInclusionRule().toString());
+    options.add(String.valueOf(additionalConfig));
+    if (schemaRetrievalOptions != null) {
+      options.add(schemaRetrievalOptions.getDatabaseServerType().toString());
+      options.add(schemaRetrievalOptions.getIdentifierQuoteString());
+      options.add(String.valueOf(schemaRetrievalOptions.isSupportsCatalogs()));
+      options.add(String.valueOf(schemaRetrievalOptions.isSupportsSchemas()));
+      options.add(schemaRetrievalOptions.getInformationSchemaViews().toString());
+    }
+    final String optionsKey = String.join("\n", options);
+
+    final Matcher identityStringMatcher = IDENTITY_STRING.matcher(optionsKey);
+    if (identityStringMatcher.find()) {
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat(
+              "Not caching catalogs, since options cannot be compared by value, near <%s>",
+              identityStringMatcher.group()));
+      cacheKey = null;
+    } else {
+      cacheKey = hash(String.join("\n", dbMetaData.getURL(), dbMetaData.getUserName(), optionsKey));
+    }
+  }
+
+  /**
+   * Checks whether catalogs can be cached for the options, so that a cached catalog is only found
+   * for the same options.
+   *
+   * @return True if catalogs can be cached
+   */
+  boolean isCacheable() {
+    return cacheKey != null;
+  }
+
+  /**
+   * Loads a cached catalog, if there is one for the schema fingerprint.
+   *
+   * @param schemaFingerprint Current schema fingerprint of the database
+   * @return Cached catalog, or empty if there is none
+   */
+  Optional<Catalog> load(final SchemaFingerprint schemaFingerprint) {
+    final Path cacheFile = cacheFile(schemaFingerprint);
+    if (!Files.isRegularFile(cacheFile)) {
+      LOGGER.log(Level.INFO, new StringFormat("No cached catalog in <%s>", cacheFile));
+      return Optional.empty();
+    }
+
+    final Catalog catalog;
+    try (final ObjectInputStream in =
+        new CatalogCacheInputStream(new GZIPInputStream(Files.newInputStream(cacheFile)))) {
+      catalog = (Catalog) in.readObject();
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      // The cache file may be corrupt, or from an incompatible version of SchemaCrawler
+      LOGGER.log(
+          Level.WARNING, e, new StringFormat("Could not load cached catalog <%s>", cacheFile));
+      delete(cacheFile);
+      return Optional.empty();
+    }
+
+    if (!SchemaFingerprint.lookup(catalog).equals(Optional.of(schemaFingerprint))) {
+      LOGGER.log(Level.WARNING, new StringFormat("Cached catalog <%s> is not current", cacheFile));
+      delete(cacheFile);
+      return Optional.empty();
+    }
+
+    LOGGER.log(Level.INFO, new StringFormat("Loaded cached catalog from <%s>", cacheFile));
+    return Optional.of(catalog);
+  }
+
+  /**
+   * Caches a catalog, and removes catalogs cached for earlier schema fingerprints.
+   *
+   * @param catalog Catalog that was loaded from the database
+   * @param schemaFingerprint Schema fingerprint of the database when the catalog was loaded
+   */
+  void save(final Catalog catalog, final SchemaFingerprint schemaFingerprint) {
+    requireNonNull(catalog, "No catalog provided");
+
+    final Path cacheFile = cacheFile(schemaFingerprint);
+    Path tempFile = null;
+    try {
+      Files.createDirectories(cacheDirectory);
+      deleteStaleCacheFiles();
+
+      schemaFingerprint.attachTo(catalog);
+      // Write to a temporary file first, so that other processes never read a partial file
+      tempFile = Files.createTempFile(cacheDirectory, cacheKey, ".tmp");
+      try (final OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile));
+          final ObjectOutputStream objOut = new ObjectOutputStream(out)) {
+        objOut.writeObject(catalog);
+      }
+      Files.move(tempFile, cacheFile, REPLACE_EXISTING, ATOMIC_MOVE);
+      LOGGER.log(Level.INFO, new StringFormat("Saved catalog to cache <%s>", cacheFile));
+    } catch (final IOException e) {
+      LOGGER.log(
+          Level.WARNING, e, new StringFormat("Could not save catalog to cache <%s>", cacheFile));
+      delete(tempFile);
+    }
+  }
+
+  private Path cacheFile(final SchemaFingerprint schemaFingerprint) {
+    requireNonNull(schemaFingerprint, "No schema fingerprint provided");
+    // Plugin fingerprint queries may return values of any length
+    final String fingerprint = hash(schemaFingerprint.getValue());
+    return cacheDirectory.resolve(cacheKey + "." + fingerprint + CACHE_FILE_EXTENSION);
+  }
+
+  private void delete(final Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (final IOException e) {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not delete <%s>", file));
+    }
+  }
+
+  private void deleteStaleCacheFiles() throws IOException {
+    try (final DirectoryStream<Path> cacheFiles =
+        Files.newDirectoryStream(cacheDirectory, cacheKey + ".*" + CACHE_FILE_EXTENSION)) {
+      for (final Path cacheFile : cacheFiles) {
+        delete(cacheFile);
+      }
+    }
+  }
+}
@@ -29,22 +29,31 @@ http://www.gnu.org/licenses/
 package schemacrawler.tools.utility;
 
 import static java.util.Objects.requireNonNull;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SCHEMA_FINGERPRINT;
 import static us.fatehi.utility.Utility.isBlank;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import schemacrawler.crawl.ResultsCrawler;
+import schemacrawler.crawl.SchemaCrawler;
 import schemacrawler.schema.Catalog;
 import schemacrawler.schema.ResultsColumns;
 import schemacrawler.schemacrawler.DatabaseServerType;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LoadOptions;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaInfoLevel;
 import schemacrawler.schemacrawler.SchemaRetrievalOptions;
 import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
 import schemacrawler.schemacrawler.exceptions.DatabaseAccessException;
@@ -53,6 +62,7 @@ import schemacrawler.tools.catalogloader.CatalogLoader;
 import schemacrawler.tools.catalogloader.CatalogLoaderRegistry;
 import schemacrawler.tools.databaseconnector.DatabaseConnector;
 import schemacrawler.tools.databaseconnector.DatabaseConnectorRegistry;
+import schemacrawler.tools.databaseconnector.SchemaFingerprint;
 import schemacrawler.tools.databaseconnector.UnknownDatabaseConnector;
 import schemacrawler.tools.options.Config;
 import us.fatehi.utility.PropertiesUtility;
@@ -68,6 +78,39 @@ public final class SchemaCrawlerUtility {
 
   private static final Logger LOGGER = Logger.getLogger(SchemaCrawlerUtility.class.getName());
 
+  /**
+   * Enriches a previously loaded catalog to a higher info level, by running only the retrievals
+   * that are missing from the catalog. The catalog is modified in place. Catalog loaders that run
+   * after the crawl, such as for weak associations, are not run again.
+   *
+   * @param dataSource Database connection source.
+   * @param schemaCrawlerOptions Options that the catalog was loaded with.
+   * @param catalog Previously loaded catalog.
+   * @param schemaInfoLevel Info level to enrich the catalog to.
+   * @return Enriched catalog.
+   */
+  public static Catalog enrichCatalog(
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final Catalog catalog,
+      final SchemaInfoLevel schemaInfoLevel) {
+
+    LOGGER.log(Level.CONFIG, new ObjectToStringFormat(schemaCrawlerOptions));
+
+    updateConnectionDataSource(dataSource, schemaRetrievalOptions);
+
+    final SchemaRetrievalOptions retrievalOptions;
+    if (schemaRetrievalOptions == null) {
+      retrievalOptions = SchemaRetrievalOptionsBuilder.newSchemaRetrievalOptions();
+    } else {
+      retrievalOptions = schemaRetrievalOptions;
+    }
+    final SchemaCrawler schemaCrawler =
+        new SchemaCrawler(dataSource, retrievalOptions, schemaCrawlerOptions);
+    return schemaCrawler.enrich(catalog, schemaInfoLevel);
+  }
+
   /**
    * Crawls a database, and returns a catalog.
    *
@@ -82,7 +125,8 @@ public final class SchemaCrawlerUtility {
   }
 
   /**
-   * Crawls a database, and returns a catalog.
+   * Crawls a database, and returns a catalog. If the load options have a cache directory, a catalog
+   * cached there is returned instead, as long as the schemas in the database are unchanged.
    *
    * @param dataSource Database connection source.
    * @param schemaCrawlerOptions Options.
@@ -98,19 +142,56 @@ public final class SchemaCrawlerUtility {
 
     updateConnectionDataSource(dataSource, schemaRetrievalOptions);
 
-    final CatalogLoaderRegistry catalogLoaderRegistry = new CatalogLoaderRegistry();
-    final CatalogLoader catalogLoader = catalogLoaderRegistry.newChainedCatalogLoader();
+    final Optional<Path> cacheDirectory =
+        schemaCrawlerOptions.getLoadOptions().getCacheDirectory();
+    if (cacheDirectory.isPresent()) {
+      return loadCachedCatalog(
+          cacheDirectory.get(),
+          dataSource,
+          schemaRetrievalOptions,
+          schemaCrawlerOptions,
+          additionalConfig);
+    }
 
-    LOGGER.log(Level.CONFIG, new StringFormat("Catalog loader: %s", catalogLoader));
+    return loadCatalog(dataSource, schemaRetrievalOptions, schemaCrawlerOptions, additionalConfig);
+  }
 
-    catalogLoader.setDataSource(dataSource);
-    catalogLoader.setSchemaRetrievalOptions(schemaRetrievalOptions);
-    catalogLoader.setSchemaCrawlerOptions(schemaCrawlerOptions);
-    catalogLoader.setAdditionalConfiguration(additionalConfig);
+  /**
+   * Returns a previously loaded catalog if the schema fingerprint of the database has not changed
+   * since it was loaded, or else crawls the database. The fingerprint is recorded on a newly loaded
+   * catalog, so that it can be reused in turn.
+   *
+   * @param dataSource Database connection source.
+   * @param schemaCrawlerOptions Options.
+   * @param previousCatalog Catalog loaded earlier with the same options, possibly offline, or null.
+   * @return Database catalog.
+   */
+  public static Catalog getCatalog(
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final Config additionalConfig,
+      final Catalog previousCatalog) {
 
-    catalogLoader.loadCatalog();
-    final Catalog catalog = catalogLoader.getCatalog();
-    requireNonNull(catalog, "Catalog could not be retrieved");
+    LOGGER.log(Level.CONFIG, new ObjectToStringFormat(schemaCrawlerOptions));
+
+    updateConnectionDataSource(dataSource, schemaRetrievalOptions);
+
+    final Optional<SchemaFingerprint> schemaFingerprint =
+        computeSchemaFingerprint(dataSource, schemaRetrievalOptions, schemaCrawlerOptions);
+    if (schemaFingerprint.isPresent()
+        && schemaFingerprint.equals(SchemaFingerprint.lookup(previousCatalog))) {
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat(
+              "Reusing previously loaded catalog, since the %s is unchanged",
+              schemaFingerprint.get()));
+      return previousCatalog;
+    }
+
+    final Catalog catalog =
+        loadCatalog(dataSource, schemaRetrievalOptions, schemaCrawlerOptions, additionalConfig);
+    schemaFingerprint.ifPresent(fingerprint -> fingerprint.attachTo(catalog));
     return catalog;
   }
 
@@ -227,6 +308,24 @@ public final class SchemaCrawlerUtility {
     }
   }
 
+  private static Optional<SchemaFingerprint> computeSchemaFingerprint(
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions) {
+    requireNonNull(dataSource, "No database connection source provided");
+    requireNonNull(schemaCrawlerOptions, "No SchemaCrawler options provided");
+
+    try (final Connection connection = dataSource.get()) {
+      return SchemaFingerprint.compute(
+          connection,
+          getInformationSchemaViews(schemaRetrievalOptions),
+          schemaCrawlerOptions.getLimitOptions());
+    } catch (final SQLException e) {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not compute schema fingerprint"));
+      return Optional.empty();
+    }
+  }
+
   private static String extractDatabaseServerTypeFromUrl(final String url) {
     final Pattern urlPattern = Pattern.compile("jdbc:(.*?):.*");
     final Matcher matcher = urlPattern.matcher(url);
@@ -267,6 +366,107 @@ public final class SchemaCrawlerUtility {
     return url;
   }
 
+  private static InformationSchemaViews getInformationSchemaViews(
+      final SchemaRetrievalOptions schemaRetrievalOptions) {
+    if (schemaRetrievalOptions == null) {
+      return InformationSchemaViewsBuilder.newInformationSchemaViews();
+    } else {
+      return schemaRetrievalOptions.getInformationSchemaViews();
+    }
+  }
+
+  private static Catalog loadCachedCatalog(
+      final Path cacheDirectory,
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final Config additionalConfig) {
+
+    // Only a server-side fingerprint query from the database plugin covers all the objects in a
+    // catalog, so a cached catalog cannot be validated without one
+    final InformationSchemaViews informationSchemaViews =
+        getInformationSchemaViews(schemaRetrievalOptions);
+    if (!informationSchemaViews.hasQuery(EXT_SCHEMA_FINGERPRINT)) {
+      LOGGER.log(
+          Level.INFO,
+          new StringFormat("Not caching catalogs, since there is no schema fingerprint query"));
+      return loadCatalog(
+          dataSource, schemaRetrievalOptions, schemaCrawlerOptions, additionalConfig);
+    }
+
+    final CatalogCache catalogCache;
+    final Optional<SchemaFingerprint> schemaFingerprint;
+    try (final Connection connection = dataSource.get()) {
+      catalogCache =
+          new CatalogCache(
+              cacheDirectory,
+              connection,
+              schemaRetrievalOptions,
+              schemaCrawlerOptions,
+              additionalConfig);
+      if (catalogCache.isCacheable()) {
+        schemaFingerprint =
+            SchemaFingerprint.compute(
+                connection, informationSchemaViews, schemaCrawlerOptions.getLimitOptions());
+      } else {
+        schemaFingerprint = Optional.empty();
+      }
+    } catch (final SQLException e) {
+      LOGGER.log(Level.WARNING, e, new StringFormat("Could not use catalog cache"));
+      return loadCatalog(
+          dataSource, schemaRetrievalOptions, schemaCrawlerOptions, additionalConfig);
+    }
+    // A cached catalog cannot be validated without a schema fingerprint, and is not computed for
+    // options that catalogs cannot be cached for
+    if (!schemaFingerprint.isPresent()) {
+      return loadCatalog(
+          dataSource, schemaRetrievalOptions, schemaCrawlerOptions, additionalConfig);
+    }
+
+    final Optional<Catalog> cachedCatalog = catalogCache.load(schemaFingerprint.get());
+    if (cachedCatalog.isPresent()) {
+      return cachedCatalog.get();
+    }
+
+    // Catalogs are cached only once they are complete, so tables and columns cannot be enriched in
+    // the background
+    final LoadOptions loadOptions =
+        LoadOptionsBuilder.builder()
+            .fromOptions(schemaCrawlerOptions.getLoadOptions())
+            .withBackgroundEnrichment(false)
+            .toOptions();
+    final Catalog catalog =
+        loadCatalog(
+            dataSource,
+            schemaRetrievalOptions,
+            schemaCrawlerOptions.withLoadOptions(loadOptions),
+            additionalConfig);
+    catalogCache.save(catalog, schemaFingerprint.get());
+    return catalog;
+  }
+
+  private static Catalog loadCatalog(
+      final DatabaseConnectionSource dataSource,
+      final SchemaRetrievalOptions schemaRetrievalOptions,
+      final SchemaCrawlerOptions schemaCrawlerOptions,
+      final Config additionalConfig) {
+
+    final CatalogLoaderRegistry catalogLoaderRegistry = new CatalogLoaderRegistry();
+    final CatalogLoader catalogLoader = catalogLoaderRegistry.newChainedCatalogLoader();
+
+    LOGGER.log(Level.CONFIG, new StringFormat("Catalog loader: %s", catalogLoader));
+
+    catalogLoader.setDataSource(dataSource);
+    catalogLoader.setSchemaRetrievalOptions(schemaRetrievalOptions);
+    catalogLoader.setSchemaCrawlerOptions(schemaCrawlerOptions);
+    catalogLoader.setAdditionalConfiguration(additionalConfig);
+
+    catalogLoader.loadCatalog();
+    final Catalog catalog = catalogLoader.getCatalog();
+    requireNonNull(catalog, "Catalog could not be retrieved");
+    return catalog;
+  }
+
   private static boolean useMatchedDatabasePlugin(
       final Connection connection, final DatabaseServerType dbServerType) {
 
@@ -0,0 +1,271 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import schemacrawler.inclusionrule.InclusionRule;
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.InformationSchemaKey;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.DisableLogging;
+import schemacrawler.test.utility.WithTestDatabase;
+import schemacrawler.tools.databaseconnector.SchemaFingerprint;
+import schemacrawler.tools.options.Config;
+import schemacrawler.tools.utility.SchemaCrawlerUtility;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@DisableLogging
+@WithTestDatabase
+public class CatalogCacheTest {
+
+  private static final String CACHE_MARKER = "cache-marker";
+
+  // Catalogs are only cached with a server-side aggregate fingerprint query
+  private static final SchemaRetrievalOptions schemaRetrievalOptions =
+      SchemaRetrievalOptionsBuilder.builder(schemaRetrievalOptionsDefault)
+          .withInformationSchemaViews(
+              InformationSchemaViewsBuilder.builder()
+                  .fromResourceFolder("/fingerprint.information_schema")
+                  .toOptions())
+          .toOptions();
+
+  @Test
+  public void cachedCatalog(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    final Catalog catalog = getCatalog(dataSource, schemaCrawlerOptions);
+    assertThat(SchemaFingerprint.lookup(catalog).isPresent(), is(true));
+    final File[] cacheFiles = cacheDirectory.toFile().listFiles();
+    assertThat(cacheFiles, arrayWithSize(1));
+
+    // Mark the cached catalog, to find out whether it is used
+    catalog.setAttribute(CACHE_MARKER, true);
+    writeCacheFile(cacheFiles[0].toPath(), catalog);
+
+    final Catalog cachedCatalog = getCatalog(dataSource, schemaCrawlerOptions);
+    assertThat(cachedCatalog, is(not(sameInstance(catalog))));
+    assertThat(cachedCatalog.hasAttribute(CACHE_MARKER), is(true));
+    assertThat(cachedCatalog.getTables().size(), is(catalog.getTables().size()));
+
+    // Other options do not use the cached catalog
+    final Catalog otherCatalog =
+        getCatalog(
+            dataSource,
+            schemaCrawlerOptions.withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .fromOptions(schemaCrawlerOptions.getLoadOptions())
+                    .withSchemaInfoLevel(SchemaInfoLevelBuilder.minimum())
+                    .toOptions()));
+    assertThat(otherCatalog.hasAttribute(CACHE_MARKER), is(false));
+    assertThat(cacheDirectory.toFile().list(), arrayWithSize(2));
+  }
+
+  @Test
+  public void cachedCatalogAfterSchemaChange(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    final Catalog catalog = getCatalog(dataSource, schemaCrawlerOptions);
+    final File[] cacheFiles = cacheDirectory.toFile().listFiles();
+    catalog.setAttribute(CACHE_MARKER, true);
+    writeCacheFile(cacheFiles[0].toPath(), catalog);
+
+    try (final Connection connection = dataSource.get();
+        final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE PUBLIC.BOOKS.CACHE_TEST (ID INTEGER)");
+      try {
+        final Catalog changedCatalog = getCatalog(dataSource, schemaCrawlerOptions);
+        assertThat(changedCatalog.hasAttribute(CACHE_MARKER), is(false));
+        assertThat(changedCatalog.getTables().size(), is(catalog.getTables().size() + 1));
+        // The catalog cached for the earlier schema is removed
+        assertThat(cacheDirectory.toFile().list(), arrayWithSize(1));
+        assertThat(cacheFiles[0].exists(), is(false));
+      } finally {
+        statement.execute("DROP TABLE PUBLIC.BOOKS.CACHE_TEST");
+      }
+    }
+  }
+
+  @Test
+  public void cachedCatalogAfterIndexChange(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    final Catalog catalog = getCatalog(dataSource, schemaCrawlerOptions);
+    final File[] cacheFiles = cacheDirectory.toFile().listFiles();
+    catalog.setAttribute(CACHE_MARKER, true);
+    writeCacheFile(cacheFiles[0].toPath(), catalog);
+
+    try (final Connection connection = dataSource.get();
+        final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE INDEX PUBLIC.BOOKS.IDX_CACHE_TEST ON PUBLIC.BOOKS.AUTHORS (CITY)");
+      try {
+        final Catalog changedCatalog = getCatalog(dataSource, schemaCrawlerOptions);
+        assertThat(changedCatalog.hasAttribute(CACHE_MARKER), is(false));
+        assertThat(
+            changedCatalog
+                .lookupTable(changedCatalog.lookupSchema("PUBLIC.BOOKS").get(), "AUTHORS")
+                .get()
+                .lookupIndex("IDX_CACHE_TEST")
+                .isPresent(),
+            is(true));
+        assertThat(cacheFiles[0].exists(), is(false));
+      } finally {
+        statement.execute("DROP INDEX PUBLIC.BOOKS.IDX_CACHE_TEST");
+      }
+    }
+  }
+
+  @Test
+  public void cachedCatalogForSchemaRetrievalOptions(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    getCatalog(dataSource, schemaCrawlerOptions);
+    assertThat(cacheDirectory.toFile().list(), arrayWithSize(1));
+
+    // Catalogs loaded with other data dictionary queries are cached separately
+    final SchemaRetrievalOptions otherSchemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder(schemaRetrievalOptions)
+            .withInformationSchemaViews(
+                InformationSchemaViewsBuilder.builder(
+                        schemaRetrievalOptions.getInformationSchemaViews())
+                    .withSql(
+                        InformationSchemaKey.VIEWS,
+                        "SELECT * FROM INFORMATION_SCHEMA.VIEWS WHERE 1 = 0")
+                    .toOptions())
+            .toOptions();
+    SchemaCrawlerUtility.getCatalog(
+        dataSource, otherSchemaRetrievalOptions, schemaCrawlerOptions, new Config());
+    assertThat(cacheDirectory.toFile().list(), arrayWithSize(2));
+  }
+
+  @Test
+  public void corruptCachedCatalog(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    final Catalog catalog = getCatalog(dataSource, schemaCrawlerOptions);
+    final File[] cacheFiles = cacheDirectory.toFile().listFiles();
+    Files.write(cacheFiles[0].toPath(), new byte[] {1, 2, 3});
+
+    final Catalog reloadedCatalog = getCatalog(dataSource, schemaCrawlerOptions);
+    assertThat(reloadedCatalog.getTables().size(), is(catalog.getTables().size()));
+    // The corrupt cache file is replaced
+    assertThat(
+        getCatalog(dataSource, schemaCrawlerOptions).getTables().size(),
+        is(catalog.getTables().size()));
+    assertThat(Files.size(cacheFiles[0].toPath()) > 3, is(true));
+  }
+
+  @Test
+  public void notCachedWithoutFingerprintQuery(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+
+    final Catalog catalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptionsDefault, schemaCrawlerOptions, new Config());
+    assertThat(catalog.getTables().isEmpty(), is(false));
+    assertThat(SchemaFingerprint.lookup(catalog), is(Optional.empty()));
+    assertThat(cacheDirectory.toFile().list(), arrayWithSize(0));
+  }
+
+  @Test
+  public void uncacheableOptions(
+      final DatabaseConnectionSource dataSource, @TempDir final Path cacheDirectory)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions = cachingOptions(cacheDirectory);
+    // Custom inclusion rules cannot be compared by value
+    final InclusionRule tableInclusionRule = tableName -> !tableName.endsWith("COUPONS");
+
+    final Catalog catalog =
+        getCatalog(
+            dataSource,
+            schemaCrawlerOptions.withLimitOptions(
+                LimitOptionsBuilder.builder().includeTables(tableInclusionRule).toOptions()));
+    assertThat(catalog.getTables().isEmpty(), is(false));
+    assertThat(cacheDirectory.toFile().list(), arrayWithSize(0));
+  }
+
+  private SchemaCrawlerOptions cachingOptions(final Path cacheDirectory) {
+    final SchemaCrawlerOptions schemaCrawlerOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+    return schemaCrawlerOptions.withLoadOptions(
+        LoadOptionsBuilder.builder()
+            .fromOptions(schemaCrawlerOptions.getLoadOptions())
+            .withCacheDirectory(cacheDirectory)
+            .toOptions());
+  }
+
+  private Catalog getCatalog(
+      final DatabaseConnectionSource dataSource, final SchemaCrawlerOptions schemaCrawlerOptions) {
+    return SchemaCrawlerUtility.getCatalog(
+        dataSource, schemaRetrievalOptions, schemaCrawlerOptions, new Config());
+  }
+
+  private void writeCacheFile(final Path cacheFile, final Catalog catalog) throws Exception {
+    try (final ObjectOutputStream out =
+        new ObjectOutputStream(new GZIPOutputStream(Files.newOutputStream(cacheFile)))) {
+      out.writeObject(catalog);
+    }
+  }
+}
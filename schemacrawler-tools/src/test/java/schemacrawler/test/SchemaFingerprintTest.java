@@ -0,0 +1,258 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package schemacrawler.test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static schemacrawler.schemacrawler.InformationSchemaKey.EXT_SCHEMA_FINGERPRINT;
+import static schemacrawler.test.utility.DatabaseTestUtility.schemaRetrievalOptionsDefault;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import schemacrawler.schema.Catalog;
+import schemacrawler.schemacrawler.InformationSchemaViews;
+import schemacrawler.schemacrawler.InformationSchemaViewsBuilder;
+import schemacrawler.schemacrawler.LimitOptions;
+import schemacrawler.schemacrawler.LimitOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaCrawlerOptions;
+import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaRetrievalOptions;
+import schemacrawler.schemacrawler.SchemaRetrievalOptionsBuilder;
+import schemacrawler.test.utility.DisableLogging;
+import schemacrawler.test.utility.WithTestDatabase;
+import schemacrawler.tools.databaseconnector.SchemaFingerprint;
+import schemacrawler.tools.options.Config;
+import schemacrawler.tools.utility.SchemaCrawlerUtility;
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+
+@DisableLogging
+@WithTestDatabase
+public class SchemaFingerprintTest {
+
+  // Server-side aggregate fingerprint query for the HSQLDB test database
+  private static final InformationSchemaViews fingerprintInformationSchemaViews =
+      InformationSchemaViewsBuilder.builder()
+          .fromResourceFolder("/fingerprint.information_schema")
+          .toOptions();
+
+  @Test
+  public void getCatalogWithoutFingerprintQuery(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final SchemaCrawlerOptions schemaCrawlerOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final Catalog catalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptionsDefault, schemaCrawlerOptions, new Config(), null);
+    assertThat(SchemaFingerprint.lookup(catalog), is(Optional.empty()));
+
+    final Catalog crawledCatalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptionsDefault, schemaCrawlerOptions, new Config(), catalog);
+    assertThat(crawledCatalog, is(not(sameInstance(catalog))));
+  }
+
+  @Test
+  public void getCatalogWithPreviousCatalog(final DatabaseConnectionSource dataSource)
+      throws Exception {
+    final SchemaRetrievalOptions schemaRetrievalOptions =
+        SchemaRetrievalOptionsBuilder.builder()
+            .withInformationSchemaViews(fingerprintInformationSchemaViews)
+            .toOptions();
+    final SchemaCrawlerOptions schemaCrawlerOptions =
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions();
+
+    final Catalog catalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptions, schemaCrawlerOptions, new Config(), null);
+    assertThat(SchemaFingerprint.lookup(catalog).isPresent(), is(true));
+
+    final Catalog reusedCatalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptions, schemaCrawlerOptions, new Config(), catalog);
+    assertThat(reusedCatalog, is(sameInstance(catalog)));
+
+    catalog.setAttribute(SchemaFingerprint.SCHEMA_FINGERPRINT, "stale");
+    final Catalog crawledCatalog =
+        SchemaCrawlerUtility.getCatalog(
+            dataSource, schemaRetrievalOptions, schemaCrawlerOptions, new Config(), catalog);
+    assertThat(crawledCatalog, is(not(sameInstance(catalog))));
+    assertThat(
+        SchemaFingerprint.lookup(crawledCatalog), is(not(SchemaFingerprint.lookup(catalog))));
+  }
+
+  @Test
+  public void lookupWithoutFingerprint() {
+    assertThat(SchemaFingerprint.lookup(null), is(Optional.empty()));
+  }
+
+  @Test
+  public void schemaFingerprint(final Connection connection) throws Exception {
+    final LimitOptions limitOptions = LimitOptionsBuilder.newLimitOptions();
+
+    final SchemaFingerprint schemaFingerprint =
+        SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+            .get();
+    assertThat(schemaFingerprint.getValue().length(), is(64));
+    assertThat(
+        SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+            .get(),
+        is(schemaFingerprint));
+
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE PUBLIC.BOOKS.FINGERPRINT_TEST (ID INTEGER)");
+      try {
+        final SchemaFingerprint changedSchemaFingerprint =
+            SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+                .get();
+        assertThat(changedSchemaFingerprint, is(not(schemaFingerprint)));
+      } finally {
+        statement.execute("DROP TABLE PUBLIC.BOOKS.FINGERPRINT_TEST");
+      }
+    }
+
+    assertThat(
+        SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+            .get(),
+        is(schemaFingerprint));
+  }
+
+  @Test
+  public void schemaFingerprintForObjectChanges(final Connection connection) throws Exception {
+    final LimitOptions limitOptions = LimitOptionsBuilder.newLimitOptions();
+
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE TABLE PUBLIC.BOOKS.FINGERPRINT_TEST (ID INTEGER NOT NULL, NAME VARCHAR(10))");
+      try {
+        final Set<SchemaFingerprint> schemaFingerprints = new HashSet<>();
+        schemaFingerprints.add(
+            SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+                .get());
+
+        // Changes that keep the names, and the number of columns, the same
+        final List<String> ddlStatements =
+            Arrays.asList(
+                "ALTER TABLE PUBLIC.BOOKS.FINGERPRINT_TEST ALTER COLUMN NAME RENAME TO NOME",
+                "ALTER TABLE PUBLIC.BOOKS.FINGERPRINT_TEST ALTER COLUMN NOME "
+                    + "SET DATA TYPE VARCHAR(20)",
+                "ALTER TABLE PUBLIC.BOOKS.FINGERPRINT_TEST ALTER COLUMN NOME SET NOT NULL",
+                "ALTER TABLE PUBLIC.BOOKS.FINGERPRINT_TEST "
+                    + "ADD CONSTRAINT PK_FINGERPRINT_TEST PRIMARY KEY (ID)",
+                "CREATE INDEX PUBLIC.BOOKS.IDX_FINGERPRINT_TEST "
+                    + "ON PUBLIC.BOOKS.FINGERPRINT_TEST (NOME)",
+                "CREATE SEQUENCE PUBLIC.BOOKS.FINGERPRINT_TEST_SEQUENCE",
+                "CREATE VIEW PUBLIC.BOOKS.FINGERPRINT_TEST_VIEW "
+                    + "AS SELECT ID FROM PUBLIC.BOOKS.FINGERPRINT_TEST");
+        for (final String ddlStatement : ddlStatements) {
+          statement.execute(ddlStatement);
+          final SchemaFingerprint schemaFingerprint =
+              SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+                  .get();
+          assertThat(ddlStatement, schemaFingerprints.add(schemaFingerprint), is(true));
+        }
+      } finally {
+        statement.execute("DROP VIEW IF EXISTS PUBLIC.BOOKS.FINGERPRINT_TEST_VIEW");
+        statement.execute("DROP SEQUENCE IF EXISTS PUBLIC.BOOKS.FINGERPRINT_TEST_SEQUENCE");
+        statement.execute("DROP TABLE PUBLIC.BOOKS.FINGERPRINT_TEST");
+      }
+    }
+  }
+
+  @Test
+  public void schemaFingerprintForOtherSchemas(final Connection connection) throws Exception {
+    final LimitOptions limitOptions =
+        LimitOptionsBuilder.builder()
+            .includeSchemas(Pattern.compile("PUBLIC\\.BOOKS"))
+            .toOptions();
+
+    final SchemaFingerprint schemaFingerprint =
+        SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+            .get();
+
+    try (final Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE PUBLIC.FOR_LINT.FINGERPRINT_TEST (ID INTEGER)");
+      try {
+        assertThat(
+            SchemaFingerprint.compute(connection, fingerprintInformationSchemaViews, limitOptions)
+                .get(),
+            is(schemaFingerprint));
+      } finally {
+        statement.execute("DROP TABLE PUBLIC.FOR_LINT.FINGERPRINT_TEST");
+      }
+    }
+  }
+
+  @Test
+  public void schemaFingerprintFromQuery(final Connection connection) throws Exception {
+    final LimitOptions limitOptions = LimitOptionsBuilder.newLimitOptions();
+
+    final SchemaFingerprint schemaFingerprint =
+        SchemaFingerprint.compute(connection, fingerprintQuery("'A'"), limitOptions).get();
+    assertThat(
+        SchemaFingerprint.compute(connection, fingerprintQuery("'A'"), limitOptions).get(),
+        is(schemaFingerprint));
+    assertThat(
+        SchemaFingerprint.compute(connection, fingerprintQuery("'B'"), limitOptions).get(),
+        is(not(schemaFingerprint)));
+
+    assertThat(
+        SchemaFingerprint.compute(connection, fingerprintQuery("UNKNOWN_COLUMN"), limitOptions),
+        is(Optional.empty()));
+  }
+
+  @Test
+  public void schemaFingerprintWithoutQuery(final Connection connection) throws Exception {
+    assertThat(
+        SchemaFingerprint.compute(
+            connection,
+            InformationSchemaViewsBuilder.newInformationSchemaViews(),
+            LimitOptionsBuilder.newLimitOptions()),
+        is(Optional.empty()));
+  }
+
+  private InformationSchemaViews fingerprintQuery(final String value) {
+    return InformationSchemaViewsBuilder.builder()
+        .withSql(
+            EXT_SCHEMA_FINGERPRINT,
+            "SELECT " + value + " AS FINGERPRINT FROM INFORMATION_SCHEMA.SYSTEM_USERS")
+        .toOptions();
+  }
+}
@@ -39,12 +39,18 @@ import java.sql.SQLException;
 
 import org.junit.jupiter.api.Test;
 
+import schemacrawler.schema.Catalog;
+import schemacrawler.schema.Table;
+import schemacrawler.schemacrawler.LoadOptionsBuilder;
 import schemacrawler.schemacrawler.SchemaCrawlerOptions;
 import schemacrawler.schemacrawler.SchemaCrawlerOptionsBuilder;
+import schemacrawler.schemacrawler.SchemaInfoLevelBuilder;
+import schemacrawler.test.utility.WithTestDatabase;
 import us.fatehi.test.utility.TestDatabaseDriver;
 import us.fatehi.utility.datasource.DatabaseConnectionSource;
 import us.fatehi.utility.datasource.DatabaseConnectionSourceUtility;
 
+@WithTestDatabase
 public class SchemaCrawlerCatalogLoaderTest {
 
   @Test
@@ -63,6 +69,28 @@ public class SchemaCrawlerCatalogLoaderTest {
     connection.close();
   }
 
+  @Test
+  public void loadCatalogWithoutBackgroundEnrichment(final DatabaseConnectionSource dataSource) throws Exception {
+    final CatalogLoader catalogLoader = new SchemaCrawlerCatalogLoader();
+    catalogLoader.setDataSource(dataSource);
+    catalogLoader.setSchemaRetrievalOptions(schemaRetrievalOptionsDefault);
+    catalogLoader.setSchemaCrawlerOptions(
+        SchemaCrawlerOptionsBuilder.newSchemaCrawlerOptions()
+            .withLoadOptions(
+                LoadOptionsBuilder.builder()
+                    .withSchemaInfoLevel(SchemaInfoLevelBuilder.maximum())
+                    .withBackgroundEnrichment(true)
+                    .toOptions()));
+
+    catalogLoader.loadCatalog();
+    final Catalog catalog = catalogLoader.getCatalog();
+
+    // Background enrichment is turned off, since the crawl completion cannot be waited on
+    for (final Table table : catalog.getTables()) {
+      assertThat(table.getFullName(), table.getPrivileges().isEmpty(), is(false));
+    }
+  }
+
   @Test
   public void schemaCrawlerOptions() {
     final CatalogLoader catalogLoader = new SchemaCrawlerCatalogLoader();
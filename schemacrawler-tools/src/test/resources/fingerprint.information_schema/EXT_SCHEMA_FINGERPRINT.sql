@@ -0,0 +1,99 @@
+SELECT
+  COLUMNS.COLUMN_COUNT,
+  COLUMNS.COLUMNS_CHECKSUM,
+  CONSTRAINTS.CONSTRAINTS_CHECKSUM,
+  INDEXES.INDEXES_CHECKSUM,
+  ROUTINES.ROUTINES_CHECKSUM,
+  TRIGGERS.TRIGGERS_CHECKSUM,
+  VIEWS.VIEWS_CHECKSUM,
+  SEQUENCES.SEQUENCES_CHECKSUM
+FROM
+  (
+    SELECT
+      COUNT(*) AS COLUMN_COUNT,
+      GROUP_CONCAT(
+        CONCAT_WS('.', TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION,
+          DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE,
+          COLUMN_DEFAULT)
+        ORDER BY TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION SEPARATOR ',')
+        AS COLUMNS_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.COLUMNS
+    WHERE
+      REGEXP_MATCHES(TABLE_CATALOG || '.' || TABLE_SCHEMA, '${schema-inclusion-rule}')
+  ) COLUMNS
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, CONSTRAINT_NAME,
+          CONSTRAINT_TYPE)
+        ORDER BY TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, CONSTRAINT_NAME SEPARATOR ',')
+        AS CONSTRAINTS_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.TABLE_CONSTRAINTS
+    WHERE
+      REGEXP_MATCHES(TABLE_CATALOG || '.' || TABLE_SCHEMA, '${schema-inclusion-rule}')
+  ) CONSTRAINTS
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', TABLE_CAT, TABLE_SCHEM, TABLE_NAME, INDEX_NAME, ORDINAL_POSITION,
+          COLUMN_NAME, NON_UNIQUE, ASC_OR_DESC)
+        ORDER BY TABLE_CAT, TABLE_SCHEM, TABLE_NAME, INDEX_NAME, ORDINAL_POSITION
+        SEPARATOR ',') AS INDEXES_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.SYSTEM_INDEXINFO
+    WHERE
+      REGEXP_MATCHES(TABLE_CAT || '.' || TABLE_SCHEM, '${schema-inclusion-rule}')
+  ) INDEXES
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', SPECIFIC_CATALOG, SPECIFIC_SCHEMA, SPECIFIC_NAME, ROUTINE_DEFINITION)
+        ORDER BY SPECIFIC_CATALOG, SPECIFIC_SCHEMA, SPECIFIC_NAME SEPARATOR ',')
+        AS ROUTINES_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.ROUTINES
+    WHERE
+      REGEXP_MATCHES(SPECIFIC_CATALOG || '.' || SPECIFIC_SCHEMA, '${schema-inclusion-rule}')
+  ) ROUTINES
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', TRIGGER_CATALOG, TRIGGER_SCHEMA, TRIGGER_NAME, EVENT_OBJECT_TABLE,
+          ACTION_TIMING, EVENT_MANIPULATION, ACTION_STATEMENT)
+        ORDER BY TRIGGER_CATALOG, TRIGGER_SCHEMA, TRIGGER_NAME, EVENT_MANIPULATION
+        SEPARATOR ',') AS TRIGGERS_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.TRIGGERS
+    WHERE
+      REGEXP_MATCHES(TRIGGER_CATALOG || '.' || TRIGGER_SCHEMA, '${schema-inclusion-rule}')
+  ) TRIGGERS
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, VIEW_DEFINITION)
+        ORDER BY TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME SEPARATOR ',') AS VIEWS_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.VIEWS
+    WHERE
+      REGEXP_MATCHES(TABLE_CATALOG || '.' || TABLE_SCHEMA, '${schema-inclusion-rule}')
+  ) VIEWS
+  CROSS JOIN
+  (
+    SELECT
+      GROUP_CONCAT(
+        CONCAT_WS('.', SEQUENCE_CATALOG, SEQUENCE_SCHEMA, SEQUENCE_NAME, DATA_TYPE,
+          START_VALUE, INCREMENT)
+        ORDER BY SEQUENCE_CATALOG, SEQUENCE_SCHEMA, SEQUENCE_NAME SEPARATOR ',')
+        AS SEQUENCES_CHECKSUM
+    FROM
+      INFORMATION_SCHEMA.SEQUENCES
+    WHERE
+      REGEXP_MATCHES(SEQUENCE_CATALOG || '.' || SEQUENCE_SCHEMA, '${schema-inclusion-rule}')
+  ) SEQUENCES
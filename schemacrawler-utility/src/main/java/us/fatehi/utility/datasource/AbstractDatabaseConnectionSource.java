@@ -36,10 +36,12 @@ import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import us.fatehi.utility.SQLRuntimeException;
@@ -149,10 +151,65 @@ abstract class AbstractDatabaseConnectionSource implements DatabaseConnectionSou
   }
 
   protected Consumer<Connection> connectionInitializer;
+  private Predicate<Connection> connectionDirtyCheck;
+  // Physical connections, and the initializer that they were initialized with
+  private final Map<Connection, Consumer<Connection>> initializedConnections;
 
   public AbstractDatabaseConnectionSource(final Consumer<Connection> connectionInitializer) {
     this.connectionInitializer =
         requireNonNull(connectionInitializer, "No connection initializer provided");
+    connectionDirtyCheck = connection -> false;
+    initializedConnections = new IdentityHashMap<>();
+  }
+
+  @Override
+  public void setConnectionDirtyCheck(final Predicate<Connection> connectionDirtyCheck) {
+    if (connectionDirtyCheck != null) {
+      this.connectionDirtyCheck = connectionDirtyCheck;
+    }
+  }
+
+  /**
+   * Forgets the initialization state of a physical connection, once it is closed or discarded.
+   *
+   * @param connection Physical database connection
+   */
+  protected void forgetConnection(final Connection connection) {
+    synchronized (initializedConnections) {
+      initializedConnections.remove(connection);
+    }
+  }
+
+  /**
+   * Initializes a physical connection only if it has not already been initialized with the current
+   * connection initializer, or if the connection dirty check says that its session state has
+   * changed.
+   *
+   * @param connection Physical database connection
+   */
+  protected void initializeConnection(final Connection connection) {
+    final Consumer<Connection> currentInitializer = connectionInitializer;
+    synchronized (initializedConnections) {
+      if (initializedConnections.get(connection) == currentInitializer
+          && !connectionDirtyCheck.test(connection)) {
+        LOGGER.log(
+            Level.FINER,
+            new StringFormat("Database connection <%s> is already initialized", connection));
+        return;
+      }
+      // Forget state, in case initialization fails
+      initializedConnections.remove(connection);
+    }
+
+    currentInitializer.accept(connection);
+    LOGGER.log(
+        Level.FINE,
+        new StringFormat(
+            "Initialized database connection <%s> with <%s>", connection, currentInitializer));
+
+    synchronized (initializedConnections) {
+      initializedConnections.put(connection, currentInitializer);
+    }
   }
 
   @Override
@@ -0,0 +1,112 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.datasource;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/** Snapshot of the state of a pool of database connections, for monitoring. */
+public final class ConnectionPoolStatistics {
+
+  private final int activeConnections;
+  private final int idleConnections;
+  private final int connectionsCreated;
+  private final int connectionsEvicted;
+  private final long borrowCount;
+  private final Duration totalBorrowWait;
+  private final Duration maxBorrowWait;
+
+  ConnectionPoolStatistics(
+      final int activeConnections,
+      final int idleConnections,
+      final int connectionsCreated,
+      final int connectionsEvicted,
+      final long borrowCount,
+      final Duration totalBorrowWait,
+      final Duration maxBorrowWait) {
+    this.activeConnections = activeConnections;
+    this.idleConnections = idleConnections;
+    this.connectionsCreated = connectionsCreated;
+    this.connectionsEvicted = connectionsEvicted;
+    this.borrowCount = borrowCount;
+    this.totalBorrowWait = requireNonNull(totalBorrowWait, "No total borrow wait provided");
+    this.maxBorrowWait = requireNonNull(maxBorrowWait, "No maximum borrow wait provided");
+  }
+
+  public int getActiveConnections() {
+    return activeConnections;
+  }
+
+  public Duration getAverageBorrowWait() {
+    if (borrowCount == 0) {
+      return Duration.ZERO;
+    }
+    return totalBorrowWait.dividedBy(borrowCount);
+  }
+
+  public long getBorrowCount() {
+    return borrowCount;
+  }
+
+  public int getConnectionsCreated() {
+    return connectionsCreated;
+  }
+
+  public int getConnectionsEvicted() {
+    return connectionsEvicted;
+  }
+
+  public int getIdleConnections() {
+    return idleConnections;
+  }
+
+  public Duration getMaxBorrowWait() {
+    return maxBorrowWait;
+  }
+
+  public Duration getTotalBorrowWait() {
+    return totalBorrowWait;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "active connections <%d>, idle connections <%d>, connections created <%d>, "
+            + "connections evicted <%d>, borrowed <%d> times, "
+            + "average borrow wait <%d ms>, maximum borrow wait <%d ms>",
+        activeConnections,
+        idleConnections,
+        connectionsCreated,
+        connectionsEvicted,
+        borrowCount,
+        getAverageBorrowWait().toMillis(),
+        maxBorrowWait.toMillis());
+  }
+}
@@ -29,12 +29,43 @@ http://www.gnu.org/licenses/
 package us.fatehi.utility.datasource;
 
 import java.sql.Connection;
+import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public interface DatabaseConnectionSource extends AutoCloseable, Supplier<Connection> {
 
+  /**
+   * Gets a snapshot of the state of the pool of connections, for monitoring, if connections are
+   * pooled.
+   *
+   * @return Connection pool statistics, or empty if connections are not pooled
+   */
+  default Optional<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+    return Optional.empty();
+  }
+
+  /**
+   * Marks connections that are pooled as needing to be validated before they are handed out again,
+   * such as after a connection error, when connections to the database may have been lost.
+   */
+  default void invalidateConnections() {
+    // No-op by default
+  }
+
   boolean releaseConnection(Connection connection);
 
+  /**
+   * Sets a check for connections that have already been initialized, to find out if their session
+   * state has changed, so that they need to be initialized again. Connections are otherwise
+   * initialized only once.
+   *
+   * @param connectionDirtyCheck Returns true if the connection needs to be initialized again
+   */
+  default void setConnectionDirtyCheck(final Predicate<Connection> connectionDirtyCheck) {
+    // No-op by default
+  }
+
   void setFirstConnectionInitializer(Consumer<Connection> connectionInitializer);
 }
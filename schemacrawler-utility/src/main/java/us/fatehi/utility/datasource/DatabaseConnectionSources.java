@@ -38,6 +38,8 @@ import java.util.logging.Logger;
 
 import javax.sql.DataSource;
 
+import us.fatehi.utility.string.StringFormat;
+
 public class DatabaseConnectionSources {
 
   private static final Logger LOGGER = Logger.getLogger(DatabaseConnectionSources.class.getName());
@@ -62,7 +64,11 @@ public class DatabaseConnectionSources {
     } else {
       LOGGER.log(Level.CONFIG, "Loading database schema using multiple threads");
       return new SimpleDatabaseConnectionSource(
-          connectionUrl, connectionProperties, userCredentials, connectionInitializer);
+          connectionUrl,
+          connectionProperties,
+          userCredentials,
+          connectionInitializer,
+          maxConnections());
     }
   }
 
@@ -71,6 +77,25 @@ public class DatabaseConnectionSources {
     return newDatabaseConnectionSource(connectionUrl, null, userCredentials, connection -> {});
   }
 
+  private static int maxConnections() {
+    final String maxConnectionsValue =
+        getSystemConfigurationProperty(
+            "SC_MAX_CONNECTIONS",
+            String.valueOf(SimpleDatabaseConnectionSource.DEFAULT_MAX_CONNECTIONS));
+    try {
+      final int maxConnections = Integer.parseInt(maxConnectionsValue.trim());
+      if (maxConnections > 0) {
+        return maxConnections;
+      }
+    } catch (final NumberFormatException e) {
+      // Fall through to default
+    }
+    LOGGER.log(
+        Level.WARNING,
+        new StringFormat("Ignoring bad maximum number of connections <%s>", maxConnectionsValue));
+    return SimpleDatabaseConnectionSource.DEFAULT_MAX_CONNECTIONS;
+  }
+
   private DatabaseConnectionSources() {
     // Prevent instantiation
   }
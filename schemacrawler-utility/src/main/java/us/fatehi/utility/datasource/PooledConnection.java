@@ -0,0 +1,512 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.datasource;
+
+import static java.util.Objects.requireNonNull;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.ClientInfoStatus;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Connection from a database connection source, which delegates calls to the physical connection,
+ * and returns the physical connection to the connection source when it is closed. Calls are
+ * delegated directly, without reflection, since every JDBC call during a crawl goes through this
+ * class. Only the request demarcation methods that were added after Java 8 use reflection, and
+ * sharding keys are not supported.
+ */
+final class PooledConnection implements DatabaseConnectionSourceConnection {
+
+  private static final Logger LOGGER = Logger.getLogger(PooledConnection.class.getName());
+
+  // Methods that were added in Java 9, which are called through reflection
+  private static final Method BEGIN_REQUEST = lookupConnectionMethod("beginRequest");
+  private static final Method END_REQUEST = lookupConnectionMethod("endRequest");
+
+  private static Method lookupConnectionMethod(final String methodName) {
+    try {
+      return Connection.class.getMethod(methodName);
+    } catch (final NoSuchMethodException | SecurityException e) {
+      LOGGER.log(
+          Level.CONFIG,
+          new StringFormat(
+              "Connection method <%s> is not available in this Java runtime", methodName));
+      return null;
+    }
+  }
+
+  private final Connection connection;
+  private final DatabaseConnectionSource databaseConnectionSource;
+  private volatile boolean isClosed;
+
+  PooledConnection(
+      final Connection connection, final DatabaseConnectionSource databaseConnectionSource) {
+    requireNonNull(connection, "No database connnection provided");
+    if (connection instanceof DatabaseConnectionSourceConnection) {
+      try {
+        this.connection = connection.unwrap(Connection.class);
+      } catch (final SQLException e) {
+        throw new RuntimeException("Could not unwrap proxy connection");
+      }
+    } else {
+      this.connection = connection;
+    }
+    this.databaseConnectionSource =
+        requireNonNull(databaseConnectionSource, "No database connection source provided");
+    isClosed = false;
+  }
+
+  @Override
+  public void abort(final Executor executor) throws SQLException {
+    checkOpen("abort");
+    connection.abort(executor);
+  }
+
+  /**
+   * Hints to the driver that a unit of work is starting, on Java 9 and later. Not annotated as an
+   * override, so that this class can be compiled for Java 8.
+   *
+   * @throws SQLException On an exception
+   */
+  public void beginRequest() throws SQLException {
+    checkOpen("beginRequest");
+    invokeConnectionMethod(BEGIN_REQUEST);
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    checkOpen("clearWarnings");
+    connection.clearWarnings();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    checkOpen("close");
+    databaseConnectionSource.releaseConnection(connection);
+    isClosed = true;
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    checkOpen("commit");
+    connection.commit();
+  }
+
+  @Override
+  public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+    checkOpen("createArrayOf");
+    return connection.createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    checkOpen("createBlob");
+    return connection.createBlob();
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    checkOpen("createClob");
+    return connection.createClob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    checkOpen("createNClob");
+    return connection.createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    checkOpen("createSQLXML");
+    return connection.createSQLXML();
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    checkOpen("createStatement");
+    return connection.createStatement();
+  }
+
+  @Override
+  public Statement createStatement(
+      final int resultSetType, final int resultSetConcurrency) throws SQLException {
+    checkOpen("createStatement");
+    return connection.createStatement(resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public Statement createStatement(
+      final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability)
+      throws SQLException {
+    checkOpen("createStatement");
+    return connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+    checkOpen("createStruct");
+    return connection.createStruct(typeName, attributes);
+  }
+
+  /**
+   * Hints to the driver that a unit of work has completed, on Java 9 and later. Not annotated as an
+   * override, so that this class can be compiled for Java 8.
+   *
+   * @throws SQLException On an exception
+   */
+  public void endRequest() throws SQLException {
+    checkOpen("endRequest");
+    invokeConnectionMethod(END_REQUEST);
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    checkOpen("getAutoCommit");
+    return connection.getAutoCommit();
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    checkOpen("getCatalog");
+    return connection.getCatalog();
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    checkOpen("getClientInfo");
+    return connection.getClientInfo();
+  }
+
+  @Override
+  public String getClientInfo(final String name) throws SQLException {
+    checkOpen("getClientInfo");
+    return connection.getClientInfo(name);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    checkOpen("getHoldability");
+    return connection.getHoldability();
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    checkOpen("getMetaData");
+    return connection.getMetaData();
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    checkOpen("getNetworkTimeout");
+    return connection.getNetworkTimeout();
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    checkOpen("getSchema");
+    return connection.getSchema();
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    checkOpen("getTransactionIsolation");
+    return connection.getTransactionIsolation();
+  }
+
+  @Override
+  public Map<String, Class<?>> getTypeMap() throws SQLException {
+    checkOpen("getTypeMap");
+    return connection.getTypeMap();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    checkOpen("getWarnings");
+    return connection.getWarnings();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return isClosed;
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    checkOpen("isReadOnly");
+    return connection.isReadOnly();
+  }
+
+  @Override
+  public boolean isValid(final int timeout) throws SQLException {
+    checkOpen("isValid");
+    return connection.isValid(timeout);
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+    checkOpen("isWrapperFor");
+    return iface.isAssignableFrom(connection.getClass());
+  }
+
+  @Override
+  public String nativeSQL(final String sql) throws SQLException {
+    checkOpen("nativeSQL");
+    return connection.nativeSQL(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(final String sql) throws SQLException {
+    checkOpen("prepareCall");
+    return connection.prepareCall(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      final String sql, final int resultSetType, final int resultSetConcurrency)
+      throws SQLException {
+    checkOpen("prepareCall");
+    return connection.prepareCall(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      final String sql,
+      final int resultSetType,
+      final int resultSetConcurrency,
+      final int resultSetHoldability)
+      throws SQLException {
+    checkOpen("prepareCall");
+    return connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(final String sql) throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(sql);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int autoGeneratedKeys) throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(sql, autoGeneratedKeys);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int[] columnIndexes) throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(sql, columnIndexes);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final String[] columnNames) throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(sql, columnNames);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql, final int resultSetType, final int resultSetConcurrency)
+      throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      final String sql,
+      final int resultSetType,
+      final int resultSetConcurrency,
+      final int resultSetHoldability)
+      throws SQLException {
+    checkOpen("prepareStatement");
+    return connection.prepareStatement(
+        sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+  }
+
+  @Override
+  public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+    checkOpen("releaseSavepoint");
+    connection.releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    checkOpen("rollback");
+    connection.rollback();
+  }
+
+  @Override
+  public void rollback(final Savepoint savepoint) throws SQLException {
+    checkOpen("rollback");
+    connection.rollback(savepoint);
+  }
+
+  @Override
+  public void setAutoCommit(final boolean autoCommit) throws SQLException {
+    checkOpen("setAutoCommit");
+    connection.setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public void setCatalog(final String catalog) throws SQLException {
+    checkOpen("setCatalog");
+    connection.setCatalog(catalog);
+  }
+
+  @Override
+  public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+    checkClientInfoOpen("setClientInfo");
+    connection.setClientInfo(properties);
+  }
+
+  @Override
+  public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+    checkClientInfoOpen("setClientInfo");
+    connection.setClientInfo(name, value);
+  }
+
+  @Override
+  public void setHoldability(final int holdability) throws SQLException {
+    checkOpen("setHoldability");
+    connection.setHoldability(holdability);
+  }
+
+  @Override
+  public void setNetworkTimeout(
+      final Executor executor, final int milliseconds) throws SQLException {
+    checkOpen("setNetworkTimeout");
+    connection.setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public void setReadOnly(final boolean readOnly) throws SQLException {
+    checkOpen("setReadOnly");
+    connection.setReadOnly(readOnly);
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    checkOpen("setSavepoint");
+    return connection.setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(final String name) throws SQLException {
+    checkOpen("setSavepoint");
+    return connection.setSavepoint(name);
+  }
+
+  @Override
+  public void setSchema(final String schema) throws SQLException {
+    checkOpen("setSchema");
+    connection.setSchema(schema);
+  }
+
+  @Override
+  public void setTransactionIsolation(final int level) throws SQLException {
+    checkOpen("setTransactionIsolation");
+    connection.setTransactionIsolation(level);
+  }
+
+  @Override
+  public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
+    checkOpen("setTypeMap");
+    connection.setTypeMap(map);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Pooled connection <%s@%d> for <%s>",
+        getClass().getName(), System.identityHashCode(this), connection);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T unwrap(final Class<T> iface) {
+    return (T) connection;
+  }
+
+  private void checkClientInfoOpen(final String methodName) throws SQLClientInfoException {
+    if (isClosed) {
+      throw new SQLClientInfoException(
+          String.format("Cannot call <%s> since connection is closed", methodName),
+          Collections.<String, ClientInfoStatus>emptyMap());
+    }
+  }
+
+  private void checkOpen(final String methodName) throws SQLException {
+    if (isClosed) {
+      throw new SQLException(
+          String.format("Cannot call <%s> since connection is closed", methodName));
+    }
+  }
+
+  private void invokeConnectionMethod(final Method method) throws SQLException {
+    if (method == null) {
+      return;
+    }
+    try {
+      method.invoke(connection);
+    } catch (final InvocationTargetException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw new SQLException(String.format("Could not call <%s>", method.getName()), cause);
+    } catch (final IllegalAccessException e) {
+      throw new SQLException(String.format("Could not call <%s>", method.getName()), e);
+    }
+  }
+}
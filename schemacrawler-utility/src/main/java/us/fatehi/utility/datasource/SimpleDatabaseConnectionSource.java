@@ -33,39 +33,124 @@ import static us.fatehi.utility.Utility.isBlank;
 import static us.fatehi.utility.Utility.requireNotBlank;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import us.fatehi.utility.SQLRuntimeException;
-import us.fatehi.utility.database.DatabaseUtility;
 import us.fatehi.utility.string.StringFormat;
 
+/**
+ * A bounded pool of database connections. Borrowing a connection blocks fairly when all
+ * connections are in use, up to a timeout. Connections that have been idle for too long are closed,
+ * and idle connections are validated before they are borrowed again, only if they have not been
+ * validated recently.
+ */
 final class SimpleDatabaseConnectionSource extends AbstractDatabaseConnectionSource {
 
+  private static final class IdleConnection {
+    private final Connection connection;
+    private final long idleSinceNanos;
+
+    IdleConnection(final Connection connection, final long idleSinceNanos) {
+      this.connection = connection;
+      this.idleSinceNanos = idleSinceNanos;
+    }
+  }
+
   private static final Logger LOGGER =
       Logger.getLogger(SimpleDatabaseConnectionSource.class.getName());
 
+  static final int DEFAULT_MAX_CONNECTIONS = 20;
+  static final Duration DEFAULT_BORROW_TIMEOUT = Duration.ofMinutes(10);
+  static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+  static final Duration DEFAULT_VALIDATION_INTERVAL = Duration.ofSeconds(30);
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
   private final String connectionUrl;
   private final Properties jdbcConnectionProperties;
-  private final Deque<Connection> connectionPool;
+  private final Deque<IdleConnection> idleConnections;
   private final Deque<Connection> usedConnections;
+  private final Map<Connection, Long> lastValidatedNanos;
+  private final Semaphore connectionPermits;
+  private final int maxConnections;
+  private final long borrowTimeoutNanos;
+  private final long idleTimeoutNanos;
+  private final long validationIntervalNanos;
+
+  // Statistics, guarded by this
+  private int connectionsCreated;
+  private int connectionsEvicted;
+  private long borrowCount;
+  private long totalBorrowWaitNanos;
+  private long maxBorrowWaitNanos;
 
   SimpleDatabaseConnectionSource(
       final String connectionUrl,
       final Map<String, String> connectionProperties,
       final UserCredentials userCredentials,
       final Consumer<Connection> connectionInitializer) {
+    this(
+        connectionUrl,
+        connectionProperties,
+        userCredentials,
+        connectionInitializer,
+        DEFAULT_MAX_CONNECTIONS);
+  }
+
+  SimpleDatabaseConnectionSource(
+      final String connectionUrl,
+      final Map<String, String> connectionProperties,
+      final UserCredentials userCredentials,
+      final Consumer<Connection> connectionInitializer,
+      final int maxConnections) {
+    this(
+        connectionUrl,
+        connectionProperties,
+        userCredentials,
+        connectionInitializer,
+        maxConnections,
+        DEFAULT_BORROW_TIMEOUT,
+        DEFAULT_IDLE_TIMEOUT,
+        DEFAULT_VALIDATION_INTERVAL);
+  }
+
+  SimpleDatabaseConnectionSource(
+      final String connectionUrl,
+      final Map<String, String> connectionProperties,
+      final UserCredentials userCredentials,
+      final Consumer<Connection> connectionInitializer,
+      final int maxConnections,
+      final Duration borrowTimeout,
+      final Duration idleTimeout,
+      final Duration validationInterval) {
 
     super(connectionInitializer);
     this.connectionUrl = requireNotBlank(connectionUrl, "No database connection URL provided");
     requireNonNull(userCredentials, "No user credentials provided");
 
+    if (maxConnections < 1) {
+      throw new IllegalArgumentException("Maximum number of connections should be at least 1");
+    }
+    this.maxConnections = maxConnections;
+    borrowTimeoutNanos = requireNonNull(borrowTimeout, "No borrow timeout provided").toNanos();
+    idleTimeoutNanos = requireNonNull(idleTimeout, "No idle timeout provided").toNanos();
+    validationIntervalNanos =
+        requireNonNull(validationInterval, "No validation interval provided").toNanos();
+
     final String user = userCredentials.getUser();
     final String password = userCredentials.getPassword();
     if (isBlank(user)) {
@@ -78,18 +163,33 @@ final class SimpleDatabaseConnectionSource extends AbstractDatabaseConnectionSou
     jdbcConnectionProperties =
         createConnectionProperties(connectionUrl, connectionProperties, user, password);
 
-    connectionPool = new LinkedBlockingDeque<>();
-    usedConnections = new LinkedBlockingDeque<>();
+    idleConnections = new ArrayDeque<>();
+    usedConnections = new ArrayDeque<>();
+    lastValidatedNanos = new IdentityHashMap<>();
+
+    // Limit the number of connections in use at the same time, so that
+    // the number of concurrent tasks using this connection source is
+    // bounded by the number of connections, and not the number of threads
+    connectionPermits = new Semaphore(maxConnections, true);
   }
 
   @Override
   public void close() throws Exception {
 
     final List<Connection> connections = new ArrayList<>();
-    connections.addAll(connectionPool);
-    connections.addAll(usedConnections);
+    final boolean hasUsedConnections;
+    synchronized (this) {
+      for (final IdleConnection idleConnection : idleConnections) {
+        connections.add(idleConnection.connection);
+      }
+      connections.addAll(usedConnections);
+      hasUsedConnections = !usedConnections.isEmpty();
+    }
+
+    LOGGER.log(Level.INFO, new StringFormat("Closing connection pool - %s", getStatistics()));
 
     for (final Connection connection : connections) {
+      forgetConnection(connection);
       try {
         connection.close();
         LOGGER.log(Level.INFO, new StringFormat("Closed database connection <%s>", connection));
@@ -98,61 +198,255 @@ final class SimpleDatabaseConnectionSource extends AbstractDatabaseConnectionSou
       }
     }
 
-    if (!usedConnections.isEmpty()) {
+    if (hasUsedConnections) {
       LOGGER.log(Level.SEVERE, "Abnormal termination - not all database connections are closed");
     }
 
-    connectionPool.clear();
-    usedConnections.clear();
+    synchronized (this) {
+      idleConnections.clear();
+      usedConnections.clear();
+      lastValidatedNanos.clear();
+    }
   }
 
   @Override
-  public synchronized Connection get() {
-    // Create a connection if needed
-    if (connectionPool.isEmpty()) {
-      final Connection connection = getConnection(connectionUrl, jdbcConnectionProperties);
-      connectionPool.add(connection);
+  public Connection get() {
+    // Wait for a connection to become available, outside of the lock, so
+    // that connections can be released while waiting
+    final long startNanos = System.nanoTime();
+    try {
+      if (!connectionPermits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        throw new SQLRuntimeException(
+            String.format(
+                "Timed out waiting for one of <%d> database connections - %s",
+                maxConnections, getStatistics()));
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLRuntimeException("Interrupted while waiting for a database connection", e);
     }
 
-    // Mark connection as in-use
-    final Connection connection = connectionPool.removeFirst();
-    usedConnections.add(connection);
+    try {
+      return borrowConnection(System.nanoTime() - startNanos);
+    } catch (final RuntimeException e) {
+      connectionPermits.release();
+      throw e;
+    }
+  }
 
-    connectionInitializer.accept(connection);
-    LOGGER.log(
-        Level.FINE,
-        new StringFormat(
-            "Initialized database connection <%s> with <%s>", connection, connectionInitializer));
+  /** {@inheritDoc} */
+  @Override
+  public Optional<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+    return Optional.of(getStatistics());
+  }
 
-    return PooledConnectionUtility.newPooledConnection(connection, this);
+  /**
+   * Snapshot of connection pool statistics.
+   *
+   * @return Connection pool statistics
+   */
+  public synchronized ConnectionPoolStatistics getStatistics() {
+    return new ConnectionPoolStatistics(
+        usedConnections.size(),
+        idleConnections.size(),
+        connectionsCreated,
+        connectionsEvicted,
+        borrowCount,
+        Duration.ofNanos(totalBorrowWaitNanos),
+        Duration.ofNanos(maxBorrowWaitNanos));
   }
 
+  /**
+   * Forgets when connections were last validated, so that idle connections, and connections that
+   * are in use once they are released, are validated before they are borrowed again.
+   */
   @Override
-  public synchronized boolean releaseConnection(final Connection connection) {
+  public synchronized void invalidateConnections() {
+    lastValidatedNanos.clear();
+    LOGGER.log(Level.FINE, "Connections will be validated before they are borrowed again");
+  }
 
-    final boolean removed = usedConnections.remove(connection);
+  @Override
+  public boolean releaseConnection(final Connection connection) {
 
-    try {
-      final Connection unwrappedConnection = connection.unwrap(Connection.class);
-      DatabaseUtility.checkConnection(unwrappedConnection);
-    } catch (final SQLException e) {
-      LOGGER.log(
-          Level.WARNING,
-          "Cannot check connection before returning to the pool - " + e.getMessage());
-      LOGGER.log(Level.FINE, "Cannot check connection before returning to the pool - ", e);
-    }
+    synchronized (this) {
+      final boolean removed = usedConnections.remove(connection);
+      if (!removed) {
+        LOGGER.log(
+            Level.FINE,
+            new StringFormat("Not returning unknown connection <%s> to the pool", connection));
+        return false;
+      }
 
-    connectionPool.add(connection);
+      // Connections are validated before they are borrowed again, and
+      // only if needed, so only discard connections that are known to be closed
+      if (isClosed(connection)) {
+        lastValidatedNanos.remove(connection);
+        forgetConnection(connection);
+        LOGGER.log(
+            Level.WARNING,
+            new StringFormat("Discarding closed database connection <%s>", connection));
+      } else {
+        idleConnections.addLast(new IdleConnection(connection, System.nanoTime()));
+      }
+    }
 
-    return removed;
+    connectionPermits.release();
+    return true;
   }
 
   @Override
   protected void finalize() throws Throwable {
     // Assert that all connections are closed
-    if (!connectionPool.isEmpty() || !usedConnections.isEmpty()) {
+    if (!idleConnections.isEmpty() || !usedConnections.isEmpty()) {
       throw new SQLRuntimeException("Connection pool is not closed");
     }
     super.finalize();
   }
+
+  /**
+   * Borrows an idle connection, or creates a new one. Only the bookkeeping is done while holding
+   * the lock, and connecting, validating and initializing connections are done outside the lock,
+   * so that a slow database does not hold up other borrowers.
+   *
+   * @param borrowWaitNanos Time spent waiting for a connection permit
+   * @return Pooled connection
+   */
+  private Connection borrowConnection(final long borrowWaitNanos) {
+
+    final long nowNanos = System.nanoTime();
+    final List<Connection> evictedConnections;
+    synchronized (this) {
+      borrowCount++;
+      totalBorrowWaitNanos = totalBorrowWaitNanos + borrowWaitNanos;
+      maxBorrowWaitNanos = Math.max(maxBorrowWaitNanos, borrowWaitNanos);
+      evictedConnections = evictIdleConnections(nowNanos);
+    }
+    for (final Connection evictedConnection : evictedConnections) {
+      discard(evictedConnection);
+    }
+
+    // Reuse the most recently used idle connection, so that connections
+    // that are not needed remain idle, and can be evicted
+    Connection connection = null;
+    while (connection == null) {
+      final Connection idleConnection;
+      synchronized (this) {
+        if (idleConnections.isEmpty()) {
+          break;
+        }
+        idleConnection = idleConnections.removeLast().connection;
+      }
+      if (isValid(idleConnection, nowNanos)) {
+        connection = idleConnection;
+      } else {
+        discard(idleConnection);
+      }
+    }
+
+    // Create a connection if needed
+    if (connection == null) {
+      connection = getConnection(connectionUrl, jdbcConnectionProperties);
+      synchronized (this) {
+        connectionsCreated++;
+        lastValidatedNanos.put(connection, nowNanos);
+      }
+    }
+
+    // Mark connection as in-use
+    synchronized (this) {
+      usedConnections.add(connection);
+    }
+
+    // Initialize only once per physical connection
+    try {
+      initializeConnection(connection);
+    } catch (final RuntimeException e) {
+      synchronized (this) {
+        usedConnections.remove(connection);
+      }
+      discard(connection);
+      throw e;
+    }
+
+    return PooledConnectionUtility.newPooledConnection(connection, this);
+  }
+
+  private void discard(final Connection connection) {
+    synchronized (this) {
+      lastValidatedNanos.remove(connection);
+    }
+    forgetConnection(connection);
+    try {
+      connection.close();
+      LOGGER.log(Level.INFO, new StringFormat("Closed database connection <%s>", connection));
+    } catch (final Exception e) {
+      LOGGER.log(Level.WARNING, "Cannot close connection", e);
+    }
+  }
+
+  /**
+   * Removes connections that have been idle for too long from the pool. The connections are closed
+   * by the caller, outside the lock.
+   *
+   * @param nowNanos Current time
+   * @return Connections to close
+   */
+  private List<Connection> evictIdleConnections(final long nowNanos) {
+    final List<Connection> evictedConnections = new ArrayList<>();
+    for (final Iterator<IdleConnection> iterator = idleConnections.iterator();
+        iterator.hasNext(); ) {
+      final IdleConnection idleConnection = iterator.next();
+      if (nowNanos - idleConnection.idleSinceNanos > idleTimeoutNanos) {
+        iterator.remove();
+        connectionsEvicted++;
+        LOGGER.log(
+            Level.FINE,
+            new StringFormat(
+                "Evicting idle database connection <%s>", idleConnection.connection));
+        evictedConnections.add(idleConnection.connection);
+      }
+    }
+    return evictedConnections;
+  }
+
+  private boolean isClosed(final Connection connection) {
+    try {
+      return connection.isClosed();
+    } catch (final SQLException e) {
+      LOGGER.log(Level.FINE, "Cannot check if connection is closed", e);
+      return true;
+    }
+  }
+
+  private boolean isValid(final Connection connection, final long nowNanos) {
+    final Long validatedNanos;
+    synchronized (this) {
+      validatedNanos = lastValidatedNanos.get(connection);
+    }
+    if (validatedNanos != null && nowNanos - validatedNanos <= validationIntervalNanos) {
+      return true;
+    }
+
+    boolean isValid;
+    try {
+      isValid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (final SQLFeatureNotSupportedException | AbstractMethodError e) {
+      isValid = !isClosed(connection);
+    } catch (final SQLException e) {
+      LOGGER.log(Level.FINE, "Cannot validate connection", e);
+      isValid = false;
+    }
+
+    if (isValid) {
+      synchronized (this) {
+        lastValidatedNanos.put(connection, nowNanos);
+      }
+    } else {
+      LOGGER.log(
+          Level.WARNING,
+          new StringFormat("Discarding invalid database connection <%s>", connection));
+    }
+    return isValid;
+  }
 }
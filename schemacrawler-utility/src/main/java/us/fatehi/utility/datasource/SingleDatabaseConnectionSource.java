@@ -34,16 +34,10 @@ import java.sql.Connection;
 import java.util.Map;
 import java.util.Properties;
 import java.util.function.Consumer;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import us.fatehi.utility.SQLRuntimeException;
-import us.fatehi.utility.string.StringFormat;
 
 final class SingleDatabaseConnectionSource extends AbstractDatabaseConnectionSource {
 
-  private static final Logger LOGGER =
-      Logger.getLogger(SingleDatabaseConnectionSource.class.getName());
-
   private final Connection connection;
 
   SingleDatabaseConnectionSource(
@@ -69,11 +63,7 @@ final class SingleDatabaseConnectionSource extends AbstractDatabaseConnectionSou
 
   @Override
   public Connection get() {
-    connectionInitializer.accept(connection);
-    LOGGER.log(
-        Level.FINE,
-        new StringFormat(
-            "Initialized database connection <%s> with <%s>", connection, connectionInitializer));
+    initializeConnection(connection);
 
     return PooledConnectionUtility.newPooledConnection(connection, this);
   }
@@ -32,15 +32,26 @@ import static java.time.temporal.ChronoField.HOUR_OF_DAY;
 import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
 import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
+import static java.util.Objects.requireNonNull;
 import static us.fatehi.utility.Utility.requireNotBlank;
 
 import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -51,11 +62,29 @@ abstract class AbstractTaskRunner implements TaskRunner {
   private static final Logger LOGGER = Logger.getLogger(AbstractTaskRunner.class.getName());
 
   private final String id;
+  private final Duration timeout;
+  private final long deadlineNanos;
   private final Queue<TaskDefinition> taskDefinitions;
   private final Queue<TimedTaskResult> taskResults;
 
   public AbstractTaskRunner(final String id) {
+    this(id, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Creates a task runner that has to complete all tasks, across all submissions, within the
+   * provided time.
+   *
+   * @param id Task runner id
+   * @param timeout Time allowed for all tasks to run, from when the task runner is created
+   */
+  public AbstractTaskRunner(final String id, final Duration timeout) {
     this.id = requireNotBlank(id, "No id provided");
+    this.timeout = requireNonNull(timeout, "No timeout provided");
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("Timeout must be positive");
+    }
+    deadlineNanos = System.nanoTime() + timeout.toNanos();
 
     taskDefinitions = new LinkedBlockingDeque<>();
     taskResults = new LinkedBlockingDeque<>();
@@ -130,6 +159,20 @@ abstract class AbstractTaskRunner implements TaskRunner {
                 calculatePercentage.apply(task.getDuration(), totalDuration), task));
       }
 
+      final Deque<TimedTaskResult> criticalPath = criticalPath();
+      if (!criticalPath.isEmpty()) {
+        final Duration criticalPathDuration =
+            Duration.between(criticalPath.getFirst().getStart(), criticalPath.getLast().getStop());
+        final LocalTime criticalPathDurationLocal =
+            LocalTime.ofNanoOfDay(criticalPathDuration.toNanos());
+        buffer.append(
+            String.format(
+                "Critical path for <%s> - %s hours%n", id, criticalPathDurationLocal.format(df)));
+        for (final TimedTaskResult task : criticalPath) {
+          buffer.append(String.format("- %s%n", task));
+        }
+      }
+
       taskResults.clear();
 
       return buffer.toString();
@@ -141,15 +184,17 @@ abstract class AbstractTaskRunner implements TaskRunner {
 
   @Override
   public final void submit() throws Exception {
-    final Collection<TimedTaskResult> runTaskResults = runTimed(taskDefinitions);
-    taskResults.addAll(runTaskResults);
+    final List<TaskDefinition> sortedTaskDefinitions = sortByDependencies(taskDefinitions);
     taskDefinitions.clear();
+    final Collection<TimedTaskResult> runTaskResults = runTimed(sortedTaskDefinitions);
+    taskResults.addAll(runTaskResults);
 
     // Stop, report and throw on an exception
     boolean hasException = false;
     Exception exception = null;
     for (final TimedTaskResult runTaskResult : runTaskResults) {
-      if (runTaskResult.hasException()) {
+      // Skipped tasks have the exception of the task that failed, which is already reported
+      if (runTaskResult.hasException() && !runTaskResult.isSkipped()) {
         hasException = true;
         final Exception runTaskException = runTaskResult.getException();
         if (exception == null) {
@@ -166,6 +211,152 @@ abstract class AbstractTaskRunner implements TaskRunner {
     }
   }
 
-  abstract Collection<TimedTaskResult> runTimed(final Collection<TaskDefinition> taskDefinitions)
+  /**
+   * Checks that the deadline for running tasks has not passed.
+   *
+   * @throws TimeoutException If the deadline has passed
+   */
+  final void checkDeadline() throws TimeoutException {
+    if (remainingNanos() <= 0) {
+      throw new TimeoutException(
+          String.format("Tasks for <%s> did not complete within %s", id, timeout));
+    }
+  }
+
+  /**
+   * Creates a timed task for the task definition. If any of the tasks that it depends on failed, or
+   * were skipped, the task is not run, and is reported as skipped with the same exception, so that
+   * tasks that depend on it are skipped too.
+   *
+   * @param taskDefinition Task definition
+   * @param dependencyResults Results of tasks that this task depends on
+   * @return Timed task to run
+   */
+  final TimedTask newTimedTask(
+      final TaskDefinition taskDefinition, final Collection<TimedTaskResult> dependencyResults) {
+    for (final TimedTaskResult dependencyResult : dependencyResults) {
+      if (dependencyResult.hasException()) {
+        return new TimedTask(taskDefinition, dependencyResult);
+      }
+    }
+    return new TimedTask(taskDefinition);
+  }
+
+  /**
+   * Time left before the deadline for running tasks.
+   *
+   * @return Nanoseconds left, which may be negative if the deadline has passed
+   */
+  final long remainingNanos() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  /**
+   * Runs all the tasks, and returns the results. Task definitions are provided in an order where
+   * every task follows the tasks that it depends on. Implementations may start a task as soon as
+   * the tasks that it depends on have completed.
+   *
+   * @param taskDefinitions Task definitions, sorted by dependencies
+   * @return Results of running the tasks
+   * @throws Exception On an exception
+   */
+  abstract Collection<TimedTaskResult> runTimed(final List<TaskDefinition> taskDefinitions)
       throws Exception;
+
+  /**
+   * Walks back from the task that finished last, to the task that it waited on, until the first
+   * task is reached. A task waits on the last of its dependencies to finish, or if it does not
+   * declare any dependencies that have been run, on the last task that finished before it started.
+   *
+   * @return Tasks that determine the total elapsed time, in the order in which they were run
+   */
+  private Deque<TimedTaskResult> criticalPath() {
+    final Deque<TimedTaskResult> criticalPath = new ArrayDeque<>();
+
+    TimedTaskResult current = null;
+    for (final TimedTaskResult taskResult : taskResults) {
+      if (current == null || taskResult.getStop().isAfter(current.getStop())) {
+        current = taskResult;
+      }
+    }
+
+    final Set<TimedTaskResult> visited = new HashSet<>();
+    while (current != null) {
+      criticalPath.addFirst(current);
+      visited.add(current);
+
+      TimedTaskResult predecessor = null;
+      TimedTaskResult dependencyPredecessor = null;
+      for (final TimedTaskResult taskResult : taskResults) {
+        if (visited.contains(taskResult) || taskResult.getStop().isAfter(current.getStart())) {
+          continue;
+        }
+        if (predecessor == null || taskResult.getStop().isAfter(predecessor.getStop())) {
+          predecessor = taskResult;
+        }
+        if (current.getDependencies().contains(taskResult.getTaskName())
+            && (dependencyPredecessor == null
+                || taskResult.getStop().isAfter(dependencyPredecessor.getStop()))) {
+          dependencyPredecessor = taskResult;
+        }
+      }
+      if (dependencyPredecessor != null) {
+        current = dependencyPredecessor;
+      } else {
+        current = predecessor;
+      }
+    }
+
+    return criticalPath;
+  }
+
+  /**
+   * Sorts task definitions so that every task follows the tasks that it depends on, otherwise
+   * keeping the order in which tasks were added. Dependencies on tasks that are not part of this
+   * submission are considered to be already satisfied.
+   *
+   * @param taskDefinitions Task definitions to sort
+   * @return Sorted task definitions
+   */
+  private List<TaskDefinition> sortByDependencies(final Collection<TaskDefinition> taskDefinitions) {
+
+    // Count tasks by name, since a dependency on a name is a dependency on all of those tasks
+    final Map<String, Integer> pendingTaskCounts = new HashMap<>();
+    for (final TaskDefinition taskDefinition : taskDefinitions) {
+      pendingTaskCounts.merge(taskDefinition.getTaskName(), 1, Integer::sum);
+    }
+
+    final List<TaskDefinition> pendingTaskDefinitions = new ArrayList<>(taskDefinitions);
+    final List<TaskDefinition> sortedTaskDefinitions = new ArrayList<>(taskDefinitions.size());
+    while (!pendingTaskDefinitions.isEmpty()) {
+      final List<TaskDefinition> readyTaskDefinitions = new ArrayList<>();
+      for (final Iterator<TaskDefinition> iterator = pendingTaskDefinitions.iterator();
+          iterator.hasNext(); ) {
+        final TaskDefinition taskDefinition = iterator.next();
+        boolean isReady = true;
+        for (final String dependency : taskDefinition.getDependencies()) {
+          if (pendingTaskCounts.getOrDefault(dependency, 0) > 0) {
+            isReady = false;
+            break;
+          }
+        }
+        if (isReady) {
+          readyTaskDefinitions.add(taskDefinition);
+          iterator.remove();
+        }
+      }
+
+      if (readyTaskDefinitions.isEmpty()) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Cyclic dependencies between tasks for <%s>: %s", id, pendingTaskDefinitions));
+      }
+      for (final TaskDefinition taskDefinition : readyTaskDefinitions) {
+        pendingTaskCounts.merge(taskDefinition.getTaskName(), -1, Integer::sum);
+      }
+      sortedTaskDefinitions.addAll(readyTaskDefinitions);
+    }
+
+    return sortedTaskDefinitions;
+  }
 }
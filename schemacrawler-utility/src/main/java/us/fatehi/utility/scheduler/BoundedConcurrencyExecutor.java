@@ -0,0 +1,99 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.scheduler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on a shared executor, but never more than a given number at the same time. Tasks over
+ * the limit are queued, without blocking any threads, and are handed to the shared executor as
+ * running tasks complete.
+ */
+final class BoundedConcurrencyExecutor implements Executor {
+
+  private final Executor executor;
+  private final int maxConcurrency;
+  private final Queue<Runnable> queuedTasks;
+  private int runningTasks;
+
+  BoundedConcurrencyExecutor(final Executor executor, final int maxConcurrency) {
+    this.executor = requireNonNull(executor, "No executor provided");
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Maximum concurrency should be at least 1");
+    }
+    this.maxConcurrency = maxConcurrency;
+    queuedTasks = new ArrayDeque<>();
+  }
+
+  @Override
+  public void execute(final Runnable task) {
+    requireNonNull(task, "No task provided");
+    synchronized (this) {
+      queuedTasks.add(task);
+    }
+    runQueuedTasks();
+  }
+
+  private void complete() {
+    synchronized (this) {
+      runningTasks--;
+    }
+    runQueuedTasks();
+  }
+
+  private void runQueuedTasks() {
+    while (true) {
+      final Runnable task;
+      synchronized (this) {
+        if (runningTasks >= maxConcurrency || queuedTasks.isEmpty()) {
+          return;
+        }
+        task = queuedTasks.poll();
+        runningTasks++;
+      }
+      try {
+        executor.execute(
+            () -> {
+              try {
+                task.run();
+              } finally {
+                complete();
+              }
+            });
+      } catch (final RuntimeException e) {
+        complete();
+        throw e;
+      }
+    }
+  }
+}
@@ -30,14 +30,23 @@ package us.fatehi.utility.scheduler;
 
 import static java.util.Objects.requireNonNull;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 final class MainThreadTaskRunner extends AbstractTaskRunner {
 
   MainThreadTaskRunner(final String id) {
-    super(id);
+    this(id, DEFAULT_TIMEOUT);
+  }
+
+  MainThreadTaskRunner(final String id, final Duration timeout) {
+    super(id, timeout);
   }
 
   @Override
@@ -51,7 +60,7 @@ final class MainThreadTaskRunner extends AbstractTaskRunner {
   }
 
   @Override
-  Collection<TimedTaskResult> runTimed(final Collection<TaskDefinition> taskDefinitions)
+  Collection<TimedTaskResult> runTimed(final List<TaskDefinition> taskDefinitions)
       throws Exception {
 
     requireNonNull(taskDefinitions, "Tasks not provided");
@@ -59,9 +68,22 @@ final class MainThreadTaskRunner extends AbstractTaskRunner {
       return Collections.emptyList();
     }
 
+    final Map<String, List<TimedTaskResult>> taskResultsByName = new HashMap<>();
     final Collection<TimedTaskResult> runTaskResults = new CopyOnWriteArrayList<>();
     for (final TaskDefinition taskDefinition : taskDefinitions) {
-      final TimedTaskResult taskResult = new TimedTask(taskDefinition).call();
+      // Tasks cannot be interrupted in the main thread, so check between tasks
+      checkDeadline();
+
+      final List<TimedTaskResult> dependencyResults = new ArrayList<>();
+      for (final String dependency : taskDefinition.getDependencies()) {
+        dependencyResults.addAll(
+            taskResultsByName.getOrDefault(dependency, Collections.emptyList()));
+      }
+
+      final TimedTaskResult taskResult = newTimedTask(taskDefinition, dependencyResults).call();
+      taskResultsByName
+          .computeIfAbsent(taskDefinition.getTaskName(), name -> new ArrayList<>())
+          .add(taskResult);
       runTaskResults.add(taskResult);
     }
     return runTaskResults;
@@ -29,57 +29,75 @@ http://www.gnu.org/licenses/
 package us.fatehi.utility.scheduler;
 
 import static java.util.Objects.requireNonNull;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import us.fatehi.utility.string.StringFormat;
 
-final class MultiThreadedTaskRunner extends AbstractTaskRunner {
+/**
+ * Runs tasks on multiple threads. By default, tasks are run on a work-stealing pool of threads that
+ * is shared by all task runners in the process, so that task runners that are nested in other tasks
+ * or used by concurrent crawls do not create thread pools of their own.
+ */
+class MultiThreadedTaskRunner extends AbstractTaskRunner {
 
   private static final Logger LOGGER = Logger.getLogger(MultiThreadedTaskRunner.class.getName());
 
-  private final ExecutorService executorService;
+  private final Executor executor;
+  private volatile boolean isStopped;
 
   MultiThreadedTaskRunner(final String id, final int maxThreadsSuggested) {
-    super(id);
+    this(id, maxThreadsSuggested, DEFAULT_TIMEOUT);
+  }
+
+  MultiThreadedTaskRunner(
+      final String id, final int maxThreadsSuggested, final Duration timeout) {
+    super(id, timeout);
 
     final int maxThreads = Math.min(Math.max(maxThreadsSuggested, MIN_THREADS), MAX_THREADS);
-    executorService = Executors.newFixedThreadPool(maxThreads);
+    final ForkJoinPool sharedPool = SharedTaskExecutor.getSharedPool();
+    executor = new BoundedConcurrencyExecutor(sharedPool, maxThreads);
     LOGGER.log(
         Level.INFO,
         new StringFormat(
-            "Started thread pool <%s> for <%s> with <%d> threads",
-            executorService, id, maxThreads));
+            "Using shared thread pool <%s> for <%s> with up to <%d> concurrent tasks",
+            sharedPool, id, maxThreads));
+  }
+
+  MultiThreadedTaskRunner(final String id, final Executor executor, final Duration timeout) {
+    super(id, timeout);
+    this.executor = requireNonNull(executor, "No executor provided");
   }
 
   @Override
-  public boolean isStopped() {
-    return executorService.isShutdown();
+  public final boolean isStopped() {
+    return isStopped;
   }
 
+  /**
+   * Stops accepting tasks. Tasks that were submitted have already completed, since submission
+   * blocks until all tasks are complete. Threads are not shut down, since they are shared.
+   */
   @Override
   public void stop() {
-    try {
-      executorService.shutdown();
-      if (!executorService.awaitTermination(1, TimeUnit.HOURS)) {
-        executorService.shutdownNow();
-      }
-    } catch (final InterruptedException ex) {
-      executorService.shutdownNow();
-      Thread.currentThread().interrupt();
-    }
+    isStopped = true;
   }
 
   @Override
-  Collection<TimedTaskResult> runTimed(final Collection<TaskDefinition> taskDefinitions)
+  final Collection<TimedTaskResult> runTimed(final List<TaskDefinition> taskDefinitions)
       throws Exception {
 
     requireNonNull(taskDefinitions, "Tasks not provided");
@@ -89,24 +107,55 @@ final class MultiThreadedTaskRunner extends AbstractTaskRunner {
     if (isStopped()) {
       throw new IllegalStateException("Task runner is stopped");
     }
+    checkDeadline();
+
+    // Chain each task to the tasks that it depends on, so that it starts
+    // as soon as those are complete, without waiting for unrelated tasks
+    final Map<String, List<CompletableFuture<TimedTaskResult>>> futureResultsByName =
+        new HashMap<>();
+    final List<CompletableFuture<TimedTaskResult>> futureResults = new ArrayList<>();
+    for (final TaskDefinition taskDefinition : taskDefinitions) {
+      final List<CompletableFuture<TimedTaskResult>> dependencyFutureResults = new ArrayList<>();
+      for (final String dependency : taskDefinition.getDependencies()) {
+        dependencyFutureResults.addAll(
+            futureResultsByName.getOrDefault(dependency, Collections.emptyList()));
+      }
+
+      final CompletableFuture<TimedTaskResult> futureResult =
+          CompletableFuture.allOf(dependencyFutureResults.toArray(new CompletableFuture[0]))
+              .thenApplyAsync(
+                  ignored -> {
+                    final List<TimedTaskResult> dependencyResults = new ArrayList<>();
+                    for (final CompletableFuture<TimedTaskResult> dependencyFutureResult :
+                        dependencyFutureResults) {
+                      dependencyResults.add(dependencyFutureResult.join());
+                    }
+                    return newTimedTask(taskDefinition, dependencyResults).call();
+                  },
+                  executor);
+      futureResultsByName
+          .computeIfAbsent(taskDefinition.getTaskName(), name -> new ArrayList<>())
+          .add(futureResult);
+      futureResults.add(futureResult);
+    }
 
     try {
-      final Collection<TimedTask> timedTasks = new CopyOnWriteArrayList<>();
-      for (final TaskDefinition taskDefinition : taskDefinitions) {
-        final TimedTask timedTask = new TimedTask(taskDefinition);
-        timedTasks.add(timedTask);
-      }
+      CompletableFuture.allOf(futureResults.toArray(new CompletableFuture[0]))
+          .get(Math.max(remainingNanos(), 0), TimeUnit.NANOSECONDS);
 
       final Collection<TimedTaskResult> runTaskResults = new CopyOnWriteArrayList<>();
-
-      final List<Future<TimedTaskResult>> futureResults =
-          executorService.invokeAll(timedTasks, 1, TimeUnit.HOURS);
-      for (final Future<TimedTaskResult> futureResult : futureResults) {
-        final TimedTaskResult timedTaskResult = futureResult.get();
-        runTaskResults.add(timedTaskResult);
+      for (final CompletableFuture<TimedTaskResult> futureResult : futureResults) {
+        runTaskResults.add(futureResult.get());
       }
-
       return runTaskResults;
+    } catch (final TimeoutException e) {
+      for (final CompletableFuture<TimedTaskResult> futureResult : futureResults) {
+        futureResult.cancel(true);
+      }
+      LOGGER.log(
+          Level.WARNING, new StringFormat("Cancelled tasks for <%s> at the deadline", getId()));
+      checkDeadline();
+      throw e;
     } catch (final ExecutionException e) {
       final Throwable cause = e.getCause();
       if (cause instanceof Exception) {
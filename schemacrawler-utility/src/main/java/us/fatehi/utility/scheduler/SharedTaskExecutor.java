@@ -0,0 +1,90 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.scheduler;
+
+import static us.fatehi.utility.PropertiesUtility.getSystemConfigurationProperty;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Holds a single work-stealing pool of threads for the process, which is shared by all task
+ * runners. Tasks that wait on nested tasks do so with managed blocking, so the pool can compensate
+ * with additional threads, and nested task runners do not deadlock. The size of the pool can be set
+ * with the SC_MAX_THREADS configuration property.
+ */
+final class SharedTaskExecutor {
+
+  private static final class SharedPoolHolder {
+    private static final ForkJoinPool SHARED_POOL = newSharedPool();
+  }
+
+  private static final Logger LOGGER = Logger.getLogger(SharedTaskExecutor.class.getName());
+
+  static ForkJoinPool getSharedPool() {
+    return SharedPoolHolder.SHARED_POOL;
+  }
+
+  private static ForkJoinPool newSharedPool() {
+    final int parallelism = parallelism();
+    // Use FIFO (async) mode, since tasks are submitted and not forked
+    final ForkJoinPool sharedPool =
+        new ForkJoinPool(
+            parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    LOGGER.log(
+        Level.CONFIG,
+        new StringFormat(
+            "Started shared thread pool <%s> with parallelism <%d>", sharedPool, parallelism));
+    return sharedPool;
+  }
+
+  private static int parallelism() {
+    final String maxThreadsValue =
+        getSystemConfigurationProperty("SC_MAX_THREADS", String.valueOf(TaskRunner.MAX_THREADS));
+    try {
+      final int maxThreads = Integer.parseInt(maxThreadsValue.trim());
+      if (maxThreads > 0) {
+        return maxThreads;
+      }
+    } catch (final NumberFormatException e) {
+      // Fall through to default
+    }
+    LOGGER.log(
+        Level.WARNING,
+        new StringFormat("Ignoring bad maximum number of threads <%s>", maxThreadsValue));
+    return TaskRunner.MAX_THREADS;
+  }
+
+  private SharedTaskExecutor() {
+    // Prevent instantiation
+  }
+}
@@ -31,6 +31,10 @@ package us.fatehi.utility.scheduler;
 import static java.util.Objects.requireNonNull;
 import static us.fatehi.utility.Utility.requireNotBlank;
 import static us.fatehi.utility.Utility.toSnakeCase;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import us.fatehi.utility.string.StringFormat;
@@ -50,17 +54,51 @@ public final class TaskDefinition {
 
   private final String taskName;
   private final TaskRunnable task;
+  private final Set<String> dependencies;
 
   public TaskDefinition(final String taskName) {
     this.taskName = toSnakeCase(requireNotBlank(taskName, "Task name not provided"));
     this.task = () -> LOGGER.log(Level.INFO, new StringFormat("Not running task <%s>", taskName));
+    dependencies = Collections.emptySet();
   }
 
   public TaskDefinition(final String taskName, final TaskRunnable task) {
+    this(taskName, task, Collections.emptySet());
+  }
+
+  private TaskDefinition(
+      final String taskName, final TaskRunnable task, final Collection<String> dependencies) {
     requireNotBlank(taskName, "Task name not provided");
 
     this.taskName = toSnakeCase(taskName);
     this.task = requireNonNull(task, "Task not provided");
+    this.dependencies = Collections.unmodifiableSet(new LinkedHashSet<>(dependencies));
+  }
+
+  /**
+   * Creates a copy of this task definition, which will only be started once all the named tasks
+   * have completed. Dependencies on tasks that are not part of the same submission are considered
+   * to be already satisfied.
+   *
+   * @param taskNames Names of the tasks that need to complete before this one can start
+   * @return New task definition with the additional dependencies
+   */
+  public TaskDefinition dependsOn(final String... taskNames) {
+    requireNonNull(taskNames, "No task names provided");
+    final Set<String> allDependencies = new LinkedHashSet<>(dependencies);
+    for (final String dependency : taskNames) {
+      allDependencies.add(toSnakeCase(requireNotBlank(dependency, "Task name not provided")));
+    }
+    return new TaskDefinition(taskName, task, allDependencies);
+  }
+
+  /**
+   * Names of the tasks that need to complete before this task can start.
+   *
+   * @return Task names, in snake case
+   */
+  public Set<String> getDependencies() {
+    return dependencies;
   }
 
   public TaskRunnable getTask() {
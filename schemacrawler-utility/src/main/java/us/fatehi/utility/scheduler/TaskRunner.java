@@ -28,6 +28,7 @@ http://www.gnu.org/licenses/
 
 package us.fatehi.utility.scheduler;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
@@ -35,6 +36,7 @@ public interface TaskRunner extends AutoCloseable {
 
   int MIN_THREADS = 1;
   int MAX_THREADS = 10;
+  Duration DEFAULT_TIMEOUT = Duration.ofHours(1);
 
   /** Add a task definition to the list of tasks to run. */
   void add(TaskDefinition taskDefinition) throws Exception;
@@ -30,6 +30,8 @@ package us.fatehi.utility.scheduler;
 
 import static us.fatehi.utility.PropertiesUtility.getSystemConfigurationProperty;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,16 +39,57 @@ public class TaskRunners {
 
   private static final Logger LOGGER = Logger.getLogger(TaskRunners.class.getName());
 
+  /**
+   * Gets the pool of threads that is shared by all task runners, for work that runs in the
+   * background outside of a task runner. Its threads do not keep the process alive.
+   *
+   * @return Shared executor
+   */
+  public static Executor getSharedExecutor() {
+    return SharedTaskExecutor.getSharedPool();
+  }
+
+  /**
+   * Gets a task runner. Tasks are run in the main thread if the SC_SINGLE_THREADED configuration
+   * property is set. Otherwise, on Java 21 or later, tasks are run in virtual threads, unless the
+   * SC_VIRTUAL_THREADS configuration property is set to false. If neither applies, tasks are run in
+   * a pool of platform threads. Either way, no more than the suggested number of tasks run at the
+   * same time, so that tasks do not open more database connections than that.
+   *
+   * @param id Task runner id
+   * @param maxThreadsSuggested Suggested number of tasks that run at the same time
+   * @return Task runner
+   */
   public static TaskRunner getTaskRunner(final String id, final int maxThreadsSuggested) {
+    return getTaskRunner(id, maxThreadsSuggested, TaskRunner.DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Gets a task runner, as for {@link #getTaskRunner(String, int)}, that has to complete all tasks
+   * within the provided time. Submissions that run past the deadline fail with a timeout.
+   *
+   * @param id Task runner id
+   * @param maxThreadsSuggested Suggested number of tasks that run at the same time
+   * @param timeout Time allowed for all tasks to run, from when the task runner is created
+   * @return Task runner
+   */
+  public static TaskRunner getTaskRunner(
+      final String id, final int maxThreadsSuggested, final Duration timeout) {
     final boolean isSingleThreaded =
         Boolean.valueOf(
             getSystemConfigurationProperty("SC_SINGLE_THREADED", Boolean.FALSE.toString()));
+    final boolean useVirtualThreads =
+        Boolean.valueOf(
+            getSystemConfigurationProperty("SC_VIRTUAL_THREADS", Boolean.TRUE.toString()));
     if (isSingleThreaded) {
       LOGGER.log(Level.CONFIG, "Loading database schema in the main thread");
-      return new MainThreadTaskRunner(id);
+      return new MainThreadTaskRunner(id, timeout);
+    } else if (useVirtualThreads && VirtualThreadTaskRunner.isAvailable()) {
+      LOGGER.log(Level.CONFIG, "Loading database schema using virtual threads");
+      return new VirtualThreadTaskRunner(id, maxThreadsSuggested, timeout);
     } else {
       LOGGER.log(Level.CONFIG, "Loading database schema using multiple threads");
-      return new MultiThreadedTaskRunner(id, maxThreadsSuggested);
+      return new MultiThreadedTaskRunner(id, maxThreadsSuggested, timeout);
     }
   }
 }
@@ -30,7 +30,6 @@ package us.fatehi.utility.scheduler;
 
 import static java.util.Objects.requireNonNull;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
@@ -40,21 +39,49 @@ import us.fatehi.utility.string.StringFormat;
 
 /**
  * Wrapper around a task definition that runs the task and times it. Throws an exception if the task
- * does not succeed.
+ * does not succeed. A task that depends on a failed task is not run, and is reported as skipped.
  */
 class TimedTask implements Callable<TimedTaskResult> {
 
   private static final Logger LOGGER = Logger.getLogger(TimedTask.class.getName());
 
   private final TaskDefinition taskDefinition;
+  private final TimedTaskResult failedDependencyResult;
 
   TimedTask(final TaskDefinition task) {
+    this(task, null);
+  }
+
+  /**
+   * Creates a timed task, which is skipped if a task that it depends on failed or was skipped.
+   *
+   * @param task Task definition
+   * @param failedDependencyResult Result of the failed task that this task depends on, or null
+   */
+  TimedTask(final TaskDefinition task, final TimedTaskResult failedDependencyResult) {
     this.taskDefinition = requireNonNull(task, "Task not provided");
+    this.failedDependencyResult = failedDependencyResult;
   }
 
   @Override
   public TimedTaskResult call() {
 
+    if (failedDependencyResult != null) {
+      LOGGER.log(
+          Level.WARNING,
+          new StringFormat(
+              "Not running <%s>, since <%s> failed",
+              taskDefinition.getTaskName(), failedDependencyResult.getTaskName()));
+      final Instant now = Instant.now();
+      return new TimedTaskResult(
+          taskDefinition.getTaskName(),
+          taskDefinition.getDependencies(),
+          now,
+          now,
+          failedDependencyResult.getException(),
+          true);
+    }
+
     LOGGER.log(
         Level.INFO,
         new StringFormat(
@@ -71,9 +98,9 @@ class TimedTask implements Callable<TimedTaskResult> {
     }
 
     final Instant stop = Instant.now();
-    final Duration runTime = Duration.between(start, stop);
     final TimedTaskResult timedTaskResult =
-        new TimedTaskResult(taskDefinition.getTaskName(), runTime, ex);
+        new TimedTaskResult(
+            taskDefinition.getTaskName(), taskDefinition.getDependencies(), start, stop, ex);
 
     if (ex != null) {
       LOGGER.log(
@@ -36,9 +36,14 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.Serializable;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 final class TimedTaskResult implements Serializable {
 
@@ -54,16 +59,57 @@ final class TimedTaskResult implements Serializable {
           .appendFraction(NANO_OF_SECOND, 3, 3, true)
           .toFormatter();
 
+  private final Instant start;
+  private final Instant stop;
   private final Duration duration;
   private final String taskName;
+  private final Set<String> dependencies;
   private final Exception exception;
+  private final boolean skipped;
+
+  TimedTaskResult(
+      final String taskName,
+      final Collection<String> dependencies,
+      final Instant start,
+      final Instant stop,
+      final Exception exception) {
+    this(taskName, dependencies, start, stop, exception, false);
+  }
 
-  TimedTaskResult(final String taskName, final Duration duration, final Exception exception) {
+  /**
+   * Creates a result for a task, which may have been skipped since a task that it depends on
+   * failed. A skipped task has the exception of the failed task, so that tasks that depend on it
+   * are skipped as well.
+   *
+   * @param taskName Task name
+   * @param dependencies Names of tasks that the task depends on
+   * @param start Start time
+   * @param stop Stop time
+   * @param exception Exception from the task, or from the failed task for a skipped task
+   * @param skipped Whether the task was skipped
+   */
+  TimedTaskResult(
+      final String taskName,
+      final Collection<String> dependencies,
+      final Instant start,
+      final Instant stop,
+      final Exception exception,
+      final boolean skipped) {
     requireNonNull(taskName, "Task name not provided");
-    requireNonNull(duration, "Duration not provided");
+    requireNonNull(dependencies, "Dependencies not provided");
+    requireNonNull(start, "Start time not provided");
+    requireNonNull(stop, "Stop time not provided");
     this.taskName = taskName;
-    this.duration = duration;
+    this.dependencies = Collections.unmodifiableSet(new LinkedHashSet<>(dependencies));
+    this.start = start;
+    this.stop = stop;
+    duration = Duration.between(start, stop);
     this.exception = exception;
+    this.skipped = skipped;
+  }
+
+  public Set<String> getDependencies() {
+    return dependencies;
   }
 
   public Duration getDuration() {
@@ -74,13 +120,35 @@ final class TimedTaskResult implements Serializable {
     return exception;
   }
 
+  public Instant getStart() {
+    return start;
+  }
+
+  public Instant getStop() {
+    return stop;
+  }
+
+  public String getTaskName() {
+    return taskName;
+  }
+
   public boolean hasException() {
     return exception != null;
   }
 
+  /**
+   * Whether the task was not run, since a task that it depends on failed or was skipped.
+   *
+   * @return True if the task was skipped
+   */
+  public boolean isSkipped() {
+    return skipped;
+  }
+
   @Override
   public String toString() {
     final LocalTime durationLocal = LocalTime.ofNanoOfDay(duration.toNanos());
-    return String.format("%s - <%s>", durationLocal.format(df), taskName);
+    return String.format(
+        "%s - <%s>%s", durationLocal.format(df), taskName, skipped ? " (skipped)" : "");
   }
 }
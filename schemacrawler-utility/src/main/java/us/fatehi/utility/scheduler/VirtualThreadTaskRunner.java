@@ -0,0 +1,125 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.scheduler;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Runs every task in its own virtual thread, on Java 21 or later. Virtual threads are cheap, but
+ * crawl tasks each use a database connection, so no more than a given number of tasks run at the
+ * same time, whether or not the database connection source is pooled. Tasks over the limit are
+ * queued without blocking any threads.
+ */
+final class VirtualThreadTaskRunner extends MultiThreadedTaskRunner {
+
+  private static final Logger LOGGER = Logger.getLogger(VirtualThreadTaskRunner.class.getName());
+
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookupExecutorFactory();
+
+  /**
+   * Checks if the Java runtime supports virtual threads.
+   *
+   * @return True if virtual threads are available
+   */
+  static boolean isAvailable() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  private static Method lookupExecutorFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (final NoSuchMethodException | SecurityException e) {
+      LOGGER.log(Level.CONFIG, "Virtual threads are not available in this Java runtime");
+      return null;
+    }
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    if (!isAvailable()) {
+      throw new IllegalStateException("Virtual threads are not available");
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create virtual thread executor", e);
+    }
+  }
+
+  private final ExecutorService executorService;
+
+  VirtualThreadTaskRunner(final String id) {
+    this(id, MAX_THREADS, DEFAULT_TIMEOUT);
+  }
+
+  VirtualThreadTaskRunner(
+      final String id, final int maxConcurrencySuggested, final Duration timeout) {
+    this(
+        id,
+        newVirtualThreadPerTaskExecutor(),
+        Math.min(Math.max(maxConcurrencySuggested, MIN_THREADS), MAX_THREADS),
+        timeout);
+  }
+
+  private VirtualThreadTaskRunner(
+      final String id,
+      final ExecutorService executorService,
+      final int maxConcurrency,
+      final Duration timeout) {
+    super(id, new BoundedConcurrencyExecutor(executorService, maxConcurrency), timeout);
+    this.executorService = executorService;
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Started virtual thread executor for <%s> with up to <%d> concurrent tasks",
+            id, maxConcurrency));
+  }
+
+  @Override
+  public void stop() {
+    super.stop();
+    try {
+      executorService.shutdown();
+      if (!executorService.awaitTermination(
+          Math.max(remainingNanos(), 0), TimeUnit.NANOSECONDS)) {
+        executorService.shutdownNow();
+      }
+    } catch (final InterruptedException ex) {
+      executorService.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
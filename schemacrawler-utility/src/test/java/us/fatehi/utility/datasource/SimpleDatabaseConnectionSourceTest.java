@@ -31,13 +31,22 @@ package us.fatehi.utility.datasource;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -61,6 +70,182 @@ public class SimpleDatabaseConnectionSourceTest {
                 "<bad-url>", null, new MultiUseUserCredentials("user", "!"), connection -> {}));
   }
 
+  @Test
+  public void borrowTimeout() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(1, Duration.ofMillis(200), Duration.ofMinutes(10));
+
+    final Connection connection = limitedConnectionSource.get();
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () -> assertThrows(RuntimeException.class, () -> limitedConnectionSource.get()));
+
+    final ConnectionPoolStatistics statistics = limitedConnectionSource.getStatistics();
+    assertThat(statistics.getActiveConnections(), is(1));
+    assertThat(statistics.getConnectionsCreated(), is(1));
+
+    connection.close();
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
+  @Test
+  public void poolStatistics() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+    final Connection connection1 = limitedConnectionSource.get();
+    final Connection connection2 = limitedConnectionSource.get();
+
+    ConnectionPoolStatistics statistics = limitedConnectionSource.getStatistics();
+    assertThat(statistics.getActiveConnections(), is(2));
+    assertThat(statistics.getIdleConnections(), is(0));
+    assertThat(statistics.getConnectionsCreated(), is(2));
+    assertThat(statistics.getBorrowCount(), is(2L));
+
+    connection1.close();
+    connection2.close();
+    // Released connections are reused, and no new connections are created
+    limitedConnectionSource.get().close();
+
+    statistics = limitedConnectionSource.getStatistics();
+    assertThat(statistics.getActiveConnections(), is(0));
+    assertThat(statistics.getIdleConnections(), is(2));
+    assertThat(statistics.getConnectionsCreated(), is(2));
+    assertThat(statistics.getBorrowCount(), is(3L));
+    assertThat(
+        statistics.getMaxBorrowWait().compareTo(statistics.getAverageBorrowWait()),
+        is(greaterThanOrEqualTo(0)));
+    assertThat(statistics.toString(), is(not(nullValue())));
+    assertThat(
+        limitedConnectionSource.getConnectionPoolStatistics().get().getBorrowCount(), is(3L));
+
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
+  @Test
+  public void idleEviction() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(2, Duration.ofMinutes(1), Duration.ofMillis(50));
+
+    final Connection connection = limitedConnectionSource.get();
+    final Connection unwrappedConnection = connection.unwrap(Connection.class);
+    connection.close();
+    assertThat(limitedConnectionSource.getStatistics().getIdleConnections(), is(1));
+
+    Thread.sleep(200);
+
+    // Idle connections are evicted on the next borrow
+    final Connection nextConnection = limitedConnectionSource.get();
+    assertThat(unwrappedConnection.isClosed(), is(true));
+    assertThat(nextConnection.unwrap(Connection.class) == unwrappedConnection, is(false));
+
+    final ConnectionPoolStatistics statistics = limitedConnectionSource.getStatistics();
+    assertThat(statistics.getConnectionsEvicted(), is(1));
+    assertThat(statistics.getConnectionsCreated(), is(2));
+
+    nextConnection.close();
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
+  @Test
+  public void initializeOncePerConnection() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+    final AtomicInteger initializations = new AtomicInteger();
+    limitedConnectionSource.setFirstConnectionInitializer(
+        connection -> initializations.incrementAndGet());
+
+    for (int i = 0; i < 5; i++) {
+      limitedConnectionSource.get().close();
+    }
+    assertThat(initializations.get(), is(1));
+
+    // A second physical connection is initialized separately
+    final Connection connection1 = limitedConnectionSource.get();
+    final Connection connection2 = limitedConnectionSource.get();
+    assertThat(initializations.get(), is(2));
+    connection1.close();
+    connection2.close();
+
+    // Dirty connections are initialized again
+    final AtomicBoolean isDirty = new AtomicBoolean(true);
+    limitedConnectionSource.setConnectionDirtyCheck(connection -> isDirty.get());
+    limitedConnectionSource.get().close();
+    assertThat(initializations.get(), is(3));
+    isDirty.set(false);
+    limitedConnectionSource.get().close();
+    assertThat(initializations.get(), is(3));
+
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
+  @Test
+  public void invalidateConnections() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+    final Connection connection = limitedConnectionSource.get();
+    final Connection unwrappedConnection = connection.unwrap(Connection.class);
+    connection.close();
+    // Lose the idle connection, soon after it was validated
+    unwrappedConnection.close();
+
+    // Invalidated connections are validated on the next borrow, and lost connections discarded
+    limitedConnectionSource.invalidateConnections();
+    final Connection nextConnection = limitedConnectionSource.get();
+    assertThat(nextConnection.unwrap(Connection.class) == unwrappedConnection, is(false));
+    assertThat(nextConnection.isValid(1), is(true));
+    assertThat(limitedConnectionSource.getStatistics().getConnectionsCreated(), is(2));
+
+    nextConnection.close();
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
+  @Test
+  public void slowBorrowDoesNotBlockOtherBorrowers() throws Exception {
+
+    final SimpleDatabaseConnectionSource limitedConnectionSource =
+        newLimitedConnectionSource(2, Duration.ofMinutes(1), Duration.ofMinutes(10));
+    final CountDownLatch initializing = new CountDownLatch(1);
+    final CountDownLatch finishInitializing = new CountDownLatch(1);
+    final AtomicBoolean isFirstConnection = new AtomicBoolean(true);
+    limitedConnectionSource.setFirstConnectionInitializer(
+        connection -> {
+          if (isFirstConnection.getAndSet(false)) {
+            initializing.countDown();
+            try {
+              finishInitializing.await();
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+
+    final CompletableFuture<Connection> slowConnection =
+        CompletableFuture.supplyAsync(limitedConnectionSource::get);
+    assertThat(initializing.await(10, TimeUnit.SECONDS), is(true));
+
+    // Another connection can be borrowed while the first one is being initialized
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(10), () -> limitedConnectionSource.get().close());
+
+    finishInitializing.countDown();
+    slowConnection.get(10, TimeUnit.SECONDS).close();
+
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
   @Test
   public void connectionTests() throws Exception {
 
@@ -84,6 +269,45 @@ public class SimpleDatabaseConnectionSourceTest {
     assertThat(unwrappedConnection.isClosed(), is(true));
   }
 
+  @Test
+  public void maxConnections() throws Exception {
+
+    final DatabaseMetaData metaData;
+    try (final Connection connection = databaseConnectionSource.get()) {
+      metaData = connection.getMetaData();
+    }
+    final DatabaseConnectionSource limitedConnectionSource =
+        new SimpleDatabaseConnectionSource(
+            metaData.getURL(),
+            new HashMap<>(),
+            new MultiUseUserCredentials(metaData.getUserName(), ""),
+            connection -> {},
+            1);
+
+    final Connection connection = limitedConnectionSource.get();
+    final CompletableFuture<Connection> waitingConnection =
+        CompletableFuture.supplyAsync(limitedConnectionSource);
+    assertThrows(TimeoutException.class, () -> waitingConnection.get(1, TimeUnit.SECONDS));
+
+    connection.close();
+    final Connection nextConnection = waitingConnection.get(10, TimeUnit.SECONDS);
+    assertThat(nextConnection.isClosed(), is(false));
+    nextConnection.close();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new SimpleDatabaseConnectionSource(
+                metaData.getURL(),
+                new HashMap<>(),
+                new MultiUseUserCredentials(metaData.getUserName(), ""),
+                c -> {},
+                0));
+
+    limitedConnectionSource.close();
+    databaseConnectionSource.close();
+  }
+
   @BeforeEach
   public void createDatabase() throws Exception {
 
@@ -107,4 +331,22 @@ public class SimpleDatabaseConnectionSourceTest {
             new MultiUseUserCredentials(userName, password),
             connection -> {});
   }
+
+  private SimpleDatabaseConnectionSource newLimitedConnectionSource(
+      final int maxConnections, final Duration borrowTimeout, final Duration idleTimeout)
+      throws Exception {
+    final DatabaseMetaData metaData;
+    try (final Connection connection = databaseConnectionSource.get()) {
+      metaData = connection.getMetaData();
+    }
+    return new SimpleDatabaseConnectionSource(
+        metaData.getURL(),
+        new HashMap<>(),
+        new MultiUseUserCredentials(metaData.getUserName(), ""),
+        connection -> {},
+        maxConnections,
+        borrowTimeout,
+        idleTimeout,
+        Duration.ofSeconds(30));
+  }
 }
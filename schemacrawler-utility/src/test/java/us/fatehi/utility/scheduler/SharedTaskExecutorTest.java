@@ -0,0 +1,104 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.scheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SharedTaskExecutorTest {
+
+  @Test
+  public void boundedConcurrency() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(50);
+
+    final BoundedConcurrencyExecutor executor =
+        new BoundedConcurrencyExecutor(SharedTaskExecutor.getSharedPool(), 3);
+    for (int i = 0; i < 50; i++) {
+      executor.execute(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              Thread.sleep(2);
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            done.countDown();
+          });
+    }
+
+    assertThat(done.await(30, TimeUnit.SECONDS), is(true));
+    assertThat(maxRunning.get(), lessThanOrEqualTo(3));
+  }
+
+  @Test
+  public void nestedTaskRunners() throws Exception {
+    final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    final AtomicInteger innerTasksRun = new AtomicInteger();
+
+    try (final TaskRunner outerTaskRunner = new MultiThreadedTaskRunner("outer", 10)) {
+      for (int i = 0; i < 20; i++) {
+        outerTaskRunner.add(
+            new TaskDefinition(
+                "outerTask" + i,
+                () -> {
+                  try (final TaskRunner innerTaskRunner = new MultiThreadedTaskRunner("inner", 5)) {
+                    for (int j = 0; j < 20; j++) {
+                      innerTaskRunner.add(
+                          new TaskDefinition(
+                              "innerTask" + j,
+                              () -> {
+                                threadNames.add(Thread.currentThread().getName());
+                                innerTasksRun.incrementAndGet();
+                              }));
+                    }
+                    innerTaskRunner.submit();
+                  }
+                }));
+      }
+      outerTaskRunner.submit();
+    }
+
+    assertThat(innerTasksRun.get(), is(400));
+    for (final String threadName : threadNames) {
+      assertThat(threadName, threadName.startsWith("ForkJoinPool-"), is(true));
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.scheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadTaskRunnerTest {
+
+  private static boolean hasVirtualThreads() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (final NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  @Test
+  public void limitConcurrency() throws Exception {
+    if (!VirtualThreadTaskRunner.isAvailable()) {
+      return;
+    }
+
+    // Stands in for connections opened by tasks, from a source that is not pooled
+    final AtomicInteger openConnections = new AtomicInteger();
+    final AtomicInteger maxOpenConnections = new AtomicInteger();
+    try (final TaskRunner taskRunner =
+        new VirtualThreadTaskRunner("virtual", 2, TaskRunner.DEFAULT_TIMEOUT)) {
+      for (int i = 0; i < 20; i++) {
+        taskRunner.add(
+            new TaskDefinition(
+                "task" + i,
+                () -> {
+                  maxOpenConnections.accumulateAndGet(
+                      openConnections.incrementAndGet(), Math::max);
+                  TimeUnit.MILLISECONDS.sleep(10);
+                  openConnections.decrementAndGet();
+                }));
+      }
+      taskRunner.submit();
+    }
+    assertThat(maxOpenConnections.get(), is(lessThanOrEqualTo(2)));
+  }
+
+  @Test
+  public void runTasks() throws Exception {
+    assertThat(VirtualThreadTaskRunner.isAvailable(), is(hasVirtualThreads()));
+    if (!VirtualThreadTaskRunner.isAvailable()) {
+      assertThrows(IllegalStateException.class, () -> new VirtualThreadTaskRunner("virtual"));
+      return;
+    }
+
+    final List<Boolean> virtualThreads = new CopyOnWriteArrayList<>();
+    try (final TaskRunner taskRunner = new VirtualThreadTaskRunner("virtual")) {
+      for (int i = 0; i < 100; i++) {
+        taskRunner.add(
+            new TaskDefinition(
+                "task" + i,
+                () -> {
+                  final Object isVirtual =
+                      Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+                  virtualThreads.add((Boolean) isVirtual);
+                }));
+      }
+      taskRunner.submit();
+    }
+    assertThat(virtualThreads.size(), is(100));
+    assertThat(virtualThreads.contains(Boolean.FALSE), is(false));
+  }
+
+  @Test
+  public void selectTaskRunner() throws Exception {
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("select", 2)) {
+      if (hasVirtualThreads()) {
+        assertThat(taskRunner instanceof VirtualThreadTaskRunner, is(true));
+      } else {
+        assertThat(taskRunner.getClass().equals(MultiThreadedTaskRunner.class), is(true));
+      }
+    }
+
+    System.setProperty("SC_VIRTUAL_THREADS", Boolean.FALSE.toString());
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("select", 2)) {
+      assertThat(taskRunner.getClass().equals(MultiThreadedTaskRunner.class), is(true));
+    } finally {
+      System.clearProperty("SC_VIRTUAL_THREADS");
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.test;
+
+import static java.lang.reflect.Proxy.newProxyInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import us.fatehi.utility.datasource.DatabaseConnectionSource;
+import us.fatehi.utility.datasource.PooledConnectionUtility;
+import us.fatehi.utility.string.StringFormat;
+
+/**
+ * Microbenchmark for the per-call overhead of pooled connections, compared to a reflective proxy.
+ * Run with <code>-Dbenchmark=true</code>.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "^((?!(false|no)).)*$")
+public class PooledConnectionBenchmarkTest {
+
+  /** Reflective proxy, as pooled connections were previously implemented. */
+  private static class ProxyInvocationHandler implements InvocationHandler {
+
+    private final Connection connection;
+    private boolean isClosed;
+
+    ProxyInvocationHandler(final Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Exception {
+      final String methodName = method.getName();
+      if (!Arrays.asList("isClosed", "unwrap").contains(methodName) && isClosed) {
+        throw new SQLException(
+            String.format("Cannot call <%s> since connection is closed", method));
+      }
+      switch (methodName) {
+        case "close":
+          isClosed = true;
+          return null;
+        case "isClosed":
+          return isClosed;
+        default:
+          try {
+            return method.invoke(connection, args);
+          } catch (final InvocationTargetException e) {
+            throw (Exception) e.getCause();
+          }
+      }
+    }
+  }
+
+  private static final Logger LOGGER =
+      Logger.getLogger(PooledConnectionBenchmarkTest.class.getName());
+
+  private static final int WARMUP_CALLS = 200_000;
+  private static final int MEASURED_CALLS = 2_000_000;
+
+  private Connection connection;
+
+  @Test
+  public void perCallOverhead() throws Exception {
+
+    final DatabaseConnectionSource databaseConnectionSource = mock(DatabaseConnectionSource.class);
+    final Connection proxyConnection =
+        (Connection)
+            newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[] {Connection.class},
+                new ProxyInvocationHandler(connection));
+    final Connection pooledConnection =
+        PooledConnectionUtility.newPooledConnection(connection, databaseConnectionSource);
+
+    final double rawNanos = nanosPerCall(connection);
+    final double proxyNanos = nanosPerCall(proxyConnection);
+    final double pooledNanos = nanosPerCall(pooledConnection);
+
+    LOGGER.log(
+        Level.INFO,
+        new StringFormat(
+            "Nanoseconds per call - physical connection <%.1f>, "
+                + "reflective proxy <%.1f>, pooled connection <%.1f>",
+            rawNanos, proxyNanos, pooledNanos));
+
+    assertThat(proxyNanos, greaterThan(0d));
+    assertThat(pooledNanos, greaterThan(0d));
+  }
+
+  @BeforeEach
+  public void createDatabase() throws Exception {
+
+    final EmbeddedDatabase db =
+        new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .setScriptEncoding("UTF-8")
+            .ignoreFailedDrops(true)
+            .addScript("testdb.sql")
+            .build();
+
+    connection = db.getConnection();
+  }
+
+  private double nanosPerCall(final Connection connection) throws SQLException {
+    int count = 0;
+    for (int i = 0; i < WARMUP_CALLS; i++) {
+      if (connection.getAutoCommit()) {
+        count++;
+      }
+    }
+
+    final long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_CALLS; i++) {
+      if (connection.getAutoCommit()) {
+        count++;
+      }
+    }
+    final long elapsed = System.nanoTime() - start;
+
+    // Use the count, so that calls are not optimized away
+    return (double) elapsed / MEASURED_CALLS + (count < 0 ? 1 : 0);
+  }
+}
@@ -39,10 +39,12 @@ import static org.mockito.Mockito.mock;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -121,6 +123,21 @@ public class PooledConnectionTest {
     }
   }
 
+  @Test
+  public void testClosedPooledConnectionClientInfo() throws SQLException {
+    final Connection pooledConnection =
+        PooledConnectionUtility.newPooledConnection(connection, databaseConnectionSource);
+    pooledConnection.close();
+
+    assertThrows(SQLException.class, () -> pooledConnection.close());
+    assertThrows(
+        SQLClientInfoException.class, () -> pooledConnection.setClientInfo(new Properties()));
+    assertThrows(
+        SQLClientInfoException.class, () -> pooledConnection.setClientInfo("name", "value"));
+    assertThat(pooledConnection.isClosed(), is(true));
+    assertThat(pooledConnection.toString(), startsWith("Pooled connection"));
+  }
+
   @Test
   public void testPooledConnection() throws Exception {
     final Connection pooledConnection =
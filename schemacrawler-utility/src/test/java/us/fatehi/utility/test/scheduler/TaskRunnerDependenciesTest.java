@@ -0,0 +1,212 @@
+/*
+========================================================================
+SchemaCrawler
+http://www.schemacrawler.com
+Copyright (c) 2000-2024, Sualeh Fatehi <sualeh@hotmail.com>.
+All rights reserved.
+------------------------------------------------------------------------
+
+SchemaCrawler is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+
+SchemaCrawler and the accompanying materials are made available under
+the terms of the Eclipse Public License v1.0, GNU General Public License
+v3 or GNU Lesser General Public License v3.
+
+You may elect to redistribute this code under any of these licenses.
+
+The Eclipse Public License is available at:
+http://www.eclipse.org/legal/epl-v10.html
+
+The GNU General Public License v3 and the GNU Lesser General Public
+License v3 are available at:
+http://www.gnu.org/licenses/
+
+========================================================================
+*/
+
+package us.fatehi.utility.test.scheduler;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import us.fatehi.utility.scheduler.TaskDefinition;
+import us.fatehi.utility.scheduler.TaskRunner;
+import us.fatehi.utility.scheduler.TaskRunners;
+
+public class TaskRunnerDependenciesTest {
+
+  @Test
+  public void cyclicDependencies() throws Exception {
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("cyclic", 2)) {
+      taskRunner.add(new TaskDefinition("taskA", () -> {}).dependsOn("taskB"));
+      taskRunner.add(new TaskDefinition("taskB", () -> {}).dependsOn("taskA"));
+
+      final IllegalArgumentException exception =
+          assertThrows(IllegalArgumentException.class, () -> taskRunner.submit());
+      assertThat(exception.getMessage(), containsString("Cyclic dependencies"));
+    }
+  }
+
+  @Test
+  public void deadline() throws Exception {
+    assertDeadline("deadline");
+  }
+
+  @Test
+  public void deadlineInMainThread() throws Exception {
+    System.setProperty("SC_SINGLE_THREADED", Boolean.TRUE.toString());
+    try {
+      assertDeadline("main-thread-deadline");
+    } finally {
+      System.clearProperty("SC_SINGLE_THREADED");
+    }
+  }
+
+  @Test
+  public void dependentTaskNotRunOnFailure() throws Exception {
+    final List<String> completed = new CopyOnWriteArrayList<>();
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("failure", 2)) {
+      taskRunner.add(
+          new TaskDefinition(
+              "failingTask",
+              () -> {
+                throw new RuntimeException("Forced failure");
+              }));
+      taskRunner.add(
+          new TaskDefinition("dependentTask", () -> completed.add("dependentTask"))
+              .dependsOn("failingTask"));
+      taskRunner.add(new TaskDefinition("independentTask", () -> completed.add("independentTask")));
+
+      final RuntimeException exception =
+          assertThrows(RuntimeException.class, () -> taskRunner.submit());
+      assertThat(exception.getMessage(), is("Forced failure"));
+    }
+    assertThat(completed.toString(), is("[independentTask]"));
+  }
+
+  @Test
+  public void dependentChainNotRunOnFailure() throws Exception {
+    assertDependentChainNotRun("chain-failure");
+  }
+
+  @Test
+  public void dependentChainNotRunOnFailureInMainThread() throws Exception {
+    System.setProperty("SC_SINGLE_THREADED", Boolean.TRUE.toString());
+    try {
+      assertDependentChainNotRun("main-thread-chain-failure");
+    } finally {
+      System.clearProperty("SC_SINGLE_THREADED");
+    }
+  }
+
+  @Test
+  public void dependenciesInMainThread() throws Exception {
+    System.setProperty("SC_SINGLE_THREADED", Boolean.TRUE.toString());
+    final List<String> completed = new CopyOnWriteArrayList<>();
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("main-thread", 2)) {
+      taskRunner.add(new TaskDefinition("taskC", () -> completed.add("taskC")).dependsOn("taskB"));
+      taskRunner.add(new TaskDefinition("taskB", () -> completed.add("taskB")).dependsOn("taskA"));
+      taskRunner.add(new TaskDefinition("taskA", () -> completed.add("taskA")));
+      taskRunner.add(new TaskDefinition("taskD", () -> completed.add("taskD")));
+      taskRunner.submit();
+    } finally {
+      System.clearProperty("SC_SINGLE_THREADED");
+    }
+    assertThat(completed.toString(), is("[taskA, taskD, taskB, taskC]"));
+  }
+
+  @Test
+  public void independentTaskNotBlocked() throws Exception {
+    final CountDownLatch slowTaskRunning = new CountDownLatch(1);
+    final CountDownLatch fastChainDone = new CountDownLatch(1);
+    final List<String> completed = new CopyOnWriteArrayList<>();
+
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner("dependencies", 4)) {
+      // The slow task waits for a task that depends on the fast task, so it
+      // can only complete if dependents start as soon as their dependencies are done
+      taskRunner.add(
+          new TaskDefinition(
+              "slowTask",
+              () -> {
+                slowTaskRunning.countDown();
+                fastChainDone.await(10, TimeUnit.SECONDS);
+                completed.add("slowTask");
+              }));
+      taskRunner.add(
+          new TaskDefinition(
+              "fastTask",
+              () -> {
+                slowTaskRunning.await(10, TimeUnit.SECONDS);
+                completed.add("fastTask");
+              }));
+      taskRunner.add(
+          new TaskDefinition(
+                  "dependentTask",
+                  () -> {
+                    completed.add("dependentTask");
+                    fastChainDone.countDown();
+                  })
+              .dependsOn("fastTask"));
+      taskRunner.submit();
+
+      assertThat(completed.toString(), is("[fastTask, dependentTask, slowTask]"));
+
+      final String report = taskRunner.report().get();
+      assertThat(report, containsString("Critical path for <dependencies>"));
+      assertThat(report.indexOf("<fast_task>"), lessThan(report.lastIndexOf("<dependent_task>")));
+    }
+  }
+
+  private void assertDependentChainNotRun(final String id) throws Exception {
+    final List<String> completed = new CopyOnWriteArrayList<>();
+    try (final TaskRunner taskRunner = TaskRunners.getTaskRunner(id, 2)) {
+      taskRunner.add(
+          new TaskDefinition(
+              "taskA",
+              () -> {
+                throw new RuntimeException("Forced failure");
+              }));
+      taskRunner.add(new TaskDefinition("taskB", () -> completed.add("taskB")).dependsOn("taskA"));
+      taskRunner.add(new TaskDefinition("taskC", () -> completed.add("taskC")).dependsOn("taskB"));
+
+      final RuntimeException exception =
+          assertThrows(RuntimeException.class, () -> taskRunner.submit());
+      assertThat(exception.getMessage(), is("Forced failure"));
+      assertThat(exception.getSuppressed().length, is(0));
+
+      final String report = taskRunner.report().get();
+      assertThat(report, containsString("<task_b> (skipped)"));
+      assertThat(report, containsString("<task_c> (skipped)"));
+    }
+    assertThat(completed.toString(), is("[]"));
+  }
+
+  private void assertDeadline(final String id) throws Exception {
+    final List<String> completed = new CopyOnWriteArrayList<>();
+    try (final TaskRunner taskRunner =
+        TaskRunners.getTaskRunner(id, 2, Duration.ofMillis(200))) {
+      taskRunner.add(new TaskDefinition("slowTask", () -> TimeUnit.MILLISECONDS.sleep(500)));
+      taskRunner.add(
+          new TaskDefinition("laterTask", () -> completed.add("laterTask")).dependsOn("slowTask"));
+
+      final TimeoutException exception =
+          assertThrows(TimeoutException.class, () -> taskRunner.submit());
+      assertThat(exception.getMessage(), containsString("did not complete within PT0.2S"));
+    }
+    assertThat(completed.toString(), is("[]"));
+  }
+}